@@ -40,4 +40,10 @@ public abstract class AbstractEntityManager implements EntityManager {
 	return persistenceUnitContext;
     }
 
+    /**
+     * Called when the resource local transaction commits or rolls back.
+     */
+    protected void afterCompletion() {
+    }
+
 }
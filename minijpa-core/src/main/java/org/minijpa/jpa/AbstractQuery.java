@@ -34,29 +34,36 @@ public abstract class AbstractQuery implements Query {
     protected FlushModeType flushModeType = FlushModeType.AUTO;
     private final Map<Parameter<?>, Object> parameterValues = new HashMap<>();
     private final Map<String, Object> hints = new HashMap<>();
+    private int firstResult = 0;
+    private int maxResults = Integer.MAX_VALUE;
+    private LockModeType lockMode;
 
     @Override
     public Query setMaxResults(int maxResult) {
-        // TODO Auto-generated method stub
-        return null;
+        if (maxResult < 0)
+            throw new IllegalArgumentException("Max results must not be negative: " + maxResult);
+
+        this.maxResults = maxResult;
+        return this;
     }
 
     @Override
     public int getMaxResults() {
-        // TODO Auto-generated method stub
-        return 0;
+        return maxResults;
     }
 
     @Override
     public Query setFirstResult(int startPosition) {
-        // TODO Auto-generated method stub
-        return null;
+        if (startPosition < 0)
+            throw new IllegalArgumentException("First result must not be negative: " + startPosition);
+
+        this.firstResult = startPosition;
+        return this;
     }
 
     @Override
     public int getFirstResult() {
-        // TODO Auto-generated method stub
-        return 0;
+        return firstResult;
     }
 
     @Override
@@ -194,14 +201,13 @@ public abstract class AbstractQuery implements Query {
 
     @Override
     public Query setLockMode(LockModeType lockMode) {
-        // TODO Auto-generated method stub
-        return null;
+        this.lockMode = lockMode;
+        return this;
     }
 
     @Override
     public LockModeType getLockMode() {
-        // TODO Auto-generated method stub
-        return null;
+        return lockMode;
     }
 
     @Override
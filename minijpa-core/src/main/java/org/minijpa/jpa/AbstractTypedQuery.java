@@ -36,18 +36,6 @@ public abstract class AbstractTypedQuery<X> extends AbstractQuery implements Typ
         throw new IllegalStateException("Update call made from a Select context");
     }
 
-    @Override
-    public int getMaxResults() {
-        // TODO Auto-generated method stub
-        return 0;
-    }
-
-    @Override
-    public int getFirstResult() {
-        // TODO Auto-generated method stub
-        return 0;
-    }
-
     @Override
     public boolean isBound(Parameter<?> param) {
         // TODO Auto-generated method stub
@@ -62,14 +50,14 @@ public abstract class AbstractTypedQuery<X> extends AbstractQuery implements Typ
 
     @Override
     public TypedQuery<X> setMaxResults(int maxResult) {
-        // TODO Auto-generated method stub
-        return null;
+        super.setMaxResults(maxResult);
+        return this;
     }
 
     @Override
     public TypedQuery<X> setFirstResult(int startPosition) {
-        // TODO Auto-generated method stub
-        return null;
+        super.setFirstResult(startPosition);
+        return this;
     }
 
     @Override
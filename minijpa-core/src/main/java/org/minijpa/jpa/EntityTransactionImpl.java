@@ -61,6 +61,8 @@ public class EntityTransactionImpl implements EntityTransaction {
 			} catch (SQLException e1) {
 				LOG.error(e1.getMessage());
 				return;
+			} finally {
+				abstractEntityManager.afterCompletion();
 			}
 		}
 
@@ -77,6 +79,8 @@ public class EntityTransactionImpl implements EntityTransaction {
 		} catch (SQLException e) {
 			LOG.error(e.getMessage());
 			throw new RollbackException(e.getMessage());
+		} finally {
+			abstractEntityManager.afterCompletion();
 		}
 
 		try {
@@ -106,6 +110,8 @@ public class EntityTransactionImpl implements EntityTransaction {
 			}
 
 			return;
+		} finally {
+			abstractEntityManager.afterCompletion();
 		}
 
 		try {
@@ -59,7 +59,9 @@ public final class MetaEntityHelper {
             QueryParameter queryParameter = new QueryParameter(
                     a.getColumnName(),
                     attributeValueArray.getValue(i),
-                    a.getSqlType());
+                    a.getSqlType(),
+                    null,
+                    a.getParameterBinder());
             list.add(queryParameter);
         }
 
@@ -97,7 +99,7 @@ public final class MetaEntityHelper {
             MetaAttribute metaAttribute = joinColumnAttributes.get(index).getForeignKeyAttribute();
             QueryParameter qp = new QueryParameter(joinColumnAttributes.get(index).getColumnName(),
                     modelValueArray.getValue(i), metaAttribute.getSqlType(),
-                    metaAttribute.getObjectConverter());
+                    metaAttribute.getObjectConverter(), metaAttribute.getParameterBinder());
             queryParameters.add(qp);
         }
 
@@ -217,6 +219,18 @@ public final class MetaEntityHelper {
     }
 
 
+    public static EntityContainer getPersistenceContext(MetaEntity entity, Object entityInstance)
+            throws Exception {
+        return (EntityContainer) entity.getPersistenceContextAttributeReadMethod().invoke(entityInstance);
+    }
+
+    public static void setPersistenceContext(MetaEntity entity, Object entityInstance,
+                                             EntityContainer entityContainer)
+            throws Exception {
+        entity.getPersistenceContextAttributeWriteMethod().invoke(entityInstance, entityContainer);
+    }
+
+
     public static boolean isFlushed(
             MetaEntity entity,
             Object entityInstance) throws Exception {
@@ -238,18 +252,28 @@ public final class MetaEntityHelper {
             Object element) throws Exception {
         log.debug("Adding Element To Collection Attribute -> Entity Instance {}", entityInstance);
         log.debug("Adding Element To Collection Attribute -> Attribute {}", metaAttribute);
-        Object collectionInstance = metaAttribute.getValue(entityInstance);
+        Object collectionInstance = initCollectionAttribute(entityInstance, metaEntity, metaAttribute);
         log.debug("Adding Element To Collection Attribute -> Collection Instance {}", collectionInstance);
+        if (collectionInstance instanceof Collection) {
+            ((Collection) collectionInstance).add(element);
+        }
+    }
+
+    /**
+     * Returns the collection of the attribute, an empty one is created if the attribute is null.
+     */
+    public static Object initCollectionAttribute(
+            Object entityInstance,
+            MetaEntity metaEntity,
+            RelationshipMetaAttribute metaAttribute) throws Exception {
+        Object collectionInstance = metaAttribute.getValue(entityInstance);
         if (collectionInstance == null) {
-            // it has to create a collection instance for the attribute
             collectionInstance = CollectionUtils.createInstance(null,
                     metaAttribute.getCollectionImplementationClass());
             metaEntity.writeAttributeValue(entityInstance, entityInstance.getClass(),
                     metaAttribute, collectionInstance);
         }
 
-        if (collectionInstance instanceof Collection) {
-            ((Collection) collectionInstance).add(element);
-        }
+        return collectionInstance;
     }
 }
@@ -19,6 +19,7 @@ import org.minijpa.jpa.criteria.MiniCriteriaBuilder;
 import org.minijpa.jpa.db.*;
 import org.minijpa.jpa.db.namedquery.MiniNamedNativeQueryMapping;
 import org.minijpa.jpa.db.namedquery.MiniNamedQueryMapping;
+import org.minijpa.jpa.graph.MiniEntityGraph;
 import org.minijpa.jpa.model.MetaEntity;
 import org.minijpa.metadata.EntityContainerContext;
 import org.minijpa.metadata.EntityDelegate;
@@ -33,6 +34,7 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.CriteriaUpdate;
 import javax.persistence.metamodel.Metamodel;
 import javax.persistence.spi.PersistenceUnitInfo;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -56,16 +58,46 @@ public class MiniEntityManager extends AbstractEntityManager {
         this.persistenceContext = new MiniPersistenceContext(persistenceUnitContext.getEntities());
         DbConfiguration dbConfiguration = DbConfigurationList.getInstance()
                 .getDbConfiguration(persistenceUnitInfo.getPersistenceUnitName());
-        this.connectionHolder = new ConnectionHolderImpl(connectionProvider);
+        Integer statementCacheSize = getIntProperty(PersistenceProperties.JDBC_STATEMENT_CACHE_SIZE);
+        this.connectionHolder = statementCacheSize == null ? new ConnectionHolderImpl(connectionProvider)
+                : new ConnectionHolderImpl(connectionProvider, statementCacheSize);
         this.jdbcEntityManager = new JdbcEntityManagerImpl(dbConfiguration, persistenceUnitContext, persistenceContext,
                 connectionHolder);
+        this.jdbcEntityManager.setSequenceAllocators(
+                ((MiniEntityManagerFactory) entityManagerFactory).getSequenceAllocators());
+        this.jdbcEntityManager.setJpqlPlanCache(((MiniEntityManagerFactory) entityManagerFactory).getJpqlPlanCache());
+        this.jdbcEntityManager.setSecondLevelCache(
+                ((MiniEntityManagerFactory) entityManagerFactory).getSecondLevelCache());
+        this.jdbcEntityManager.setQueryResultCache(
+                ((MiniEntityManagerFactory) entityManagerFactory).getQueryResultCache());
+        this.jdbcEntityManager.setBatchFetchSizes(
+                ((MiniEntityManagerFactory) entityManagerFactory).getBatchFetchSizes());
+        Integer batchSize = getIntProperty(PersistenceProperties.JDBC_BATCH_SIZE);
+        if (batchSize != null)
+            this.jdbcEntityManager.setBatchSize(batchSize);
+
+        Integer eagerJoinDepth = getIntProperty(PersistenceProperties.EAGER_JOIN_DEPTH);
+        if (eagerJoinDepth != null)
+            this.jdbcEntityManager.setEagerJoinDepth(eagerJoinDepth);
+
         EntityDelegate.getInstance().addEntityManagerContext(new EntityContainerContext(persistenceUnitContext,
                 persistenceContext, jdbcEntityManager.getEntityLoader()));
     }
 
+    private Integer getIntProperty(String name) {
+        if (persistenceUnitInfo.getProperties() == null)
+            return null;
+
+        Object value = persistenceUnitInfo.getProperties().get(name);
+        if (value == null)
+            return null;
+
+        return Integer.parseInt(value.toString().trim());
+    }
+
     @Override
     public void persist(Object entity) {
-        MetaEntity e = persistenceUnitContext.getEntities().get(entity.getClass().getName());
+        MetaEntity e = persistenceUnitContext.getEntity(entity.getClass());
         if (e == null)
             throw new IllegalArgumentException("Class '" + entity.getClass().getName() + "' is not an entity");
 
@@ -108,7 +140,7 @@ public class MiniEntityManager extends AbstractEntityManager {
             if (entityTransaction == null || !entityTransaction.isActive())
                 throw new IllegalStateException("Transaction not active");
 
-        MetaEntity e = persistenceUnitContext.getEntities().get(entity.getClass().getName());
+        MetaEntity e = persistenceUnitContext.getEntity(entity.getClass());
         if (e == null) {
             entityTransaction.setRollbackOnly();
             throw new IllegalArgumentException("Object '" + entity.getClass().getName() + "' is not an entity");
@@ -159,6 +191,7 @@ public class MiniEntityManager extends AbstractEntityManager {
             if (entityObject == null)
                 return null;
 
+            jdbcEntityManager.loadEntityGraph(List.of(entityObject), properties);
             return (T) entityObject;
         } catch (Exception e) {
             log.error(e.getMessage());
@@ -190,6 +223,7 @@ public class MiniEntityManager extends AbstractEntityManager {
             if (entityObject == null)
                 return null;
 
+            jdbcEntityManager.loadEntityGraph(List.of(entityObject), properties);
             return (T) entityObject;
         } catch (Exception e) {
             log.error(e.getMessage());
@@ -215,6 +249,11 @@ public class MiniEntityManager extends AbstractEntityManager {
         }
     }
 
+    @Override
+    protected void afterCompletion() {
+        jdbcEntityManager.afterCompletion();
+    }
+
     @Override
     public void flush() {
         try {
@@ -351,7 +390,7 @@ public class MiniEntityManager extends AbstractEntityManager {
 
     @Override
     public boolean contains(Object entity) {
-        MetaEntity metaEntity = persistenceUnitContext.getEntities().get(entity.getClass().getName());
+        MetaEntity metaEntity = persistenceUnitContext.getEntity(entity.getClass());
         if (metaEntity == null)
             throw new IllegalArgumentException("Class '" + entity.getClass().getName() + "' is not an entity");
 
@@ -577,26 +616,42 @@ public class MiniEntityManager extends AbstractEntityManager {
 
     @Override
     public <T> EntityGraph<T> createEntityGraph(Class<T> rootType) {
-        // TODO Auto-generated method stub
-        return null;
+        if (persistenceUnitContext.getEntity(rootType) == null)
+            throw new IllegalArgumentException("Class '" + rootType.getName() + "' is not an entity");
+
+        return new MiniEntityGraph<>(null, rootType);
     }
 
     @Override
     public EntityGraph<?> createEntityGraph(String graphName) {
-        // TODO Auto-generated method stub
-        return null;
+        MiniEntityGraph<?> entityGraph = ((MiniEntityManagerFactory) entityManagerFactory)
+                .getNamedEntityGraph(graphName);
+        return entityGraph == null ? null : entityGraph.copy(graphName);
     }
 
     @Override
     public EntityGraph<?> getEntityGraph(String graphName) {
-        // TODO Auto-generated method stub
-        return null;
+        MiniEntityGraph<?> entityGraph = ((MiniEntityManagerFactory) entityManagerFactory)
+                .getNamedEntityGraph(graphName);
+        if (entityGraph == null)
+            throw new IllegalArgumentException("Entity graph '" + graphName + "' not found");
+
+        return entityGraph;
     }
 
     @Override
     public <T> List<EntityGraph<? super T>> getEntityGraphs(Class<T> entityClass) {
-        // TODO Auto-generated method stub
-        return null;
+        if (persistenceUnitContext.getEntity(entityClass) == null)
+            throw new IllegalArgumentException("Class '" + entityClass.getName() + "' is not an entity");
+
+        List<EntityGraph<? super T>> entityGraphs = new ArrayList<>();
+        for (MiniEntityGraph<?> entityGraph : ((MiniEntityManagerFactory) entityManagerFactory)
+                .getNamedEntityGraphs()) {
+            if (entityGraph.getClassType().isAssignableFrom(entityClass))
+                entityGraphs.add((EntityGraph<? super T>) entityGraph);
+        }
+
+        return entityGraphs;
     }
 
 }
@@ -14,8 +14,10 @@
 package org.minijpa.jpa;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.*;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -27,8 +29,15 @@ import org.minijpa.jpa.criteria.MiniCriteriaBuilder;
 import org.minijpa.jpa.db.DbConfiguration;
 import org.minijpa.jpa.db.DbConfigurationList;
 import org.minijpa.jpa.db.JpqlModule;
+import org.minijpa.jpa.db.JpqlPlanCache;
+import org.minijpa.jpa.db.BatchFetchSizes;
+import org.minijpa.jpa.db.QueryResultCache;
+import org.minijpa.jpa.db.SecondLevelCache;
+import org.minijpa.jpa.db.SequenceAllocators;
+import org.minijpa.jpa.db.SequenceOptimizer;
 import org.minijpa.jpa.db.StatementParameters;
 import org.minijpa.jpa.db.namedquery.MiniNamedQueryMapping;
+import org.minijpa.jpa.graph.MiniEntityGraph;
 import org.minijpa.jpa.jpql.ParseException;
 import org.minijpa.jpa.metamodel.MetamodelFactory;
 import org.minijpa.metadata.PersistenceUnitContext;
@@ -50,6 +59,12 @@ public class MiniEntityManagerFactory implements EntityManagerFactory {
     private Metamodel metamodel;
     private DbConfiguration dbConfiguration;
     private JpqlModule jpqlModule;
+    private final SequenceAllocators sequenceAllocators;
+    private final JpqlPlanCache jpqlPlanCache;
+    private final SecondLevelCache secondLevelCache;
+    private final QueryResultCache queryResultCache;
+    private final BatchFetchSizes batchFetchSizes;
+    private final Map<String, MiniEntityGraph<?>> namedEntityGraphs = new ConcurrentHashMap<>();
 
     public MiniEntityManagerFactory(
             EntityManagerType entityManagerType,
@@ -63,12 +78,72 @@ public class MiniEntityManagerFactory implements EntityManagerFactory {
         this.connectionProvider = connectionProvider;
         this.dbConfiguration = DbConfigurationList.getInstance()
                 .getDbConfiguration(persistenceUnitInfo.getPersistenceUnitName());
+        Object sequenceOptimizer = persistenceUnitInfo.getProperties() == null ? null
+                : persistenceUnitInfo.getProperties().get(PersistenceProperties.SEQUENCE_OPTIMIZER);
+        this.sequenceAllocators = new SequenceAllocators(
+                SequenceOptimizer.decode(sequenceOptimizer == null ? null : sequenceOptimizer.toString()));
+        Object planCacheSize = persistenceUnitInfo.getProperties() == null ? null
+                : persistenceUnitInfo.getProperties().get(PersistenceProperties.JPQL_PLAN_CACHE_SIZE);
+        this.jpqlPlanCache = new JpqlPlanCache(planCacheSize == null ? JpqlPlanCache.DEFAULT_MAX_SIZE
+                : Integer.parseInt(planCacheSize.toString().trim()));
+        this.secondLevelCache = buildSecondLevelCache(persistenceUnitInfo);
+        Object queryCacheSize = persistenceUnitInfo.getProperties() == null ? null
+                : persistenceUnitInfo.getProperties().get(PersistenceProperties.QUERY_CACHE_MAX_SIZE);
+        this.queryResultCache = new QueryResultCache(queryCacheSize == null ? QueryResultCache.DEFAULT_MAX_SIZE
+                : Integer.parseInt(queryCacheSize.toString().trim()));
+        this.batchFetchSizes = BatchFetchSizes.of(persistenceUnitInfo.getProperties());
+    }
+
+    private static SecondLevelCache buildSecondLevelCache(PersistenceUnitInfo persistenceUnitInfo) {
+        SharedCacheMode sharedCacheMode = persistenceUnitInfo.getSharedCacheMode();
+        Object maxSize = null;
+        Object timeToLive = null;
+        if (persistenceUnitInfo.getProperties() != null) {
+            Object mode = persistenceUnitInfo.getProperties().get(PersistenceProperties.SHARED_CACHE_MODE);
+            if (mode != null)
+                sharedCacheMode = SharedCacheMode.valueOf(mode.toString().trim());
+
+            maxSize = persistenceUnitInfo.getProperties().get(PersistenceProperties.CACHE_MAX_SIZE);
+            timeToLive = persistenceUnitInfo.getProperties().get(PersistenceProperties.CACHE_TIME_TO_LIVE);
+        }
+
+        return new SecondLevelCache(sharedCacheMode,
+                maxSize == null ? SecondLevelCache.DEFAULT_MAX_SIZE : Integer.parseInt(maxSize.toString().trim()),
+                timeToLive == null ? 0 : Long.parseLong(timeToLive.toString().trim()));
     }
 
     public EntityManagerType getEntityManagerType() {
         return entityManagerType;
     }
 
+    public SequenceAllocators getSequenceAllocators() {
+        return sequenceAllocators;
+    }
+
+    public JpqlPlanCache getJpqlPlanCache() {
+        return jpqlPlanCache;
+    }
+
+    public SecondLevelCache getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    public BatchFetchSizes getBatchFetchSizes() {
+        return batchFetchSizes;
+    }
+
+    public MiniEntityGraph<?> getNamedEntityGraph(String graphName) {
+        return namedEntityGraphs.get(graphName);
+    }
+
+    public Collection<MiniEntityGraph<?>> getNamedEntityGraphs() {
+        return namedEntityGraphs.values();
+    }
+
     @Override
     public EntityManager createEntityManager() {
         synchronized (persistenceUnitInfo) {
@@ -121,6 +196,10 @@ public class MiniEntityManagerFactory implements EntityManagerFactory {
                 v.setStatementParameters(statementParameters);
             });
         }
+
+        // reads the named entity graphs
+        persistenceUnitContext.getEntities().values().forEach(e ->
+                MiniEntityGraph.of(e.getEntityClass(), e.getName()).forEach(g -> namedEntityGraphs.put(g.getName(), g)));
     }
 
     @Override
@@ -193,8 +272,7 @@ public class MiniEntityManagerFactory implements EntityManagerFactory {
 
     @Override
     public Cache getCache() {
-        // TODO Auto-generated method stub
-        return null;
+        return secondLevelCache;
     }
 
     @Override
@@ -241,8 +319,14 @@ public class MiniEntityManagerFactory implements EntityManagerFactory {
 
     @Override
     public <T> void addNamedEntityGraph(String graphName, EntityGraph<T> entityGraph) {
-        // TODO Auto-generated method stub
+        if (!(entityGraph instanceof MiniEntityGraph))
+            throw new IllegalArgumentException("Unknown entity graph: " + entityGraph);
+
+        synchronized (persistenceUnitInfo) {
+            buildPersistenceUnitContext();
+        }
 
+        namedEntityGraphs.put(graphName, ((MiniEntityGraph<T>) entityGraph).copy(graphName));
     }
 
 }
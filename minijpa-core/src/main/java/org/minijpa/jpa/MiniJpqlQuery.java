@@ -19,6 +19,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.persistence.*;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * @author adamato
@@ -47,9 +48,9 @@ public class MiniJpqlQuery extends AbstractQuery {
         List<?> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
 
-            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), null);
+            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), null, getFirstResult(), getMaxResults());
         } catch (RuntimeException e) {
             LOG.error(e.getMessage());
             throw e;
@@ -62,14 +63,30 @@ public class MiniJpqlQuery extends AbstractQuery {
     }
 
 
+    @Override
+    public Stream getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
+
+            return jdbcEntityManager.streamJpql(jpqlString, getParameterMap(), getHints(), null, getFirstResult(), getMaxResults());
+        } catch (RuntimeException e) {
+            LOG.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOG.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
     @Override
     public Object getSingleResult() {
         List<?> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
 
-            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), null);
+            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), null, getFirstResult(), getMaxResults());
         } catch (RuntimeException e) {
             LOG.error(e.getMessage());
             throw e;
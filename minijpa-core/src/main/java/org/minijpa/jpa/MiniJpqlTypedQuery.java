@@ -9,6 +9,7 @@ import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class MiniJpqlTypedQuery<T> extends AbstractTypedQuery<T> {
     private final Logger LOG = LoggerFactory.getLogger(MiniJpqlTypedQuery.class);
@@ -33,9 +34,9 @@ public class MiniJpqlTypedQuery<T> extends AbstractTypedQuery<T> {
         List<T> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
 
-            list = (List<T>) jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), resultClass);
+            list = (List<T>) jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), resultClass, getFirstResult(), getMaxResults());
         } catch (RuntimeException e) {
             LOG.error(e.getMessage());
             throw e;
@@ -47,14 +48,30 @@ public class MiniJpqlTypedQuery<T> extends AbstractTypedQuery<T> {
         return list;
     }
 
+    @Override
+    public Stream<T> getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
+
+            return (Stream<T>) jdbcEntityManager.streamJpql(jpqlString, getParameterMap(), getHints(), resultClass, getFirstResult(), getMaxResults());
+        } catch (RuntimeException e) {
+            LOG.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOG.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
     @Override
     public T getSingleResult() {
         List<?> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(jpqlString, getHints());
 
-            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), resultClass);
+            list = jdbcEntityManager.selectJpql(jpqlString, getParameterMap(), getHints(), resultClass, getFirstResult(), getMaxResults());
         } catch (RuntimeException e) {
             LOG.error(e.getMessage());
             throw e;
@@ -22,6 +22,7 @@ import javax.persistence.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author adamato
@@ -55,14 +56,39 @@ public class MiniNamedQuery extends AbstractQuery {
     public List getResultList() {
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
 
             return jdbcEntityManager.selectJpql(
                     miniNamedQueryMapping.getStatementParameters(),
                     getParameterMap(),
                     buildHints(),
                     miniNamedQueryMapping.getLockType(),
-                    null);
+                    null,
+                    getFirstResult(),
+                    getMaxResults());
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
+    @Override
+    public Stream getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
+
+            return jdbcEntityManager.streamJpql(
+                    miniNamedQueryMapping.getStatementParameters(),
+                    getParameterMap(),
+                    buildHints(),
+                    miniNamedQueryMapping.getLockType(),
+                    null,
+                    getFirstResult(),
+                    getMaxResults());
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             throw e;
@@ -77,14 +103,16 @@ public class MiniNamedQuery extends AbstractQuery {
         List<?> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
 
             list = jdbcEntityManager.selectJpql(
                     miniNamedQueryMapping.getStatementParameters(),
                     getParameterMap(),
                     buildHints(),
                     miniNamedQueryMapping.getLockType(),
-                    null);
+                    null,
+                    getFirstResult(),
+                    getMaxResults());
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             throw e;
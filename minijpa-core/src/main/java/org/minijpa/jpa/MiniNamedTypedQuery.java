@@ -12,6 +12,7 @@ import javax.persistence.PersistenceException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class MiniNamedTypedQuery<T> extends AbstractTypedQuery<T> {
     private final Logger log = LoggerFactory.getLogger(MiniNamedTypedQuery.class);
@@ -42,14 +43,39 @@ public class MiniNamedTypedQuery<T> extends AbstractTypedQuery<T> {
     public List<T> getResultList() {
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
 
             return (List<T>) jdbcEntityManager.selectJpql(
                     miniNamedQueryMapping.getStatementParameters(),
                     getParameterMap(),
                     buildHints(),
                     miniNamedQueryMapping.getLockType(),
-                    resultClass);
+                    resultClass,
+                    getFirstResult(),
+                    getMaxResults());
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
+    @Override
+    public Stream<T> getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
+
+            return (Stream<T>) jdbcEntityManager.streamJpql(
+                    miniNamedQueryMapping.getStatementParameters(),
+                    getParameterMap(),
+                    buildHints(),
+                    miniNamedQueryMapping.getLockType(),
+                    resultClass,
+                    getFirstResult(),
+                    getMaxResults());
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             throw e;
@@ -64,14 +90,16 @@ public class MiniNamedTypedQuery<T> extends AbstractTypedQuery<T> {
         List<?> list = null;
         try {
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                jdbcEntityManager.autoFlush(miniNamedQueryMapping.getStatementParameters());
 
             list = jdbcEntityManager.selectJpql(
                     miniNamedQueryMapping.getStatementParameters(),
                     getParameterMap(),
                     buildHints(),
                     miniNamedQueryMapping.getLockType(),
-                    resultClass);
+                    resultClass,
+                    getFirstResult(),
+                    getMaxResults());
         } catch (RuntimeException e) {
             log.error(e.getMessage());
             throw e;
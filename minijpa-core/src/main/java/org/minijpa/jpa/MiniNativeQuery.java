@@ -21,6 +21,7 @@ import javax.persistence.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author adamato
@@ -95,6 +96,22 @@ public class MiniNativeQuery extends AbstractQuery implements NativeQuery {
         return list;
     }
 
+    @Override
+    public Stream getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.flush();
+
+            return jdbcEntityManager.streamNative(this);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
     @Override
     public Object getSingleResult() {
         List<?> list = null;
@@ -9,6 +9,7 @@ import javax.persistence.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class MiniNativeTypedQuery<T> extends AbstractTypedQuery<T> implements NativeQuery {
     private final Logger log = LoggerFactory.getLogger(MiniNativeTypedQuery.class);
@@ -82,6 +83,22 @@ public class MiniNativeTypedQuery<T> extends AbstractTypedQuery<T> implements Na
         return (List<T>) list;
     }
 
+    @Override
+    public Stream<T> getResultStream() {
+        try {
+            if (flushModeType == FlushModeType.AUTO)
+                jdbcEntityManager.flush();
+
+            return (Stream<T>) jdbcEntityManager.streamNative(this);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
     @Override
     public T getSingleResult() {
         List<?> list = null;
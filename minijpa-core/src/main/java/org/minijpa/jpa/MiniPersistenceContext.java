@@ -14,8 +14,10 @@
 package org.minijpa.jpa;
 
 import org.minijpa.jpa.db.EntityContainer;
+import org.minijpa.jpa.db.EntityInstanceMap;
 import org.minijpa.jpa.db.EntityStatus;
 import org.minijpa.jpa.db.LockType;
+import org.minijpa.jpa.db.ManagedEntityList;
 import org.minijpa.jpa.model.MetaEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,86 +32,129 @@ public class MiniPersistenceContext implements EntityContainer {
     private final Map<String, MetaEntity> entities;
 
     /**
-     * Managed entities
+     * Managed entities, by entity class
      */
-    private final Map<Class<?>, Map<Object, Object>> managedEntities = new HashMap<>();
-    private final List<Object> managedEntityList = new LinkedList<>();
+    private final Map<Class<?>, EntityInstanceMap> managedEntities = new IdentityHashMap<>();
+    private final ManagedEntityList managedEntityList = new ManagedEntityList();
+    /**
+     * Persisted, removed and modified entities, the only ones visited by the flush
+     */
+    private final Set<Object> dirtyEntities = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public MiniPersistenceContext(Map<String, MetaEntity> entities) {
         super();
         this.entities = entities;
     }
 
-    private Map<Object, Object> getEntityMap(Class<?> c, Map<Class<?>, Map<Object, Object>> entities) {
-        Map<Object, Object> mapEntities = entities.get(c);
-        if (mapEntities == null) {
-            mapEntities = new HashMap<>();
-            entities.put(c, mapEntities);
+    private EntityInstanceMap getEntityMap(Class<?> c) {
+        EntityInstanceMap entityInstanceMap = managedEntities.get(c);
+        if (entityInstanceMap == null) {
+            MetaEntity metaEntity = entities.get(c.getName());
+            if (metaEntity == null)
+                throw new IllegalArgumentException("Class '" + c.getName() + "' is not an entity");
+
+            entityInstanceMap = new EntityInstanceMap(metaEntity);
+            managedEntities.put(c, entityInstanceMap);
         }
 
-        return mapEntities;
+        return entityInstanceMap;
     }
 
     @Override
     public void addManaged(Object entityInstance, Object idValue) throws Exception {
-        Map<Object, Object> mapEntities = getEntityMap(entityInstance.getClass(), managedEntities);
-        mapEntities.put(idValue, entityInstance);
-        managedEntityList.remove(entityInstance);
+        EntityInstanceMap entityInstanceMap = getEntityMap(entityInstance.getClass());
+        entityInstanceMap.put(idValue, entityInstance);
         managedEntityList.add(entityInstance);
+        MetaEntityHelper.setPersistenceContext(entityInstanceMap.getMetaEntity(), entityInstance, this);
     }
 
     @Override
     public void removeManaged(Object entityInstance) throws Exception {
-        MetaEntity e = entities.get(entityInstance.getClass().getName());
-        Object idValue = e.getId().readValue(entityInstance);
-        Map<Object, Object> mapEntities = getEntityMap(entityInstance.getClass(), managedEntities);
-        mapEntities.remove(idValue);
+        EntityInstanceMap entityInstanceMap = getEntityMap(entityInstance.getClass());
+        entityInstanceMap.remove(entityInstance);
         managedEntityList.remove(entityInstance);
+        dirtyEntities.remove(entityInstance);
+        MetaEntityHelper.setPersistenceContext(entityInstanceMap.getMetaEntity(), entityInstance, null);
     }
 
     @Override
     public void markForRemoval(Object entityInstance) throws Exception {
-        MetaEntity e = entities.get(entityInstance.getClass().getName());
+        MetaEntity e = getEntityMap(entityInstance.getClass()).getMetaEntity();
         MetaEntityHelper.setEntityStatus(e, entityInstance, EntityStatus.REMOVED_NOT_FLUSHED);
-        managedEntityList.remove(entityInstance);
         managedEntityList.add(entityInstance);
+        dirtyEntities.add(entityInstance);
+    }
+
+    @Override
+    public void markDirty(Object entityInstance) {
+        if (managedEntityList.contains(entityInstance))
+            dirtyEntities.add(entityInstance);
+    }
+
+    @Override
+    public List<Object> getDirtyEntities() {
+        List<Object> list = new ArrayList<>(dirtyEntities);
+        list.sort(Comparator.comparingLong(managedEntityList::positionOf));
+        return list;
+    }
+
+    @Override
+    public Collection<Object> getUnorderedDirtyEntities() {
+        return Collections.unmodifiableSet(dirtyEntities);
+    }
+
+    @Override
+    public boolean hasDirtyEntities() {
+        return !dirtyEntities.isEmpty();
     }
 
     @Override
-    public List<Object> getManagedEntityList() {
-        return new ArrayList<>(managedEntityList);
+    public void clearDirty(Collection<?> entityInstances) {
+        entityInstances.forEach(dirtyEntities::remove);
+    }
+
+    @Override
+    public List<Object> getManagedEntities(Class<?> entityClass) {
+        EntityInstanceMap entityInstanceMap = managedEntities.get(entityClass);
+        if (entityInstanceMap == null)
+            return List.of();
+
+        return entityInstanceMap.getInstances();
+    }
+
+    @Override
+    public boolean hasManagedEntities(Class<?> entityClass) {
+        EntityInstanceMap entityInstanceMap = managedEntities.get(entityClass);
+        return entityInstanceMap != null && entityInstanceMap.size() > 0;
+    }
+
+    @Override
+    public ManagedEntityList getManagedEntityList() {
+        return managedEntityList;
     }
 
     @Override
     public Object find(Class<?> entityClass, Object primaryKey) throws Exception {
-        MetaEntity entity = entities.get(entityClass.getName());
-        if (entity == null)
+        EntityInstanceMap entityInstanceMap = managedEntities.get(entityClass);
+        if (entityInstanceMap == null && !entities.containsKey(entityClass.getName()))
             throw new IllegalArgumentException("Instance of class '" + entityClass.getName() + "' is not an entity");
 
         if (primaryKey == null)
             throw new IllegalArgumentException("Primary key is null (class '" + entityClass.getName() + "')");
 
-        Map<Object, Object> map = getEntityMap(entityClass, managedEntities);
-        Object entityInstance = map.get(primaryKey);
-        return entityInstance;
+        if (entityInstanceMap == null)
+            return null;
+
+        return entityInstanceMap.get(primaryKey);
     }
 
     @Override
     public boolean isManaged(Object entityInstance) throws Exception {
-        Map<Object, Object> mapEntities = managedEntities.get(entityInstance.getClass());
-        if (mapEntities == null)
-            return false;
-
-        MetaEntity e = entities.get(entityInstance.getClass().getName());
-        Object idValue = e.getId().readValue(entityInstance);
-        if (idValue == null)
+        EntityInstanceMap entityInstanceMap = managedEntities.get(entityInstance.getClass());
+        if (entityInstanceMap == null)
             return false;
 
-        Object ei = mapEntities.get(idValue);
-        if (ei != null && ei == entityInstance)
-            return true;
-
-        return false;
+        return entityInstanceMap.contains(entityInstance);
     }
 
     @Override
@@ -128,52 +173,49 @@ public class MiniPersistenceContext implements EntityContainer {
         if (e == null)
             throw new IllegalArgumentException("Instance '" + entityInstance + "' is not an entity");
 
-        Object idValue = e.getId().readValue(entityInstance);
         if (MetaEntityHelper.isDetached(e, entityInstance))
             return;
 
-        detachInternal(idValue, entityInstance);
+        detachInternal(getEntityMap(entityInstance.getClass()), entityInstance);
     }
 
-    private void detachInternal(Object idValue, Object entityInstance) throws Exception {
-        Map<Object, Object> mapEntities = getEntityMap(entityInstance.getClass(), managedEntities);
-        mapEntities.remove(idValue, entityInstance);
-        MetaEntity e = entities.get(entityInstance.getClass().getName());
-        MetaEntityHelper.setEntityStatus(e, entityInstance, EntityStatus.DETACHED);
+    private void detachInternal(EntityInstanceMap entityInstanceMap, Object entityInstance) throws Exception {
+        entityInstanceMap.remove(entityInstance);
+        MetaEntityHelper.setEntityStatus(entityInstanceMap.getMetaEntity(), entityInstance, EntityStatus.DETACHED);
+        MetaEntityHelper.setPersistenceContext(entityInstanceMap.getMetaEntity(), entityInstance, null);
         managedEntityList.remove(entityInstance);
+        dirtyEntities.remove(entityInstance);
     }
 
     @Override
     public void detachAll() throws Exception {
-        Set<Class<?>> keys = new HashSet<>(managedEntities.keySet());
-        for (Class<?> c : keys) {
-            Map<Object, Object> map = managedEntities.get(c);
-            Map<Object, Object> m = new HashMap<>(map);
-            for (Map.Entry<Object, Object> entry : m.entrySet()) {
-                detachInternal(entry.getKey(), entry.getValue());
+        for (EntityInstanceMap entityInstanceMap : managedEntities.values()) {
+            for (Object entityInstance : entityInstanceMap.getInstances()) {
+                detachInternal(entityInstanceMap, entityInstance);
             }
         }
     }
 
     @Override
     public void resetLockType() {
-        Set<Class<?>> keys = managedEntities.keySet();
-        for (Class<?> c : keys) {
-            MetaEntity e = entities.get(c.getName());
-            Map<Object, Object> map = managedEntities.get(c);
-            Map<Object, Object> m = new HashMap<>(map);
-            m.forEach((k, v) -> {
+        for (EntityInstanceMap entityInstanceMap : managedEntities.values()) {
+            MetaEntity e = entityInstanceMap.getMetaEntity();
+            for (Object entityInstance : entityInstanceMap.getInstances()) {
                 try {
-                    e.getLockTypeAttributeWriteMethod().invoke(v, LockType.NONE);
+                    e.getLockTypeAttributeWriteMethod().invoke(entityInstance, LockType.NONE);
                 } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
                     log.error(ex.getMessage());
                 }
-            });
+            }
         }
     }
 
     @Override
     public Optional<MetaEntity> isManagedClass(Class<?> c) {
+        EntityInstanceMap entityInstanceMap = managedEntities.get(c);
+        if (entityInstanceMap != null)
+            return Optional.of(entityInstanceMap.getMetaEntity());
+
         MetaEntity e = entities.get(c.getName());
         return e != null ? Optional.of(e) : Optional.empty();
     }
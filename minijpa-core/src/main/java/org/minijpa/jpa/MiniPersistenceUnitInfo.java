@@ -31,6 +31,7 @@ public class MiniPersistenceUnitInfo implements PersistenceUnitInfo {
     private List<String> managedClassNames;
     private DataSource jtaDataSource;
     private DataSource nonJtaDataSource;
+    private SharedCacheMode sharedCacheMode;
 
     public MiniPersistenceUnitInfo() {
         super();
@@ -103,8 +104,7 @@ public class MiniPersistenceUnitInfo implements PersistenceUnitInfo {
 
     @Override
     public SharedCacheMode getSharedCacheMode() {
-        // TODO Auto-generated method stub
-        return null;
+        return sharedCacheMode;
     }
 
     @Override
@@ -143,6 +143,7 @@ public class MiniPersistenceUnitInfo implements PersistenceUnitInfo {
         private List<String> managedClassNames;
         private DataSource jtaDataSource;
         private DataSource nonJtaDataSource;
+        private SharedCacheMode sharedCacheMode;
 
         public Builder() {
         }
@@ -167,12 +168,18 @@ public class MiniPersistenceUnitInfo implements PersistenceUnitInfo {
             return this;
         }
 
+        public Builder withSharedCacheMode(SharedCacheMode sharedCacheMode) {
+            this.sharedCacheMode = sharedCacheMode;
+            return this;
+        }
+
         public PersistenceUnitInfo build() {
             MiniPersistenceUnitInfo impl = new MiniPersistenceUnitInfo();
             impl.name = name;
             impl.managedClassNames = managedClassNames;
             impl.jtaDataSource = jtaDataSource;
             impl.nonJtaDataSource = nonJtaDataSource;
+            impl.sharedCacheMode = sharedCacheMode;
             return impl;
         }
     }
@@ -14,6 +14,7 @@
 package org.minijpa.jpa;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -26,6 +27,7 @@ import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaQuery;
 
 import org.minijpa.jpa.db.JdbcEntityManager;
+import org.minijpa.jpa.db.StatementParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,10 +48,11 @@ public class MiniTypedCriteriaQuery<X> extends AbstractTypedQuery<X> {
     @Override
     public List<X> getResultList() {
         try {
+            StatementParameters statementParameters = null;
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                statementParameters = jdbcEntityManager.autoFlush(this, criteriaQuery);
 
-            return (List<X>) jdbcEntityManager.selectCriteriaQuery(this, criteriaQuery);
+            return (List<X>) jdbcEntityManager.selectCriteriaQuery(this, criteriaQuery, statementParameters);
         } catch (Exception e) {
             LOG.error(e.getMessage());
             throw new PersistenceException(e.getMessage());
@@ -57,14 +60,32 @@ public class MiniTypedCriteriaQuery<X> extends AbstractTypedQuery<X> {
     }
 
 
+    @Override
+    public Stream<X> getResultStream() {
+        try {
+            StatementParameters statementParameters = null;
+            if (flushModeType == FlushModeType.AUTO)
+                statementParameters = jdbcEntityManager.autoFlush(this, criteriaQuery);
+
+            return (Stream<X>) jdbcEntityManager.streamCriteriaQuery(this, criteriaQuery, statementParameters);
+        } catch (RuntimeException e) {
+            LOG.error(e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            LOG.error(e.getMessage());
+            throw new PersistenceException(e.getMessage());
+        }
+    }
+
     @Override
     public X getSingleResult() {
         List<?> list = null;
         try {
+            StatementParameters statementParameters = null;
             if (flushModeType == FlushModeType.AUTO)
-                jdbcEntityManager.flush();
+                statementParameters = jdbcEntityManager.autoFlush(this, criteriaQuery);
 
-            list = jdbcEntityManager.selectCriteriaQuery(this, criteriaQuery);
+            list = jdbcEntityManager.selectCriteriaQuery(this, criteriaQuery, statementParameters);
         } catch (Exception e) {
             LOG.error(e.getMessage());
             throw new PersistenceException(e.getMessage());
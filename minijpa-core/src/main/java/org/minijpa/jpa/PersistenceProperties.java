@@ -0,0 +1,49 @@
+package org.minijpa.jpa;
+
+public class PersistenceProperties {
+    /**
+     * Number of inserts, updates and deletes sent to the database in a single JDBC batch at flush time.
+     */
+    public static final String JDBC_BATCH_SIZE = "minijpa.jdbc.batch_size";
+    /**
+     * Max number of prepared statements cached for each connection, 0 disables the cache.
+     */
+    public static final String JDBC_STATEMENT_CACHE_SIZE = "minijpa.jdbc.statement_cache_size";
+    /**
+     * Sequence id optimizer: 'pooled-lo' (default), 'pooled' or 'none'. Pooled optimizers read the database
+     * sequence once every 'allocationSize' ids.
+     */
+    public static final String SEQUENCE_OPTIMIZER = "minijpa.sequence.optimizer";
+    /**
+     * Max number of parsed JPQL statements cached by the entity manager factory, 0 disables the cache.
+     */
+    public static final String JPQL_PLAN_CACHE_SIZE = "minijpa.jpql.plan_cache_size";
+    /**
+     * Shared cache mode, overrides the 'shared-cache-mode' element of the persistence unit.
+     */
+    public static final String SHARED_CACHE_MODE = "javax.persistence.sharedCache.mode";
+    /**
+     * Max number of entities of each class kept in the second-level cache.
+     */
+    public static final String CACHE_MAX_SIZE = "minijpa.cache.max_size";
+    /**
+     * Seconds an entity is kept in the second-level cache, 0 (default) means no expiration.
+     */
+    public static final String CACHE_TIME_TO_LIVE = "minijpa.cache.time_to_live";
+    /**
+     * Max number of query results kept in the query result cache, 0 disables the cache. The queries are cached
+     * if the 'minijpa.query.cacheable' hint is set.
+     */
+    public static final String QUERY_CACHE_MAX_SIZE = "minijpa.query_cache.max_size";
+    /**
+     * Max number of lazy to-one associations of the same target entity, or of lazy collections of the same
+     * attribute, loaded with a single query, 1 (default) disables batch fetching. The size of a single attribute is set with
+     * 'minijpa.batch_fetch_size.(entity name).(attribute name)'.
+     */
+    public static final String BATCH_FETCH_SIZE = "minijpa.batch_fetch_size";
+    /**
+     * Max depth of the eager to-one associations read with left outer joins when an entity is loaded by id or by
+     * foreign key, 0 (default) disables the joins.
+     */
+    public static final String EAGER_JOIN_DEPTH = "minijpa.eager_join_depth";
+}
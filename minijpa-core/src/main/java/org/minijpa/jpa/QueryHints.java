@@ -2,4 +2,28 @@ package org.minijpa.jpa;
 
 public class QueryHints {
     public static final String SPLIT_MULTIPLE_JOINS = "minijpa.split.multiple.joins";
+    /**
+     * JDBC fetch size used by <code>getResultStream</code>. Integer value.
+     */
+    public static final String FETCH_SIZE = "minijpa.fetch.size";
+    /**
+     * If true the entities returned by <code>getResultStream</code> are detached from the persistence
+     * context as soon as they are emitted, so the context does not grow with the stream. Boolean value.
+     */
+    public static final String STREAM_DETACH = "minijpa.stream.detach";
+    /**
+     * If true the query results are stored in the query result cache, they are invalidated when any table read
+     * by the query is written. Boolean value.
+     */
+    public static final String CACHEABLE = "minijpa.query.cacheable";
+    /**
+     * Entity graph whose attributes are loaded with the results of find and queries. The associations of the
+     * same attribute are read with batch queries. Eager attributes outside the graph are loaded as well.
+     */
+    public static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+    /**
+     * Entity graph whose attributes are loaded with the results of find and queries, the other attributes use
+     * their fetch type.
+     */
+    public static final String LOAD_GRAPH = "javax.persistence.loadgraph";
 }
@@ -48,7 +48,15 @@ public abstract class AbstractDbJdbc implements DbJdbc {
         return PkStrategy.PLAIN;
     }
 
-    private int indexOfFirstEntity(List<MetaEntity> entities) {
+    /**
+     * Returns the first entity without owned relationships. If there is no such entity it returns the first entity
+     * whose foreign keys reference only entities already sorted.
+     *
+     * @param entities entities to sort
+     * @param sorted   entities already sorted
+     * @return the index of the first entity
+     */
+    private int indexOfFirstEntity(List<MetaEntity> entities, List<MetaEntity> sorted) {
         for (int i = 0; i < entities.size(); ++i) {
             MetaEntity metaEntity = entities.get(i);
             List<RelationshipMetaAttribute> relationshipAttributes = metaEntity.expandRelationshipAttributes();
@@ -62,6 +70,16 @@ public abstract class AbstractDbJdbc implements DbJdbc {
             }
         }
 
+        for (int i = 0; i < entities.size(); ++i) {
+            MetaEntity metaEntity = entities.get(i);
+            boolean referencesSorted = metaEntity.expandRelationshipAttributes().stream()
+                    .map(RelationshipMetaAttribute::getRelationship)
+                    .filter(r -> r.isOwner() && r.getJoinColumnMapping() != null)
+                    .allMatch(r -> r.getAttributeType() == metaEntity || sorted.contains(r.getAttributeType()));
+            if (referencesSorted)
+                return i;
+        }
+
         return 0;
     }
 
@@ -69,7 +87,7 @@ public abstract class AbstractDbJdbc implements DbJdbc {
         List<MetaEntity> sorted = new ArrayList<>();
         List<MetaEntity> toSort = new ArrayList<>(entities);
         for (int i = 0; i < entities.size(); ++i) {
-            int index = indexOfFirstEntity(toSort);
+            int index = indexOfFirstEntity(toSort, sorted);
             sorted.add(toSort.get(index));
             toSort.remove(index);
         }
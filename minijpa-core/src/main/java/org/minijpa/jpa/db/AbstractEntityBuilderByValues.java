@@ -1,7 +1,6 @@
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
-import org.minijpa.jdbc.ModelValueArray;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jpa.MetaEntityHelper;
 import org.minijpa.jpa.model.MetaAttribute;
 import org.minijpa.jpa.model.MetaEntity;
@@ -20,8 +19,8 @@ public abstract class AbstractEntityBuilderByValues extends AbstractEntityBuilde
             MetaAttribute attribute,
             Object parentInstance,
             MetaEntity metaEntity,
-            ModelValueArray<FetchParameter> modelValueArray) throws Exception {
-        int index = AttributeUtil.indexOfAttribute(modelValueArray, attribute);
+            FetchRow fetchRow) throws Exception {
+        int index = fetchRow.indexOf(attribute);
         if (index == -1)
             return;
 
@@ -29,7 +28,7 @@ public abstract class AbstractEntityBuilderByValues extends AbstractEntityBuilde
                 parentInstance,
                 parentInstance.getClass(),
                 attribute,
-                modelValueArray.getValue(index));
+                fetchRow.getValue(index));
     }
 
     @Override
@@ -38,17 +37,17 @@ public abstract class AbstractEntityBuilderByValues extends AbstractEntityBuilde
             MetaEntity metaEntity,
             List<MetaAttribute> basicAttributes,
             List<RelationshipMetaAttribute> relationshipMetaAttributes,
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             LockType lockType) throws Exception {
         for (MetaAttribute attribute : basicAttributes) {
-            buildBasicAttribute(attribute, parentInstance, metaEntity, modelValueArray);
+            buildBasicAttribute(attribute, parentInstance, metaEntity, fetchRow);
         }
 
         // load embeddables
         for (MetaEntity embeddable : metaEntity.getEmbeddables()) {
             Object parent = embeddable.getEntityClass().getDeclaredConstructor().newInstance();
             buildAttributes(parent, embeddable, embeddable.getBasicAttributes(),
-                    embeddable.getRelationshipAttributes(), modelValueArray,
+                    embeddable.getRelationshipAttributes(), fetchRow,
                     lockType);
             metaEntity.writeEmbeddableValue(parentInstance, parentInstance.getClass(), embeddable,
                     parent);
@@ -57,14 +56,14 @@ public abstract class AbstractEntityBuilderByValues extends AbstractEntityBuilde
         for (JoinColumnMapping joinColumnMapping : metaEntity.getJoinColumnMappings()) {
             LOG.debug("Build Attributes -> Join Column Mapping Attribute = {}", joinColumnMapping.getAttribute());
             LOG.debug("Build Attributes -> Join Column Mapping Foreign Key = {}", joinColumnMapping.getForeignKey());
-            Object fk = joinColumnMapping.getForeignKey().buildValue(modelValueArray);
+            Object fk = joinColumnMapping.getForeignKey().buildValue(fetchRow);
             if (joinColumnMapping.isLazy()) {
                 joinColumnMapping.getAttribute().setForeignKeyValue(parentInstance, fk);
                 continue;
             }
 
             MetaEntity toEntity = joinColumnMapping.getAttribute().getRelationship().getAttributeType();
-            Object parent = build(modelValueArray, toEntity, lockType);
+            Object parent = build(fetchRow, toEntity, lockType);
             metaEntity.writeAttributeValue(parentInstance, parentInstance.getClass(),
                     joinColumnMapping.getAttribute(), parent);
         }
@@ -9,6 +9,11 @@ public interface AttributeFetchParameter extends FetchParameter {
 
     AbstractMetaAttribute getAttribute();
 
+    @Override
+    default Object getModel() {
+        return getAttribute();
+    }
+
     static AttributeFetchParameter build(MetaAttribute attribute) {
         return new AttributeFetchParameterImpl(attribute.getColumnName(), attribute.getSqlType(),
                 attribute, attribute.getObjectConverter());
@@ -13,8 +13,6 @@
  */
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
-import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jpa.model.MetaAttribute;
 import org.minijpa.jpa.model.relationship.JoinColumnAttribute;
 import org.slf4j.Logger;
@@ -35,21 +33,6 @@ public class AttributeUtil {
     private static final Logger log = LoggerFactory.getLogger(AttributeUtil.class);
 
 
-    public static int indexOfAttribute(
-            ModelValueArray<FetchParameter> modelValueArray,
-            MetaAttribute attribute) {
-        log.debug("Index Of Attribute -> Attribute = {}", attribute);
-        for (int i = 0; i < modelValueArray.size(); ++i) {
-            log.debug("Index Of Attribute -> Scanning Attributes = {}", ((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute());
-            if (((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute() == attribute) {
-                return i;
-            }
-        }
-
-        return -1;
-    }
-
-
     public static int indexOfJoinColumnAttribute(
             List<JoinColumnAttribute> joinColumnAttributes,
             MetaAttribute a) {
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.minijpa.jpa.PersistenceProperties;
+import org.minijpa.jpa.model.AbstractMetaAttribute;
+import org.minijpa.jpa.model.MetaEntity;
+
+/**
+ * Batch sizes used to load the lazy associations. The global size is read from the
+ * 'minijpa.batch_fetch_size' property, a single attribute can override it with
+ * 'minijpa.batch_fetch_size.(entity name).(attribute name)'. An instance is shared by the entity managers of the
+ * same factory.
+ */
+public class BatchFetchSizes {
+
+    private final int batchFetchSize;
+    private final Map<String, Integer> attributeBatchFetchSizes;
+
+    public BatchFetchSizes(int batchFetchSize, Map<String, Integer> attributeBatchFetchSizes) {
+        this.batchFetchSize = batchFetchSize;
+        this.attributeBatchFetchSizes = Map.copyOf(attributeBatchFetchSizes);
+    }
+
+    public static BatchFetchSizes of(Properties properties) {
+        if (properties == null)
+            return new BatchFetchSizes(1, Map.of());
+
+        int batchFetchSize = 1;
+        Map<String, Integer> attributeBatchFetchSizes = new HashMap<>();
+        String prefix = PersistenceProperties.BATCH_FETCH_SIZE + ".";
+        for (String name : properties.stringPropertyNames()) {
+            if (name.equals(PersistenceProperties.BATCH_FETCH_SIZE))
+                batchFetchSize = Integer.parseInt(properties.getProperty(name).trim());
+            else if (name.startsWith(prefix))
+                attributeBatchFetchSizes.put(name.substring(prefix.length()),
+                        Integer.parseInt(properties.getProperty(name).trim()));
+        }
+
+        return new BatchFetchSizes(batchFetchSize, attributeBatchFetchSizes);
+    }
+
+    /**
+     * Returns the batch size of the attribute, values less than 2 mean no batching.
+     *
+     * @param entity    the entity owning the attribute
+     * @param attribute the lazy attribute
+     * @return the batch size
+     */
+    public int get(MetaEntity entity, AbstractMetaAttribute attribute) {
+        Integer size = attributeBatchFetchSizes.get(entity.getName() + "." + attribute.getName());
+        return size != null ? size : batchFetchSize;
+    }
+
+    /**
+     * Rounds the number of keys up to the next power of two, capped at the batch size. The in list is padded to
+     * that size, so a few statement shapes are generated and reused.
+     *
+     * @param count     the number of keys
+     * @param batchSize the batch size
+     * @return the padded size
+     */
+    public static int paddedSize(int count, int batchSize) {
+        if (count >= batchSize)
+            return batchSize;
+
+        int size = Integer.highestOneBit(count);
+        return size == count ? size : Math.min(size << 1, batchSize);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
+import org.minijpa.jdbc.RowLayout;
+import org.minijpa.jpa.MetaEntityHelper;
+import org.minijpa.jpa.model.MetaEntity;
+import org.minijpa.jpa.model.relationship.JoinColumnMapping;
+import org.minijpa.metadata.AliasGenerator;
+
+/**
+ * An entity read by a select statement together with the eager to-one associations joined to it with left outer
+ * joins. The columns of each joined entity are a contiguous range of the row, in depth-first order, so the
+ * whole graph is built from a single row.
+ */
+public class EagerJoinGraph {
+
+    private final MetaEntity entity;
+    private final String alias;
+    private final JoinColumnMapping joinColumnMapping;
+    private final List<FetchParameter> fetchParameters;
+    private final RowLayout rowLayout;
+    private final int offset;
+    private final List<EagerJoinGraph> joins = new ArrayList<>();
+
+    private EagerJoinGraph(
+            MetaEntity entity,
+            String alias,
+            JoinColumnMapping joinColumnMapping,
+            int offset) {
+        this.entity = entity;
+        this.alias = alias;
+        this.joinColumnMapping = joinColumnMapping;
+        this.fetchParameters = MetaEntityHelper.convertAllAttributes(entity);
+        this.rowLayout = new RowLayout(fetchParameters);
+        this.offset = offset;
+    }
+
+    /**
+     * Builds the graph of the eager to-one associations of the entity, up to the given depth. An entity is not
+     * joined again on the same path.
+     *
+     * @param entity         the root entity
+     * @param depth          max number of joins from the root entity
+     * @param aliasGenerator the table alias generator
+     * @return the graph, null if the entity has no eager to-one associations or depth is less than 1
+     */
+    public static EagerJoinGraph of(MetaEntity entity, int depth, AliasGenerator aliasGenerator) {
+        if (depth < 1)
+            return null;
+
+        Map<String, Integer> aliasCounters = new HashMap<>();
+        EagerJoinGraph root = new EagerJoinGraph(entity, alias(entity, aliasCounters, aliasGenerator), null, 0);
+        Set<MetaEntity> path = new HashSet<>();
+        path.add(entity);
+        int[] offset = {root.rowLayout.size()};
+        root.addJoins(depth, path, offset, aliasCounters, aliasGenerator);
+        return root.joins.isEmpty() ? null : root;
+    }
+
+    private static String alias(MetaEntity entity, Map<String, Integer> aliasCounters, AliasGenerator aliasGenerator) {
+        int counter = aliasCounters.merge(entity.getTableName(), 1, Integer::sum) - 1;
+        return counter == 0 ? aliasGenerator.getDefault(entity.getTableName())
+                : entity.getTableName().toLowerCase() + counter;
+    }
+
+    private void addJoins(
+            int depth,
+            Set<MetaEntity> path,
+            int[] offset,
+            Map<String, Integer> aliasCounters,
+            AliasGenerator aliasGenerator) {
+        for (JoinColumnMapping mapping : entity.getJoinColumnMappings()) {
+            MetaEntity target = mapping.getAttribute().getRelationship().getAttributeType();
+            if (mapping.isLazy() || target == null || path.contains(target))
+                continue;
+
+            EagerJoinGraph join = new EagerJoinGraph(target, alias(target, aliasCounters, aliasGenerator), mapping,
+                    offset[0]);
+            offset[0] += join.rowLayout.size();
+            joins.add(join);
+            if (depth > 1) {
+                path.add(target);
+                join.addJoins(depth - 1, path, offset, aliasCounters, aliasGenerator);
+                path.remove(target);
+            }
+        }
+    }
+
+    public MetaEntity getEntity() {
+        return entity;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public JoinColumnMapping getJoinColumnMapping() {
+        return joinColumnMapping;
+    }
+
+    public List<FetchParameter> getFetchParameters() {
+        return fetchParameters;
+    }
+
+    public List<EagerJoinGraph> getJoins() {
+        return joins;
+    }
+
+    /**
+     * Returns the joined entity of the given join column mapping.
+     *
+     * @param mapping the join column mapping
+     * @return the joined entity, null if the association is not joined
+     */
+    public EagerJoinGraph getJoin(JoinColumnMapping mapping) {
+        for (EagerJoinGraph join : joins) {
+            if (join.joinColumnMapping == mapping)
+                return join;
+        }
+
+        return null;
+    }
+
+    /**
+     * Extracts the columns of this entity from a row of the whole graph.
+     *
+     * @param fetchRow the row of the whole graph
+     * @return the entity row
+     */
+    public FetchRow slice(FetchRow fetchRow) {
+        return fetchRow.slice(rowLayout, offset);
+    }
+}
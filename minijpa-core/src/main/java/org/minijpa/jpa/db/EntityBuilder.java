@@ -1,7 +1,6 @@
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
-import org.minijpa.jdbc.ModelValueArray;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jpa.model.MetaAttribute;
 import org.minijpa.jpa.model.MetaEntity;
 import org.minijpa.jpa.model.RelationshipMetaAttribute;
@@ -21,7 +20,7 @@ public interface EntityBuilder {
             MetaAttribute attribute,
             Object parentInstance,
             MetaEntity metaEntity,
-            ModelValueArray<FetchParameter> modelValueArray) throws Exception;
+            FetchRow fetchRow) throws Exception;
 
     /**
      * Build basic and relationship attributes.
@@ -30,7 +29,7 @@ public interface EntityBuilder {
      * @param metaEntity
      * @param basicAttributes
      * @param relationshipMetaAttributes
-     * @param modelValueArray
+     * @param fetchRow
      * @param lockType
      */
     void buildAttributes(
@@ -38,14 +37,14 @@ public interface EntityBuilder {
             MetaEntity metaEntity,
             List<MetaAttribute> basicAttributes,
             List<RelationshipMetaAttribute> relationshipMetaAttributes,
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             LockType lockType) throws Exception;
 
     void buildCircularRelationships(MetaEntity entity, Object entityInstance)
             throws Exception;
 
     Object build(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             MetaEntity entity,
             LockType lockType) throws Exception;
 
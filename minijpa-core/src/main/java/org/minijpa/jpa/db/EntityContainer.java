@@ -37,7 +37,55 @@ public interface EntityContainer {
 
     public void markForRemoval(Object entityInstance) throws Exception;
 
-    public List<Object> getManagedEntityList();
+    /**
+     * Returns the managed entities in insertion order. The list is not a copy, see {@link ManagedEntityList}
+     * for the iteration semantics.
+     *
+     * @return the managed entities
+     */
+    public ManagedEntityList getManagedEntityList();
+
+    /**
+     * Adds a managed entity instance to the dirty set. Persisted, removed and modified instances are dirty, the
+     * flush visits only them.
+     *
+     * @param entityInstance entity instance
+     */
+    public void markDirty(Object entityInstance);
+
+    /**
+     * Returns the dirty entity instances in the managed list order. The returned list is a copy.
+     *
+     * @return the dirty entity instances
+     */
+    public List<Object> getDirtyEntities();
+
+    /**
+     * Returns a read-only view of the dirty entity instances in no particular order. The view must not be used
+     * while the persistence context changes.
+     *
+     * @return the dirty entity instances
+     */
+    public Collection<Object> getUnorderedDirtyEntities();
+
+    public boolean hasDirtyEntities();
+
+    /**
+     * Removes the flushed instances from the dirty set.
+     *
+     * @param entityInstances flushed instances
+     */
+    public void clearDirty(Collection<?> entityInstances);
+
+    /**
+     * Returns the managed instances of an entity class. The returned list is a copy.
+     *
+     * @param entityClass entity class
+     * @return the managed instances
+     */
+    public List<Object> getManagedEntities(Class<?> entityClass);
+
+    public boolean hasManagedEntities(Class<?> entityClass);
 
     public boolean isManaged(Object entityInstance) throws Exception;
 
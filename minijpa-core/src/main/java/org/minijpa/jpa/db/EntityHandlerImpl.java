@@ -13,9 +13,10 @@
  */
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jdbc.QueryParameter;
+import org.minijpa.jdbc.UpdateCountCheck;
 import org.minijpa.jpa.MetaEntityHelper;
 import org.minijpa.jpa.model.*;
 import org.minijpa.jpa.model.relationship.JoinColumnMapping;
@@ -26,9 +27,18 @@ import org.minijpa.metadata.PersistenceUnitContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.persistence.AttributeNode;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.OptimisticLockException;
+import javax.persistence.Subgraph;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -39,18 +49,42 @@ import java.util.stream.Collectors;
  */
 public class EntityHandlerImpl implements EntityHandler {
 
+    // max number of instances whose graph attribute is read by a single statement
+    private static final int MAX_GRAPH_BATCH_SIZE = 256;
+    // keys per query loading the eager to-one targets of a query result, if the attribute has no batch size
+    private static final int EAGER_BATCH_SIZE = 32;
     private final Logger log = LoggerFactory.getLogger(EntityHandlerImpl.class);
     private final PersistenceUnitContext persistenceUnitContext;
     private final EntityContainer entityContainer;
     private final JdbcQueryRunner jdbcQueryRunner;
+    private final SecondLevelCacheSession secondLevelCacheSession;
     private LockType lockType = LockType.NONE;
+    private BatchFetchSizes batchFetchSizes = BatchFetchSizes.of(null);
 
     public EntityHandlerImpl(PersistenceUnitContext persistenceUnitContext,
                              EntityContainer entityContainer,
                              JdbcQueryRunner jdbcQueryRunner) {
+        this(persistenceUnitContext, entityContainer, jdbcQueryRunner, new SecondLevelCacheSession());
+    }
+
+    public EntityHandlerImpl(PersistenceUnitContext persistenceUnitContext,
+                             EntityContainer entityContainer,
+                             JdbcQueryRunner jdbcQueryRunner,
+                             SecondLevelCacheSession secondLevelCacheSession) {
         this.persistenceUnitContext = persistenceUnitContext;
         this.entityContainer = entityContainer;
         this.jdbcQueryRunner = jdbcQueryRunner;
+        this.secondLevelCacheSession = secondLevelCacheSession;
+    }
+
+    /**
+     * Sets the batch sizes of the lazy associations, they are shared by the entity managers of the same
+     * factory.
+     *
+     * @param batchFetchSizes the batch sizes
+     */
+    public void setBatchFetchSizes(BatchFetchSizes batchFetchSizes) {
+        this.batchFetchSizes = batchFetchSizes;
     }
 
     @Override
@@ -70,17 +104,48 @@ public class EntityHandlerImpl implements EntityHandler {
         if (entityInstance != null)
             return entityInstance;
 
-        Optional<ModelValueArray<FetchParameter>> optional = jdbcQueryRunner.findById(metaEntity,
-                primaryKey, lockType);
+        // the second-level cache is read first, locking reads always go to the database
+        boolean cacheable = lockType == LockType.NONE && secondLevelCacheSession.isEnabled(metaEntity);
+        if (cacheable) {
+            FetchRow fetchRow = secondLevelCacheSession.get(metaEntity, primaryKey);
+            if (fetchRow != null) {
+                log.debug("Find By Id -> Second-Level Cache Hit {}", primaryKey);
+                return buildEntity(metaEntity, primaryKey, fetchRow, null, null, lockType);
+            }
+        }
+
+        long version = cacheable ? secondLevelCacheSession.getVersion(metaEntity) : 0;
+        Optional<FetchRow> optional = jdbcQueryRunner.findById(metaEntity, primaryKey, lockType);
         if (optional.isEmpty())
             return null;
 
-        ModelValueArray<FetchParameter> modelValueArray = optional.get();
+        EagerJoinGraph eagerJoins = jdbcQueryRunner.selectById(metaEntity, lockType).getEagerJoins();
+        FetchRow fetchRow = eagerJoins == null ? optional.get() : eagerJoins.slice(optional.get());
+        if (cacheable)
+            secondLevelCacheSession.put(metaEntity, primaryKey, fetchRow, version);
 
-        entityInstance = metaEntity.buildInstance();
+        return buildEntity(metaEntity, primaryKey, fetchRow, eagerJoins, optional.get(), lockType);
+    }
+
+    /**
+     * Builds and manages the entity instance.
+     *
+     * @param fetchRow   the entity row
+     * @param eagerJoins the eager associations joined to the entity, can be null
+     * @param joinedRow  the row of the whole graph, if 'eagerJoins' is not null
+     */
+    private Object buildEntity(
+            MetaEntity metaEntity,
+            Object primaryKey,
+            FetchRow fetchRow,
+            EagerJoinGraph eagerJoins,
+            FetchRow joinedRow,
+            LockType lockType)
+            throws Exception {
+        Object entityInstance = metaEntity.buildInstance();
         buildAttributeValuesLoadFK(entityInstance, primaryKey, metaEntity, metaEntity.getBasicAttributes(),
                 metaEntity.getRelationshipAttributes(),
-                modelValueArray, lockType);
+                fetchRow, eagerJoins, joinedRow, lockType);
         metaEntity.getId().writeValue(entityInstance, primaryKey);
         entityContainer.addManaged(entityInstance, primaryKey);
         MetaEntityHelper.setEntityStatus(metaEntity, entityInstance,
@@ -89,6 +154,26 @@ public class EntityHandlerImpl implements EntityHandler {
         return entityInstance;
     }
 
+    /**
+     * Returns the entity of an eager association read by the parent statement with a left outer join.
+     */
+    private Object findJoined(
+            MetaEntity metaEntity,
+            Object primaryKey,
+            EagerJoinGraph join,
+            FetchRow joinedRow,
+            LockType lockType) throws Exception {
+        Object entityInstance = entityContainer.find(metaEntity.getEntityClass(), primaryKey);
+        if (entityInstance != null)
+            return entityInstance;
+
+        FetchRow fetchRow = join.slice(joinedRow);
+        // the foreign key doesn't match any row
+        if (fetchRow.getValue(fetchRow.indexOf(metaEntity.getId().getAttributes().get(0))) == null)
+            return null;
+
+        return buildEntity(metaEntity, primaryKey, fetchRow, join, joinedRow, lockType);
+    }
 
     @Override
     public void refresh(
@@ -96,17 +181,18 @@ public class EntityHandlerImpl implements EntityHandler {
             Object entityInstance,
             Object primaryKey,
             LockType lockType) throws Exception {
-        Optional<ModelValueArray<FetchParameter>> optional = jdbcQueryRunner.findById(metaEntity,
+        Optional<FetchRow> optional = jdbcQueryRunner.findById(metaEntity,
                 primaryKey, lockType);
         if (optional.isEmpty()) {
             throw new EntityNotFoundException(
                     "Entity '" + entityInstance + "' not found: pk=" + primaryKey);
         }
 
-        ModelValueArray<FetchParameter> modelValueArray = optional.get();
+        EagerJoinGraph eagerJoins = jdbcQueryRunner.selectById(metaEntity, lockType).getEagerJoins();
+        FetchRow fetchRow = eagerJoins == null ? optional.get() : eagerJoins.slice(optional.get());
         buildAttributeValuesLoadFK(entityInstance, primaryKey, metaEntity, metaEntity.getBasicAttributes(),
                 metaEntity.getRelationshipAttributes(),
-                modelValueArray, lockType);
+                fetchRow, eagerJoins, optional.get(), lockType);
         MetaEntityHelper.setEntityStatus(metaEntity, entityInstance,
                 EntityStatus.FLUSHED_LOADED_FROM_DB);
         fillCircularRelationships(metaEntity, entityInstance);
@@ -164,9 +250,18 @@ public class EntityHandlerImpl implements EntityHandler {
 
     @Override
     public Object build(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             MetaEntity entity) throws Exception {
-        Object primaryKey = entity.getId().buildValue(modelValueArray);
+        return build(fetchRow, entity, null);
+    }
+
+    @Override
+    public Object build(
+            FetchRow fetchRow,
+            MetaEntity entity,
+            EagerJoinGraph eagerJoins) throws Exception {
+        FetchRow entityRow = eagerJoins == null ? fetchRow : eagerJoins.slice(fetchRow);
+        Object primaryKey = entity.getId().buildValue(entityRow);
         Object entityInstance = entityContainer.find(entity.getEntityClass(), primaryKey);
         if (entityInstance != null)
             return entityInstance;
@@ -174,8 +269,8 @@ public class EntityHandlerImpl implements EntityHandler {
         Object entityInstanceNew = entity.buildInstance();
         log.debug("Building Entity Instance -> Entity Instance {}", entityInstanceNew);
         buildAttributeValuesLoadFK(entityInstanceNew, primaryKey, entity, entity.getBasicAttributes(),
-                entity.getRelationshipAttributes(), modelValueArray,
-                lockType);
+                entity.getRelationshipAttributes(), entityRow,
+                eagerJoins, fetchRow, lockType);
         entity.getId().writeValue(entityInstanceNew, primaryKey);
         entityContainer.addManaged(entityInstanceNew, primaryKey);
         MetaEntityHelper.setEntityStatus(entity, entityInstanceNew, EntityStatus.FLUSHED_LOADED_FROM_DB);
@@ -190,11 +285,13 @@ public class EntityHandlerImpl implements EntityHandler {
             MetaEntity metaEntity,
             List<MetaAttribute> attributes,
             List<RelationshipMetaAttribute> relationshipMetaAttributes,
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
+            EagerJoinGraph eagerJoins,
+            FetchRow joinedRow,
             LockType lockType) throws Exception {
         // basic attributes and relationship attributes
         for (MetaAttribute attribute : attributes) {
-            buildBasicAttribute(attribute, parentInstance, metaEntity, modelValueArray);
+            buildBasicAttribute(attribute, parentInstance, metaEntity, fetchRow);
         }
 
         for (RelationshipMetaAttribute attribute : relationshipMetaAttributes) {
@@ -205,8 +302,8 @@ public class EntityHandlerImpl implements EntityHandler {
         for (MetaEntity embeddable : metaEntity.getEmbeddables()) {
             Object parent = embeddable.getEntityClass().getDeclaredConstructor().newInstance();
             buildAttributeValuesLoadFK(parent, parentInstancePk, embeddable, embeddable.getBasicAttributes(),
-                    embeddable.getRelationshipAttributes(), modelValueArray,
-                    lockType);
+                    embeddable.getRelationshipAttributes(), fetchRow,
+                    null, null, lockType);
             metaEntity.writeEmbeddableValue(parentInstance, parentInstance.getClass(), embeddable,
                     parent);
         }
@@ -215,15 +312,16 @@ public class EntityHandlerImpl implements EntityHandler {
         for (JoinColumnMapping joinColumnMapping : metaEntity.getJoinColumnMappings()) {
             log.debug("Building Relationships -> Join Column Mapping Attribute {}", joinColumnMapping.getAttribute());
             log.debug("Building Relationships -> Join Column Mapping Foreign Key {}", joinColumnMapping.getForeignKey());
-            Object fk = joinColumnMapping.getForeignKey().buildValue(modelValueArray);
+            Object fk = joinColumnMapping.getForeignKey().buildValue(fetchRow);
             if (joinColumnMapping.isLazy()) {
                 joinColumnMapping.getAttribute().setForeignKeyValue(parentInstance, fk);
                 continue;
             }
 
+            EagerJoinGraph join = eagerJoins == null ? null : eagerJoins.getJoin(joinColumnMapping);
             Object parent = loadRelationshipByForeignKey(parentInstance, metaEntity,
                     joinColumnMapping.getAttribute(),
-                    fk, lockType);
+                    fk, join, joinedRow, lockType);
             metaEntity.writeAttributeValue(parentInstance, parentInstance.getClass(),
                     joinColumnMapping.getAttribute(), parent);
         }
@@ -234,8 +332,8 @@ public class EntityHandlerImpl implements EntityHandler {
             MetaAttribute attribute,
             Object parentInstance,
             MetaEntity metaEntity,
-            ModelValueArray<FetchParameter> modelValueArray) throws Exception {
-        int index = AttributeUtil.indexOfAttribute(modelValueArray, attribute);
+            FetchRow fetchRow) throws Exception {
+        int index = fetchRow.indexOf(attribute);
         if (index == -1) {
             throw new IllegalArgumentException(
                     "Column '" + attribute.getColumnName() + "' not found");
@@ -245,7 +343,7 @@ public class EntityHandlerImpl implements EntityHandler {
                 parentInstance,
                 parentInstance.getClass(),
                 attribute,
-                modelValueArray.getValue(index));
+                fetchRow.getValue(index));
     }
 
 
@@ -253,18 +351,18 @@ public class EntityHandlerImpl implements EntityHandler {
             Object parentInstance,
             MetaEntity metaEntity,
             List<MetaAttribute> attributes,
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             LockType lockType) throws Exception {
         // basic attributes and relationship attributes
         for (MetaAttribute attribute : attributes) {
-            buildBasicAttribute(attribute, parentInstance, metaEntity, modelValueArray);
+            buildBasicAttribute(attribute, parentInstance, metaEntity, fetchRow);
         }
 
         // load embeddables
         for (MetaEntity embeddable : metaEntity.getEmbeddables()) {
             Object parent = embeddable.getEntityClass().getDeclaredConstructor().newInstance();
             buildAttributeValuesNoRelationshipLoading(parent, embeddable, embeddable.getBasicAttributes(),
-                    modelValueArray,
+                    fetchRow,
                     lockType);
             metaEntity.writeEmbeddableValue(parentInstance, parentInstance.getClass(), embeddable,
                     parent);
@@ -274,7 +372,7 @@ public class EntityHandlerImpl implements EntityHandler {
         for (JoinColumnMapping joinColumnMapping : metaEntity.getJoinColumnMappings()) {
             log.debug("Building Relationships -> Join Column Mapping Attribute {}", joinColumnMapping.getAttribute());
             log.debug("Building Relationships -> Join Column Mapping Foreign Key {}", joinColumnMapping.getForeignKey());
-            Object fk = joinColumnMapping.getForeignKey().buildValue(modelValueArray);
+            Object fk = joinColumnMapping.getForeignKey().buildValue(fetchRow);
             if (joinColumnMapping.isLazy()) {
                 joinColumnMapping.getAttribute().setForeignKeyValue(parentInstance, fk);
                 continue;
@@ -282,7 +380,7 @@ public class EntityHandlerImpl implements EntityHandler {
 
             MetaEntity toEntity = joinColumnMapping.getAttribute().getRelationship().getAttributeType();
             Object parent = buildEntityByValuesNoRelationshipAttributeLoading(
-                    modelValueArray,
+                    fetchRow,
                     toEntity,
                     lockType);
             metaEntity.writeAttributeValue(parentInstance, parentInstance.getClass(),
@@ -291,10 +389,18 @@ public class EntityHandlerImpl implements EntityHandler {
     }
 
     private Object buildEntityByValuesNoRelationshipAttributeLoading(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
+            MetaEntity entity,
+            LockType lockType) throws Exception {
+        return buildEntityByValuesNoRelationshipAttributeLoading(fetchRow, entity, false, lockType);
+    }
+
+    private Object buildEntityByValuesNoRelationshipAttributeLoading(
+            FetchRow fetchRow,
             MetaEntity entity,
+            boolean loadJoinTables,
             LockType lockType) throws Exception {
-        Object primaryKey = entity.getId().buildValue(modelValueArray);
+        Object primaryKey = entity.getId().buildValue(fetchRow);
         log.debug("Build Entity -> PrimaryKey = {}", primaryKey);
         log.debug("Build Entity -> Entity = {}", entity);
         Object entityInstance = entityContainer.find(entity.getEntityClass(), primaryKey);
@@ -304,20 +410,36 @@ public class EntityHandlerImpl implements EntityHandler {
 
         entityInstance = entity.buildInstance(primaryKey);
         buildAttributeValuesNoRelationshipLoading(entityInstance, entity, entity.getBasicAttributes(),
-                modelValueArray, lockType);
+                fetchRow, lockType);
         entityContainer.addManaged(entityInstance, primaryKey);
         MetaEntityHelper.setEntityStatus(entity, entityInstance, EntityStatus.FLUSHED_LOADED_FROM_DB);
         fillCircularRelationships(entity, entityInstance);
+        if (loadJoinTables) {
+            // runs while the fetch join result set is still open
+            for (RelationshipMetaAttribute attribute : entity.getRelationshipAttributes()) {
+                loadJoinTableRelationships(entityInstance, primaryKey, entity, attribute, lockType);
+            }
+        }
+
         return entityInstance;
     }
 
 
     @Override
     public Object buildEntityNoRelationshipAttributeLoading(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             MetaEntity entity)
             throws Exception {
-        return buildEntityByValuesNoRelationshipAttributeLoading(modelValueArray, entity, lockType);
+        return buildEntityByValuesNoRelationshipAttributeLoading(fetchRow, entity, lockType);
+    }
+
+
+    @Override
+    public Object buildFetchJoinElement(
+            FetchRow fetchRow,
+            MetaEntity entity)
+            throws Exception {
+        return buildEntityByValuesNoRelationshipAttributeLoading(fetchRow, entity, true, lockType);
     }
 
 
@@ -352,6 +474,19 @@ public class EntityHandlerImpl implements EntityHandler {
             Object foreignKeyValue,
             LockType lockType)
             throws Exception {
+        return loadRelationshipByForeignKey(parentInstance, entity, foreignKeyAttribute, foreignKeyValue, null, null,
+                lockType);
+    }
+
+    private Object loadRelationshipByForeignKey(
+            Object parentInstance,
+            MetaEntity entity,
+            AbstractMetaAttribute foreignKeyAttribute,
+            Object foreignKeyValue,
+            EagerJoinGraph join,
+            FetchRow joinedRow,
+            LockType lockType)
+            throws Exception {
         // foreign key on the same table
         log.debug("Building relationships -> Foreign Key Attribute = {}", foreignKeyAttribute);
         log.debug("Building relationships -> Foreign Key Value = {}", foreignKeyValue);
@@ -359,7 +494,12 @@ public class EntityHandlerImpl implements EntityHandler {
         MetaEntity e = persistenceUnitContext.getEntities()
                 .get(foreignKeyAttribute.getType().getName());
         log.debug("Building relationships -> Foreign Key Entity = {}", e);
-        Object foreignKeyInstance = findById(e, foreignKeyValue, lockType);
+        if (foreignKeyValue == null)
+            return null;
+
+        Object foreignKeyInstance = join != null
+                ? findJoined(e, foreignKeyValue, join, joinedRow, lockType)
+                : findById(e, foreignKeyValue, lockType);
         log.debug("Building relationships -> Foreign Key Instance = {}", foreignKeyInstance);
         if (foreignKeyInstance != null) {
             entity.writeAttributeValue(parentInstance, foreignKeyAttribute,
@@ -377,12 +517,293 @@ public class EntityHandlerImpl implements EntityHandler {
     }
 
 
+    /**
+     * Loads the target entities of the pending lazy foreign keys in the persistence context with a single query,
+     * starting from the given key. The in list is padded repeating the last key, so the statements of a few
+     * sizes are reused.
+     */
+    private void batchLoadForeignKeys(MetaEntity target, Object foreignKey, int batchSize) throws Exception {
+        Set<Object> keys = new LinkedHashSet<>();
+        if (isPendingForeignKey(target, foreignKey))
+            keys.add(foreignKey);
+
+        for (MetaEntity entity : persistenceUnitContext.getEntities().values()) {
+            for (JoinColumnMapping joinColumnMapping : entity.getJoinColumnMappings()) {
+                RelationshipMetaAttribute attribute = joinColumnMapping.getAttribute();
+                if (!joinColumnMapping.isLazy() || attribute.getType() != target.getEntityClass())
+                    continue;
+
+                for (Object instance : entityContainer.getManagedEntities(entity.getEntityClass())) {
+                    if (keys.size() == batchSize)
+                        break;
+
+                    if (entity.isLazyAttributeLoaded(attribute, instance))
+                        continue;
+
+                    Object fk = attribute.getForeignKeyValue(instance);
+                    if (fk != null && !keys.contains(fk) && isPendingForeignKey(target, fk))
+                        keys.add(fk);
+                }
+            }
+        }
+
+        if (keys.size() < 2)
+            return;
+
+        List<Object> primaryKeys = new ArrayList<>(keys);
+        int size = BatchFetchSizes.paddedSize(primaryKeys.size(), batchSize);
+        Object lastKey = primaryKeys.get(primaryKeys.size() - 1);
+        while (primaryKeys.size() < size) {
+            primaryKeys.add(lastKey);
+        }
+
+        log.debug("Batch Fetch -> Entity {}, Keys {}", target.getName(), keys);
+        boolean cacheable = secondLevelCacheSession.isEnabled(target);
+        long version = cacheable ? secondLevelCacheSession.getVersion(target) : 0;
+        for (FetchRow fetchRow : jdbcQueryRunner.findByIds(target, primaryKeys)) {
+            Object primaryKey = target.getId().buildValue(fetchRow);
+            // the eager relationships of a previous row can load it
+            if (entityContainer.find(target.getEntityClass(), primaryKey) != null)
+                continue;
+
+            if (cacheable)
+                secondLevelCacheSession.put(target, primaryKey, fetchRow, version);
+
+            buildEntity(target, primaryKey, fetchRow, null, null, LockType.NONE);
+        }
+    }
+
+    /**
+     * The rows are read by a query without the eager joins, they are enabled by the eager join depth. The targets
+     * of the eager to-one associations are loaded by primary key, down to the join depth.
+     */
+    @Override
+    public void loadEagerForeignKeys(List<FetchRow> fetchRows, MetaEntity entity) throws Exception {
+        // locking reads load each target with the lock
+        if (lockType != LockType.NONE)
+            return;
+
+        loadEagerForeignKeys(fetchRows, entity, jdbcQueryRunner.getEagerJoinDepth());
+    }
+
+    private void loadEagerForeignKeys(List<FetchRow> fetchRows, MetaEntity entity, int depth) throws Exception {
+        if (depth < 1 || fetchRows.size() < 2)
+            return;
+
+        List<FetchRow> newRows = new ArrayList<>(fetchRows.size());
+        for (FetchRow fetchRow : fetchRows) {
+            // a managed instance is returned as is, its associations are not read
+            if (entityContainer.find(entity.getEntityClass(), entity.getId().buildValue(fetchRow)) == null)
+                newRows.add(fetchRow);
+        }
+
+        for (JoinColumnMapping joinColumnMapping : entity.getJoinColumnMappings()) {
+            MetaEntity target = joinColumnMapping.getAttribute().getRelationship().getAttributeType();
+            if (joinColumnMapping.isLazy() || target == null)
+                continue;
+
+            Set<Object> keys = new LinkedHashSet<>();
+            for (FetchRow fetchRow : newRows) {
+                Object fk = joinColumnMapping.getForeignKey().buildValue(fetchRow);
+                if (fk != null && isPendingForeignKey(target, fk))
+                    keys.add(fk);
+            }
+
+            if (keys.size() < 2)
+                continue;
+
+            int batchSize = batchFetchSizes.get(entity, joinColumnMapping.getAttribute());
+            if (batchSize < 2)
+                batchSize = EAGER_BATCH_SIZE;
+
+            List<Object> allKeys = new ArrayList<>(keys);
+            for (int i = 0; i < allKeys.size(); i += batchSize) {
+                List<Object> primaryKeys = new ArrayList<>(
+                        allKeys.subList(i, Math.min(i + batchSize, allKeys.size())));
+                int size = BatchFetchSizes.paddedSize(primaryKeys.size(), batchSize);
+                Object lastKey = primaryKeys.get(primaryKeys.size() - 1);
+                while (primaryKeys.size() < size) {
+                    primaryKeys.add(lastKey);
+                }
+
+                log.debug("Eager Batch Fetch -> Entity {}, Keys {}", target.getName(), primaryKeys);
+                List<FetchRow> targetRows = jdbcQueryRunner.findByIds(target, primaryKeys);
+                loadEagerForeignKeys(targetRows, target, depth - 1);
+                boolean cacheable = secondLevelCacheSession.isEnabled(target);
+                long version = cacheable ? secondLevelCacheSession.getVersion(target) : 0;
+                for (FetchRow targetRow : targetRows) {
+                    Object primaryKey = target.getId().buildValue(targetRow);
+                    if (entityContainer.find(target.getEntityClass(), primaryKey) != null)
+                        continue;
+
+                    if (cacheable)
+                        secondLevelCacheSession.put(target, primaryKey, targetRow, version);
+
+                    buildEntity(target, primaryKey, targetRow, null, null, LockType.NONE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the collection of the given parent and the same lazy collection of the other parents in the
+     * persistence context with a single query. The parents are padded repeating the last one, so the statements
+     * of a few sizes are reused.
+     *
+     * @return the collection of the parent instance, null if there are no other parents to load
+     */
+    private Object batchLoadCollection(
+            Object parentInstance,
+            MetaEntity parentEntity,
+            RelationshipMetaAttribute attribute,
+            int batchSize) throws Exception {
+        Relationship relationship = attribute.getRelationship();
+        if (relationship.getJoinTable() != null && parentEntity.getId().isComposite())
+            return null;
+
+        List<Object> parents = new ArrayList<>();
+        parents.add(parentInstance);
+        for (Object instance : entityContainer.getManagedEntities(parentEntity.getEntityClass())) {
+            if (parents.size() == batchSize)
+                break;
+
+            if (instance != parentInstance
+                    && MetaEntityHelper.getEntityStatus(parentEntity, instance) == EntityStatus.FLUSHED_LOADED_FROM_DB
+                    && !parentEntity.isLazyAttributeLoaded(attribute, instance))
+                parents.add(instance);
+        }
+
+        if (parents.size() < 2)
+            return null;
+
+        Map<Object, Collection<Object>> collections = new HashMap<>();
+        List<Object> primaryKeys = new ArrayList<>();
+        for (Object parent : parents) {
+            Object primaryKey = parentEntity.getId().readValue(parent);
+            primaryKeys.add(primaryKey);
+            collections.put(primaryKey, (Collection<Object>) CollectionUtils.createInstance(null,
+                    attribute.getCollectionImplementationClass()));
+        }
+
+        int size = BatchFetchSizes.paddedSize(parents.size(), batchSize);
+        while (parents.size() < size) {
+            parents.add(parents.get(parents.size() - 1));
+            primaryKeys.add(primaryKeys.get(primaryKeys.size() - 1));
+        }
+
+        log.debug("Batch Fetch -> Attribute {}, Keys {}", attribute.getName(), collections.keySet());
+        setLockType(LockType.NONE);
+        if (relationship.getJoinTable() == null) {
+            MetaEntity entity = persistenceUnitContext.getEntities()
+                    .get(relationship.getTargetEntityClass().getName());
+            JoinColumnMapping joinColumnMapping = entity.expandJoinColumnMappings().stream()
+                    .filter(j -> j.getAttribute().getName().equals(relationship.getOwningAttribute().getName()))
+                    .findFirst().get();
+            for (FetchRow fetchRow : jdbcQueryRunner.selectByForeignKeys(entity, relationship.getOwningAttribute(),
+                    parents)) {
+                Object instance = build(fetchRow, entity);
+                collections.get(joinColumnMapping.getForeignKey().buildValue(fetchRow)).add(instance);
+            }
+        } else {
+            MetaEntity entity = relationship.getAttributeType();
+            for (FetchRow fetchRow : jdbcQueryRunner.selectByJoinTableKeys(primaryKeys, parentEntity.getId(),
+                    relationship)) {
+                Object instance = build(fetchRow, entity);
+                collections.get(fetchRow.getValue(fetchRow.size() - 1)).add(instance);
+            }
+        }
+
+        for (int i = 1; i < parents.size(); ++i) {
+            Object parent = parents.get(i);
+            if (parent == parentInstance || parentEntity.isLazyAttributeLoaded(attribute, parent))
+                continue;
+
+            parentEntity.writeAttributeValue(parent, parent.getClass(), attribute,
+                    collections.get(primaryKeys.get(i)));
+            parentEntity.lazyAttributeLoaded(attribute, parent, true);
+        }
+
+        return collections.get(primaryKeys.get(0));
+    }
+
+    /**
+     * Loads the attributes of the entity graph nodes of all the instances. The lazy associations of the same
+     * attribute are read with batch queries, so each node costs a statement instead of one for each instance.
+     *
+     * @param instances      the entity instances
+     * @param attributeNodes the graph nodes
+     */
+    public void loadGraph(Collection<?> instances, List<AttributeNode<?>> attributeNodes) throws Exception {
+        Map<MetaEntity, List<Object>> entityInstances = new LinkedHashMap<>();
+        for (Object instance : instances) {
+            MetaEntity entity = instance == null ? null : persistenceUnitContext.getEntity(instance.getClass());
+            if (entity != null)
+                entityInstances.computeIfAbsent(entity, k -> new ArrayList<>()).add(instance);
+        }
+
+        for (Map.Entry<MetaEntity, List<Object>> entry : entityInstances.entrySet()) {
+            MetaEntity entity = entry.getKey();
+            int batchSize = BatchFetchSizes.paddedSize(entry.getValue().size(), MAX_GRAPH_BATCH_SIZE);
+            for (AttributeNode<?> attributeNode : attributeNodes) {
+                AbstractMetaAttribute a = entity.getAttribute(attributeNode.getAttributeName());
+                if (!(a instanceof RelationshipMetaAttribute))
+                    continue;
+
+                Set<Object> values = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (Object instance : entry.getValue()) {
+                    Object value = loadGraphAttribute(instance, entity, (RelationshipMetaAttribute) a, batchSize);
+                    if (value instanceof Collection)
+                        values.addAll((Collection<?>) value);
+                    else if (value != null)
+                        values.add(value);
+                }
+
+                for (Map.Entry<Class, Subgraph> subgraph : attributeNode.getSubgraphs().entrySet()) {
+                    List<Object> targets = values.stream().filter(subgraph.getKey()::isInstance)
+                            .collect(Collectors.toList());
+                    loadGraph(targets, subgraph.getValue().getAttributeNodes());
+                }
+            }
+        }
+    }
+
+    private Object loadGraphAttribute(
+            Object instance,
+            MetaEntity entity,
+            RelationshipMetaAttribute attribute,
+            int batchSize) throws Exception {
+        if (!attribute.isLazy() || entity.isLazyAttributeLoaded(attribute, instance)
+                || MetaEntityHelper.getEntityStatus(entity, instance) != EntityStatus.FLUSHED_LOADED_FROM_DB)
+            return attribute.getValue(instance);
+
+        Object value = loadAttribute(instance, attribute, null,
+                Math.max(batchFetchSizes.get(entity, attribute), batchSize));
+        entity.writeAttributeValue(instance, instance.getClass(), attribute, value);
+        entity.lazyAttributeLoaded(attribute, instance, true);
+        return value;
+    }
+
+    private boolean isPendingForeignKey(MetaEntity target, Object foreignKey) throws Exception {
+        return entityContainer.find(target.getEntityClass(), foreignKey) == null
+                && !secondLevelCacheSession.contains(target, foreignKey);
+    }
+
     @Override
     public Object loadAttribute(
             Object parentInstance,
             AbstractMetaAttribute a,
             Object currentValue)
             throws Exception {
+        MetaEntity parentEntity = persistenceUnitContext.getEntity(parentInstance.getClass());
+        return loadAttribute(parentInstance, a, currentValue, batchFetchSizes.get(parentEntity, a));
+    }
+
+    private Object loadAttribute(
+            Object parentInstance,
+            AbstractMetaAttribute a,
+            Object currentValue,
+            int batchSize)
+            throws Exception {
         if (a instanceof MetaAttribute)
             return null;
 
@@ -395,16 +816,28 @@ public class EntityHandlerImpl implements EntityHandler {
 
         log.debug("Loading Attribute -> Relationship Target Attribute = {}", relationship.getTargetAttribute());
         if (!relationship.toMany()) {
-            MetaEntity entity = persistenceUnitContext.getEntities()
-                    .get(parentInstance.getClass().getName());
+            MetaEntity entity = persistenceUnitContext
+                    .getEntity(parentInstance.getClass());
             Object foreignKey = relationshipMetaAttribute.getForeignKeyValue(parentInstance);
             log.debug("Loading Attribute -> Foreign Key = {}", foreignKey);
+            if (batchSize > 1 && foreignKey != null)
+                batchLoadForeignKeys(persistenceUnitContext.getEntities().get(a.getType().getName()), foreignKey,
+                        batchSize);
+
             return loadRelationshipByForeignKey(parentInstance, entity, a, foreignKey,
                     LockType.NONE);
         }
 
         log.debug("Loading Attribute -> To Many Relationship Join Table = {}",
                 relationship.getJoinTable());
+        MetaEntity parentEntity = persistenceUnitContext.getEntity(parentInstance.getClass());
+        if (batchSize > 1) {
+            Object collection = batchLoadCollection(parentInstance, parentEntity, relationshipMetaAttribute,
+                    batchSize);
+            if (collection != null)
+                return collection;
+        }
+
         if (relationship.getJoinTable() == null) {
             MetaEntity entity = persistenceUnitContext.getEntities()
                     .get(relationship.getTargetEntityClass().getName());
@@ -425,7 +858,7 @@ public class EntityHandlerImpl implements EntityHandler {
                     this);
         }
 
-        MetaEntity e = persistenceUnitContext.getEntities().get(parentInstance.getClass().getName());
+        MetaEntity e = persistenceUnitContext.getEntity(parentInstance.getClass());
         Object pk = e.getId().readValue(parentInstance);
         log.debug("Loading Attribute -> Primary Key = {}", pk);
         return jdbcQueryRunner.selectByJoinTable(pk, e.getId(), relationship, relationshipMetaAttribute, this);
@@ -471,25 +904,46 @@ public class EntityHandlerImpl implements EntityHandler {
         }
 
         parameters.add(entity.getId().getAttribute().queryParameter(idValue));
+        Object currentVersionValue = null;
         if (MetaEntityHelper.hasOptimisticLock(entity, entityInstance)) {
-            Object currentVersionValue = entity.getVersionMetaAttribute().getReadMethod()
+            currentVersionValue = entity.getVersionMetaAttribute().getReadMethod()
                     .invoke(entityInstance);
             parameters.add(
                     entity.getVersionMetaAttribute().queryParameter(currentVersionValue));
         }
 
-        int updateCount = jdbcQueryRunner.update(entity, parameters, columns, idColumns);
-        if (updateCount == 0) {
-            if (entity.getVersionMetaAttribute() != null) {
-                Object currentVersionValue = entity.getVersionMetaAttribute().getReadMethod()
-                        .invoke(entityInstance);
-                throw new OptimisticLockException(
-                        "Entity was written by another transaction, version: " + currentVersionValue);
+        // the version value is updated before the update count is checked, the update can be batched.
+        // It is restored if the update fails
+        MetaEntityHelper.updateVersionAttributeValue(entity, entityInstance);
+        Object versionValue = currentVersionValue;
+        secondLevelCacheSession.written(entity, idValue);
+        jdbcQueryRunner.update(entity, parameters, columns, idColumns, new UpdateCountCheck() {
+            @Override
+            public void check(int updateCount) throws Exception {
+                log.debug("Update -> Update Count = {}", updateCount);
+                if (updateCount == 0 && entity.getVersionMetaAttribute() != null) {
+                    failed();
+                    throw new OptimisticLockException(
+                            "Entity was written by another transaction, version: " + versionValue);
+                }
             }
-        }
 
-        log.debug("Update -> Update Count = {}", updateCount);
-        MetaEntityHelper.updateVersionAttributeValue(entity, entityInstance);
+            @Override
+            public void failed() throws Exception {
+                if (entity.getVersionMetaAttribute() != null)
+                    entity.getVersionMetaAttribute().getWriteMethod().invoke(entityInstance, versionValue);
+            }
+
+            @Override
+            public void notReported() throws Exception {
+                // the version can't be checked, the update is not assumed to be successful
+                if (entity.getVersionMetaAttribute() != null) {
+                    failed();
+                    throw new OptimisticLockException(
+                            "Update count not reported, the version can't be checked: " + versionValue);
+                }
+            }
+        });
     }
 
     protected void insert(
@@ -520,6 +974,7 @@ public class EntityHandlerImpl implements EntityHandler {
 
             Object idv = entity.getId().convertGeneratedKey(pkId);
             entity.getId().writeValue(entityInstance, idv);
+            secondLevelCacheSession.written(entity, idv);
             if (optVersion.isPresent()) {
                 entity.getVersionMetaAttribute().getWriteMethod()
                         .invoke(entityInstance, optVersion.get().getValue());
@@ -537,6 +992,7 @@ public class EntityHandlerImpl implements EntityHandler {
             Optional<QueryParameter> optVersion = MetaEntityHelper.generateVersionParameter(entity);
             optVersion.ifPresent(parameters::add);
 
+            secondLevelCacheSession.written(entity, idValue);
             jdbcQueryRunner.insert(entity, entityInstance, parameters);
             if (optVersion.isPresent()) {
                 entity.getVersionMetaAttribute().getWriteMethod()
@@ -597,6 +1053,7 @@ public class EntityHandlerImpl implements EntityHandler {
                     log.debug("Persist Join Table Attributes -> Entity Instance List = {}", ees);
                     if (entityContainer.isManaged(ees) && !ees.isEmpty()) {
                         // removes the join table records first
+                        secondLevelCacheSession.tableWritten(a.getRelationship().getJoinTable().getTableName());
                         jdbcQueryRunner.removeJoinTableRecords(entity, idValue, idParameters,
                                 a.getRelationship().getJoinTable());
                         persistJoinTableAttributes(ees, a, entityInstance);
@@ -632,6 +1089,7 @@ public class EntityHandlerImpl implements EntityHandler {
                 .map(Relationship::getJoinTable)
                 .collect(Collectors.toSet());
         for (RelationshipJoinTable relationshipJoinTable : relationshipJoinTables) {
+            secondLevelCacheSession.tableWritten(relationshipJoinTable.getTableName());
             jdbcQueryRunner.removeJoinTableRecords(e, idValue, idParameters,
                     relationshipJoinTable);
         }
@@ -649,6 +1107,7 @@ public class EntityHandlerImpl implements EntityHandler {
             idParameters.add(e.getVersionMetaAttribute().queryParameter(currentVersionValue));
         }
 
+        secondLevelCacheSession.written(e, idValue);
         jdbcQueryRunner.deleteById(e, idParameters);
     }
 }
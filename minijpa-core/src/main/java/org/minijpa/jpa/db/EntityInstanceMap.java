@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jpa.model.MetaEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Managed instances of an entity class, by primary key. The primary key of each instance is kept in an identity
+ * map, so the managed state of an instance is checked without reading its id. Long and Integer primary keys are
+ * stored as primitive keys.
+ */
+public class EntityInstanceMap {
+
+    private final MetaEntity metaEntity;
+    private final LongObjectMap<Object> longKeyInstances;
+    private final Map<Object, Object> instances;
+    private final Map<Object, Object> instanceIds = new IdentityHashMap<>();
+
+    public EntityInstanceMap(MetaEntity metaEntity) {
+        this.metaEntity = metaEntity;
+        if (hasLongKey(metaEntity)) {
+            this.longKeyInstances = new LongObjectMap<>();
+            this.instances = null;
+        } else {
+            this.longKeyInstances = null;
+            this.instances = new HashMap<>();
+        }
+    }
+
+    private static boolean hasLongKey(MetaEntity metaEntity) {
+        if (metaEntity.getId() == null || metaEntity.getId().isComposite())
+            return false;
+
+        Class<?> type = metaEntity.getId().getType();
+        return type == Long.class || type == Integer.class || type == Long.TYPE || type == Integer.TYPE;
+    }
+
+    public MetaEntity getMetaEntity() {
+        return metaEntity;
+    }
+
+    public Object get(Object primaryKey) {
+        if (longKeyInstances == null)
+            return instances.get(primaryKey);
+
+        if (!(primaryKey instanceof Long) && !(primaryKey instanceof Integer))
+            return null;
+
+        return longKeyInstances.get(((Number) primaryKey).longValue());
+    }
+
+    private Object putInstance(Object primaryKey, Object entityInstance) {
+        if (longKeyInstances == null)
+            return instances.put(primaryKey, entityInstance);
+
+        return longKeyInstances.put(((Number) primaryKey).longValue(), entityInstance);
+    }
+
+    private void removeInstance(Object primaryKey) {
+        if (longKeyInstances == null)
+            instances.remove(primaryKey);
+        else
+            longKeyInstances.remove(((Number) primaryKey).longValue());
+    }
+
+    /**
+     * Adds the instance. An instance with the same primary key is replaced. Instances without a primary key
+     * are not added.
+     *
+     * @param primaryKey     primary key
+     * @param entityInstance entity instance
+     */
+    public void put(Object primaryKey, Object entityInstance) {
+        if (primaryKey == null)
+            return;
+
+        Object previousId = instanceIds.put(entityInstance, primaryKey);
+        if (previousId != null && !previousId.equals(primaryKey) && get(previousId) == entityInstance)
+            removeInstance(previousId);
+
+        Object previous = putInstance(primaryKey, entityInstance);
+        if (previous != null && previous != entityInstance)
+            instanceIds.remove(previous);
+    }
+
+    /**
+     * Removes the instance.
+     *
+     * @param entityInstance entity instance
+     * @return the primary key of the removed instance or null if the instance is not in the map
+     */
+    public Object remove(Object entityInstance) {
+        Object primaryKey = instanceIds.remove(entityInstance);
+        if (primaryKey != null && get(primaryKey) == entityInstance)
+            removeInstance(primaryKey);
+
+        return primaryKey;
+    }
+
+    public boolean contains(Object entityInstance) {
+        return instanceIds.containsKey(entityInstance);
+    }
+
+    public int size() {
+        return instanceIds.size();
+    }
+
+    /**
+     * @return a copy of the managed instances
+     */
+    public List<Object> getInstances() {
+        return new ArrayList<>(instanceIds.keySet());
+    }
+}
@@ -13,34 +13,47 @@
  */
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
-import org.minijpa.jdbc.ModelValueArray;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jpa.model.MetaEntity;
 
+import java.util.List;
+
 /**
  * @author adamato
  */
 public interface EntityLoader {
 
-  Object build(ModelValueArray<FetchParameter> modelValueArray, MetaEntity entity)
+  Object build(FetchRow fetchRow, MetaEntity entity)
+      throws Exception;
+
+  /**
+   * Builds the entity instance from a row that also reads the eager to-one associations joined to it.
+   *
+   * @param fetchRow   the row of the whole graph
+   * @param entity     the entity
+   * @param eagerJoins the joined associations
+   * @return the entity instance
+   * @throws Exception
+   */
+  Object build(FetchRow fetchRow, MetaEntity entity, EagerJoinGraph eagerJoins)
       throws Exception;
 
   /**
    * Build the entity instance.
    *
-   * @param modelValueArray
+   * @param fetchRow
    * @param entity
    * @return
    * @throws Exception
    */
 //  public Object buildNoQueries(
-//          ModelValueArray<FetchParameter> modelValueArray,
+//          FetchRow fetchRow,
 //          MetaEntity entity,
 //          LockType lockType)
 //      throws Exception;
 
 //  public Object buildEntityByValues(
-//          ModelValueArray<FetchParameter> modelValueArray,
+//          FetchRow fetchRow,
 //          MetaEntity entity,
 //          LockType lockType,
 //          EntityBuilder entityBuilder) throws Exception;
@@ -49,13 +62,40 @@ public interface EntityLoader {
      * Build the entity instance. Relationship attributes are not loaded. Useful in case of Fetch
      * Join.
      *
-     * @param modelValueArray
+     * @param fetchRow
      * @param entity
      * @return
      * @throws Exception
      */
   public Object buildEntityNoRelationshipAttributeLoading(
-      ModelValueArray<FetchParameter> modelValueArray,
+      FetchRow fetchRow,
+      MetaEntity entity)
+      throws Exception;
+
+    /**
+     * Loads the targets of the eager to-one associations of the given rows with batched queries, so building
+     * the entities of the rows doesn't run a query for each row.
+     *
+     * @param fetchRows the rows of the entity
+     * @param entity    the entity
+     * @throws Exception
+     */
+  public void loadEagerForeignKeys(
+      List<FetchRow> fetchRows,
+      MetaEntity entity)
+      throws Exception;
+
+    /**
+     * Builds an element of a fetch join. Like {@link #buildEntityNoRelationshipAttributeLoading(FetchRow, MetaEntity)}
+     * but the eager associations mapped with a join table are loaded.
+     *
+     * @param fetchRow
+     * @param entity
+     * @return
+     * @throws Exception
+     */
+  public Object buildFetchJoinElement(
+      FetchRow fetchRow,
       MetaEntity entity)
       throws Exception;
 
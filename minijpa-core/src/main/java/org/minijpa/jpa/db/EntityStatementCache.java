@@ -0,0 +1,207 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jdbc.db.SqlSelectData;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered CRUD statements of an entity. A statement is generated the first time its shape is requested
+ * (statement kind, lock type and column set) and reused for the life of the entity manager factory.
+ *
+ * @author Antonio Damato <anto.damato@gmail.com>
+ */
+public class EntityStatementCache {
+
+    public enum Kind {
+        SELECT_BY_ID, INSERT, INSERT_IDENTITY, INSERT_IDENTITY_NULL, UPDATE, DELETE_BY_ID, SELECT_BY_FOREIGN_KEY,
+        SELECT_BY_FOREIGN_KEYS, SELECT_BY_JOIN_TABLE_KEYS;
+    }
+
+    @FunctionalInterface
+    public interface StatementBuilder<T> {
+        T build() throws Exception;
+    }
+
+    private final Map<StatementKey, String> sqlStatements = new ConcurrentHashMap<>();
+    private final Map<LockType, SelectStatement> selectByIdStatements = new ConcurrentHashMap<>();
+    private final Map<Integer, SelectStatement> selectByIdsStatements = new ConcurrentHashMap<>();
+    private final Map<StatementKey, SelectStatement> selectStatements = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the select by id statement for the given lock type, building it on first use.
+     *
+     * @param lockType lock type, null means no lock
+     * @param builder  statement builder
+     * @return the select statement
+     */
+    public SelectStatement getSelectById(
+            LockType lockType,
+            StatementBuilder<SelectStatement> builder) throws Exception {
+        LockType key = lockType == null ? LockType.NONE : lockType;
+        SelectStatement selectStatement = selectByIdStatements.get(key);
+        if (selectStatement != null)
+            return selectStatement;
+
+        selectStatement = builder.build();
+        SelectStatement previous = selectByIdStatements.putIfAbsent(key, selectStatement);
+        return previous != null ? previous : selectStatement;
+    }
+
+    /**
+     * Returns the select by ids statement for the given number of primary keys, building it on first use.
+     *
+     * @param size    number of primary keys
+     * @param builder statement builder
+     * @return the select statement
+     */
+    public SelectStatement getSelectByIds(
+            int size,
+            StatementBuilder<SelectStatement> builder) throws Exception {
+        SelectStatement selectStatement = selectByIdsStatements.get(size);
+        if (selectStatement != null)
+            return selectStatement;
+
+        selectStatement = builder.build();
+        SelectStatement previous = selectByIdsStatements.putIfAbsent(size, selectStatement);
+        return previous != null ? previous : selectStatement;
+    }
+
+    /**
+     * Returns the select statement matching 'size' keys on the given columns, building it on first use.
+     *
+     * @param kind    statement kind
+     * @param columns key columns
+     * @param size    number of keys
+     * @param builder statement builder
+     * @return the select statement
+     */
+    public SelectStatement getSelect(
+            Kind kind,
+            List<String> columns,
+            int size,
+            StatementBuilder<SelectStatement> builder) throws Exception {
+        StatementKey key = new StatementKey(kind, columns, List.of(), size);
+        SelectStatement selectStatement = selectStatements.get(key);
+        if (selectStatement != null)
+            return selectStatement;
+
+        selectStatement = builder.build();
+        SelectStatement previous = selectStatements.putIfAbsent(
+                new StatementKey(kind, List.copyOf(columns), List.of(), size), selectStatement);
+        return previous != null ? previous : selectStatement;
+    }
+
+    /**
+     * Returns the sql for the given statement shape, building it on first use.
+     *
+     * @param kind      statement kind
+     * @param columns   statement columns, in parameter order
+     * @param idColumns id and version columns used in the where clause
+     * @param builder   sql builder
+     * @return the sql
+     */
+    public String getSql(
+            Kind kind,
+            List<String> columns,
+            List<String> idColumns,
+            StatementBuilder<String> builder) throws Exception {
+        StatementKey key = new StatementKey(kind, columns, idColumns, 0);
+        String sql = sqlStatements.get(key);
+        if (sql != null)
+            return sql;
+
+        sql = builder.build();
+        sqlStatements.putIfAbsent(new StatementKey(kind, List.copyOf(columns), List.copyOf(idColumns), 0), sql);
+        return sql;
+    }
+
+    public int size() {
+        return sqlStatements.size() + selectByIdStatements.size() + selectByIdsStatements.size()
+                + selectStatements.size();
+    }
+
+    public static class SelectStatement {
+
+        private final SqlSelectData sqlSelectData;
+        private final String sql;
+        private final EagerJoinGraph eagerJoins;
+
+        public SelectStatement(SqlSelectData sqlSelectData, String sql) {
+            this(sqlSelectData, sql, null);
+        }
+
+        public SelectStatement(SqlSelectData sqlSelectData, String sql, EagerJoinGraph eagerJoins) {
+            this.sqlSelectData = sqlSelectData;
+            this.sql = sql;
+            this.eagerJoins = eagerJoins;
+        }
+
+        public SqlSelectData getSqlSelectData() {
+            return sqlSelectData;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * Returns the eager to-one associations read by the statement.
+         *
+         * @return the joined associations, null if none
+         */
+        public EagerJoinGraph getEagerJoins() {
+            return eagerJoins;
+        }
+    }
+
+    private static class StatementKey {
+
+        private final Kind kind;
+        private final List<String> columns;
+        private final List<String> idColumns;
+        private final int size;
+        private final int hash;
+
+        private StatementKey(Kind kind, List<String> columns, List<String> idColumns, int size) {
+            this.kind = kind;
+            this.columns = columns;
+            this.idColumns = idColumns;
+            this.size = size;
+            this.hash = Objects.hash(kind, columns, idColumns, size);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (!(o instanceof StatementKey))
+                return false;
+
+            StatementKey that = (StatementKey) o;
+            return hash == that.hash && kind == that.kind && size == that.size && columns.equals(that.columns)
+                    && idColumns.equals(that.idColumns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
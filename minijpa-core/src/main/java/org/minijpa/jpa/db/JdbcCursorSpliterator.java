@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jdbc.JdbcCursor;
+import org.minijpa.jdbc.JdbcRowRecordBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the records of an open cursor one row at a time. The cursor is closed when the rows are
+ * exhausted, when a row cannot be read or when the stream is closed.
+ */
+public class JdbcCursorSpliterator extends Spliterators.AbstractSpliterator<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcCursorSpliterator.class);
+    private final JdbcCursor jdbcCursor;
+    private final JdbcRowRecordBuilder recordBuilder;
+    private final Consumer<Object> recordListener;
+
+    public JdbcCursorSpliterator(
+            JdbcCursor jdbcCursor,
+            JdbcRowRecordBuilder recordBuilder,
+            Consumer<Object> recordListener) throws Exception {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.jdbcCursor = jdbcCursor;
+        this.recordBuilder = recordBuilder;
+        this.recordListener = recordListener;
+        try {
+            recordBuilder.init(jdbcCursor.getResultSet());
+        } catch (Exception e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Object> action) {
+        try {
+            while (jdbcCursor.next()) {
+                Object record = recordBuilder.buildRecord(jdbcCursor.getResultSet());
+                if (record == null) {
+                    continue;
+                }
+
+                if (recordListener != null) {
+                    recordListener.accept(record);
+                }
+
+                action.accept(record);
+                return true;
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        } catch (Exception e) {
+            close();
+            throw new PersistenceException(e.getMessage(), e);
+        }
+
+        close();
+        return false;
+    }
+
+    public void close() {
+        try {
+            jdbcCursor.close();
+        } catch (Exception e) {
+            log.warn("Unable to close the cursor: {}", e.getMessage());
+        }
+    }
+
+    public Stream<Object> stream() {
+        return StreamSupport.stream(this, false).onClose(this::close);
+    }
+}
@@ -15,6 +15,7 @@ package org.minijpa.jpa.db;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.persistence.Parameter;
 import javax.persistence.Query;
@@ -32,22 +33,81 @@ public interface JdbcEntityManager {
 
     public void flush() throws Exception;
 
-    public List<?> selectCriteriaQuery(Query query, CriteriaQuery criteriaQuery) throws Exception;
+    /**
+     * Flushes the persistence context if the pending changes write any of the tables read by the statement.
+     *
+     * @param statementParameters the compiled query
+     * @throws Exception if an error occurs
+     */
+    public void autoFlush(StatementParameters statementParameters) throws Exception;
+
+    public void autoFlush(String jpqlStatement, Map<String, Object> hints) throws Exception;
+
+    /**
+     * Flushes the persistence context if the pending changes write any of the tables read by the criteria query.
+     *
+     * @param query         the query
+     * @param criteriaQuery the criteria query
+     * @return the statement built to check the tables read by the query, null if the check didn't build it
+     * @throws Exception if an error occurs
+     */
+    public StatementParameters autoFlush(Query query, CriteriaQuery criteriaQuery) throws Exception;
+
+    /**
+     * Runs a criteria query.
+     *
+     * @param query               the query
+     * @param criteriaQuery       the criteria query
+     * @param statementParameters the statement returned by the auto flush or null
+     * @return the result list
+     * @throws Exception if an error occurs
+     */
+    public List<?> selectCriteriaQuery(
+            Query query,
+            CriteriaQuery criteriaQuery,
+            StatementParameters statementParameters) throws Exception;
 
     public List<?> selectJpql(
             StatementParameters statementParameters,
             Map<Parameter<?>, Object> parameterMap,
             Map<String, Object> hints,
             LockType lockType,
-            Class<?> resultClass);
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults);
 
     public List<?> selectJpql(String jpqlStatement,
                               Map<Parameter<?>, Object> parameterMap,
                               Map<String, Object> hints,
-                              Class<?> resultClass) throws Exception;
+                              Class<?> resultClass,
+                              int firstResult,
+                              int maxResults) throws Exception;
 
     public List<?> selectNative(NativeQuery query) throws Exception;
 
+    public Stream<?> streamCriteriaQuery(
+            Query query,
+            CriteriaQuery criteriaQuery,
+            StatementParameters statementParameters) throws Exception;
+
+    public Stream<?> streamJpql(
+            StatementParameters statementParameters,
+            Map<Parameter<?>, Object> parameterMap,
+            Map<String, Object> hints,
+            LockType lockType,
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults) throws Exception;
+
+    public Stream<?> streamJpql(String jpqlStatement,
+                                Map<Parameter<?>, Object> parameterMap,
+                                Map<String, Object> hints,
+                                Class<?> resultClass,
+                                int firstResult,
+                                int maxResults) throws Exception;
+
+    public Stream<?> streamNative(NativeQuery query) throws Exception;
+
     public int update(String sqlString, Query query) throws Exception;
 
     public int update(UpdateQuery updateQuery) throws Exception;
@@ -18,8 +18,12 @@ import org.minijpa.jdbc.JdbcRunner.JdbcNativeRecordBuilder;
 import org.minijpa.jdbc.db.SqlSelectData;
 import org.minijpa.jdbc.db.SqlSelectDataBuilder;
 import org.minijpa.jpa.*;
+import org.minijpa.jpa.criteria.CriteriaUtils;
+import org.minijpa.jpa.criteria.MiniRoot;
 import org.minijpa.jpa.criteria.join.CollectionJoinImpl;
 import org.minijpa.jpa.db.querymapping.EntityMapping;
+import org.minijpa.jpa.graph.MiniEntityGraph;
+import org.minijpa.jpa.graph.MiniSubgraph;
 import org.minijpa.jpa.db.querymapping.QueryResultMapping;
 import org.minijpa.jpa.jpql.SemanticException;
 import org.minijpa.jpa.model.AbstractMetaAttribute;
@@ -34,6 +38,7 @@ import org.minijpa.sql.model.join.FromJoin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.persistence.EntityGraph;
 import javax.persistence.Parameter;
 import javax.persistence.PersistenceException;
 import javax.persistence.Query;
@@ -42,24 +47,44 @@ import javax.persistence.criteria.CompoundSelection;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
     private static final Logger log = LoggerFactory.getLogger(JdbcEntityManagerImpl.class);
+    // max number of elements of an in list, Oracle doesn't accept more
+    private static final int MAX_IN_LIST_SIZE = 1000;
     protected DbConfiguration dbConfiguration;
     protected PersistenceUnitContext persistenceUnitContext;
     private final EntityContainer entityContainer;
     protected ConnectionHolder connectionHolder;
-    private final EntityHandler entityHandler;
+    private final JdbcQueryRunner jdbcQueryRunner;
+    private final EntityHandlerImpl entityHandler;
     private final JpqlModule jpqlModule;
-    private final JdbcFetchParameterRecordBuilder jdbcFetchParameterRecordBuilder = new JdbcFetchParameterRecordBuilder();
-    private final JdbcRunner.JdbcRecordBuilderValue jdbcJpqlRecordBuilder = new JdbcRunner.JdbcRecordBuilderValue();
-    private final JdbcTupleRecordBuilder jdbcTupleRecordBuilder = new JdbcTupleRecordBuilder();
-    private final JdbcNativeRecordBuilder nativeRecordBuilder = new JdbcNativeRecordBuilder();
-    private final JdbcQRMRecordBuilder qrmRecordBuilder = new JdbcQRMRecordBuilder();
-    private final JdbcFetchJoinRecordBuilder jdbcFetchJoinRecordBuilder = new JdbcFetchJoinRecordBuilder();
+    private final SecondLevelCacheSession secondLevelCacheSession = new SecondLevelCacheSession();
+    private SequenceAllocators sequenceAllocators = new SequenceAllocators(SequenceOptimizer.POOLED_LO);
+    private JpqlPlanCache jpqlPlanCache = new JpqlPlanCache(JpqlPlanCache.DEFAULT_MAX_SIZE);
+    private final RecordBuilderPool<JdbcFetchParameterRecordBuilder> fetchParameterRecordBuilders = new RecordBuilderPool<>(
+            JdbcFetchParameterRecordBuilder::new, JdbcFetchParameterRecordBuilder::clear);
+    private final RecordBuilderPool<JdbcRunner.JdbcRecordBuilderValue> jpqlRecordBuilders = new RecordBuilderPool<>(
+            JdbcRunner.JdbcRecordBuilderValue::new, JdbcRunner.JdbcRecordBuilderValue::clear);
+    private final RecordBuilderPool<JdbcTupleRecordBuilder> tupleRecordBuilders = new RecordBuilderPool<>(
+            JdbcTupleRecordBuilder::new, JdbcTupleRecordBuilder::clear);
+    private final RecordBuilderPool<JdbcNativeRecordBuilder> nativeRecordBuilders = new RecordBuilderPool<>(
+            JdbcNativeRecordBuilder::new, JdbcNativeRecordBuilder::clear);
+    private final RecordBuilderPool<JdbcQRMRecordBuilder> qrmRecordBuilders = new RecordBuilderPool<>(
+            JdbcQRMRecordBuilder::new, JdbcQRMRecordBuilder::clear);
+    private final RecordBuilderPool<JdbcFetchJoinRecordBuilder> fetchJoinRecordBuilders = new RecordBuilderPool<>(
+            JdbcFetchJoinRecordBuilder::new, JdbcFetchJoinRecordBuilder::clear);
+    // entities whose join table records are written at flush time
+    private final List<MetaEntity> joinTableOwningEntities;
+    // tables written when flushing an entity, used to skip the AUTO flush if a query doesn't read them
+    private final Map<MetaEntity, Set<String>> flushTables;
 
     public JdbcEntityManagerImpl(DbConfiguration dbConfiguration,
                                  PersistenceUnitContext persistenceUnitContext,
@@ -69,23 +94,129 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         this.persistenceUnitContext = persistenceUnitContext;
         this.entityContainer = entityContainer;
         this.connectionHolder = connectionHolder;
-        this.entityHandler = new EntityHandlerImpl(persistenceUnitContext, entityContainer,
-                new JdbcQueryRunner(connectionHolder, dbConfiguration,
-                        persistenceUnitContext.getAliasGenerator()));
+        this.jdbcQueryRunner = new JdbcQueryRunner(connectionHolder, dbConfiguration,
+                persistenceUnitContext.getAliasGenerator());
+        this.entityHandler = new EntityHandlerImpl(persistenceUnitContext, entityContainer, jdbcQueryRunner,
+                secondLevelCacheSession);
         this.jpqlModule = new JpqlModule(dbConfiguration, persistenceUnitContext);
+        this.joinTableOwningEntities = persistenceUnitContext.getEntities().values().stream()
+                .filter(e -> e.getRelationshipAttributes().stream()
+                        .anyMatch(a -> a.getRelationship().getJoinTable() != null && a.getRelationship().isOwner()))
+                .collect(Collectors.toList());
+        this.flushTables = buildFlushTables(persistenceUnitContext.getEntities().values());
+    }
+
+    /**
+     * Computes the tables written when an entity is flushed: the entity table, the join tables and the tables of
+     * the entities referencing it with a join column, updated when the entity is removed or early inserted.
+     *
+     * @param entities the persistence unit entities
+     * @return the flush tables by entity
+     */
+    private static Map<MetaEntity, Set<String>> buildFlushTables(Collection<MetaEntity> entities) {
+        Map<MetaEntity, Set<String>> map = new HashMap<>();
+        for (MetaEntity entity : entities) {
+            Set<String> tables = map.computeIfAbsent(entity, e -> new HashSet<>());
+            tables.add(entity.getTableName());
+            for (RelationshipMetaAttribute attribute : entity.expandRelationshipAttributes()) {
+                if (attribute.getRelationship().getJoinTable() != null)
+                    tables.add(attribute.getRelationship().getJoinTable().getTableName());
+            }
+
+            for (JoinColumnMapping joinColumnMapping : entity.expandJoinColumnMappings()) {
+                MetaEntity target = joinColumnMapping.getAttribute().getRelationship().getAttributeType();
+                if (target != null)
+                    map.computeIfAbsent(target, e -> new HashSet<>()).add(entity.getTableName());
+            }
+        }
+
+        return map;
     }
 
     public EntityHandler getEntityLoader() {
         return entityHandler;
     }
 
+    /**
+     * Sets the number of inserts, updates and deletes sent to the database in a single JDBC batch at flush
+     * time. Values less than 2 disable batching.
+     *
+     * @param batchSize the batch size
+     */
+    public void setBatchSize(int batchSize) {
+        jdbcQueryRunner.setBatchSize(batchSize);
+    }
+
+    /**
+     * Sets the max depth of the eager to-one associations joined to the select by id and select by foreign key
+     * statements.
+     *
+     * @param eagerJoinDepth the join depth, 0 disables the joins
+     */
+    public void setEagerJoinDepth(int eagerJoinDepth) {
+        jdbcQueryRunner.setEagerJoinDepth(eagerJoinDepth);
+    }
+
+    /**
+     * Sets the sequence allocators, they are shared by the entity managers of the same factory.
+     *
+     * @param sequenceAllocators the sequence allocators
+     */
+    public void setSequenceAllocators(SequenceAllocators sequenceAllocators) {
+        this.sequenceAllocators = sequenceAllocators;
+    }
+
+    /**
+     * Sets the JPQL plan cache, it is shared by the entity managers of the same factory.
+     *
+     * @param jpqlPlanCache the JPQL plan cache
+     */
+    public void setJpqlPlanCache(JpqlPlanCache jpqlPlanCache) {
+        this.jpqlPlanCache = jpqlPlanCache;
+    }
+
+    /**
+     * Sets the batch sizes of the lazy associations, they are shared by the entity managers of the same
+     * factory.
+     *
+     * @param batchFetchSizes the batch sizes
+     */
+    public void setBatchFetchSizes(BatchFetchSizes batchFetchSizes) {
+        entityHandler.setBatchFetchSizes(batchFetchSizes);
+    }
+
+    /**
+     * Sets the second-level cache, it is shared by the entity managers of the same factory.
+     *
+     * @param secondLevelCache the second-level cache
+     */
+    public void setSecondLevelCache(SecondLevelCache secondLevelCache) {
+        secondLevelCacheSession.setSecondLevelCache(secondLevelCache);
+    }
+
+    /**
+     * Sets the query result cache, it is shared by the entity managers of the same factory.
+     *
+     * @param queryResultCache the query result cache
+     */
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        secondLevelCacheSession.setQueryResultCache(queryResultCache);
+    }
+
+    /**
+     * Called when the transaction commits or rolls back, evicts the cached entities it has written.
+     */
+    public void afterCompletion() {
+        secondLevelCacheSession.afterCompletion();
+    }
+
     public Object findById(
             Class<?> entityClass,
             Object primaryKey,
             LockType lockType) throws Exception {
         log.debug("Find By Id -> Primary Key {}", primaryKey);
 
-        MetaEntity entity = persistenceUnitContext.getEntities().get(entityClass.getName());
+        MetaEntity entity = persistenceUnitContext.getEntity(entityClass);
         if (entity == null) {
             throw new IllegalArgumentException(
                     "Class '" + entityClass.getName() + "' is not an entity");
@@ -99,7 +230,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             Object entityInstance,
             LockType lockType) throws Exception {
         Class<?> entityClass = entityInstance.getClass();
-        MetaEntity entity = persistenceUnitContext.getEntities().get(entityClass.getName());
+        MetaEntity entity = persistenceUnitContext.getEntity(entityClass);
         if (entity == null) {
             throw new IllegalArgumentException(
                     "Class '" + entityClass.getName() + "' is not an entity");
@@ -132,7 +263,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             Object entityInstance,
             LockType lockType) throws Exception {
         Class<?> entityClass = entityInstance.getClass();
-        MetaEntity entity = persistenceUnitContext.getEntities().get(entityClass.getName());
+        MetaEntity entity = persistenceUnitContext.getEntity(entityClass);
         if (entity == null) {
             throw new IllegalArgumentException(
                     "Class '" + entityClass.getName() + "' is not an entity");
@@ -149,7 +280,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
     public LockType getLockType(Object entityInstance) throws Exception {
         Class<?> entityClass = entityInstance.getClass();
-        MetaEntity entity = persistenceUnitContext.getEntities().get(entityClass.getName());
+        MetaEntity entity = persistenceUnitContext.getEntity(entityClass);
         if (entity == null) {
             throw new IllegalArgumentException(
                     "Class '" + entityClass.getName() + "' is not an entity");
@@ -187,12 +318,19 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                         .sequenceNextValueStatement(null,
                                 pkSequenceGenerator.getSequenceName());
 
-                idValue = dbConfiguration.getJdbcRunner()
-                        .generateNextSequenceValue(connectionHolder.getConnection(),
-                                seqStm);
+                PooledSequenceAllocator pooledSequenceAllocator = sequenceAllocators.get(pkSequenceGenerator);
+                if (pooledSequenceAllocator != null) {
+                    idValue = pooledSequenceAllocator.next(() -> dbConfiguration.getJdbcRunner()
+                            .generateNextSequenceValue(connectionHolder, seqStm));
+                } else {
+                    idValue = dbConfiguration.getJdbcRunner()
+                            .generateNextSequenceValue(connectionHolder,
+                                    seqStm);
+                }
+
                 entity.getId().writeValue(entityInstance, idValue);
             } else if (entity.getId().getPkGeneration().getPkStrategy() == PkStrategy.IDENTITY) {
-                List<Object> managedEntityList = entityContainer.getManagedEntityList();
+                ManagedEntityList managedEntityList = entityContainer.getManagedEntityList();
                 persistEarlyInsertEntityInstance(entity, modelValueArray, managedEntityList);
                 entityHandler.persist(entity, entityInstance, modelValueArray);
                 MetaEntityHelper.setEntityStatus(entity, entityInstance, EntityStatus.FLUSHED);
@@ -209,6 +347,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         }
 
         entityContainer.addManaged(entityInstance, idValue);
+        entityContainer.markDirty(entityInstance);
 
         // cascades
         List<RelationshipMetaAttribute> cascadeAttributes = entity.getCascadeAttributes(Cascade.ALL,
@@ -239,7 +378,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             if (index != -1) {
                 Object instance = modelValueArray.getValue(index);
                 log.debug("Add Info For Postponed Update -> Instance {}", instance);
-                MetaEntity e = persistenceUnitContext.getEntities().get(instance.getClass().getName());
+                MetaEntity e = persistenceUnitContext.getEntity(instance.getClass());
                 log.debug("Add Info For Postponed Update -> Entity {}", e);
                 List list = e.getJoinColumnPostponedUpdateAttributeList(instance);
                 list.add(new PostponedUpdateInfo(idValue, entity.getEntityClass(),
@@ -291,10 +430,101 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
     @Override
     public void flush() throws Exception {
         log.debug("Flushing entities...");
-        List<Object> managedEntityList = entityContainer.getManagedEntityList();
+        jdbcQueryRunner.beginBatch();
+        try {
+            flushManagedEntities();
+            jdbcQueryRunner.executeBatch();
+        } finally {
+            jdbcQueryRunner.endBatch();
+        }
+
+        log.debug("Flushing -> Done");
+    }
+
+    @Override
+    public void autoFlush(StatementParameters statementParameters) throws Exception {
+        if (statementParameters == null || isFlushRequired(statementParameters.getQuerySpaces()))
+            flush();
+    }
+
+    @Override
+    public void autoFlush(String jpqlStatement, Map<String, Object> hints) throws Exception {
+        if (!mayHavePendingChanges())
+            return;
+
+        autoFlush(parseJpql(jpqlStatement, hints));
+    }
+
+    @Override
+    public StatementParameters autoFlush(Query query, CriteriaQuery criteriaQuery) throws Exception {
+        if (!mayHavePendingChanges())
+            return null;
+
+        StatementParameters statementParameters = buildCriteriaStatement(query, criteriaQuery);
+        autoFlush(statementParameters);
+        return statementParameters;
+    }
+
+    private StatementParameters buildCriteriaStatement(Query query, CriteriaQuery criteriaQuery) {
+        Map<Parameter<?>, Object> parameterMap = ((AbstractQuery) query).getParameterMap();
+        return dbConfiguration.getSqlStatementFactory().select(
+                criteriaQuery, query.getLockMode(), parameterMap,
+                persistenceUnitContext.getAliasGenerator());
+    }
+
+    private boolean mayHavePendingChanges() {
+        if (entityContainer.hasDirtyEntities())
+            return true;
+
+        for (MetaEntity me : joinTableOwningEntities) {
+            if (entityContainer.hasManagedEntities(me.getEntityClass()))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the pending changes write any of the tables read by a query.
+     *
+     * @param querySpaces the tables read by the query, null if they are unknown
+     * @return true if the persistence context must be flushed before running the query
+     */
+    private boolean isFlushRequired(Set<String> querySpaces) {
+        if (querySpaces == null)
+            return true;
+
+        for (Object entityInstance : entityContainer.getUnorderedDirtyEntities()) {
+            MetaEntity me = persistenceUnitContext.getEntity(entityInstance.getClass());
+            if (!Collections.disjoint(flushTables.get(me), querySpaces)) {
+                log.debug("Auto Flush -> Dirty Entity Instance {}", entityInstance);
+                return true;
+            }
+        }
+
+        // join table collections are not tracked, any managed owning entity is a pending change
+        for (MetaEntity me : joinTableOwningEntities) {
+            if (Collections.disjoint(flushTables.get(me), querySpaces))
+                continue;
+
+            if (entityContainer.hasManagedEntities(me.getEntityClass())) {
+                log.debug("Auto Flush -> Join Table Owning Entity {}", me.getName());
+                return true;
+            }
+        }
+
+        log.debug("Auto Flush -> Skipped, Query Spaces {}", querySpaces);
+        return false;
+    }
+
+    private void flushManagedEntities() throws Exception {
+        ManagedEntityList managedEntityList = entityContainer.getManagedEntityList();
+        // only persisted, removed and modified entities are visited
+        List<Object> dirtyEntities = entityContainer.getDirtyEntities();
+        log.debug("Flushing -> Dirty Entities {} of {}", dirtyEntities.size(), managedEntityList.size());
         // removes join table owning entity records first
-        for (Object entityInstance : managedEntityList) {
-            MetaEntity me = persistenceUnitContext.getEntities().get(entityInstance.getClass().getName());
+        for (Object entityInstance : dirtyEntities) {
+            MetaEntity me = persistenceUnitContext.getEntity(entityInstance.getClass());
             EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(me, entityInstance);
             if (entityStatus == EntityStatus.REMOVED_NOT_FLUSHED) {
                 log.debug("Flushing -> REMOVED_NOT_FLUSHED Join Table Records Entity Instance {}",
@@ -303,8 +533,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             }
         }
 
-        for (Object entityInstance : managedEntityList) {
-            MetaEntity me = persistenceUnitContext.getEntities().get(entityInstance.getClass().getName());
+        for (Object entityInstance : dirtyEntities) {
+            MetaEntity me = persistenceUnitContext.getEntity(entityInstance.getClass());
             EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(me, entityInstance);
             log.debug("Flushing -> Entity Instance = {}", entityInstance);
             log.debug("Flushing -> Entity Status = {}", entityStatus);
@@ -350,18 +580,20 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             }
         }
 
+        entityContainer.clearDirty(dirtyEntities);
+
+        // join table collections can be changed without calling a setter, the owning entities are all visited
         log.debug("Flushing -> Persisting Join Table Attributes");
-        for (Object entityInstance : managedEntityList) {
-            log.debug("Flushing -> Persisting Join Table Attributes Entity Instance {}", entityInstance);
-            MetaEntity me = persistenceUnitContext.getEntities().get(entityInstance.getClass().getName());
-            EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(me, entityInstance);
-            log.debug("Flushing -> Persisting Join Table Attributes Entity Status {}", entityStatus);
-            if (entityStatus == EntityStatus.FLUSHED) {
-                entityHandler.persistJoinTableAttributes(me, entityInstance);
+        for (MetaEntity me : joinTableOwningEntities) {
+            for (Object entityInstance : entityContainer.getManagedEntities(me.getEntityClass())) {
+                log.debug("Flushing -> Persisting Join Table Attributes Entity Instance {}", entityInstance);
+                EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(me, entityInstance);
+                log.debug("Flushing -> Persisting Join Table Attributes Entity Status {}", entityStatus);
+                if (entityStatus == EntityStatus.FLUSHED) {
+                    entityHandler.persistJoinTableAttributes(me, entityInstance);
+                }
             }
         }
-
-        log.debug("Flushing -> Done");
     }
 
 
@@ -375,7 +607,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
     private void persistEarlyInsertEntityInstance(
             MetaEntity me,
             ModelValueArray<AbstractMetaAttribute> modelValueArray,
-            List<Object> managedEntityList) throws Exception {
+            ManagedEntityList managedEntityList) throws Exception {
         List<JoinColumnMapping> joinColumnMappings = me.getJoinColumnMappings();
         log.debug("Persist Early Insert -> Join Column Mapping Count {}", joinColumnMappings.size());
         if (joinColumnMappings.isEmpty()) {
@@ -389,8 +621,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             log.debug("Persist Early Insert -> Join Column Mapping Index {}", index);
             if (index != -1) {
                 Object instance = modelValueArray.getValue(index);
-                MetaEntity metaEntity = persistenceUnitContext.getEntities()
-                        .get(instance.getClass().getName());
+                MetaEntity metaEntity = persistenceUnitContext
+                        .getEntity(instance.getClass());
                 EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(metaEntity, instance);
                 if (entityStatus != EntityStatus.PERSIST_NOT_FLUSHED) {
                     continue;
@@ -420,7 +652,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
     private void persistEarlyDeleteEntityInstance(
             MetaEntity me,
             Object entityInstance,
-            List<Object> managedEntityList) throws Exception {
+            ManagedEntityList managedEntityList) throws Exception {
         List<RelationshipMetaAttribute> relationshipAttributes = me.getRelationshipAttributes();
         for (RelationshipMetaAttribute relationshipAttribute : relationshipAttributes) {
             log.debug("Persist Early Delete -> Relationship Attribute {}",
@@ -436,8 +668,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                     continue;
                 }
 
-                MetaEntity metaEntity = persistenceUnitContext.getEntities()
-                        .get(instance.getClass().getName());
+                MetaEntity metaEntity = persistenceUnitContext
+                        .getEntity(instance.getClass());
                 EntityStatus entityStatus = MetaEntityHelper.getEntityStatus(metaEntity, instance);
                 if (entityStatus != EntityStatus.REMOVED_NOT_FLUSHED) {
                     continue;
@@ -456,7 +688,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
     @Override
     public void remove(Object entity, MiniFlushMode miniFlushMode) throws Exception {
-        MetaEntity e = persistenceUnitContext.getEntities().get(entity.getClass().getName());
+        MetaEntity e = persistenceUnitContext.getEntity(entity.getClass());
         log.debug("Remove -> Entity {}", entity);
         log.debug("Remove -> Is Manage {}", entityContainer.isManaged(entity));
         if (entityContainer.isManaged(entity)) {
@@ -496,7 +728,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         entityContainer.detach(entity);
 
         // cascades
-        MetaEntity e = persistenceUnitContext.getEntities().get(entity.getClass().getName());
+        MetaEntity e = persistenceUnitContext.getEntity(entity.getClass());
         List<RelationshipMetaAttribute> cascadeAttributes = e.getCascadeAttributes(Cascade.ALL,
                 Cascade.DETACH);
         for (RelationshipMetaAttribute attribute : cascadeAttributes) {
@@ -524,27 +756,40 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
     }
 
     @Override
-    public List<?> selectCriteriaQuery(Query query, CriteriaQuery criteriaQuery) throws Exception {
+    public List<?> selectCriteriaQuery(
+            Query query,
+            CriteriaQuery criteriaQuery,
+            StatementParameters statementParameters) throws Exception {
         if (criteriaQuery.getResultType() == Tuple.class) {
             if (!(criteriaQuery.getSelection() instanceof CompoundSelection<?>)) {
                 throw new IllegalArgumentException(
                         "Selection '" + criteriaQuery.getSelection() + "' is not a compound selection");
             }
 
-            Map<Parameter<?>, Object> parameterMap = ((AbstractQuery) query).getParameterMap();
-            StatementParameters statementParameters = dbConfiguration.getSqlStatementFactory().select(
-                    criteriaQuery, query.getLockMode(), parameterMap,
-                    persistenceUnitContext.getAliasGenerator());
+            if (statementParameters == null)
+                statementParameters = buildCriteriaStatement(query, criteriaQuery);
+
+            if (query.getMaxResults() == 0)
+                return new ArrayList<>();
+
+            statementParameters = pageStatementParameters(statementParameters, query.getFirstResult(),
+                    query.getMaxResults());
             SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
             String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
 
             List<Tuple> collectionResult = new ArrayList<>();
-            jdbcTupleRecordBuilder.setSqlSelectData(sqlSelectData);
-            jdbcTupleRecordBuilder.setObjects(collectionResult);
-            jdbcTupleRecordBuilder.setCompoundSelection(
-                    (CompoundSelection<?>) criteriaQuery.getSelection());
-            dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql,
-                    statementParameters.getParameters(), jdbcTupleRecordBuilder);
+            JdbcTupleRecordBuilder recordBuilder = tupleRecordBuilders.acquire();
+            try {
+                recordBuilder.setSqlSelectData(sqlSelectData);
+                recordBuilder.setObjects(collectionResult);
+                recordBuilder.setCompoundSelection(
+                        (CompoundSelection<?>) criteriaQuery.getSelection());
+                dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql,
+                        statementParameters.getParameters(), recordBuilder);
+            } finally {
+                tupleRecordBuilders.release(recordBuilder);
+            }
+
             return collectionResult;
         }
 
@@ -552,45 +797,54 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         Map<String, Object> hints = query.getHints();
         log.debug("Select Criteria -> Join Count {}", joins.size());
         log.debug("Select Criteria -> SPLIT_MULTIPLE_JOINS {}", hints.get(QueryHints.SPLIT_MULTIPLE_JOINS));
-        if (joins.size() == 2 &&
+        List<MetaEntity> joinMetaEntityList = new ArrayList<>();
+        joins.forEach(join -> {
+            if (join instanceof CollectionJoinImpl) {
+                CollectionJoinImpl collectionJoin = (CollectionJoinImpl) join;
+                joinMetaEntityList.add(collectionJoin.getMetaEntity());
+            }
+        });
+
+        if (joinMetaEntityList.size() > 1 &&
                 hints.get(QueryHints.SPLIT_MULTIPLE_JOINS) != null &&
                 ((Boolean) hints.get(QueryHints.SPLIT_MULTIPLE_JOINS))) {
-            // split multiple joins case
-            List<MetaEntity> joinMetaEntityList = new ArrayList<>();
-            joins.forEach(join -> {
-                if (join instanceof CollectionJoinImpl) {
-                    CollectionJoinImpl collectionJoin = (CollectionJoinImpl) join;
-                    joinMetaEntityList.add(collectionJoin.getMetaEntity());
-                }
-            });
-
+            // split multiple joins case, a query for each collection join keeps the root restriction
             List<StatementParametersMetaEntity> statementParametersList = new ArrayList<>();
             Map<Parameter<?>, Object> parameterMap = ((AbstractQuery) query).getParameterMap();
-            joinMetaEntityList.forEach(metaEntity -> {
-                CriteriaQuery<?> cq = dbConfiguration.getSqlStatementFactory().filterCriteriaQuery(criteriaQuery, metaEntity);
-                StatementParameters statementParameters = dbConfiguration.getSqlStatementFactory().select(
+            for (MetaEntity metaEntity : joinMetaEntityList) {
+                CriteriaQuery<?> cq = criteriaQuery;
+                for (MetaEntity joinMetaEntity : joinMetaEntityList) {
+                    if (joinMetaEntity != metaEntity)
+                        cq = dbConfiguration.getSqlStatementFactory().filterCriteriaQuery(cq, joinMetaEntity);
+                }
+
+                StatementParameters splitStatementParameters = dbConfiguration.getSqlStatementFactory().select(
                         cq, query.getLockMode(), parameterMap,
                         persistenceUnitContext.getAliasGenerator());
-                List<MetaEntity> joinEntities = new ArrayList<>(joinMetaEntityList);
-                joinEntities.remove(metaEntity);
-                statementParametersList.add(new StatementParametersMetaEntity(statementParameters, joinEntities.get(0)));
-            });
+                statementParametersList.add(new StatementParametersMetaEntity(splitStatementParameters, metaEntity));
+            }
 
-            return runQueryMergeMultipleFetchJoins(statementParametersList);
+            // the merged result is paged in memory
+            List<?> result = page(runQueryMergeMultipleFetchJoins(statementParametersList),
+                    query.getFirstResult(), query.getMaxResults());
+            loadEntityGraph(result, hints);
+            return result;
         }
 
-        Map<Parameter<?>, Object> parameterMap = ((AbstractQuery) query).getParameterMap();
-        StatementParameters statementParameters = dbConfiguration.getSqlStatementFactory().select(
-                criteriaQuery, query.getLockMode(), parameterMap,
-                persistenceUnitContext.getAliasGenerator());
-        return runQuery(statementParameters, hints);
+        if (statementParameters == null)
+            statementParameters = buildCriteriaStatement(query, criteriaQuery);
+
+        return runQuery(statementParameters, hints, query.getFirstResult(), query.getMaxResults());
     }
 
+    /**
+     * Runs a query for each collection fetch join. The root instances are shared by the persistence context, so
+     * each query fills a collection and the results are merged keeping the first occurrence of each root.
+     */
     private List<?> runQueryMergeMultipleFetchJoins(
             List<StatementParametersMetaEntity> statementParametersList) throws Exception {
-        Collection<Object> finalCollectionResult = (Collection<Object>) CollectionUtils.createInstance(
-                null,
-                CollectionUtils.findCollectionImplementationClass(List.class));
+        List<Object> finalCollectionResult = new ArrayList<>();
+        Set<Object> roots = Collections.newSetFromMap(new IdentityHashMap<>());
         for (StatementParametersMetaEntity statementParametersMetaEntity : statementParametersList) {
             StatementParameters statementParameters = statementParametersMetaEntity.statementParameters;
             log.debug("Merge Multiple Fetch Joins -> Statement Type {}", statementParameters.getStatementType());
@@ -604,22 +858,19 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                         .findMetaEntityByTableName(sqlSelectData.getResult().getName());
                 MetaEntity entity = optionalEntity.get();
 
-                initializeFetchJoinRecordBuilder(collectionResult, entity, statementParameters);
                 String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
-                dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql,
-                        statementParameters.getParameters(), jdbcFetchJoinRecordBuilder);
+                runFetchJoinQuery(sql, collectionResult, entity, statementParameters);
                 log.debug("Merge Multiple Fetch Joins -> Collection Result Count {}", collectionResult.size());
 
                 // merge the collection with the final one
                 for (Object entityInstance : collectionResult) {
-                    if (!finalCollectionResult.contains(entityInstance)) {
+                    if (roots.add(entityInstance))
                         finalCollectionResult.add(entityInstance);
-                    }
                 }
             }
         }
 
-        return (List<?>) finalCollectionResult;
+        return finalCollectionResult;
     }
 
 
@@ -682,13 +933,16 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
             // Query Parameters
             List<QueryParameter> queryParameters = new ArrayList<>();
+            List<Object> parameterValues = new ArrayList<>();
             if (optionalFromTable.isPresent() && optionalFromTable.get().getAlias() != null) {
-                filterQueryParameterByAlias(statementParameters.getParameters(), optionalFromTable.get().getAlias(), queryParameters);
+                filterQueryParameterByAlias(statementParameters, optionalFromTable.get().getAlias(), queryParameters,
+                        parameterValues);
             }
 
             relatedFromJoins.forEach(j -> {
                 if (j.getToTable().getAlias() != null)
-                    filterQueryParameterByAlias(statementParameters.getParameters(), j.getToTable().getAlias(), queryParameters);
+                    filterQueryParameterByAlias(statementParameters, j.getToTable().getAlias(), queryParameters,
+                            parameterValues);
             });
 
             StatementParameters sp = new StatementParameters(
@@ -696,7 +950,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                     queryParameters,
                     StatementType.FETCH_JOIN,
                     List.of(fetchJoinMetaEntity),
-                    relationshipMetaAttributes);
+                    relationshipMetaAttributes,
+                    statementParameters.getParameterValues() == null ? null : parameterValues.toArray());
             statementParametersList.add(new StatementParametersMetaEntity(sp, fetchJoinMetaEntity));
         });
 
@@ -728,16 +983,21 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
 
     private void filterQueryParameterByAlias(
-            List<QueryParameter> queryParameters,
+            StatementParameters statementParameters,
             String alias,
-            List<QueryParameter> parameters) {
-        queryParameters.forEach(qp -> {
+            List<QueryParameter> parameters,
+            List<Object> parameterValues) {
+        List<QueryParameter> queryParameters = statementParameters.getParameters();
+        Object[] values = statementParameters.getParameterValues();
+        for (int i = 0; i < queryParameters.size(); ++i) {
+            QueryParameter qp = queryParameters.get(i);
             if (qp.getColumn() != null && qp.getColumn() instanceof TableColumn) {
                 if (hasTableColumnTheAlias((TableColumn) qp.getColumn(), alias)) {
                     parameters.add(qp);
+                    parameterValues.add(values == null || i >= values.length ? null : values[i]);
                 }
             }
-        });
+        }
     }
 
     private void filterConditions(
@@ -805,7 +1065,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
 
     /**
-     * With multiple joins it has to extract two FromJoin. They are the main table and the join table.
+     * With multiple joins it has to extract the FromJoin of the collection table and, if the collection has a
+     * join table, the FromJoin of the join table.
      *
      * @param fetchJoinMetaEntity meta entity
      * @param fromJoins           join list
@@ -821,33 +1082,37 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
 
         FromJoin fromJoin = optional.get();
         Optional<FromJoin> optionalJoinTable = fromJoins.stream().filter(fj -> fj.getToTable().getAlias().equals(fromJoin.getFromAlias())).findFirst();
-        if (optionalJoinTable.isEmpty()) {
-            throw new SemanticException("Join table not found for " + fetchJoinMetaEntity.getTableName());
-        }
+        // the collection table is joined to the root table
+        if (optionalJoinTable.isEmpty())
+            return List.of(fromJoin);
 
         return List.of(optionalJoinTable.get(), fromJoin);
     }
 
 
-    private JdbcRecordBuilder initializeFetchJoinRecordBuilder(
+    private void runFetchJoinQuery(
+            String sql,
             Collection<Object> collectionResult,
             MetaEntity metaEntity,
-            StatementParameters statementParameters) {
+            StatementParameters statementParameters) throws Exception {
         SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
-        Optional<MetaEntity> optionalEntity = persistenceUnitContext
-                .findMetaEntityByTableName(sqlSelectData.getResult().getName());
-        MetaEntity entity = optionalEntity.get();
-
         entityHandler.setLockType(LockType.NONE);
-        jdbcFetchJoinRecordBuilder.setCollectionResult(collectionResult);
-        jdbcFetchJoinRecordBuilder.setEntityLoader(entityHandler);
-        jdbcFetchJoinRecordBuilder.setMetaEntity(metaEntity);
-        jdbcFetchJoinRecordBuilder.setFetchJoinMetaEntities(statementParameters.getFetchJoinMetaEntities());
-        jdbcFetchJoinRecordBuilder.setFetchJoinMetaAttributes(
-                statementParameters.getFetchJoinMetaAttributes());
-        jdbcFetchJoinRecordBuilder.setFetchParameters(sqlSelectData.getFetchParameters());
-        jdbcFetchJoinRecordBuilder.setDistinct(sqlSelectData.isDistinct());
-        return jdbcFetchJoinRecordBuilder;
+        JdbcFetchJoinRecordBuilder recordBuilder = fetchJoinRecordBuilders.acquire();
+        try {
+            recordBuilder.setCollectionResult(collectionResult);
+            recordBuilder.setEntityLoader(entityHandler);
+            recordBuilder.setMetaEntity(metaEntity);
+            recordBuilder.setFetchJoinMetaEntities(statementParameters.getFetchJoinMetaEntities());
+            recordBuilder.setFetchJoinMetaAttributes(
+                    statementParameters.getFetchJoinMetaAttributes());
+            recordBuilder.setRowReader(sqlSelectData.getRowReader());
+            recordBuilder.setDistinct(sqlSelectData.isDistinct());
+            dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql,
+                    statementParameters.getParameters(), statementParameters.getParameterValues(),
+                    recordBuilder);
+        } finally {
+            fetchJoinRecordBuilders.release(recordBuilder);
+        }
     }
 
     private List<?> runQuery(
@@ -877,9 +1142,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             Optional<MetaEntity> optionalEntity = persistenceUnitContext
                     .findMetaEntityByTableName(sqlSelectData.getResult().getName());
             MetaEntity entity = optionalEntity.get();
-            initializeFetchJoinRecordBuilder(collectionResult, entity, statementParameters);
-            dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql,
-                    statementParameters.getParameters(), jdbcFetchJoinRecordBuilder);
+            runFetchJoinQuery(sql, collectionResult, entity, statementParameters);
             return (List<?>) collectionResult;
         }
 
@@ -893,42 +1156,582 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                     .findMetaEntityByTableName(sqlSelectData.getResult().getName());
             MetaEntity entity = optionalEntity.get();
             entityHandler.setLockType(LockType.NONE);
-            jdbcFetchParameterRecordBuilder.setCollectionResult(collectionResult);
-            jdbcFetchParameterRecordBuilder.setEntityLoader(entityHandler);
-            jdbcFetchParameterRecordBuilder.setMetaEntity(entity);
-            jdbcFetchParameterRecordBuilder.setFetchParameters(sqlSelectData.getFetchParameters());
+            JdbcFetchParameterRecordBuilder recordBuilder = fetchParameterRecordBuilders.acquire();
+            try {
+                recordBuilder.setCollectionResult(collectionResult);
+                recordBuilder.setEntityLoader(entityHandler);
+                recordBuilder.setMetaEntity(entity);
+                recordBuilder.setRowReader(sqlSelectData.getRowReader());
+                dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql,
+                        statementParameters.getParameters(), statementParameters.getParameterValues(),
+                        recordBuilder);
+            } finally {
+                fetchParameterRecordBuilders.release(recordBuilder);
+            }
 
-            dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql,
-                    statementParameters.getParameters(), jdbcFetchParameterRecordBuilder);
             return (List<?>) collectionResult;
         }
 
         // returns an aggregate expression result (max, min, etc)
         List<Object> collectionResult = new ArrayList<>();
-        jdbcJpqlRecordBuilder.setFetchParameters(sqlSelectData.getFetchParameters());
-        jdbcJpqlRecordBuilder.setCollectionResult(collectionResult);
-        dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql,
-                statementParameters.getParameters(), jdbcJpqlRecordBuilder);
+        JdbcRunner.JdbcRecordBuilderValue recordBuilder = jpqlRecordBuilders.acquire();
+        try {
+            recordBuilder.setRowReader(sqlSelectData.getRowReader());
+            recordBuilder.setCollectionResult(collectionResult);
+            dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql,
+                    statementParameters.getParameters(), statementParameters.getParameterValues(),
+                    recordBuilder);
+        } finally {
+            jpqlRecordBuilders.release(recordBuilder);
+        }
+
         return collectionResult;
     }
 
 
-    private void assignParameterValues(
-            List<QueryParameter> queryParameters,
+    private List<?> runQuery(
+            StatementParameters statementParameters,
+            Map<String, Object> hints,
+            int firstResult,
+            int maxResults) throws Exception {
+        if (maxResults == 0)
+            return new ArrayList<>();
+
+        List<?> result = isQueryCacheable(statementParameters, hints)
+                ? runCacheableQuery(statementParameters, hints, firstResult, maxResults)
+                : runPagedQuery(statementParameters, hints, firstResult, maxResults);
+        loadEntityGraph(result, hints);
+        return result;
+    }
+
+    /**
+     * Loads the attributes of the entity graph set by the fetch graph or load graph hint.
+     *
+     * @param instances the entity instances, the other values are skipped
+     * @param hints     the query hints or the find properties
+     */
+    public void loadEntityGraph(Collection<?> instances, Map<String, Object> hints) throws Exception {
+        if (hints == null || instances.isEmpty())
+            return;
+
+        Object graph = hints.get(QueryHints.FETCH_GRAPH);
+        if (graph == null)
+            graph = hints.get(QueryHints.LOAD_GRAPH);
+
+        if (graph == null)
+            return;
+
+        if (!(graph instanceof EntityGraph))
+            throw new IllegalArgumentException("Entity graph expected: " + graph);
+
+        log.debug("Load Entity Graph -> Graph {}", ((EntityGraph<?>) graph).getName());
+        entityHandler.loadGraph(instances, ((EntityGraph<?>) graph).getAttributeNodes());
+        if (graph instanceof MiniEntityGraph) {
+            for (MiniSubgraph<?> subgraph : ((MiniEntityGraph<?>) graph).getSubclassSubgraphs()) {
+                List<?> subclassInstances = instances.stream().filter(subgraph.getClassType()::isInstance)
+                        .collect(Collectors.toList());
+                entityHandler.loadGraph(subclassInstances, subgraph.getAttributeNodes());
+            }
+        }
+    }
+
+
+    private boolean isQueryCacheable(StatementParameters statementParameters, Map<String, Object> hints) {
+        if (secondLevelCacheSession.getQueryResultCache() == null || statementParameters.getQuerySpaces() == null)
+            return false;
+
+        if (hints == null)
+            return false;
+
+        Object value = hints.get(QueryHints.CACHEABLE);
+        if (value == null)
+            return false;
+
+        if (value instanceof Boolean)
+            return (Boolean) value;
+
+        return Boolean.parseBoolean(value.toString());
+    }
+
+
+    /**
+     * Runs a query through the query result cache. A cached entity result is a primary key list, the entities
+     * are found by id. If one of them doesn't exist anymore the query is run again. Other results are cached
+     * only if their values are immutable, see {@link #toCachedValues(List)}.
+     */
+    private List<?> runCacheableQuery(
+            StatementParameters statementParameters,
+            Map<String, Object> hints,
+            int firstResult,
+            int maxResults) throws Exception {
+        QueryResultCache queryResultCache = secondLevelCacheSession.getQueryResultCache();
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        MetaEntity entity = sqlSelectData.getResult() == null ? null
+                : persistenceUnitContext.findMetaEntityByTableName(sqlSelectData.getResult().getName()).orElse(null);
+        QueryResultCache.Key key = new QueryResultCache.Key(
+                dbConfiguration.getSqlStatementGenerator().export(sqlSelectData),
+                effectiveParameterValues(statementParameters),
+                firstResult,
+                maxResults);
+        QueryResultCache.Result cached = queryResultCache.get(key);
+        if (cached != null && !cached.isEntityResult()) {
+            List<Object> list = fromCachedValues(cached.getValues());
+            if (list != null)
+                return list;
+        } else if (cached != null) {
+            List<Object> list = new ArrayList<>(cached.getValues().size());
+            for (Object primaryKey : cached.getValues()) {
+                Object entityInstance = entityHandler.findById(entity, primaryKey, LockType.NONE);
+                if (entityInstance == null)
+                    break;
+
+                list.add(entityInstance);
+            }
+
+            if (list.size() == cached.getValues().size())
+                return list;
+        }
+
+        long timestamp = queryResultCache.getTimestamp();
+        List<?> result = runPagedQuery(statementParameters, hints, firstResult, maxResults);
+        if (entity == null) {
+            List<Object> values = toCachedValues(result);
+            if (values != null)
+                queryResultCache.put(key, statementParameters.getQuerySpaces(),
+                        new QueryResultCache.Result(false, values), timestamp);
+        } else {
+            List<Object> primaryKeys = new ArrayList<>(result.size());
+            for (Object entityInstance : result) {
+                primaryKeys.add(entity.getId().readValue(entityInstance));
+            }
+
+            queryResultCache.put(key, statementParameters.getQuerySpaces(),
+                    new QueryResultCache.Result(true, primaryKeys), timestamp);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the values to cache for a scalar or multi-select result. The entities are replaced by references,
+     * the other values must be immutable, so nothing is shared by the persistence contexts.
+     *
+     * @return the values, null if the result can't be cached
+     */
+    private List<Object> toCachedValues(List<?> result) throws Exception {
+        List<Object> values = new ArrayList<>(result.size());
+        for (Object value : result) {
+            if (value instanceof Object[]) {
+                Object[] row = (Object[]) value;
+                Object[] cachedRow = new Object[row.length];
+                for (int i = 0; i < row.length; ++i) {
+                    if (!isCacheableValue(row[i]))
+                        return null;
+
+                    cachedRow[i] = toCachedValue(row[i]);
+                }
+
+                values.add(cachedRow);
+            } else {
+                if (!isCacheableValue(value))
+                    return null;
+
+                values.add(toCachedValue(value));
+            }
+        }
+
+        return values;
+    }
+
+    private boolean isCacheableValue(Object value) {
+        return QueryResultCache.isImmutable(value) || persistenceUnitContext.getEntity(value.getClass()) != null;
+    }
+
+    private Object toCachedValue(Object value) throws Exception {
+        if (QueryResultCache.isImmutable(value))
+            return value;
+
+        MetaEntity metaEntity = persistenceUnitContext.getEntity(value.getClass());
+        return new QueryResultCache.EntityReference(metaEntity, metaEntity.getId().readValue(value));
+    }
+
+    /**
+     * Rebuilds a cached scalar or multi-select result, the referenced entities are found by id.
+     *
+     * @return the result, null if a referenced entity doesn't exist anymore
+     */
+    private List<Object> fromCachedValues(List<Object> values) throws Exception {
+        List<Object> list = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof Object[]) {
+                Object[] cachedRow = (Object[]) value;
+                Object[] row = new Object[cachedRow.length];
+                for (int i = 0; i < cachedRow.length; ++i) {
+                    row[i] = fromCachedValue(cachedRow[i]);
+                    if (row[i] == null && cachedRow[i] != null)
+                        return null;
+                }
+
+                list.add(row);
+            } else {
+                Object v = fromCachedValue(value);
+                if (v == null && value != null)
+                    return null;
+
+                list.add(v);
+            }
+        }
+
+        return list;
+    }
+
+    private Object fromCachedValue(Object value) throws Exception {
+        if (!(value instanceof QueryResultCache.EntityReference))
+            return value;
+
+        QueryResultCache.EntityReference reference = (QueryResultCache.EntityReference) value;
+        return entityHandler.findById(reference.getEntity(), reference.getPrimaryKey(), LockType.NONE);
+    }
+
+
+    private static Object[] effectiveParameterValues(StatementParameters statementParameters) {
+        List<QueryParameter> parameters = statementParameters.getParameters();
+        if (parameters == null)
+            return new Object[0];
+
+        Object[] parameterValues = statementParameters.getParameterValues();
+        Object[] values = new Object[parameters.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = parameterValues != null && i < parameterValues.length && parameterValues[i] != null
+                    ? parameterValues[i] : parameters.get(i).getValue();
+        }
+
+        return values;
+    }
+
+
+    private List<?> runPagedQuery(
+            StatementParameters statementParameters,
+            Map<String, Object> hints,
+            int firstResult,
+            int maxResults) throws Exception {
+        if (!isPaged(firstResult, maxResults))
+            return runQuery(statementParameters, hints);
+
+        if (statementParameters.getStatementType() == StatementType.FETCH_JOIN
+                && hasCollectionFetchJoin(statementParameters)) {
+            // the rows of a collection fetch join can't be paged, the page is selected on the root entity ids
+            SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+            MetaEntity entity = persistenceUnitContext
+                    .findMetaEntityByTableName(sqlSelectData.getResult().getName()).get();
+            List<Integer> pkIndexes = findRootPkIndexes(sqlSelectData, entity);
+            if (pkIndexes.isEmpty())
+                return page(runQuery(statementParameters, hints), firstResult, maxResults);
+
+            List<Object> ids = findRootIds(statementParameters, entity, pkIndexes, firstResult, maxResults);
+            if (ids.isEmpty())
+                return new ArrayList<>();
+
+            return runQuery(restrictToRootIds(statementParameters, entity, ids), hints);
+        }
+
+        return runQuery(pageStatementParameters(statementParameters, firstResult, maxResults), hints);
+    }
+
+
+    private static boolean isPaged(int firstResult, int maxResults) {
+        return firstResult > 0 || maxResults != Integer.MAX_VALUE;
+    }
+
+
+    private static <T> List<T> page(List<T> list, int firstResult, int maxResults) {
+        if (!isPaged(firstResult, maxResults))
+            return list;
+
+        if (firstResult >= list.size())
+            return new ArrayList<>();
+
+        int toIndex = (int) Math.min(list.size(), (long) firstResult + maxResults);
+        return new ArrayList<>(list.subList(firstResult, toIndex));
+    }
+
+
+    private boolean hasCollectionFetchJoin(StatementParameters statementParameters) {
+        return statementParameters.getFetchJoinMetaAttributes() != null
+                && statementParameters.getFetchJoinMetaAttributes().stream()
+                .anyMatch(a -> a.getRelationship().toMany());
+    }
+
+
+    /**
+     * Pages the select statement. The limit and the offset are bound as parameters, so the pages of a query share
+     * the same sql and the same cached prepared statement.
+     */
+    private StatementParameters pageStatementParameters(
+            StatementParameters statementParameters,
+            int firstResult,
+            int maxResults) {
+        if (!isPaged(firstResult, maxResults))
+            return statementParameters;
+
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        Integer limit = maxResults == Integer.MAX_VALUE ? null : maxResults;
+        Integer offset = firstResult > 0 ? firstResult : null;
+        return new StatementParameters(
+                copySqlSelectData(
+                        sqlSelectData,
+                        sqlSelectData.getValues(),
+                        sqlSelectData.getFetchParameters(),
+                        sqlSelectData.getConditions(),
+                        limit,
+                        offset),
+                addLimitOffsetParameters(statementParameters.getParameters(), limit, offset),
+                statementParameters.getStatementType(),
+                statementParameters.getFetchJoinMetaEntities(),
+                statementParameters.getFetchJoinMetaAttributes(),
+                statementParameters.getParameterValues());
+    }
+
+
+    private List<QueryParameter> addLimitOffsetParameters(
+            List<QueryParameter> parameters,
+            Integer limit,
+            Integer offset) {
+        List<QueryParameter> list = parameters == null ? new ArrayList<>() : new ArrayList<>(parameters);
+        dbConfiguration.getSqlStatementGenerator().limitOffsetParameterValues(limit, offset)
+                .forEach(v -> list.add(new QueryParameter("limit_offset", v, Types.INTEGER)));
+        return list;
+    }
+
+
+    /**
+     * The select statements are shared by the query plans, a paged execution works on a copy.
+     */
+    private SqlSelectData copySqlSelectData(
+            SqlSelectData sqlSelectData,
+            List<Value> values,
+            List<FetchParameter> fetchParameters,
+            List<Condition> conditions,
+            Integer limit,
+            Integer offset) {
+        SqlSelectDataBuilder selectBuilder = new SqlSelectDataBuilder();
+        sqlSelectData.getFrom().forEach(selectBuilder::withFromTable);
+        if (sqlSelectData.isDistinct())
+            selectBuilder.distinct();
+
+        selectBuilder.withValues(values)
+                .withConditions(conditions)
+                .withGroupBy(sqlSelectData.getGroupBy())
+                .withOrderBy(sqlSelectData.getOrderByList())
+                .withResult(sqlSelectData.getResult())
+                .withForUpdate(sqlSelectData.getForUpdate())
+                .withLimit(limit)
+                .withOffset(offset)
+                .withLimitOffsetParameters(true);
+        selectBuilder.withFetchParameters(fetchParameters);
+        return (SqlSelectData) selectBuilder.build();
+    }
+
+
+    private Optional<FromTable> findRootFromTable(SqlSelectData sqlSelectData) {
+        return sqlSelectData.getFrom().stream()
+                .filter(f -> (f instanceof FromTable))
+                .map(f -> (FromTable) f)
+                .findFirst();
+    }
+
+
+    /**
+     * Returns the indexes of the selected root entity primary key columns, an empty list if they are not
+     * all selected.
+     */
+    private List<Integer> findRootPkIndexes(SqlSelectData sqlSelectData, MetaEntity entity) {
+        Optional<FromTable> optionalFromTable = findRootFromTable(sqlSelectData);
+        if (optionalFromTable.isEmpty() || optionalFromTable.get().getAlias() == null)
+            return List.of();
+
+        String alias = optionalFromTable.get().getAlias();
+        List<Integer> indexes = new ArrayList<>();
+        List<Value> values = sqlSelectData.getValues();
+        for (int i = 0; i < values.size(); ++i) {
+            FetchParameter fetchParameter = sqlSelectData.getFetchParameters().get(i);
+            if (values.get(i) instanceof TableColumn
+                    && hasTableColumnTheAlias((TableColumn) values.get(i), alias)
+                    && fetchParameter instanceof AttributeFetchParameter
+                    && entity.getId().getAttributes().contains(((AttributeFetchParameter) fetchParameter).getAttribute())) {
+                indexes.add(i);
+            }
+        }
+
+        if (indexes.size() != entity.getId().getAttributes().size())
+            return List.of();
+
+        return indexes;
+    }
+
+
+    /**
+     * Selects the distinct root entity ids of the page. The order by columns are selected too, as required
+     * by a distinct select. If the query is ordered by columns of the joined tables a root id can be on more
+     * rows, the ids are read until the page is full and the repeated ones are skipped.
+     * The lock, if any, is acquired by the fetch join query.
+     */
+    private List<Object> findRootIds(
+            StatementParameters statementParameters,
+            MetaEntity entity,
+            List<Integer> pkIndexes,
+            int firstResult,
+            int maxResults) throws Exception {
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        List<Value> values = new ArrayList<>();
+        List<FetchParameter> fetchParameters = new ArrayList<>();
+        pkIndexes.forEach(i -> {
+            values.add(sqlSelectData.getValues().get(i));
+            fetchParameters.add(sqlSelectData.getFetchParameters().get(i));
+        });
+
+        String alias = findRootFromTable(sqlSelectData).get().getAlias();
+        boolean rootOrderBy = true;
+        if (sqlSelectData.getOrderByList() != null) {
+            for (OrderBy orderBy : sqlSelectData.getOrderByList()) {
+                if (!values.contains(orderBy.getTableColumn()))
+                    values.add(orderBy.getTableColumn());
+
+                if (!hasTableColumnTheAlias(orderBy.getTableColumn(), alias))
+                    rootOrderBy = false;
+            }
+        }
+
+        Integer limit = maxResults == Integer.MAX_VALUE ? null : maxResults;
+        Integer offset = firstResult > 0 ? firstResult : null;
+        SqlSelectData idSelectData = copySqlSelectData(
+                sqlSelectData,
+                values,
+                fetchParameters,
+                sqlSelectData.getConditions(),
+                rootOrderBy ? limit : null,
+                rootOrderBy ? offset : null);
+        idSelectData.setDistinct(true);
+        idSelectData.setForUpdate(null);
+        String sql = dbConfiguration.getSqlStatementGenerator().export(idSelectData);
+        List<QueryParameter> parameters = rootOrderBy
+                ? addLimitOffsetParameters(statementParameters.getParameters(), limit, offset)
+                : statementParameters.getParameters();
+        long idCount = rootOrderBy ? Long.MAX_VALUE : (long) firstResult + maxResults;
+        RowReader rowReader = idSelectData.getRowReader();
+        Set<Object> ids = new LinkedHashSet<>();
+        dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql, parameters,
+                statementParameters.getParameterValues(), rs -> {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    while (ids.size() < idCount && rs.next()) {
+                        Optional<FetchRow> optional = rowReader.readRow(rs, metaData);
+                        if (optional.isPresent())
+                            ids.add(entity.getId().buildValue(optional.get()));
+                    }
+                });
+
+        if (rootOrderBy)
+            return new ArrayList<>(ids);
+
+        return page(new ArrayList<>(ids), firstResult, maxResults);
+    }
+
+
+    /**
+     * Adds the root entity id condition to the fetch join query, without pagination. A single column id is
+     * matched by in lists of at most {@link #MAX_IN_LIST_SIZE} ids joined with 'or', the limit of Oracle. The
+     * page size is bounded by the number of statement parameters accepted by the driver.
+     */
+    private StatementParameters restrictToRootIds(
+            StatementParameters statementParameters,
+            MetaEntity entity,
+            List<Object> ids) throws Exception {
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        FromTable fromTable = findRootFromTable(sqlSelectData).get();
+        List<QueryParameter> parameters = new ArrayList<>(statementParameters.getParameters());
+        List<Condition> idConditions = new ArrayList<>();
+        List<Condition> inConditions = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        TableColumn inColumn = null;
+        for (Object id : ids) {
+            List<Condition> pkConditions = new ArrayList<>();
+            for (QueryParameter qp : entity.getId().queryParameters(id)) {
+                TableColumn tableColumn = new TableColumn(fromTable, new Column((String) qp.getColumn()));
+                parameters.add(new QueryParameter(tableColumn, qp.getValue(), qp.getSqlType(),
+                        qp.getAttributeMapper(), qp.getParameterBinder()));
+                pkConditions.add(new BinaryCondition.Builder(ConditionType.EQUAL)
+                        .withLeft(tableColumn).withRight(CriteriaUtils.QM).build());
+                inColumn = tableColumn;
+                placeholders.add(CriteriaUtils.QM);
+            }
+
+            idConditions.add(new BinaryLogicConditionImpl(ConditionType.AND, pkConditions, true));
+            if (!entity.getId().isComposite() && placeholders.size() == MAX_IN_LIST_SIZE) {
+                inConditions.add(new InCondition(inColumn, placeholders, false));
+                placeholders = new ArrayList<>();
+            }
+        }
+
+        if (!entity.getId().isComposite() && !placeholders.isEmpty())
+            inConditions.add(new InCondition(inColumn, placeholders, false));
+
+        Condition idCondition;
+        if (entity.getId().isComposite())
+            idCondition = new BinaryLogicConditionImpl(ConditionType.OR, idConditions, true);
+        else if (inConditions.size() == 1)
+            idCondition = inConditions.get(0);
+        else
+            idCondition = new BinaryLogicConditionImpl(ConditionType.OR, inConditions, true);
+        List<Condition> conditions = new ArrayList<>();
+        if (sqlSelectData.getConditions() != null)
+            conditions.add(new BinaryLogicConditionImpl(ConditionType.AND, sqlSelectData.getConditions(), true));
+
+        conditions.add(idCondition);
+        SqlSelectData restricted = copySqlSelectData(
+                sqlSelectData,
+                sqlSelectData.getValues(),
+                sqlSelectData.getFetchParameters(),
+                List.of(new BinaryLogicConditionImpl(ConditionType.AND, conditions)),
+                null,
+                null);
+        // the id parameters follow the bound ones and carry their own values
+        return new StatementParameters(
+                restricted,
+                parameters,
+                statementParameters.getStatementType(),
+                statementParameters.getFetchJoinMetaEntities(),
+                statementParameters.getFetchJoinMetaAttributes(),
+                statementParameters.getParameterValues());
+    }
+
+
+    /**
+     * Binds the parameter values to the statement plan. The plan can be shared by many entity managers, so the
+     * values are carried by a per-execution binding array and the plan is never modified.
+     *
+     * @param statementParameters statement plan
+     * @param parameterMap        parameter values
+     * @return the statement with the bound parameters
+     */
+    private StatementParameters bindParameterValues(
+            StatementParameters statementParameters,
             Map<Parameter<?>, Object> parameterMap) {
+        List<QueryParameter> queryParameters = statementParameters.getParameters();
         if (queryParameters == null || queryParameters.isEmpty())
-            return;
+            return statementParameters;
 
-        queryParameters.forEach(qp -> {
-            String inputParameter = qp.getInputParameter();
+        Object[] parameterValues = new Object[queryParameters.size()];
+        for (int i = 0; i < parameterValues.length; ++i) {
+            String inputParameter = queryParameters.get(i).getInputParameter();
             Optional<Object> optional = ParameterUtils.findParameterValue(parameterMap, inputParameter);
             if (optional.isEmpty())
                 throw new SemanticException("Input parameter '" + inputParameter + "' value not found");
 
-            Object value = optional.get();
-            qp.setValue(value);
-            qp.setSqlType(JdbcTypes.sqlTypeFromClass(optional.get().getClass()));
-        });
+            parameterValues[i] = optional.get();
+        }
+
+        return statementParameters.bind(parameterValues);
     }
 
 
@@ -938,44 +1741,67 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
             Map<Parameter<?>, Object> parameterMap,
             Map<String, Object> hints,
             LockType lockType,
-            Class<?> resultClass) {
-        assignParameterValues(statementParameters.getParameters(), parameterMap);
-        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
-        if (resultClass != null) {
-            Optional<MetaEntity> optionalEntity = persistenceUnitContext
-                    .findMetaEntityByTableName(sqlSelectData.getResult().getName());
-            if (optionalEntity.isEmpty())
-                throw new IllegalArgumentException("Expected result type '" + resultClass.getName() + "' but was null");
-
-            MetaEntity entity = optionalEntity.get();
-            if (resultClass != entity.getEntityClass())
-                throw new IllegalArgumentException("Expected result type '" + resultClass.getName() + "' but was '" + entity.getEntityClass().getName() + "'");
-        }
-
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults) {
+        checkResultClass(statementParameters, resultClass);
         try {
-            return runQuery(statementParameters, hints);
+            return runQuery(bindParameterValues(statementParameters, parameterMap), hints, firstResult,
+                    maxResults);
         } catch (Exception e) {
             throw new PersistenceException(e.getMessage());
         }
     }
 
 
+    private void checkResultClass(
+            StatementParameters statementParameters,
+            Class<?> resultClass) {
+        if (resultClass == null)
+            return;
+
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        Optional<MetaEntity> optionalEntity = persistenceUnitContext
+                .findMetaEntityByTableName(sqlSelectData.getResult().getName());
+        if (optionalEntity.isEmpty())
+            throw new IllegalArgumentException("Expected result type '" + resultClass.getName() + "' but was null");
+
+        MetaEntity entity = optionalEntity.get();
+        if (resultClass != entity.getEntityClass())
+            throw new IllegalArgumentException("Expected result type '" + resultClass.getName() + "' but was '" + entity.getEntityClass().getName() + "'");
+    }
+
+
     @Override
     public List<?> selectJpql(
             String jpqlStatement,
             Map<Parameter<?>, Object> parameterMap,
             Map<String, Object> hints,
-            Class<?> resultClass) throws Exception {
-        StatementParameters statementParameters;
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults) throws Exception {
+        StatementParameters statementParameters = parseJpql(jpqlStatement, hints);
+        return selectJpql(statementParameters, parameterMap, hints, LockType.NONE, resultClass, firstResult,
+                maxResults);
+    }
+
+
+    private StatementParameters parseJpql(
+            String jpqlStatement,
+            Map<String, Object> hints) throws Exception {
+        StatementParameters statementParameters = jpqlPlanCache.get(jpqlStatement);
+        if (statementParameters != null)
+            return statementParameters;
+
         try {
             log.debug("Select Jpql -> Start Parsing");
             statementParameters = jpqlModule.parse(jpqlStatement, hints);
             log.debug("Select Jpql -> End Parsing");
+            jpqlPlanCache.put(jpqlStatement, statementParameters);
+            return statementParameters;
         } catch (Error e) {
             throw new PersistenceException("Jpql Parser Error: " + e.getMessage());
         }
-
-        return selectJpql(statementParameters, parameterMap, hints, LockType.NONE, resultClass);
     }
 
 
@@ -983,6 +1809,46 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
     public List<?> selectNative(
             NativeQuery query) throws Exception {
         log.debug("Select Native -> Query Result Class() {}", query.getResultClass());
+        Query q = (Query) query;
+        return page(selectNativeRecords(query), q.getFirstResult(), q.getMaxResults());
+    }
+
+
+    private List<Object> selectNativeRecords(
+            NativeQuery query) throws Exception {
+        Optional<QueryResultMapping> optionalQrm = findQueryResultMapping(query);
+        if (optionalQrm.isPresent()) {
+            return runNativeQuery(query, optionalQrm.get());
+        }
+
+        String sqlString = query.getSql();
+        Set<Parameter<?>> parameters = ((Query) query).getParameters();
+        if (parameters.isEmpty()) {
+            return runNativeQuery(sqlString, null);
+        }
+
+        List<QueryParameterData> indexParameters = ParameterUtils.findIndexParameters(
+                parameters, sqlString);
+        String sql = ParameterUtils.replaceParameterPlaceholders(sqlString, indexParameters);
+        List<Object> parameterValues = ParameterUtils.sortParameterValues((Query) query, indexParameters);
+        return runNativeQuery(sql, parameterValues);
+    }
+
+    private List<Object> runNativeQuery(String sql, List<Object> parameterValues) throws Exception {
+        List<Object> objects = new ArrayList<>();
+        JdbcNativeRecordBuilder recordBuilder = nativeRecordBuilders.acquire();
+        try {
+            recordBuilder.setCollection(objects);
+            dbConfiguration.getJdbcRunner().runNativeQuery(connectionHolder, sql, parameterValues, recordBuilder);
+        } finally {
+            nativeRecordBuilders.release(recordBuilder);
+        }
+
+        return objects;
+    }
+
+
+    private Optional<QueryResultMapping> findQueryResultMapping(NativeQuery query) {
         if (query.getResultSetMapping() != null) {
             if (persistenceUnitContext.getQueryResultMappings() == null) {
                 throw new IllegalArgumentException(
@@ -997,38 +1863,18 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                         "Result Set Mapping '" + query.getResultSetMapping() + "' not found");
             }
 
-            return runNativeQuery(query, qrm);
+            return Optional.of(qrm);
         }
 
         if (query.getResultClass() != null) {
             EntityMapping entityMapping = new EntityMapping(
                     persistenceUnitContext.getEntities().get(query.getResultClass().getName()),
                     Collections.emptyList());
-            QueryResultMapping qrm = new QueryResultMapping("", List.of(entityMapping),
-                    Collections.emptyList(), Collections.emptyList());
-            return runNativeQuery(query, qrm);
+            return Optional.of(new QueryResultMapping("", List.of(entityMapping),
+                    Collections.emptyList(), Collections.emptyList()));
         }
 
-        String sqlString = query.getSql();
-        Set<Parameter<?>> parameters = ((Query) query).getParameters();
-        if (parameters.isEmpty()) {
-            List<Object> objects = new ArrayList<>();
-            nativeRecordBuilder.setCollection(objects);
-            dbConfiguration.getJdbcRunner().runNativeQuery(connectionHolder.getConnection(), sqlString,
-                    null, nativeRecordBuilder);
-            return objects;
-        }
-
-        List<QueryParameterData> indexParameters = ParameterUtils.findIndexParameters(
-                parameters, sqlString);
-        String sql = ParameterUtils.replaceParameterPlaceholders(sqlString, indexParameters);
-        List<Object> parameterValues = ParameterUtils.sortParameterValues((Query) query, indexParameters);
-        List<Object> objects = new ArrayList<>();
-        nativeRecordBuilder.setCollection(objects);
-        dbConfiguration.getJdbcRunner()
-                .runNativeQuery(connectionHolder.getConnection(), sql, parameterValues,
-                        nativeRecordBuilder);
-        return objects;
+        return Optional.empty();
     }
 
 
@@ -1039,14 +1885,7 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         entityHandler.setLockType(LockType.NONE);
         Set<Parameter<?>> parameters = ((Query) query).getParameters();
         if (parameters.isEmpty()) {
-            qrmRecordBuilder.setQueryResultMapping(queryResultMapping);
-            List<Object> objects = new ArrayList<>();
-            qrmRecordBuilder.setCollection(objects);
-            qrmRecordBuilder.setEntityContainer(entityContainer);
-            dbConfiguration.getJdbcRunner()
-                    .runNativeQuery(connectionHolder.getConnection(), sqlString, null,
-                            qrmRecordBuilder);
-            return objects;
+            return runNativeQuery(sqlString, null, queryResultMapping);
         }
 
         List<QueryParameterData> indexParameters = ParameterUtils.findIndexParameters(
@@ -1054,22 +1893,278 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                 sqlString);
         String sql = ParameterUtils.replaceParameterPlaceholders(sqlString, indexParameters);
         List<Object> parameterValues = ParameterUtils.sortParameterValues((Query) query, indexParameters);
+        return runNativeQuery(sql, parameterValues, queryResultMapping);
+    }
 
-        qrmRecordBuilder.setLockType(LockType.NONE);
-        qrmRecordBuilder.setQueryResultMapping(queryResultMapping);
+    private List<Object> runNativeQuery(
+            String sql,
+            List<Object> parameterValues,
+            QueryResultMapping queryResultMapping) throws Exception {
         List<Object> objects = new ArrayList<>();
-        qrmRecordBuilder.setCollection(objects);
-        qrmRecordBuilder.setEntityContainer(entityContainer);
-        dbConfiguration.getJdbcRunner()
-                .runNativeQuery(connectionHolder.getConnection(), sql, parameterValues,
-                        qrmRecordBuilder);
+        JdbcQRMRecordBuilder recordBuilder = qrmRecordBuilders.acquire();
+        try {
+            recordBuilder.setLockType(LockType.NONE);
+            recordBuilder.setQueryResultMapping(queryResultMapping);
+            recordBuilder.setCollection(objects);
+            recordBuilder.setEntityContainer(entityContainer);
+            dbConfiguration.getJdbcRunner().runNativeQuery(connectionHolder, sql, parameterValues, recordBuilder);
+        } finally {
+            qrmRecordBuilders.release(recordBuilder);
+        }
+
         return objects;
     }
 
 
+    @Override
+    public Stream<?> streamCriteriaQuery(
+            Query query,
+            CriteriaQuery criteriaQuery,
+            StatementParameters statementParameters) throws Exception {
+        Map<String, Object> hints = query.getHints();
+        if (criteriaQuery.getResultType() == Tuple.class) {
+            if (!(criteriaQuery.getSelection() instanceof CompoundSelection<?>)) {
+                throw new IllegalArgumentException(
+                        "Selection '" + criteriaQuery.getSelection() + "' is not a compound selection");
+            }
+
+            if (statementParameters == null)
+                statementParameters = buildCriteriaStatement(query, criteriaQuery);
+
+            if (query.getMaxResults() == 0)
+                return Stream.empty();
+
+            statementParameters = pageStatementParameters(statementParameters, query.getFirstResult(),
+                    query.getMaxResults());
+            SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+            String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+
+            JdbcTupleRecordBuilder recordBuilder = new JdbcTupleRecordBuilder();
+            recordBuilder.setCompoundSelection((CompoundSelection<?>) criteriaQuery.getSelection());
+            JdbcCursor jdbcCursor = dbConfiguration.getJdbcRunner().openCursor(connectionHolder, sql,
+                    statementParameters.getParameters(), getFetchSize(hints));
+            return openStream(jdbcCursor, recordBuilder, hints);
+        }
+
+        List<Join<?, ?>> joins = dbConfiguration.getSqlStatementFactory().getJoins(criteriaQuery.getRoots());
+        if (joins.size() == 2 && isSplitMultipleJoins(hints)) {
+            // split queries are merged in memory
+            return selectCriteriaQuery(query, criteriaQuery, statementParameters).stream();
+        }
+
+        if (statementParameters == null)
+            statementParameters = buildCriteriaStatement(query, criteriaQuery);
+
+        return streamQuery(statementParameters, hints, query.getFirstResult(), query.getMaxResults());
+    }
+
+
+    @Override
+    public Stream<?> streamJpql(
+            StatementParameters statementParameters,
+            Map<Parameter<?>, Object> parameterMap,
+            Map<String, Object> hints,
+            LockType lockType,
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults) throws Exception {
+        checkResultClass(statementParameters, resultClass);
+        return streamQuery(bindParameterValues(statementParameters, parameterMap), hints, firstResult, maxResults);
+    }
+
+
+    @Override
+    public Stream<?> streamJpql(
+            String jpqlStatement,
+            Map<Parameter<?>, Object> parameterMap,
+            Map<String, Object> hints,
+            Class<?> resultClass,
+            int firstResult,
+            int maxResults) throws Exception {
+        StatementParameters statementParameters = parseJpql(jpqlStatement, hints);
+        return streamJpql(statementParameters, parameterMap, hints, LockType.NONE, resultClass, firstResult,
+                maxResults);
+    }
+
+
+    @Override
+    public Stream<?> streamNative(NativeQuery query) throws Exception {
+        Map<String, Object> hints = ((Query) query).getHints();
+        JdbcRowRecordBuilder recordBuilder;
+        Optional<QueryResultMapping> optionalQrm = findQueryResultMapping(query);
+        if (optionalQrm.isPresent()) {
+            entityHandler.setLockType(LockType.NONE);
+            JdbcQRMRecordBuilder qrmBuilder = new JdbcQRMRecordBuilder();
+            qrmBuilder.setLockType(LockType.NONE);
+            qrmBuilder.setQueryResultMapping(optionalQrm.get());
+            qrmBuilder.setEntityContainer(entityContainer);
+            recordBuilder = qrmBuilder;
+        } else {
+            recordBuilder = new JdbcNativeRecordBuilder();
+        }
+
+        String sqlString = query.getSql();
+        Set<Parameter<?>> parameters = ((Query) query).getParameters();
+        JdbcCursor jdbcCursor;
+        if (parameters.isEmpty()) {
+            jdbcCursor = dbConfiguration.getJdbcRunner().openNativeCursor(connectionHolder, sqlString,
+                    null, getFetchSize(hints));
+        } else {
+            List<QueryParameterData> indexParameters = ParameterUtils.findIndexParameters(
+                    parameters, sqlString);
+            String sql = ParameterUtils.replaceParameterPlaceholders(sqlString, indexParameters);
+            List<Object> parameterValues = ParameterUtils.sortParameterValues((Query) query, indexParameters);
+            jdbcCursor = dbConfiguration.getJdbcRunner().openNativeCursor(connectionHolder, sql,
+                    parameterValues, getFetchSize(hints));
+        }
+
+        // the native sql is not rewritten, the rows out of the page are skipped
+        Query q = (Query) query;
+        Stream<?> stream = openStream(jdbcCursor, recordBuilder, hints).skip(q.getFirstResult());
+        if (q.getMaxResults() != Integer.MAX_VALUE)
+            stream = stream.limit(q.getMaxResults());
+
+        return stream;
+    }
+
+
+    /**
+     * Streams the rows of a select statement. Fetch join results are grouped by the root entity, so
+     * they are collected before being streamed.
+     */
+    private Stream<?> streamQuery(
+            StatementParameters statementParameters,
+            Map<String, Object> hints,
+            int firstResult,
+            int maxResults) throws Exception {
+        if (statementParameters.getStatementType() == StatementType.FETCH_JOIN) {
+            return runQuery(statementParameters, hints, firstResult, maxResults).stream();
+        }
+
+        if (maxResults == 0)
+            return Stream.empty();
+
+        statementParameters = pageStatementParameters(statementParameters, firstResult, maxResults);
+        SqlSelectData sqlSelectData = (SqlSelectData) statementParameters.getSqlStatement();
+        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+        log.debug("streamQuery: sql={}", sql);
+        JdbcRowRecordBuilder recordBuilder;
+        if (sqlSelectData.getResult() != null) {
+            Optional<MetaEntity> optionalEntity = persistenceUnitContext
+                    .findMetaEntityByTableName(sqlSelectData.getResult().getName());
+            entityHandler.setLockType(LockType.NONE);
+            JdbcFetchParameterRecordBuilder fetchParameterRecordBuilder = new JdbcFetchParameterRecordBuilder();
+            fetchParameterRecordBuilder.setEntityLoader(entityHandler);
+            fetchParameterRecordBuilder.setMetaEntity(optionalEntity.get());
+            fetchParameterRecordBuilder.setRowReader(sqlSelectData.getRowReader());
+            recordBuilder = fetchParameterRecordBuilder;
+        } else {
+            JdbcRunner.JdbcRecordBuilderValue recordBuilderValue = new JdbcRunner.JdbcRecordBuilderValue();
+            recordBuilderValue.setRowReader(sqlSelectData.getRowReader());
+            recordBuilder = recordBuilderValue;
+        }
+
+        JdbcCursor jdbcCursor = dbConfiguration.getJdbcRunner().openCursor(connectionHolder, sql,
+                statementParameters.getParameters(), statementParameters.getParameterValues(),
+                getFetchSize(hints));
+        return openStream(jdbcCursor, recordBuilder, hints);
+    }
+
+
+    private Stream<?> openStream(
+            JdbcCursor jdbcCursor,
+            JdbcRowRecordBuilder recordBuilder,
+            Map<String, Object> hints) throws Exception {
+        boolean entityGraph = hints != null
+                && (hints.get(QueryHints.FETCH_GRAPH) != null || hints.get(QueryHints.LOAD_GRAPH) != null);
+        boolean detach = isStreamDetach(hints);
+        Consumer<Object> recordListener = null;
+        if (entityGraph || detach) {
+            // the graph is loaded for each streamed record, before it is detached
+            recordListener = record -> {
+                if (entityGraph)
+                    loadRecordEntityGraph(record, hints);
+
+                if (detach)
+                    detachRecord(record);
+            };
+        }
+
+        JdbcCursorSpliterator spliterator = new JdbcCursorSpliterator(jdbcCursor, recordBuilder, recordListener);
+        return spliterator.stream();
+    }
+
+
+    private void loadRecordEntityGraph(Object record, Map<String, Object> hints) {
+        try {
+            loadEntityGraph(List.of(record), hints);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e.getMessage(), e);
+        }
+    }
+
+
+    private void detachRecord(Object record) {
+        try {
+            if (record instanceof Object[]) {
+                for (Object value : (Object[]) record) {
+                    detachRecord(value);
+                }
+            } else if (record != null
+                    && persistenceUnitContext.getEntity(record.getClass()) != null) {
+                detach(record);
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e.getMessage(), e);
+        }
+    }
+
+
+    private static boolean isSplitMultipleJoins(Map<String, Object> hints) {
+        return hints != null &&
+                hints.get(QueryHints.SPLIT_MULTIPLE_JOINS) != null &&
+                ((Boolean) hints.get(QueryHints.SPLIT_MULTIPLE_JOINS));
+    }
+
+
+    private static int getFetchSize(Map<String, Object> hints) {
+        if (hints == null)
+            return 0;
+
+        Object value = hints.get(QueryHints.FETCH_SIZE);
+        if (value == null)
+            return 0;
+
+        if (value instanceof Number)
+            return ((Number) value).intValue();
+
+        return Integer.parseInt(value.toString());
+    }
+
+
+    private static boolean isStreamDetach(Map<String, Object> hints) {
+        if (hints == null)
+            return false;
+
+        Object value = hints.get(QueryHints.STREAM_DETACH);
+        if (value == null)
+            return false;
+
+        if (value instanceof Boolean)
+            return (Boolean) value;
+
+        return Boolean.parseBoolean(value.toString());
+    }
+
+
     @Override
     public int update(String sqlString, Query query) throws Exception {
-        return dbConfiguration.getJdbcRunner().update(connectionHolder.getConnection(), sqlString,
+        secondLevelCacheSession.writtenAll();
+        return dbConfiguration.getJdbcRunner().update(connectionHolder, sqlString,
                 Collections.emptyList());
     }
 
@@ -1085,8 +2180,9 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
         SqlUpdate sqlUpdate = dbConfiguration.getSqlStatementFactory().update(updateQuery, parameters,
                 persistenceUnitContext.getAliasGenerator());
         String sql = dbConfiguration.getSqlStatementGenerator().export(sqlUpdate);
+        secondLevelCacheSession.writtenAll(((MiniRoot<?>) updateQuery.getCriteriaUpdate().getRoot()).getMetaEntity());
         return dbConfiguration.getJdbcRunner()
-                .update(connectionHolder.getConnection(), sql, parameters);
+                .update(connectionHolder, sql, parameters);
     }
 
     @Override
@@ -1100,7 +2196,8 @@ public class JdbcEntityManagerImpl implements JdbcEntityManager {
                         persistenceUnitContext.getAliasGenerator());
         SqlDelete sqlDelete = (SqlDelete) statementParameters.getSqlStatement();
         String sql = dbConfiguration.getSqlStatementGenerator().export(sqlDelete);
-        return dbConfiguration.getJdbcRunner().delete(sql, connectionHolder.getConnection(),
+        secondLevelCacheSession.writtenAll(((MiniRoot<?>) deleteQuery.getCriteriaDelete().getRoot()).getMetaEntity());
+        return dbConfiguration.getJdbcRunner().delete(sql, connectionHolder,
                 statementParameters.getParameters());
     }
 
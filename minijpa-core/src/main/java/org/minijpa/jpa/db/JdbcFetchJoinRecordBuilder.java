@@ -1,11 +1,12 @@
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.JdbcRecordBuilder;
-import org.minijpa.jdbc.JdbcRunner;
-import org.minijpa.jdbc.ModelValueArray;
+import org.minijpa.jdbc.RowReader;
 import org.minijpa.jpa.MetaEntityHelper;
+import org.minijpa.jpa.model.MetaAttribute;
 import org.minijpa.jpa.model.MetaEntity;
+import org.minijpa.jpa.model.Pk;
 import org.minijpa.jpa.model.RelationshipMetaAttribute;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,17 +18,16 @@ import java.util.*;
 public class JdbcFetchJoinRecordBuilder implements JdbcRecordBuilder {
     private final Logger log = LoggerFactory.getLogger(JdbcFetchJoinRecordBuilder.class);
 
-    private List<FetchParameter> fetchParameters;
+    private RowReader rowReader;
     private Collection<Object> collectionResult;
     private MetaEntity metaEntity;
     private EntityLoader entityLoader;
     private List<MetaEntity> fetchJoinMetaEntities;
     private List<RelationshipMetaAttribute> fetchJoinMetaAttributes;
-    private final Map<RelationshipMetaAttribute, Set<Object>> relationshipAttributeIds = new HashMap<>();
     private boolean distinct = false;
 
-    public void setFetchParameters(List<FetchParameter> fetchParameters) {
-        this.fetchParameters = fetchParameters;
+    public void setRowReader(RowReader rowReader) {
+        this.rowReader = rowReader;
     }
 
     public void setCollectionResult(Collection<Object> collectionResult) {
@@ -50,74 +50,105 @@ public class JdbcFetchJoinRecordBuilder implements JdbcRecordBuilder {
     public void setFetchJoinMetaAttributes(
             List<RelationshipMetaAttribute> fetchJoinMetaAttributes) {
         this.fetchJoinMetaAttributes = fetchJoinMetaAttributes;
-        relationshipAttributeIds.clear();
     }
 
     public void setDistinct(boolean distinct) {
         this.distinct = distinct;
     }
 
-    private void addRelationshipEntityId(
-            RelationshipMetaAttribute relationshipMetaAttribute,
-            Object id) {
-        Set<Object> idSet = relationshipAttributeIds.get(relationshipMetaAttribute);
-        if (idSet == null) {
-            idSet = new HashSet<>();
-            relationshipAttributeIds.put(relationshipMetaAttribute, idSet);
-        }
-
-        idSet.add(id);
-    }
-
-    private boolean isRelationshipEntityIdPresent(
-            RelationshipMetaAttribute relationshipMetaAttribute,
-            Object id) {
-        Set<Object> idSet = relationshipAttributeIds.get(relationshipMetaAttribute);
-        return idSet != null && !idSet.isEmpty() && idSet.contains(id);
+    /**
+     * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+     */
+    public void clear() {
+        rowReader = null;
+        collectionResult = null;
+        metaEntity = null;
+        entityLoader = null;
+        fetchJoinMetaEntities = null;
+        fetchJoinMetaAttributes = null;
+        distinct = false;
     }
 
     @Override
     public void collectRecords(ResultSet rs) throws Exception {
         ResultSetMetaData metaData = rs.getMetaData();
+        // root instances already collected and, for each root, the ids of the fetched elements by attribute
+        Map<Object, List<Set<Object>>> rootElementIds = new IdentityHashMap<>();
+        Object previousRootId = null;
+        Object instance = null;
+        List<Set<Object>> elementIds = null;
         while (rs.next()) {
-            Optional<ModelValueArray<FetchParameter>> optional = JdbcRunner
-                    .createModelValueArrayFromResultSetAM(fetchParameters, rs, metaData);
+            Optional<FetchRow> optional = rowReader.readRow(rs, metaData);
             log.debug("collectRecords: optional={}", optional);
             if (optional.isEmpty())
                 continue;
 
-            Object instance = entityLoader.buildEntityNoRelationshipAttributeLoading(optional.get(),
-                    metaEntity);
-            if (distinct) {
-                if (!collectionResult.contains(instance)) {
-                    collectionResult.add(instance);
-                    // set lazy loaded flag for those attributes
+            FetchRow fetchRow = optional.get();
+            Object rootId = metaEntity.getId().buildValue(fetchRow);
+            // rows are usually sorted by root, consecutive rows with the same root id reuse the instance
+            if (instance == null || !rootId.equals(previousRootId)) {
+                instance = entityLoader.buildEntityNoRelationshipAttributeLoading(fetchRow, metaEntity);
+                previousRootId = rootId;
+                List<Set<Object>> previousElementIds = elementIds;
+                elementIds = rootElementIds.get(instance);
+                if (elementIds == null) {
+                    // the sets are sized on the element counts of the previous root
+                    elementIds = new ArrayList<>(fetchJoinMetaEntities.size());
+                    for (int i = 0; i < fetchJoinMetaEntities.size(); ++i) {
+                        int expectedSize = previousElementIds == null ? 0 : previousElementIds.get(i).size();
+                        elementIds.add(new HashSet<>(Math.max(16, (int) (expectedSize / 0.75f) + 1)));
+                    }
+
+                    rootElementIds.put(instance, elementIds);
+                    if (distinct)
+                        collectionResult.add(instance);
+
+                    // set lazy loaded flag for those attributes, a root without elements gets empty collections
                     for (RelationshipMetaAttribute fetchJoinMetaAttribute : fetchJoinMetaAttributes) {
-                        metaEntity.lazyAttributeLoaded(fetchJoinMetaAttribute,
-                                instance, true);
+                        metaEntity.lazyAttributeLoaded(fetchJoinMetaAttribute, instance, true);
+                        MetaEntityHelper.initCollectionAttribute(instance, metaEntity, fetchJoinMetaAttribute);
                     }
                 }
-            } else {
-                collectionResult.add(instance);
-                // set lazy loaded flag for those attributes
-                for (RelationshipMetaAttribute fetchJoinMetaAttribute : fetchJoinMetaAttributes) {
-                    metaEntity.lazyAttributeLoaded(fetchJoinMetaAttribute,
-                            instance, true);
-                }
             }
 
+            if (!distinct)
+                collectionResult.add(instance);
+
             // set relationship attribute values
             for (int i = 0; i < fetchJoinMetaEntities.size(); ++i) {
-                Object value = entityLoader.buildEntityNoRelationshipAttributeLoading(optional.get(),
-                        fetchJoinMetaEntities.get(i));
+                MetaEntity fetchJoinMetaEntity = fetchJoinMetaEntities.get(i);
+                // an outer join row without element
+                if (isIdNull(fetchJoinMetaEntity.getId(), fetchRow))
+                    continue;
+
+                Object id = fetchJoinMetaEntity.getId().buildValue(fetchRow);
+                if (!elementIds.get(i).add(id))
+                    continue;
+
+                Object value = entityLoader.buildFetchJoinElement(fetchRow, fetchJoinMetaEntity);
                 log.debug("collectRecords: Relationship Attribute Values value={}", value);
-                Object id = fetchJoinMetaEntities.get(i).getId().readValue(value);
-                if (!isRelationshipEntityIdPresent(fetchJoinMetaAttributes.get(i), id)) {
-                    MetaEntityHelper.addElementToCollectionAttribute(instance, metaEntity,
-                            fetchJoinMetaAttributes.get(i), value);
-                    addRelationshipEntityId(fetchJoinMetaAttributes.get(i), id);
-                }
+                MetaEntityHelper.addElementToCollectionAttribute(instance, metaEntity,
+                        fetchJoinMetaAttributes.get(i), value);
             }
         }
     }
+
+    /**
+     * Checks the id columns, a composite id object is built even if all its columns are null.
+     */
+    private static boolean isIdNull(Pk id, FetchRow fetchRow) {
+        boolean found = false;
+        for (MetaAttribute attribute : id.getAttributes()) {
+            int index = fetchRow.indexOf(attribute);
+            if (index == -1)
+                continue;
+
+            if (fetchRow.getValue(index) != null)
+                return false;
+
+            found = true;
+        }
+
+        return found;
+    }
 }
\ No newline at end of file
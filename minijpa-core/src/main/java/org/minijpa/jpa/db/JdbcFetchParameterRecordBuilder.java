@@ -1,26 +1,29 @@
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.JdbcRecordBuilder;
-import org.minijpa.jdbc.JdbcRunner;
-import org.minijpa.jdbc.ModelValueArray;
+import org.minijpa.jdbc.JdbcRowRecordBuilder;
+import org.minijpa.jdbc.RowReader;
 import org.minijpa.jpa.model.MetaEntity;
 
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public class JdbcFetchParameterRecordBuilder implements JdbcRecordBuilder {
+public class JdbcFetchParameterRecordBuilder implements JdbcRecordBuilder, JdbcRowRecordBuilder {
 
-    private List<FetchParameter> fetchParameters;
+    private RowReader rowReader;
     private Collection<Object> collectionResult;
     private MetaEntity metaEntity;
     private EntityLoader entityLoader;
+    private EagerJoinGraph eagerJoins;
+    private ResultSetMetaData metaData;
 
-    public void setFetchParameters(List<FetchParameter> fetchParameters) {
-        this.fetchParameters = fetchParameters;
+    public void setRowReader(RowReader rowReader) {
+        this.rowReader = rowReader;
     }
 
     public void setCollectionResult(Collection<Object> collectionResult) {
@@ -35,16 +38,63 @@ public class JdbcFetchParameterRecordBuilder implements JdbcRecordBuilder {
         this.entityLoader = entityLoader;
     }
 
+    public void setEagerJoins(EagerJoinGraph eagerJoins) {
+        this.eagerJoins = eagerJoins;
+    }
+
+    /**
+     * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+     */
+    public void clear() {
+        rowReader = null;
+        collectionResult = null;
+        metaEntity = null;
+        entityLoader = null;
+        eagerJoins = null;
+        metaData = null;
+    }
+
     @Override
     public void collectRecords(ResultSet rs) throws Exception {
-        ResultSetMetaData metaData = rs.getMetaData();
-        while (rs.next()) {
-            Optional<ModelValueArray<FetchParameter>> optional = JdbcRunner
-                    .createModelValueArrayFromResultSetAM(fetchParameters, rs, metaData);
-            if (optional.isPresent()) {
-                Object instance = entityLoader.build(optional.get(), metaEntity);
-                collectionResult.add(instance);
+        init(rs);
+        if (eagerJoins != null) {
+            while (rs.next()) {
+                Object instance = buildRecord(rs);
+                if (instance != null) {
+                    collectionResult.add(instance);
+                }
             }
+
+            return;
+        }
+
+        // the rows are read first, the targets of their eager to-one associations are loaded together
+        List<FetchRow> fetchRows = new ArrayList<>();
+        while (rs.next()) {
+            rowReader.readRow(rs, metaData).ifPresent(fetchRows::add);
+        }
+
+        entityLoader.loadEagerForeignKeys(fetchRows, metaEntity);
+        for (FetchRow fetchRow : fetchRows) {
+            collectionResult.add(entityLoader.build(fetchRow, metaEntity));
+        }
+    }
+
+    @Override
+    public void init(ResultSet rs) throws Exception {
+        metaData = rs.getMetaData();
+    }
+
+    @Override
+    public Object buildRecord(ResultSet rs) throws Exception {
+        Optional<FetchRow> optional = rowReader.readRow(rs, metaData);
+        if (optional.isEmpty()) {
+            return null;
         }
+
+        if (eagerJoins != null)
+            return entityLoader.build(optional.get(), metaEntity, eagerJoins);
+
+        return entityLoader.build(optional.get(), metaEntity);
     }
-}
\ No newline at end of file
+}
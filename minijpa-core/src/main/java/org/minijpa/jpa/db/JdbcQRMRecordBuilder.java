@@ -21,13 +21,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
+public class JdbcQRMRecordBuilder implements JdbcRecordBuilder, JdbcRowRecordBuilder {
     protected Logger log = LoggerFactory.getLogger(JdbcQRMRecordBuilder.class);
     private List<Object> objects;
     private QueryResultMapping queryResultMapping;
     private LockType lockType;
     private final EntityBuilder managedEntityBuilderByValues = new ManagedEntityBuilderByValues();
     private EntityContainer entityContainer;
+    private RowLayout entityRowLayout;
+    private int[] entityColumnIndexes;
+    private ColumnReader[] entityColumnReaders;
+    private ResultSetMetaData metaData;
 
     public void setQueryResultMapping(QueryResultMapping queryResultMapping) {
         this.queryResultMapping = queryResultMapping;
@@ -45,25 +49,49 @@ public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
         this.entityContainer = entityContainer;
     }
 
+    /**
+     * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+     */
+    public void clear() {
+        objects = null;
+        queryResultMapping = null;
+        lockType = null;
+        entityContainer = null;
+        entityRowLayout = null;
+        entityColumnIndexes = null;
+        entityColumnReaders = null;
+        metaData = null;
+    }
+
     @Override
     public void collectRecords(ResultSet rs) throws Exception {
-        ResultSetMetaData metaData = rs.getMetaData();
+        init(rs);
         while (rs.next()) {
-            Object record = buildRecord(metaData, rs, queryResultMapping);
-            objects.add(record);
+            objects.add(buildRecord(rs));
         }
     }
 
+    @Override
+    public void init(ResultSet rs) throws Exception {
+        metaData = rs.getMetaData();
+        initEntityMappingColumns(metaData);
+    }
+
+    @Override
+    public Object buildRecord(ResultSet rs) throws Exception {
+        return buildRecord(metaData, rs, queryResultMapping);
+    }
+
     private Object buildRecord(
             ResultSetMetaData metaData,
             ResultSet rs,
             QueryResultMapping queryResultMapping) throws Exception {
-        ModelValueArray<FetchParameter> modelValueArray = buildEntityMappingFetchParameters(metaData, rs);
+        FetchRow fetchRow = buildEntityMappingRow(rs);
         int k = 0;
         Object[] result = new Object[queryResultMapping.size()];
         for (EntityMapping entityMapping : queryResultMapping.getEntityMappings()) {
             Object entityInstance = managedEntityBuilderByValues.build(
-                    modelValueArray, entityMapping.getMetaEntity(), lockType);
+                    fetchRow, entityMapping.getMetaEntity(), lockType);
             result[k] = entityInstance;
             ++k;
         }
@@ -99,10 +127,12 @@ public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
         return result;
     }
 
-    private ModelValueArray<FetchParameter> buildEntityMappingFetchParameters(
-            ResultSetMetaData metaData,
-            ResultSet rs) throws Exception {
-        ModelValueArray<FetchParameter> modelValueArray = new ModelValueArray<>();
+    /**
+     * Finds the entity mapping columns once per result set, the rows are read with the column readers.
+     */
+    private void initEntityMappingColumns(ResultSetMetaData metaData) throws Exception {
+        List<FetchParameter> fetchParameters = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
         int nc = metaData.getColumnCount();
         for (int i = 0; i < nc; ++i) {
             String columnName = metaData.getColumnName(i + 1);
@@ -110,25 +140,28 @@ public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
             Optional<FetchParameter> optional = findFetchParameter(columnName, columnAlias,
                     queryResultMapping.getEntityMappings());
             if (optional.isPresent()) {
-                Object v = buildAttributeValue(optional.get(), metaData, rs, i + 1);
-                modelValueArray.add(optional.get(), v);
+                fetchParameters.add(optional.get());
+                indexes.add(i + 1);
             }
         }
 
-        return modelValueArray;
+        entityRowLayout = new RowLayout(fetchParameters);
+        entityColumnIndexes = new int[indexes.size()];
+        entityColumnReaders = new ColumnReader[indexes.size()];
+        for (int i = 0; i < entityColumnIndexes.length; ++i) {
+            entityColumnIndexes[i] = indexes.get(i);
+            entityColumnReaders[i] = ColumnReaders.forFetchParameter(fetchParameters.get(i), metaData,
+                    entityColumnIndexes[i]);
+        }
     }
 
-    private Object buildAttributeValue(
-            FetchParameter fetchParameter,
-            ResultSetMetaData metaData,
-            ResultSet rs,
-            int index) throws Exception {
-        Integer sqlType = fetchParameter.getSqlType();
-        if (sqlType == null) {
-            sqlType = metaData.getColumnType(index);
+    private FetchRow buildEntityMappingRow(ResultSet rs) throws Exception {
+        Object[] values = new Object[entityColumnIndexes.length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = entityColumnReaders[i].read(rs, entityColumnIndexes[i]);
         }
 
-        return JdbcRunner.getValueFromResultSet(rs, index, sqlType, fetchParameter.getObjectConverter());
+        return new FetchRow(entityRowLayout, values);
     }
 
     private Optional<FetchParameter> findFetchParameter(
@@ -273,10 +306,10 @@ public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
     private class ManagedEntityBuilderByValues extends org.minijpa.jpa.db.AbstractEntityBuilderByValues {
         @Override
         public Object build(
-                ModelValueArray<FetchParameter> modelValueArray,
+                FetchRow fetchRow,
                 MetaEntity entity,
                 LockType lockType) throws Exception {
-            Object primaryKey = entity.getId().buildValue(modelValueArray);
+            Object primaryKey = entity.getId().buildValue(fetchRow);
             log.debug("Build Entity Instance -> Primary Key = {}", primaryKey);
             log.debug("Build Entity Instance -> Entity = {}", entity);
             Object entityInstance = entityContainer.find(entity.getEntityClass(), primaryKey);
@@ -285,7 +318,7 @@ public class JdbcQRMRecordBuilder implements JdbcRecordBuilder {
 
             entityInstance = buildInstance(entity, primaryKey);
             buildAttributes(entityInstance, entity, entity.getBasicAttributes(),
-                    entity.getRelationshipAttributes(), modelValueArray, lockType);
+                    entity.getRelationshipAttributes(), fetchRow, lockType);
             entityContainer.addManaged(entityInstance, primaryKey);
             MetaEntityHelper.setEntityStatus(entity, entityInstance, EntityStatus.FLUSHED_LOADED_FROM_DB);
             buildCircularRelationships(entity, entityInstance);
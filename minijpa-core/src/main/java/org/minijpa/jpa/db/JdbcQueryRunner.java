@@ -15,6 +15,8 @@ import org.minijpa.sql.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -27,7 +29,11 @@ public class JdbcQueryRunner {
     private final DbConfiguration dbConfiguration;
     private final AliasGenerator aliasGenerator;
     private final JdbcRunner.JdbcValueBuilderById jdbcValueBuilderById = new JdbcRunner.JdbcValueBuilderById();
-    private final JdbcFetchParameterRecordBuilder jdbcFetchParameterRecordBuilder = new JdbcFetchParameterRecordBuilder();
+    private final RecordBuilderPool<JdbcFetchParameterRecordBuilder> fetchParameterRecordBuilders = new RecordBuilderPool<>(
+            JdbcFetchParameterRecordBuilder::new, JdbcFetchParameterRecordBuilder::clear);
+    private int batchSize = 1;
+    private int eagerJoinDepth;
+    private JdbcBatch jdbcBatch;
 
     public JdbcQueryRunner(
             ConnectionHolder connectionHolder,
@@ -39,24 +45,141 @@ public class JdbcQueryRunner {
         this.aliasGenerator = tableAliasGenerator;
     }
 
-    public Optional<ModelValueArray<FetchParameter>> findById(
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getEagerJoinDepth() {
+        return eagerJoinDepth;
+    }
+
+    /**
+     * Sets the max depth of the eager to-one associations read with left outer joins by the select by id and
+     * select by foreign key statements, 0 disables the joins.
+     *
+     * @param eagerJoinDepth the join depth
+     */
+    public void setEagerJoinDepth(int eagerJoinDepth) {
+        this.eagerJoinDepth = eagerJoinDepth;
+    }
+
+    /**
+     * Starts batching inserts, updates and deletes. Nothing happens if the batch size is less than 2.
+     */
+    public void beginBatch() {
+        if (batchSize > 1) {
+            jdbcBatch = new JdbcBatch(batchSize);
+        }
+    }
+
+    /**
+     * Executes the pending batch rows, if any.
+     */
+    public void executeBatch() throws Exception {
+        if (jdbcBatch != null) {
+            dbConfiguration.getJdbcRunner().executeBatch(jdbcBatch);
+        }
+    }
+
+    /**
+     * Stops batching. The pending rows not executed are discarded.
+     */
+    public void endBatch() throws Exception {
+        if (jdbcBatch != null) {
+            JdbcBatch batch = jdbcBatch;
+            jdbcBatch = null;
+            batch.close();
+        }
+    }
+
+    /**
+     * Returns the select by id statement. Locking statements don't join the eager associations.
+     *
+     * @param entity   the entity
+     * @param lockType the lock type
+     * @return the select statement
+     */
+    public EntityStatementCache.SelectStatement selectById(
+            MetaEntity entity,
+            LockType lockType) throws Exception {
+        return entity.getStatementCache()
+                .getSelectById(lockType, () -> {
+                    EagerJoinGraph eagerJoins = lockType == null || lockType == LockType.NONE
+                            ? EagerJoinGraph.of(entity, eagerJoinDepth, aliasGenerator) : null;
+                    SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
+                            .generateSelectById(entity, lockType, eagerJoins,
+                                    aliasGenerator);
+                    String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+                    return new EntityStatementCache.SelectStatement(sqlSelectData, sql, eagerJoins);
+                });
+    }
+
+    /**
+     * Reads the entity row by primary key. The row includes the eager associations joined by the statement,
+     * see {@link #selectById(MetaEntity, LockType)}.
+     */
+    public Optional<FetchRow> findById(
             MetaEntity entity,
             Object primaryKey,
             LockType lockType)
             throws Exception {
-        SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
-                .generateSelectById(entity, lockType,
-                        aliasGenerator);
+        EntityStatementCache.SelectStatement selectStatement = selectById(entity, lockType);
         List<QueryParameter> parameters = entity.getId().queryParameters(primaryKey);
 
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
-        jdbcValueBuilderById.setFetchParameters(sqlSelectData.getFetchParameters());
+        jdbcValueBuilderById.setRowReader(selectStatement.getSqlSelectData().getRowReader());
+        executeBatch();
         return dbConfiguration.getJdbcRunner()
-                .findById(sql, connectionHolder.getConnection(), parameters,
+                .findById(selectStatement.getSql(), connectionHolder, parameters,
                         jdbcValueBuilderById);
     }
 
-//    public Optional<ModelValueArray<FetchParameter>> runVersionQuery(
+    /**
+     * Executes a query like: 'select (Entity fields) from table where pk in (?, ?, ...)'. The statement is
+     * cached by number of primary keys, the rows are returned in no particular order.
+     *
+     * @param entity      the entity
+     * @param primaryKeys the primary keys
+     * @return the rows found
+     */
+    public List<FetchRow> findByIds(
+            MetaEntity entity,
+            List<Object> primaryKeys)
+            throws Exception {
+        EntityStatementCache.SelectStatement selectStatement = entity.getStatementCache()
+                .getSelectByIds(primaryKeys.size(), () -> {
+                    SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
+                            .generateSelectByIds(entity, primaryKeys.size(), aliasGenerator);
+                    String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+                    return new EntityStatementCache.SelectStatement(sqlSelectData, sql);
+                });
+        List<QueryParameter> parameters = new ArrayList<>();
+        for (Object primaryKey : primaryKeys) {
+            parameters.addAll(entity.getId().queryParameters(primaryKey));
+        }
+
+        return readRows(selectStatement, parameters);
+    }
+
+    private List<FetchRow> readRows(
+            EntityStatementCache.SelectStatement selectStatement,
+            List<QueryParameter> parameters) throws Exception {
+        RowReader rowReader = selectStatement.getSqlSelectData().getRowReader();
+        List<FetchRow> rows = new ArrayList<>();
+        executeBatch();
+        dbConfiguration.getJdbcRunner().runQuery(connectionHolder, selectStatement.getSql(), parameters, rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            while (rs.next()) {
+                rowReader.readRow(rs, metaData).ifPresent(rows::add);
+            }
+        });
+        return rows;
+    }
+
+//    public Optional<FetchRow> runVersionQuery(
 //            MetaEntity entity,
 //            Object primaryKey,
 //            LockType lockType) throws Exception {
@@ -97,24 +220,104 @@ public class JdbcQueryRunner {
                     return ((TableColumn) p.getColumn()).getColumn().getName();
                 })
                 .collect(Collectors.toList());
-        SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
-                .generateSelectByForeignKey(entity, columns, aliasGenerator);
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+        EntityStatementCache.SelectStatement selectStatement = entity.getStatementCache().getSelect(
+                EntityStatementCache.Kind.SELECT_BY_FOREIGN_KEY, columns, 1, () -> {
+                    EagerJoinGraph eagerJoins = EagerJoinGraph.of(entity, eagerJoinDepth, aliasGenerator);
+                    SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
+                            .generateSelectByForeignKey(entity, columns, eagerJoins, aliasGenerator);
+                    String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+                    return new EntityStatementCache.SelectStatement(sqlSelectData, sql, eagerJoins);
+                });
         log.debug("Select By ForeignKey -> Foreign Key Attribute = {}", foreignKeyAttribute);
         Collection<Object> collectionResult = (Collection<Object>) CollectionUtils.createInstance(null,
                 CollectionUtils.findCollectionImplementationClass(collectionClass));
         entityLoader.setLockType(lockType);
 
-        jdbcFetchParameterRecordBuilder.setCollectionResult(collectionResult);
-        jdbcFetchParameterRecordBuilder.setEntityLoader(entityLoader);
-        jdbcFetchParameterRecordBuilder.setMetaEntity(entity);
-        jdbcFetchParameterRecordBuilder.setFetchParameters(sqlSelectData.getFetchParameters());
-        dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql, parameters,
-                jdbcFetchParameterRecordBuilder);
+        executeBatch();
+        runQuery(selectStatement.getSql(), parameters, collectionResult, entityLoader, entity,
+                selectStatement.getEagerJoins(), selectStatement.getSqlSelectData().getRowReader());
         return collectionResult;
     }
 
 
+    /**
+     * Executes a query like: 'select (Entity fields) from table where fk in (?, ?, ...)'. The rows of all the
+     * parents are returned, the foreign key columns tell the parent of each row.
+     *
+     * @param entity              the entity
+     * @param foreignKeyAttribute the owning attribute
+     * @param foreignKeys         the parent instances
+     * @return the rows found
+     */
+    public List<FetchRow> selectByForeignKeys(
+            MetaEntity entity,
+            RelationshipMetaAttribute foreignKeyAttribute,
+            List<Object> foreignKeys) throws Exception {
+        List<QueryParameter> parameters = new ArrayList<>();
+        for (Object foreignKey : foreignKeys) {
+            parameters.addAll(foreignKeyAttribute.queryParameters(foreignKey));
+        }
+
+        int size = foreignKeys.size();
+        List<String> columns = parameters.subList(0, parameters.size() / size).stream().map(p -> {
+                    if (p.getColumn() instanceof String) return (String) p.getColumn();
+
+                    return ((TableColumn) p.getColumn()).getColumn().getName();
+                })
+                .collect(Collectors.toList());
+        EntityStatementCache.SelectStatement selectStatement = entity.getStatementCache().getSelect(
+                EntityStatementCache.Kind.SELECT_BY_FOREIGN_KEYS, columns, size, () -> {
+                    SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
+                            .generateSelectByForeignKeys(entity, columns, size, aliasGenerator);
+                    String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+                    return new EntityStatementCache.SelectStatement(sqlSelectData, sql);
+                });
+        log.debug("Select By ForeignKeys -> Foreign Key Attribute = {}", foreignKeyAttribute);
+        return readRows(selectStatement, parameters);
+    }
+
+    /**
+     * Executes a query like: 'select t1.id, t1.p1, j.t2 from entity t1 inner join jointable j on t1.id=j.id1
+     * where j.t2 in (?, ?, ...)'. The parent key is the last value of each row.
+     *
+     * @param primaryKeys  the parent primary keys, single column keys only
+     * @param id           the parent id
+     * @param relationship the join table relationship
+     * @return the rows found
+     */
+    public List<FetchRow> selectByJoinTableKeys(
+            List<Object> primaryKeys,
+            Pk id,
+            Relationship relationship) throws Exception {
+        RelationshipJoinTable joinTable = relationship.getJoinTable();
+        List<JoinColumnAttribute> allJoinColumnAttributes = relationship.isOwner()
+                ? joinTable.getOwningJoinColumnMapping().getJoinColumnAttributes()
+                : joinTable.getTargetJoinColumnMapping().getJoinColumnAttributes();
+        List<QueryParameter> parameters = new ArrayList<>();
+        List<JoinColumnAttribute> attributes = List.of();
+        for (Object primaryKey : primaryKeys) {
+            ModelValueArray<JoinColumnAttribute> modelValueArray = dbConfiguration.getSqlStatementFactory()
+                    .expandJoinColumnAttributes(id, primaryKey, allJoinColumnAttributes);
+            attributes = modelValueArray.getModels();
+            parameters.addAll(MetaEntityHelper.convertAbstractAVToQP(modelValueArray));
+        }
+
+        List<JoinColumnAttribute> keyAttributes = attributes;
+        List<String> columns = keyAttributes.stream().map(a -> joinTable.getTableName() + "." + a.getColumnName())
+                .collect(Collectors.toList());
+        MetaEntity entity = relationship.getAttributeType();
+        int size = primaryKeys.size();
+        EntityStatementCache.SelectStatement selectStatement = entity.getStatementCache().getSelect(
+                EntityStatementCache.Kind.SELECT_BY_JOIN_TABLE_KEYS, columns, size, () -> {
+                    SqlSelectData sqlSelectData = dbConfiguration.getSqlStatementFactory()
+                            .generateSelectByJoinTableKeys(entity, joinTable, keyAttributes, relationship.isOwner(),
+                                    size, aliasGenerator);
+                    String sql = dbConfiguration.getSqlStatementGenerator().export(sqlSelectData);
+                    return new EntityStatementCache.SelectStatement(sqlSelectData, sql);
+                });
+        return readRows(selectStatement, parameters);
+    }
+
     public Object selectByJoinTable(Object primaryKey, Pk id, Relationship relationship,
                                     RelationshipMetaAttribute metaAttribute,
                                     EntityHandler entityLoader) throws Exception {
@@ -141,15 +344,37 @@ public class JdbcQueryRunner {
         Collection<Object> collectionResult = (Collection<Object>) CollectionUtils.createInstance(null,
                 metaAttribute.getCollectionImplementationClass());
         entityLoader.setLockType(LockType.NONE);
-        jdbcFetchParameterRecordBuilder.setCollectionResult(collectionResult);
-        jdbcFetchParameterRecordBuilder.setEntityLoader(entityLoader);
-        jdbcFetchParameterRecordBuilder.setMetaEntity(relationship.getAttributeType());
-        jdbcFetchParameterRecordBuilder.setFetchParameters(sqlSelectData.getFetchParameters());
-        dbConfiguration.getJdbcRunner().runQuery(connectionHolder.getConnection(), sql, parameters,
-                jdbcFetchParameterRecordBuilder);
+        executeBatch();
+        runQuery(sql, parameters, collectionResult, entityLoader, relationship.getAttributeType(), null,
+                sqlSelectData.getRowReader());
         return collectionResult;
     }
 
+    /**
+     * Runs a select query and adds the built entities to the collection. The entity loader can run nested queries
+     * while the result set is read, each execution uses its own record builder.
+     */
+    private void runQuery(
+            String sql,
+            List<QueryParameter> parameters,
+            Collection<Object> collectionResult,
+            EntityLoader entityLoader,
+            MetaEntity entity,
+            EagerJoinGraph eagerJoins,
+            RowReader rowReader) throws Exception {
+        JdbcFetchParameterRecordBuilder recordBuilder = fetchParameterRecordBuilders.acquire();
+        try {
+            recordBuilder.setCollectionResult(collectionResult);
+            recordBuilder.setEntityLoader(entityLoader);
+            recordBuilder.setMetaEntity(entity);
+            recordBuilder.setEagerJoins(eagerJoins);
+            recordBuilder.setRowReader(rowReader);
+            dbConfiguration.getJdbcRunner().runQuery(connectionHolder, sql, parameters, recordBuilder);
+        } finally {
+            fetchParameterRecordBuilders.release(recordBuilder);
+        }
+    }
+
     public Object insertWithIdentityColumn(
             MetaEntity entity,
             Object entityInstance,
@@ -162,10 +387,15 @@ public class JdbcQueryRunner {
                 })
                 .collect(Collectors.toList());
         Pk pk = entity.getId();
-        SqlInsert sqlInsert = dbConfiguration.getSqlStatementFactory()
-                .generateInsert(entity, columns, true,
-                        isIdentityColumnNull, entity, aliasGenerator);
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlInsert);
+        EntityStatementCache.Kind kind = isIdentityColumnNull ? EntityStatementCache.Kind.INSERT_IDENTITY_NULL
+                : EntityStatementCache.Kind.INSERT_IDENTITY;
+        String sql = entity.getStatementCache().getSql(kind, columns, List.of(), () -> {
+            SqlInsert sqlInsert = dbConfiguration.getSqlStatementFactory()
+                    .generateInsert(entity, columns, true,
+                            isIdentityColumnNull, entity, aliasGenerator);
+            return dbConfiguration.getSqlStatementGenerator().export(sqlInsert);
+        });
+        executeBatch();
         return dbConfiguration.getJdbcRunner()
                 .insertReturnGeneratedKeys(connectionHolder.getConnection(), sql,
                         parameters, pk.getAttribute().getColumnName());
@@ -183,11 +413,13 @@ public class JdbcQueryRunner {
                     return ((TableColumn) p.getColumn()).getColumn().getName();
                 })
                 .collect(Collectors.toList());
-        SqlInsert sqlInsert = dbConfiguration.getSqlStatementFactory()
-                .generateInsert(entity, columns, false, false,
-                        null, aliasGenerator);
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlInsert);
-        dbConfiguration.getJdbcRunner().insert(connectionHolder.getConnection(), sql, parameters);
+        String sql = entity.getStatementCache().getSql(EntityStatementCache.Kind.INSERT, columns, List.of(), () -> {
+            SqlInsert sqlInsert = dbConfiguration.getSqlStatementFactory()
+                    .generateInsert(entity, columns, false, false,
+                            null, aliasGenerator);
+            return dbConfiguration.getSqlStatementGenerator().export(sqlInsert);
+        });
+        insert(sql, parameters);
     }
 
     public void deleteById(
@@ -200,24 +432,56 @@ public class JdbcQueryRunner {
                 })
                 .collect(Collectors.toList());
 
-        SqlDelete sqlDelete = dbConfiguration.getSqlStatementFactory()
-                .generateDeleteById(e, idColumns, aliasGenerator);
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlDelete);
-        dbConfiguration.getJdbcRunner().delete(sql, connectionHolder.getConnection(), idParameters);
+        String sql = e.getStatementCache().getSql(EntityStatementCache.Kind.DELETE_BY_ID, List.of(), idColumns, () -> {
+            SqlDelete sqlDelete = dbConfiguration.getSqlStatementFactory()
+                    .generateDeleteById(e, idColumns, aliasGenerator);
+            return dbConfiguration.getSqlStatementGenerator().export(sqlDelete);
+        });
+        delete(sql, idParameters);
     }
 
-    public int update(
+    /**
+     * Runs an update statement. If batching is active the statement is added to the batch and the update
+     * count is checked when the batch is executed. Versioned entities are batched only once a batch execution has
+     * shown that the driver reports the update counts, the optimistic lock check needs them.
+     *
+     * @param entity           meta entity
+     * @param parameters       query parameters
+     * @param columns          column names
+     * @param idColumns        id and version column names
+     * @param updateCountCheck update count check
+     */
+    public void update(
             MetaEntity entity,
             List<QueryParameter> parameters,
             List<String> columns,
-            List<String> idColumns)
+            List<String> idColumns,
+            UpdateCountCheck updateCountCheck)
             throws Exception {
-        SqlUpdate sqlUpdate = dbConfiguration.getSqlStatementFactory()
-                .generateUpdate(entity, columns, idColumns,
-                        aliasGenerator);
-        String sql = dbConfiguration.getSqlStatementGenerator().export(sqlUpdate);
-        return dbConfiguration.getJdbcRunner()
-                .update(connectionHolder.getConnection(), sql, parameters);
+        String sql = entity.getStatementCache().getSql(EntityStatementCache.Kind.UPDATE, columns, idColumns, () -> {
+            SqlUpdate sqlUpdate = dbConfiguration.getSqlStatementFactory()
+                    .generateUpdate(entity, columns, idColumns,
+                            aliasGenerator);
+            return dbConfiguration.getSqlStatementGenerator().export(sqlUpdate);
+        });
+        if (jdbcBatch != null && (entity.getVersionMetaAttribute() == null
+                || dbConfiguration.getJdbcRunner().isBatchUpdateCountReported())) {
+            dbConfiguration.getJdbcRunner().addBatch(connectionHolder.getConnection(), jdbcBatch, sql,
+                    parameters, updateCountCheck);
+            return;
+        }
+
+        executeBatch();
+        int updateCount;
+        try {
+            updateCount = dbConfiguration.getJdbcRunner()
+                    .update(connectionHolder, sql, parameters);
+        } catch (Exception e) {
+            updateCountCheck.failed();
+            throw e;
+        }
+
+        updateCountCheck.check(updateCount);
     }
 
     public void insertJoinTableAttribute(RelationshipJoinTable relationshipJoinTable,
@@ -236,7 +500,7 @@ public class JdbcQueryRunner {
                 .generateJoinTableInsert(relationshipJoinTable,
                         columnNames);
         String sql = dbConfiguration.getSqlStatementGenerator().export(sqlInsert);
-        dbConfiguration.getJdbcRunner().insert(connectionHolder.getConnection(), sql, parameters);
+        insert(sql, parameters);
     }
 
     public void removeJoinTableRecords(MetaEntity entity, Object primaryKey,
@@ -254,7 +518,7 @@ public class JdbcQueryRunner {
             SqlDelete sqlDelete = dbConfiguration.getSqlStatementFactory()
                     .generateDeleteById(fromTable, idColumns);
             String sql = dbConfiguration.getSqlStatementGenerator().export(sqlDelete);
-            dbConfiguration.getJdbcRunner().delete(sql, connectionHolder.getConnection(), idParameters);
+            delete(sql, idParameters);
         }
 //    else {
 //      ModelValueArray<AbstractAttribute> modelValueArray = dbConfiguration.getSqlStatementFactory()
@@ -268,8 +532,28 @@ public class JdbcQueryRunner {
 //      SqlDelete sqlDelete = dbConfiguration.getSqlStatementFactory()
 //          .generateDeleteById(fromTable, idColumns);
 //      String sql = dbConfiguration.getSqlStatementGenerator().export(sqlDelete);
-//            dbConfiguration.getJdbcRunner().delete(sql, connectionHolder.getConnection(), idParameters);
+//            dbConfiguration.getJdbcRunner().delete(sql, connectionHolder, idParameters);
 //    }
     }
 
+    private void insert(String sql, List<QueryParameter> parameters) throws Exception {
+        if (jdbcBatch != null) {
+            dbConfiguration.getJdbcRunner().addBatch(connectionHolder.getConnection(), jdbcBatch, sql,
+                    parameters, null);
+            return;
+        }
+
+        dbConfiguration.getJdbcRunner().insert(connectionHolder, sql, parameters);
+    }
+
+    private void delete(String sql, List<QueryParameter> parameters) throws Exception {
+        if (jdbcBatch != null) {
+            dbConfiguration.getJdbcRunner().addBatch(connectionHolder.getConnection(), jdbcBatch, sql,
+                    parameters, null);
+            return;
+        }
+
+        dbConfiguration.getJdbcRunner().delete(sql, connectionHolder, parameters);
+    }
+
 }
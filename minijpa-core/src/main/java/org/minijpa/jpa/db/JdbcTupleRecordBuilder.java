@@ -1,22 +1,23 @@
 package org.minijpa.jpa.db;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.ColumnReader;
+import org.minijpa.jdbc.ColumnReaders;
 import org.minijpa.jdbc.JdbcRecordBuilder;
-import org.minijpa.jdbc.JdbcRunner;
+import org.minijpa.jdbc.JdbcRowRecordBuilder;
 import org.minijpa.jdbc.db.SqlSelectData;
 import org.minijpa.jpa.TupleImpl;
 
 import javax.persistence.Tuple;
 import javax.persistence.criteria.CompoundSelection;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.util.List;
 
-public class JdbcTupleRecordBuilder implements JdbcRecordBuilder {
+public class JdbcTupleRecordBuilder implements JdbcRecordBuilder, JdbcRowRecordBuilder {
 
     private List<Tuple> objects;
     private SqlSelectData sqlSelectData;
     private CompoundSelection<?> compoundSelection;
+    private ColumnReader[] columnReaders;
 
     public void setObjects(List<Tuple> objects) {
         this.objects = objects;
@@ -30,27 +31,36 @@ public class JdbcTupleRecordBuilder implements JdbcRecordBuilder {
         this.compoundSelection = compoundSelection;
     }
 
-    protected Object[] createRecord(int nc, List<FetchParameter> fetchParameters, ResultSet rs,
-                                    ResultSetMetaData metaData) throws Exception {
-        Object[] values = new Object[nc];
-        for (int i = 0; i < nc; ++i) {
-            int columnType = metaData.getColumnType(i + 1);
-            Object v = JdbcRunner.getValueFromResultSet(rs, i + 1, columnType);
-            values[i] = v;
-        }
-
-        return values;
+    /**
+     * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+     */
+    public void clear() {
+        objects = null;
+        sqlSelectData = null;
+        compoundSelection = null;
+        columnReaders = null;
     }
 
     @Override
     public void collectRecords(ResultSet rs) throws Exception {
-        int nc = sqlSelectData.getValues().size();
-        List<FetchParameter> fetchParameters = sqlSelectData.getFetchParameters();
-        ResultSetMetaData metaData = rs.getMetaData();
+        init(rs);
         while (rs.next()) {
-            Object[] values = createRecord(nc, fetchParameters, rs, metaData);
-            objects.add(new TupleImpl(values, compoundSelection));
+            objects.add((Tuple) buildRecord(rs));
+        }
+    }
+
+    @Override
+    public void init(ResultSet rs) throws Exception {
+        columnReaders = ColumnReaders.forColumns(rs.getMetaData());
+    }
+
+    @Override
+    public Object buildRecord(ResultSet rs) throws Exception {
+        Object[] values = new Object[columnReaders.length];
+        for (int i = 0; i < columnReaders.length; ++i) {
+            values[i] = columnReaders[i].read(rs, i + 1);
         }
 
+        return new TupleImpl(values, compoundSelection);
     }
-}
\ No newline at end of file
+}
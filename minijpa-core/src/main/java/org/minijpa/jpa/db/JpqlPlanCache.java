@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of parsed JPQL statements. An instance is shared by the entity managers of the same
+ * factory. The cached plans are templates: the parameter values are bound on each execution.
+ */
+public class JpqlPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final int maxSize;
+    private final Map<String, StatementParameters> plans;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public JpqlPlanCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StatementParameters> eldest) {
+                if (size() <= JpqlPlanCache.this.maxSize)
+                    return false;
+
+                evictionCount.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the plan of the JPQL statement. The JPQL parser doesn't read the query hints, so the statement
+     * is the key.
+     *
+     * @param jpqlStatement JPQL statement
+     * @return the cached plan or null
+     */
+    public StatementParameters get(String jpqlStatement) {
+        if (maxSize <= 0)
+            return null;
+
+        StatementParameters statementParameters;
+        synchronized (plans) {
+            statementParameters = plans.get(jpqlStatement);
+        }
+
+        if (statementParameters == null)
+            missCount.incrementAndGet();
+        else
+            hitCount.incrementAndGet();
+
+        return statementParameters;
+    }
+
+    public void put(String jpqlStatement, StatementParameters statementParameters) {
+        if (maxSize <= 0)
+            return;
+
+        synchronized (plans) {
+            plans.put(jpqlStatement, statementParameters);
+        }
+    }
+
+    public int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
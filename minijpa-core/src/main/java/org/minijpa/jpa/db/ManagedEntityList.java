@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Managed entity instances in insertion order. Entities are compared by identity; add, move to the end,
+ * remove and contains are O(1).
+ * <p>
+ * The list can be modified while it is iterated: an iterator visits the entities managed when it was
+ * created, including those removed later, and skips the entities added later. Nodes of removed entities are
+ * unlinked when the next iteration starts, so an iteration must not be started while an older one is still
+ * in use.
+ */
+public class ManagedEntityList implements Iterable<Object> {
+
+    private static final class Node {
+        private final Object entity;
+        private final long addedAt;
+        private long removedAt = Long.MAX_VALUE;
+        private Node next;
+
+        private Node(Object entity, long addedAt) {
+            this.entity = entity;
+            this.addedAt = addedAt;
+        }
+    }
+
+    private final Map<Object, Node> nodes = new IdentityHashMap<>();
+    private Node head;
+    private Node tail;
+    private long modCount;
+    private int removedCount;
+
+    /**
+     * Adds the entity at the end of the list. If the entity is already in the list it is moved to the end.
+     *
+     * @param entityInstance entity instance
+     */
+    public void add(Object entityInstance) {
+        Node node = nodes.get(entityInstance);
+        if (node != null)
+            unlink(node);
+
+        node = new Node(entityInstance, ++modCount);
+        if (tail == null)
+            head = node;
+        else
+            tail.next = node;
+
+        tail = node;
+        nodes.put(entityInstance, node);
+    }
+
+    public void remove(Object entityInstance) {
+        Node node = nodes.remove(entityInstance);
+        if (node != null)
+            unlink(node);
+    }
+
+    public boolean contains(Object entityInstance) {
+        return nodes.containsKey(entityInstance);
+    }
+
+    /**
+     * Returns the position of the entity in the list. Positions only grow, an entity added later has a greater
+     * position.
+     *
+     * @param entityInstance entity instance
+     * @return the entity position or -1 if the entity is not in the list
+     */
+    public long positionOf(Object entityInstance) {
+        Node node = nodes.get(entityInstance);
+        return node != null ? node.addedAt : -1;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    private void unlink(Node node) {
+        node.removedAt = ++modCount;
+        ++removedCount;
+    }
+
+    /**
+     * Unlinks the removed nodes. Unlinked nodes keep their next node, so an iterator positioned on one of
+     * them can go on.
+     */
+    private void compact() {
+        Node last = null;
+        for (Node node = head; node != null; node = node.next) {
+            if (node.removedAt != Long.MAX_VALUE)
+                continue;
+
+            if (last == null)
+                head = node;
+            else
+                last.next = node;
+
+            last = node;
+        }
+
+        if (last == null)
+            head = null;
+        else
+            last.next = null;
+
+        tail = last;
+        removedCount = 0;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        if (removedCount > 0)
+            compact();
+
+        return new SnapshotIterator(head, modCount);
+    }
+
+    private static class SnapshotIterator implements Iterator<Object> {
+
+        private final long snapshot;
+        private Node next;
+
+        private SnapshotIterator(Node head, long snapshot) {
+            this.snapshot = snapshot;
+            this.next = advance(head);
+        }
+
+        private Node advance(Node node) {
+            while (node != null && (node.addedAt > snapshot || node.removedAt <= snapshot)) {
+                node = node.next;
+            }
+
+            return node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Object next() {
+            if (next == null)
+                throw new NoSuchElementException();
+
+            Node node = next;
+            next = advance(node.next);
+            return node.entity;
+        }
+    }
+}
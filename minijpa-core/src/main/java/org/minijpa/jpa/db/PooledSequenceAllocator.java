@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out ids from an in-memory block of 'allocationSize' values, the database sequence is read once per
+ * block. Ids are taken from the current block without locking, only the block refill is serialized.
+ */
+public class PooledSequenceAllocator {
+
+    private final SequenceOptimizer sequenceOptimizer;
+    private final int allocationSize;
+    private final long initialValue;
+    private final AtomicReference<Block> block = new AtomicReference<>();
+
+    public PooledSequenceAllocator(SequenceOptimizer sequenceOptimizer, int allocationSize, long initialValue) {
+        this.sequenceOptimizer = sequenceOptimizer;
+        this.allocationSize = allocationSize;
+        this.initialValue = initialValue;
+    }
+
+    public SequenceOptimizer getSequenceOptimizer() {
+        return sequenceOptimizer;
+    }
+
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    /**
+     * Returns the next id.
+     *
+     * @param sequenceValueSupplier reads the next value from the database sequence
+     * @return the next id
+     * @throws Exception if the sequence read fails
+     */
+    public Long next(Callable<Long> sequenceValueSupplier) throws Exception {
+        while (true) {
+            Block current = block.get();
+            if (current != null) {
+                long value = current.next.getAndIncrement();
+                if (value <= current.hi)
+                    return value;
+            }
+
+            synchronized (this) {
+                if (block.get() == current)
+                    block.set(createBlock(sequenceValueSupplier.call()));
+            }
+        }
+    }
+
+    private Block createBlock(long sequenceValue) {
+        if (sequenceOptimizer == SequenceOptimizer.POOLED) {
+            // the first sequence value can be lower than the block size
+            long lo = Math.max(sequenceValue - allocationSize + 1, initialValue);
+            return new Block(Math.min(lo, sequenceValue), sequenceValue);
+        }
+
+        return new Block(sequenceValue, sequenceValue + allocationSize - 1);
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long hi;
+
+        private Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+    }
+}
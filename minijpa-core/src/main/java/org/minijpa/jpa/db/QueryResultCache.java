@@ -0,0 +1,366 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jpa.model.MetaEntity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of query results shared by the entity managers of the same factory. The results are
+ * keyed by the rendered SQL, the parameter values and the page. Entity results are stored as primary key lists,
+ * the entities are resolved through the persistence context and the second-level cache. Scalar and multi-select
+ * results are stored as values only if they are immutable, the entities of a multi-select row are stored as
+ * {@link EntityReference}.
+ * <p>
+ * Each table has a write timestamp. An entry is valid if no table in its query spaces has been written after
+ * the query started and no transaction is writing them.
+ */
+public class QueryResultCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, UUID.class, LocalDate.class, LocalTime.class, LocalDateTime.class, OffsetTime.class,
+            OffsetDateTime.class, ZonedDateTime.class, Instant.class, Duration.class, Period.class);
+
+    private final int maxSize;
+    private final Map<Key, CacheEntry> entries;
+    private final Map<String, TableTimestamp> tableTimestamps = new ConcurrentHashMap<>();
+    // writes to unknown tables
+    private final TableTimestamp allTablesTimestamp = new TableTimestamp();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong putCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public QueryResultCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+                return size() > QueryResultCache.this.maxSize;
+            }
+        };
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the current timestamp, it must be read before running a query and passed to
+     * {@link #put(Key, Set, Result, long)}.
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return clock.get();
+    }
+
+    public Result get(Key key) {
+        if (maxSize <= 0)
+            return null;
+
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        if (!isValid(entry.querySpaces, entry.timestamp)) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+
+            invalidationCount.incrementAndGet();
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return entry.result.copy();
+    }
+
+    /**
+     * Stores a query result. The result is discarded if a table in the query spaces has been written after the
+     * query started or is being written by a transaction.
+     *
+     * @param key         the query key
+     * @param querySpaces the tables read by the query
+     * @param result      the query result
+     * @param timestamp   the timestamp read before running the query
+     */
+    public void put(Key key, Set<String> querySpaces, Result result, long timestamp) {
+        if (maxSize <= 0 || !isValid(querySpaces, timestamp))
+            return;
+
+        CacheEntry entry = new CacheEntry(querySpaces, result.copy(), timestamp);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+
+        putCount.incrementAndGet();
+    }
+
+    private boolean isValid(Set<String> querySpaces, long timestamp) {
+        if (!allTablesTimestamp.isValid(timestamp))
+            return false;
+
+        for (String table : querySpaces) {
+            TableTimestamp tableTimestamp = tableTimestamps.get(table);
+            if (tableTimestamp != null && !tableTimestamp.isValid(timestamp))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Called when a transaction starts writing a table, the cached results are not valid until the transaction
+     * completes.
+     *
+     * @param table the table name, null if the written tables are unknown
+     */
+    public void beginWrite(String table) {
+        getTableTimestamp(table).beginWrite(clock.incrementAndGet());
+    }
+
+    /**
+     * Called when a transaction that has written a table completes.
+     *
+     * @param table the table name, null if the written tables are unknown
+     */
+    public void endWrite(String table) {
+        getTableTimestamp(table).endWrite(clock.incrementAndGet());
+    }
+
+    private TableTimestamp getTableTimestamp(String table) {
+        if (table == null)
+            return allTablesTimestamp;
+
+        return tableTimestamps.computeIfAbsent(table, t -> new TableTimestamp());
+    }
+
+    /**
+     * Returns true if the value can be shared by the entity managers. Mutable values like
+     * <code>java.util.Date</code> and arrays are not.
+     *
+     * @param value the value
+     * @return true if the value is null, an enum or an immutable scalar
+     */
+    public static boolean isImmutable(Object value) {
+        return value == null || value instanceof Enum || IMMUTABLE_TYPES.contains(value.getClass());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getPutCount() {
+        return putCount.get();
+    }
+
+    /**
+     * @return the number of entries discarded because a table in their query spaces has been written
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private static final class TableTimestamp {
+
+        private long lastWrite;
+        private int writers;
+
+        private synchronized void beginWrite(long timestamp) {
+            ++writers;
+            lastWrite = timestamp;
+        }
+
+        private synchronized void endWrite(long timestamp) {
+            if (writers > 0)
+                --writers;
+
+            lastWrite = timestamp;
+        }
+
+        private synchronized boolean isValid(long timestamp) {
+            return writers == 0 && lastWrite <= timestamp;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Set<String> querySpaces;
+        private final Result result;
+        private final long timestamp;
+
+        private CacheEntry(Set<String> querySpaces, Result result, long timestamp) {
+            this.querySpaces = querySpaces;
+            this.result = result;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * Cache key: the SQL statement, the parameter values and the page.
+     */
+    public static final class Key {
+
+        private final String sql;
+        private final Object[] parameterValues;
+        private final int firstResult;
+        private final int maxResults;
+        private final int hashCode;
+
+        public Key(String sql, Object[] parameterValues, int firstResult, int maxResults) {
+            this.sql = sql;
+            this.parameterValues = new Object[parameterValues.length];
+            for (int i = 0; i < parameterValues.length; ++i) {
+                this.parameterValues[i] = parameterValues[i] instanceof Date
+                        ? ((Date) parameterValues[i]).clone() : parameterValues[i];
+            }
+
+            this.firstResult = firstResult;
+            this.maxResults = maxResults;
+            this.hashCode = Objects.hash(sql, Arrays.deepHashCode(this.parameterValues), firstResult, maxResults);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (!(o instanceof Key))
+                return false;
+
+            Key key = (Key) o;
+            return firstResult == key.firstResult && maxResults == key.maxResults && sql.equals(key.sql)
+                    && Arrays.deepEquals(parameterValues, key.parameterValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * An entity of a cached multi-select row, it is found by primary key when the row is read.
+     */
+    public static final class EntityReference {
+
+        private final MetaEntity entity;
+        private final Object primaryKey;
+
+        public EntityReference(MetaEntity entity, Object primaryKey) {
+            this.entity = entity;
+            this.primaryKey = primaryKey;
+        }
+
+        public MetaEntity getEntity() {
+            return entity;
+        }
+
+        public Object getPrimaryKey() {
+            return primaryKey;
+        }
+    }
+
+    /**
+     * A cached result: the primary keys of the result entities or the scalar values.
+     */
+    public static final class Result {
+
+        private final boolean entityResult;
+        private final List<Object> values;
+
+        public Result(boolean entityResult, Collection<?> values) {
+            this.entityResult = entityResult;
+            this.values = Collections.unmodifiableList(new ArrayList<>(values));
+        }
+
+        public boolean isEntityResult() {
+            return entityResult;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        // the rows of a multi-select are arrays, they can be changed by the caller
+        private Result copy() {
+            if (entityResult)
+                return this;
+
+            List<Object> list = new ArrayList<>(values.size());
+            for (Object value : values) {
+                list.add(value instanceof Object[] ? ((Object[]) value).clone() : value);
+            }
+
+            return new Result(false, list);
+        }
+    }
+}
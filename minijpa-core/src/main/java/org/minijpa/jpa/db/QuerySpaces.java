@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.sql.model.From;
+import org.minijpa.sql.model.FromTable;
+import org.minijpa.sql.model.SqlSelect;
+import org.minijpa.sql.model.SubQuery;
+import org.minijpa.sql.model.TableColumn;
+import org.minijpa.sql.model.condition.BetweenCondition;
+import org.minijpa.sql.model.condition.BinaryCondition;
+import org.minijpa.sql.model.condition.BinaryLogicCondition;
+import org.minijpa.sql.model.condition.Condition;
+import org.minijpa.sql.model.condition.InCondition;
+import org.minijpa.sql.model.condition.NestedCondition;
+import org.minijpa.sql.model.condition.NotCondition;
+import org.minijpa.sql.model.condition.UnaryCondition;
+import org.minijpa.sql.model.condition.UnaryLogicCondition;
+import org.minijpa.sql.model.expression.SqlBinaryExpression;
+import org.minijpa.sql.model.join.FromJoin;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the tables read by a select statement, including the ones in the subqueries. The AUTO flush mode
+ * uses them to decide if the pending changes must be flushed before running a query.
+ */
+public final class QuerySpaces {
+
+    private QuerySpaces() {
+    }
+
+    /**
+     * Returns the tables read by the statement.
+     *
+     * @param sqlSelect select statement
+     * @return the table names or null if the statement contains parts that are not recognized
+     */
+    public static Set<String> of(SqlSelect sqlSelect) {
+        Set<String> tables = new HashSet<>();
+        if (!collect(sqlSelect, tables))
+            return null;
+
+        return Collections.unmodifiableSet(tables);
+    }
+
+    private static boolean collect(SqlSelect sqlSelect, Set<String> tables) {
+        if (sqlSelect.getResult() != null)
+            tables.add(sqlSelect.getResult().getName());
+
+        if (sqlSelect.getFrom() != null)
+            for (From from : sqlSelect.getFrom()) {
+                if (from instanceof FromTable)
+                    tables.add(((FromTable) from).getName());
+                else if (from instanceof FromJoin)
+                    tables.add(((FromJoin) from).getToTable().getName());
+                else
+                    return false;
+            }
+
+        if (sqlSelect.getConditions() != null)
+            for (Condition condition : sqlSelect.getConditions()) {
+                if (!collectCondition(condition, tables))
+                    return false;
+            }
+
+        return true;
+    }
+
+    private static boolean collectCondition(Condition condition, Set<String> tables) {
+        if (condition instanceof BinaryLogicCondition) {
+            for (Condition c : ((BinaryLogicCondition) condition).getConditions()) {
+                if (!collectCondition(c, tables))
+                    return false;
+            }
+
+            return true;
+        }
+
+        if (condition instanceof UnaryLogicCondition)
+            return collectCondition(((UnaryLogicCondition) condition).getCondition(), tables);
+
+        if (condition instanceof NestedCondition)
+            return collectCondition(((NestedCondition) condition).getCondition(), tables);
+
+        if (condition instanceof NotCondition)
+            return collectCondition(((NotCondition) condition).getCondition(), tables);
+
+        if (condition instanceof UnaryCondition)
+            return collectExpression(((UnaryCondition) condition).getOperand(), tables);
+
+        if (condition instanceof BinaryCondition) {
+            BinaryCondition binaryCondition = (BinaryCondition) condition;
+            return collectExpression(binaryCondition.getLeft(), tables)
+                    && collectExpression(binaryCondition.getRight(), tables);
+        }
+
+        if (condition instanceof BetweenCondition) {
+            BetweenCondition betweenCondition = (BetweenCondition) condition;
+            return collectExpression(betweenCondition.getOperand(), tables)
+                    && collectExpression(betweenCondition.getLeftExpression(), tables)
+                    && collectExpression(betweenCondition.getRightExpression(), tables);
+        }
+
+        if (condition instanceof InCondition)
+            return collectExpression(((InCondition) condition).getRightExpressions(), tables);
+
+        return false;
+    }
+
+    private static boolean collectExpression(Object expression, Set<String> tables) {
+        if (expression instanceof SqlSelect)
+            return collect((SqlSelect) expression, tables);
+
+        if (expression instanceof SubQuery)
+            return collect(((SubQuery) expression).getQuery(), tables);
+
+        if (expression instanceof TableColumn && ((TableColumn) expression).getSubQuery() != null)
+            return collect(((TableColumn) expression).getSubQuery().getQuery(), tables);
+
+        if (expression instanceof List) {
+            for (Object o : (List<?>) expression) {
+                if (!collectExpression(o, tables))
+                    return false;
+            }
+
+            return true;
+        }
+
+        if (expression instanceof SqlBinaryExpression) {
+            SqlBinaryExpression sqlBinaryExpression = (SqlBinaryExpression) expression;
+            return collectExpression(sqlBinaryExpression.getLeftExpression(), tables)
+                    && collectExpression(sqlBinaryExpression.getRightExpression(), tables);
+        }
+
+        // columns, literals, parameters and functions
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Record builders are configured with the state of a single query execution (row reader, result collection,
+ * entity loader). A query executed while another result set is still being read, like an eager load during the
+ * entity hydration, must not overwrite the state of the outer builder, so each execution acquires its own builder
+ * and releases it at the end. Released builders are reused, a new builder is created only when executions are
+ * nested. A released builder is cleared, so it doesn't keep the results of the last execution reachable.
+ *
+ * @param <T> record builder type
+ */
+final class RecordBuilderPool<T> {
+    private final Deque<T> builders = new ArrayDeque<>();
+    private final Supplier<T> supplier;
+    private final Consumer<T> clear;
+
+    RecordBuilderPool(Supplier<T> supplier, Consumer<T> clear) {
+        this.supplier = supplier;
+        this.clear = clear;
+    }
+
+    T acquire() {
+        T builder = builders.poll();
+        if (builder == null)
+            return supplier.get();
+
+        return builder;
+    }
+
+    void release(T builder) {
+        clear.accept(builder);
+        builders.push(builder);
+    }
+}
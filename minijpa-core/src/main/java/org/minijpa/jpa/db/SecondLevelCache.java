@@ -0,0 +1,315 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jdbc.FetchRow;
+
+import javax.persistence.Cache;
+import javax.persistence.Cacheable;
+import javax.persistence.PersistenceException;
+import javax.persistence.SharedCacheMode;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second-level entity cache shared by the entity managers of the same factory. Each cacheable entity class has
+ * its own region, a bounded LRU map from the primary key to the row read by 'find'. The rows hold the
+ * disassembled attribute values, foreign keys included, so an entity instance is never shared between
+ * persistence contexts.
+ * <p>
+ * The entity classes are cached according to the shared cache mode. 'ENABLE_SELECTIVE' and 'UNSPECIFIED' cache
+ * the classes annotated with {@link Cacheable}.
+ */
+public class SecondLevelCache implements Cache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final SharedCacheMode sharedCacheMode;
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong putCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param sharedCacheMode the shared cache mode, null is 'UNSPECIFIED'
+     * @param maxSize         max number of entries of each region
+     * @param timeToLive      seconds an entry is valid, 0 or less means no expiration
+     */
+    public SecondLevelCache(SharedCacheMode sharedCacheMode, int maxSize, long timeToLive) {
+        this.sharedCacheMode = sharedCacheMode == null ? SharedCacheMode.UNSPECIFIED : sharedCacheMode;
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive <= 0 ? 0 : TimeUnit.SECONDS.toNanos(timeToLive);
+    }
+
+    public SharedCacheMode getSharedCacheMode() {
+        return sharedCacheMode;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private Region getRegion(Class<?> entityClass) {
+        return regions.computeIfAbsent(entityClass, c -> new Region(isCacheable(c) && maxSize > 0));
+    }
+
+    private boolean isCacheable(Class<?> entityClass) {
+        Cacheable cacheable = entityClass.getAnnotation(Cacheable.class);
+        switch (sharedCacheMode) {
+            case ALL:
+                return true;
+            case NONE:
+                return false;
+            case DISABLE_SELECTIVE:
+                return cacheable == null || cacheable.value();
+            default:
+                return cacheable != null && cacheable.value();
+        }
+    }
+
+    public boolean isEnabled(Class<?> entityClass) {
+        return getRegion(entityClass).enabled;
+    }
+
+    /**
+     * Returns a copy of the cached row.
+     *
+     * @param entityClass entity class
+     * @param primaryKey  primary key
+     * @return the row or null
+     */
+    public FetchRow get(Class<?> entityClass, Object primaryKey) {
+        Region region = getRegion(entityClass);
+        if (!region.enabled)
+            return null;
+
+        FetchRow fetchRow;
+        synchronized (region) {
+            CacheEntry entry = region.entries.get(primaryKey);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                region.entries.remove(primaryKey);
+                entry = null;
+            }
+
+            fetchRow = entry == null ? null : entry.fetchRow;
+        }
+
+        if (fetchRow == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return copy(fetchRow);
+    }
+
+    /**
+     * Returns the region version, it must be read before loading a row from the database and passed to
+     * {@link #put(Class, Object, FetchRow, long)}.
+     *
+     * @param entityClass entity class
+     * @return the region version
+     */
+    public long getVersion(Class<?> entityClass) {
+        Region region = getRegion(entityClass);
+        synchronized (region) {
+            return region.version;
+        }
+    }
+
+    /**
+     * Stores a row read from the database. The row is discarded if the region has been invalidated after the
+     * given version was read, the row could be older than the invalidating write.
+     *
+     * @param entityClass entity class
+     * @param primaryKey  primary key
+     * @param fetchRow    the row
+     * @param version     the region version read before loading the row
+     */
+    public void put(Class<?> entityClass, Object primaryKey, FetchRow fetchRow, long version) {
+        Region region = getRegion(entityClass);
+        if (!region.enabled)
+            return;
+
+        long expiresAt = timeToLiveNanos == 0 ? 0 : System.nanoTime() + timeToLiveNanos;
+        CacheEntry entry = new CacheEntry(copy(fetchRow), expiresAt);
+        synchronized (region) {
+            if (region.version != version)
+                return;
+
+            region.entries.put(primaryKey, entry);
+        }
+
+        putCount.incrementAndGet();
+    }
+
+    @Override
+    public boolean contains(Class cls, Object primaryKey) {
+        Region region = regions.get(cls);
+        if (region == null)
+            return false;
+
+        synchronized (region) {
+            CacheEntry entry = region.entries.get(primaryKey);
+            return entry != null && !entry.isExpired(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void evict(Class cls, Object primaryKey) {
+        Region region = regions.get(cls);
+        if (region == null)
+            return;
+
+        synchronized (region) {
+            region.entries.remove(primaryKey);
+            ++region.version;
+        }
+    }
+
+    @Override
+    public void evict(Class cls) {
+        for (Map.Entry<Class<?>, Region> entry : regions.entrySet()) {
+            if (!cls.isAssignableFrom(entry.getKey()))
+                continue;
+
+            Region region = entry.getValue();
+            synchronized (region) {
+                region.entries.clear();
+                ++region.version;
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        for (Region region : regions.values()) {
+            synchronized (region) {
+                region.entries.clear();
+                ++region.version;
+            }
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        if (cls.isAssignableFrom(getClass()))
+            return cls.cast(this);
+
+        throw new PersistenceException("Unable to unwrap the cache to '" + cls.getName() + "'");
+    }
+
+    public int size(Class<?> entityClass) {
+        Region region = regions.get(entityClass);
+        if (region == null)
+            return 0;
+
+        synchronized (region) {
+            return region.entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getPutCount() {
+        return putCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private static FetchRow copy(FetchRow fetchRow) {
+        Object[] values = new Object[fetchRow.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = copyValue(fetchRow.getValue(i));
+        }
+
+        return new FetchRow(fetchRow.getRowLayout(), values);
+    }
+
+    // mutable values can be changed through the entity instance
+    private static Object copyValue(Object value) {
+        if (value instanceof Date)
+            return ((Date) value).clone();
+
+        if (value instanceof Calendar)
+            return ((Calendar) value).clone();
+
+        if (value instanceof byte[])
+            return ((byte[]) value).clone();
+
+        if (value instanceof char[])
+            return ((char[]) value).clone();
+
+        return value;
+    }
+
+    private final class Region {
+
+        private final boolean enabled;
+        private final Map<Object, CacheEntry> entries;
+        // incremented on each invalidation, guarded by the region lock
+        private long version;
+
+        private Region(boolean enabled) {
+            this.enabled = enabled;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                    if (size() <= maxSize)
+                        return false;
+
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+            };
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final FetchRow fetchRow;
+        private final long expiresAt;
+
+        private CacheEntry(FetchRow fetchRow, long expiresAt) {
+            this.fetchRow = fetchRow;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt > 0;
+        }
+    }
+}
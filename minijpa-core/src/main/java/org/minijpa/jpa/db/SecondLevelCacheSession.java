@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import org.minijpa.jdbc.FetchRow;
+import org.minijpa.jpa.model.MetaEntity;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entity manager view of the second-level cache and of the query result cache. The entities written by the
+ * current transaction are evicted when they are written and again when the transaction completes, the rows
+ * loaded in the meantime by other transactions could be stale. Rows of classes written by the current
+ * transaction are not cached, they could be uncommitted. The query results reading the tables written by the
+ * current transaction are not valid until it completes.
+ */
+public class SecondLevelCacheSession {
+
+    private SecondLevelCache secondLevelCache;
+    private QueryResultCache queryResultCache;
+    // primary keys written by the current transaction, a null set means the whole region
+    private final Map<Class<?>, Set<Object>> writtenEntities = new HashMap<>();
+    private final Set<String> writtenTables = new HashSet<>();
+    private boolean writtenAll;
+
+    public void setSecondLevelCache(SecondLevelCache secondLevelCache) {
+        this.secondLevelCache = secondLevelCache;
+    }
+
+    public SecondLevelCache getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    public boolean isEnabled(MetaEntity entity) {
+        return secondLevelCache != null && secondLevelCache.isEnabled(entity.getEntityClass());
+    }
+
+    public FetchRow get(MetaEntity entity, Object primaryKey) {
+        if (!isEnabled(entity))
+            return null;
+
+        return secondLevelCache.get(entity.getEntityClass(), primaryKey);
+    }
+
+    public boolean contains(MetaEntity entity, Object primaryKey) {
+        return isEnabled(entity) && secondLevelCache.contains(entity.getEntityClass(), primaryKey);
+    }
+
+    public long getVersion(MetaEntity entity) {
+        return secondLevelCache.getVersion(entity.getEntityClass());
+    }
+
+    public void put(MetaEntity entity, Object primaryKey, FetchRow fetchRow, long version) {
+        if (writtenAll || writtenEntities.containsKey(entity.getEntityClass()))
+            return;
+
+        secondLevelCache.put(entity.getEntityClass(), primaryKey, fetchRow, version);
+    }
+
+    /**
+     * Evicts an entity inserted, updated or deleted by the current transaction.
+     *
+     * @param entity     the entity
+     * @param primaryKey the primary key
+     */
+    public void written(MetaEntity entity, Object primaryKey) {
+        tableWritten(entity.getTableName());
+        if (!isEnabled(entity))
+            return;
+
+        secondLevelCache.evict(entity.getEntityClass(), primaryKey);
+        if (!writtenEntities.containsKey(entity.getEntityClass()))
+            writtenEntities.put(entity.getEntityClass(), new HashSet<>());
+
+        Set<Object> primaryKeys = writtenEntities.get(entity.getEntityClass());
+        if (primaryKeys != null)
+            primaryKeys.add(primaryKey);
+    }
+
+    /**
+     * Invalidates the query results reading a table written by the current transaction.
+     *
+     * @param table the table name
+     */
+    public void tableWritten(String table) {
+        if (queryResultCache != null && writtenTables.add(table))
+            queryResultCache.beginWrite(table);
+    }
+
+    /**
+     * Evicts the entities of a class written by a bulk statement.
+     *
+     * @param entity the entity
+     */
+    public void writtenAll(MetaEntity entity) {
+        tableWritten(entity.getTableName());
+        if (secondLevelCache == null)
+            return;
+
+        secondLevelCache.evict(entity.getEntityClass());
+        writtenEntities.put(entity.getEntityClass(), null);
+    }
+
+    /**
+     * Evicts all the entities and the query results, the tables written by a statement are unknown.
+     */
+    public void writtenAll() {
+        if (queryResultCache != null && !writtenAll)
+            queryResultCache.beginWrite(null);
+
+        writtenAll = true;
+        if (secondLevelCache != null)
+            secondLevelCache.evictAll();
+    }
+
+    /**
+     * Evicts the entities written by the completed transaction and validates again the query results reading
+     * the written tables.
+     */
+    public void afterCompletion() {
+        if (secondLevelCache != null) {
+            if (writtenAll)
+                secondLevelCache.evictAll();
+            else
+                writtenEntities.forEach((entityClass, primaryKeys) -> {
+                    if (primaryKeys == null)
+                        secondLevelCache.evict(entityClass);
+                    else
+                        primaryKeys.forEach(primaryKey -> secondLevelCache.evict(entityClass, primaryKey));
+                });
+        }
+
+        if (queryResultCache != null) {
+            writtenTables.forEach(queryResultCache::endWrite);
+            if (writtenAll)
+                queryResultCache.endWrite(null);
+        }
+
+        writtenEntities.clear();
+        writtenTables.clear();
+        writtenAll = false;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.minijpa.jdbc.PkSequenceGenerator;
+
+/**
+ * Pooled sequence allocators, one for each sequence. An instance is shared by the entity managers of the same
+ * factory.
+ */
+public class SequenceAllocators {
+
+    private final SequenceOptimizer sequenceOptimizer;
+    private final Map<String, PooledSequenceAllocator> allocators = new ConcurrentHashMap<>();
+
+    public SequenceAllocators(SequenceOptimizer sequenceOptimizer) {
+        this.sequenceOptimizer = sequenceOptimizer;
+    }
+
+    public SequenceOptimizer getSequenceOptimizer() {
+        return sequenceOptimizer;
+    }
+
+    /**
+     * Returns the allocator for the sequence generator. Generators with an allocation size less than 2 are
+     * not pooled.
+     *
+     * @param pkSequenceGenerator sequence generator
+     * @return the allocator or null if the ids must be read from the database sequence
+     */
+    public PooledSequenceAllocator get(PkSequenceGenerator pkSequenceGenerator) {
+        if (sequenceOptimizer == SequenceOptimizer.NONE)
+            return null;
+
+        Integer allocationSize = pkSequenceGenerator.getAllocationSize();
+        if (allocationSize == null || allocationSize < 2)
+            return null;
+
+        return allocators.computeIfAbsent(pkSequenceGenerator.getSequenceName(),
+                k -> new PooledSequenceAllocator(sequenceOptimizer, allocationSize,
+                        pkSequenceGenerator.getInitialValue() == null ? 1
+                                : pkSequenceGenerator.getInitialValue()));
+    }
+}
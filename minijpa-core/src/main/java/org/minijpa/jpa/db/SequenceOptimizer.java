@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.db;
+
+/**
+ * How sequence values are turned into ids.
+ * <ul>
+ * <li>NONE: every id is read from the database sequence</li>
+ * <li>POOLED: the sequence value is the highest id of a block of 'allocationSize' ids</li>
+ * <li>POOLED_LO: the sequence value is the lowest id of a block of 'allocationSize' ids</li>
+ * </ul>
+ */
+public enum SequenceOptimizer {
+    NONE, POOLED, POOLED_LO;
+
+    public static SequenceOptimizer decode(String value) {
+        if (value == null || value.isBlank())
+            return POOLED_LO;
+
+        switch (value.trim().toLowerCase()) {
+            case "none":
+                return NONE;
+            case "pooled":
+                return POOLED;
+            case "pooled-lo":
+                return POOLED_LO;
+        }
+
+        throw new IllegalArgumentException("Sequence optimizer '" + value + "' not supported");
+    }
+}
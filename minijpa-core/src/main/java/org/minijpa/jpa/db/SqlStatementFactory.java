@@ -94,6 +94,24 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
             MetaEntity entity,
             LockType lockType,
             AliasGenerator tableAliasGenerator) throws Exception {
+        return generateSelectById(entity, lockType, null, tableAliasGenerator);
+    }
+
+    /**
+     * Generates the select by id statement. The eager to-one associations in 'eagerJoins' are read by the same
+     * statement with left outer joins.
+     *
+     * @param entity              the entity
+     * @param lockType            lock type, null means no lock
+     * @param eagerJoins          the eager to-one associations to join, can be null
+     * @param tableAliasGenerator the table alias generator
+     * @return the select statement
+     */
+    public SqlSelectData generateSelectById(
+            MetaEntity entity,
+            LockType lockType,
+            EagerJoinGraph eagerJoins,
+            AliasGenerator tableAliasGenerator) throws Exception {
         List<FetchParameter> fetchParameters = MetaEntityHelper.convertAllAttributes(entity);
         FromTable fromTable = FromTable.of(entity.getTableName(),
                 tableAliasGenerator.getDefault(entity.getTableName()));
@@ -111,12 +129,90 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
             sqlSelectBuilder.withForUpdate(calcForUpdate(lockType));
         }
 
+        List<Value> values = MetaEntityHelper.toValues(entity, fromTable);
+        if (eagerJoins != null) {
+            values = new ArrayList<>(values);
+            fetchParameters = new ArrayList<>(fetchParameters);
+            addEagerJoins(eagerJoins, sqlSelectBuilder, values, fetchParameters);
+        }
+
+        sqlSelectBuilder.withValues(values)
+                .withConditions(List.of(condition));
+        sqlSelectBuilder.withFetchParameters(fetchParameters);
+        return (SqlSelectData) sqlSelectBuilder.build();
+    }
+
+    /**
+     * Adds a left outer join for each eager to-one association in the graph, the joined entity columns follow
+     * the parent ones in depth-first order.
+     */
+    private void addEagerJoins(
+            EagerJoinGraph eagerJoins,
+            SqlSelectDataBuilder sqlSelectBuilder,
+            List<Value> values,
+            List<FetchParameter> fetchParameters) {
+        for (EagerJoinGraph join : eagerJoins.getJoins()) {
+            List<JoinColumnAttribute> joinColumnAttributes = join.getJoinColumnMapping().getJoinColumnAttributes();
+            List<Column> fromColumns = joinColumnAttributes.stream().map(a -> new Column(a.getColumnName()))
+                    .collect(Collectors.toList());
+            List<Column> toColumns = joinColumnAttributes.stream()
+                    .map(a -> new Column(a.getForeignKeyAttribute().getColumnName())).collect(Collectors.toList());
+            FromTable toTable = FromTable.of(join.getEntity().getTableName(), join.getAlias());
+            sqlSelectBuilder.withFromTable(new FromJoinImpl(toTable, eagerJoins.getAlias(), fromColumns, toColumns,
+                    JoinType.Left));
+            values.addAll(MetaEntityHelper.toValues(join.getEntity(), toTable));
+            fetchParameters.addAll(join.getFetchParameters());
+            addEagerJoins(join, sqlSelectBuilder, values, fetchParameters);
+        }
+    }
+
+    /**
+     * Generates a query like: 'select (Entity fields) from table where pk in (?, ?, ...)'. Composite keys are
+     * matched with a disjunction of the key columns.
+     *
+     * @param entity              the entity
+     * @param size                number of primary keys
+     * @param tableAliasGenerator the table alias generator
+     * @return the select statement
+     */
+    public SqlSelectData generateSelectByIds(
+            MetaEntity entity,
+            int size,
+            AliasGenerator tableAliasGenerator) throws Exception {
+        List<FetchParameter> fetchParameters = MetaEntityHelper.convertAllAttributes(entity);
+        FromTable fromTable = FromTable.of(entity.getTableName(),
+                tableAliasGenerator.getDefault(entity.getTableName()));
+        List<TableColumn> tableColumns = MetaEntityHelper.toValues(entity.getId().getAttributes(),
+                fromTable);
+        Condition condition = generateKeysCondition(tableColumns, size);
+        SqlSelectDataBuilder sqlSelectBuilder = new SqlSelectDataBuilder();
+        sqlSelectBuilder.withFromTable(fromTable);
         sqlSelectBuilder.withValues(MetaEntityHelper.toValues(entity, fromTable))
                 .withConditions(List.of(condition));
         sqlSelectBuilder.withFetchParameters(fetchParameters);
         return (SqlSelectData) sqlSelectBuilder.build();
     }
 
+    /**
+     * Generates the condition matching any of 'size' keys: 'c in (?, ?, ...)' for a single column, otherwise
+     * '(c1 = ? and c2 = ?) or (c1 = ? and c2 = ?) ...'.
+     */
+    private Condition generateKeysCondition(List<TableColumn> tableColumns, int size) {
+        if (tableColumns.size() == 1)
+            return new InCondition(tableColumns.get(0), Collections.nCopies(size, CriteriaUtils.QM), false);
+
+        List<Condition> keyConditions = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            List<Condition> conditions = tableColumns.stream().map(t -> {
+                return new BinaryCondition.Builder(ConditionType.EQUAL).withLeft(t)
+                        .withRight(CriteriaUtils.QM).build();
+            }).collect(Collectors.toList());
+            keyConditions.add(new BinaryLogicConditionImpl(ConditionType.AND, conditions, true));
+        }
+
+        return new BinaryLogicConditionImpl(ConditionType.OR, keyConditions);
+    }
+
 //    public SqlSelectData generateSelectVersion(
 //            MetaEntity entity,
 //            LockType lockType,
@@ -151,6 +247,14 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
             MetaEntity entity,
             List<String> columns,
             AliasGenerator tableAliasGenerator) {
+        return generateSelectByForeignKey(entity, columns, null, tableAliasGenerator);
+    }
+
+    public SqlSelectData generateSelectByForeignKey(
+            MetaEntity entity,
+            List<String> columns,
+            EagerJoinGraph eagerJoins,
+            AliasGenerator tableAliasGenerator) {
         List<FetchParameter> fetchColumnNameValues = MetaEntityHelper.convertAllAttributes(entity);
         // LOG.info("generateSelectByForeignKey: fetchColumnNameValues=" +
         // fetchColumnNameValues);
@@ -166,12 +270,47 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
         Condition condition = Condition.toAnd(conditions);
         SqlSelectDataBuilder sqlSelectBuilder = new SqlSelectDataBuilder();
         sqlSelectBuilder.withFromTable(fromTable);
-        sqlSelectBuilder.withValues(MetaEntityHelper.toValues(entity, fromTable))
+        List<Value> values = MetaEntityHelper.toValues(entity, fromTable);
+        if (eagerJoins != null) {
+            values = new ArrayList<>(values);
+            fetchColumnNameValues = new ArrayList<>(fetchColumnNameValues);
+            addEagerJoins(eagerJoins, sqlSelectBuilder, values, fetchColumnNameValues);
+        }
+
+        sqlSelectBuilder.withValues(values)
                 .withConditions(Arrays.asList(condition)).withResult(fromTable);
         sqlSelectBuilder.withFetchParameters(fetchColumnNameValues);
         return (SqlSelectData) sqlSelectBuilder.build();
     }
 
+    /**
+     * Generates a query like: 'select (Entity fields) from table where fk in (?, ?, ...)', used to load the
+     * collections of many parents at once.
+     *
+     * @param entity              the entity
+     * @param columns             foreign key columns
+     * @param size                number of foreign keys
+     * @param tableAliasGenerator the table alias generator
+     * @return the select statement
+     */
+    public SqlSelectData generateSelectByForeignKeys(
+            MetaEntity entity,
+            List<String> columns,
+            int size,
+            AliasGenerator tableAliasGenerator) {
+        List<FetchParameter> fetchColumnNameValues = MetaEntityHelper.convertAllAttributes(entity);
+        FromTable fromTable = FromTable.of(entity.getTableName(),
+                tableAliasGenerator.getDefault(entity.getTableName()));
+        List<TableColumn> tableColumns = columns.stream()
+                .map(c -> new TableColumn(fromTable, new Column(c))).collect(Collectors.toList());
+        SqlSelectDataBuilder sqlSelectBuilder = new SqlSelectDataBuilder();
+        sqlSelectBuilder.withFromTable(fromTable);
+        sqlSelectBuilder.withValues(MetaEntityHelper.toValues(entity, fromTable))
+                .withConditions(List.of(generateKeysCondition(tableColumns, size))).withResult(fromTable);
+        sqlSelectBuilder.withFetchParameters(fetchColumnNameValues);
+        return (SqlSelectData) sqlSelectBuilder.build();
+    }
+
     public ModelValueArray<JoinColumnAttribute> expandJoinColumnAttributes(
             Pk owningId,
             Object joinTableForeignKey,
@@ -410,6 +549,51 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
         return (SqlSelectData) sqlSelectBuilder.build();
     }
 
+    /**
+     * Generates a query like: 'select t1.id, t1.p1, j.t2 from entity t1 inner join jointable j on t1.id=j.id1
+     * where j.t2 in (?, ?, ...)', used to load the collections of many parents at once. The join table columns
+     * are read after the entity fields, so each row can be assigned to its parent.
+     *
+     * @param entity                the entity
+     * @param relationshipJoinTable the join table
+     * @param attributes            join table columns referencing the parents
+     * @param owner                 true if the parents own the relationship
+     * @param size                  number of parents
+     * @param aliasGenerator        the table alias generator
+     * @return the select statement
+     */
+    public SqlSelectData generateSelectByJoinTableKeys(
+            MetaEntity entity,
+            RelationshipJoinTable relationshipJoinTable,
+            List<JoinColumnAttribute> attributes,
+            boolean owner,
+            int size,
+            AliasGenerator aliasGenerator) {
+        FromTable joinTable = new FromTableImpl(relationshipJoinTable.getTableName(),
+                aliasGenerator.getDefault(relationshipJoinTable.getTableName()));
+        FromJoin fromJoin = owner
+                ? calculateFromTableByJoinTable(entity, relationshipJoinTable, aliasGenerator)
+                : new FromJoinImpl(joinTable, aliasGenerator.getDefault(entity.getTableName()),
+                entity.getId().getAttributes().stream().map(a -> new Column(a.getColumnName()))
+                        .collect(Collectors.toList()),
+                relationshipJoinTable.getOwningJoinColumnMapping().getJoinColumnAttributes().stream()
+                        .map(a -> new Column(a.getColumnName())).collect(Collectors.toList()));
+        FromTable fromTable = FromTable.of(entity.getTableName(),
+                aliasGenerator.getDefault(entity.getTableName()));
+        List<TableColumn> tableColumns = MetaEntityHelper.attributesToTableColumns(attributes, joinTable);
+        List<Value> values = new ArrayList<>(MetaEntityHelper.toValues(entity, fromTable));
+        values.addAll(tableColumns);
+        List<FetchParameter> fetchColumnNameValues = MetaEntityHelper.convertAllAttributes(entity);
+        fetchColumnNameValues.addAll(MetaEntityHelper.toFetchParameter(attributes));
+        SqlSelectDataBuilder sqlSelectBuilder = new SqlSelectDataBuilder();
+        sqlSelectBuilder.withFromTable(fromTable);
+        sqlSelectBuilder.withFromTable(fromJoin)
+                .withValues(values)
+                .withConditions(List.of(generateKeysCondition(tableColumns, size))).withResult(fromTable);
+        sqlSelectBuilder.withFetchParameters(fetchColumnNameValues);
+        return (SqlSelectData) sqlSelectBuilder.build();
+    }
+
     public SqlSelectData generateSelectByJoinTableFromTarget(
             MetaEntity entity,
             RelationshipJoinTable relationshipJoinTable,
@@ -831,7 +1015,7 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
                 if (CriteriaUtils.requireQM(comparisonPredicate.getValue())) {
                     QueryParameter queryParameter = new QueryParameter(attribute1.getColumnName(),
                             comparisonPredicate.getValue(), attribute1.getSqlType(),
-                            attribute1.getObjectConverter());
+                            attribute1.getObjectConverter(), attribute1.getParameterBinder());
                     parameters.add(queryParameter);
                     builder.withLeft(tableColumn1).withRight(CriteriaUtils.QM);
                 } else {
@@ -887,7 +1071,7 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
                 createTableColumnFromPath(miniPath, tableAliasGenerator));
         if (CriteriaUtils.requireQM(x)) {
             QueryParameter queryParameter = new QueryParameter(attribute.getColumnName(), x,
-                    attribute.getSqlType(), attribute.getObjectConverter());
+                    attribute.getSqlType(), attribute.getObjectConverter(), attribute.getParameterBinder());
             parameters.add(queryParameter);
             builder.withLeftExpression(CriteriaUtils.QM);
         } else {
@@ -896,7 +1080,7 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
 
         if (CriteriaUtils.requireQM(y)) {
             QueryParameter queryParameter = new QueryParameter(attribute.getColumnName(), y,
-                    attribute.getSqlType(), attribute.getObjectConverter());
+                    attribute.getSqlType(), attribute.getObjectConverter(), attribute.getParameterBinder());
             parameters.add(queryParameter);
             builder.withRightExpression(CriteriaUtils.QM);
         } else {
@@ -1018,7 +1202,7 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
 
             List<QueryParameter> queryParameters = inPredicate.getValues().stream().map(v -> {
                 return new QueryParameter(attribute.getColumnName(), v, attribute.getSqlType(),
-                        attribute.getObjectConverter());
+                        attribute.getObjectConverter(), attribute.getParameterBinder());
             }).collect(Collectors.toList());
             parameters.addAll(queryParameters);
 
@@ -1736,7 +1920,8 @@ public class SqlStatementFactory extends JdbcSqlStatementFactory {
 
     private QueryParameter createQueryParameter(AttributePath<?> miniPath, Object value) {
         AbstractMetaAttribute a = miniPath.getMetaAttribute();
-        return new QueryParameter(a.getColumnName(), value, a.getSqlType(), a.getObjectConverter());
+        return new QueryParameter(a.getColumnName(), value, a.getSqlType(), a.getObjectConverter(),
+                a.getParameterBinder());
     }
 
     public SqlUpdate update(Query query,
@@ -13,28 +13,35 @@
  */
 package org.minijpa.jpa.db;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.minijpa.jdbc.QueryParameter;
 import org.minijpa.jpa.model.MetaAttribute;
 import org.minijpa.jpa.model.MetaEntity;
 import org.minijpa.jpa.model.RelationshipMetaAttribute;
+import org.minijpa.sql.model.SqlSelect;
 import org.minijpa.sql.model.SqlStatement;
 
 /**
+ * A compiled statement. Instances are immutable and can be shared by concurrent executions: the values of the
+ * input parameters are carried by a per-execution binding array, see {@link #bind(Object[])}.
+ *
  * @author adamato
  */
 public class StatementParameters {
 
     private final SqlStatement sqlStatement;
     private final List<QueryParameter> parameters;
-    private StatementType statementType = StatementType.PLAIN;
-    private List<MetaEntity> fetchJoinMetaEntities;
-    private List<RelationshipMetaAttribute> fetchJoinMetaAttributes;
+    private final StatementType statementType;
+    private final List<MetaEntity> fetchJoinMetaEntities;
+    private final List<RelationshipMetaAttribute> fetchJoinMetaAttributes;
+    private final Object[] parameterValues;
+    private final Set<String> querySpaces;
 
     public StatementParameters(SqlStatement sqlStatement, List<QueryParameter> parameters) {
-        this.sqlStatement = sqlStatement;
-        this.parameters = parameters;
+        this(sqlStatement, parameters, StatementType.PLAIN, null, null);
     }
 
     public StatementParameters(
@@ -43,11 +50,48 @@ public class StatementParameters {
             StatementType statementType,
             List<MetaEntity> fetchJoinMetaEntities,
             List<RelationshipMetaAttribute> fetchJoinMetaAttributes) {
+        this(sqlStatement, parameters, statementType, fetchJoinMetaEntities, fetchJoinMetaAttributes, null);
+    }
+
+    public StatementParameters(
+            SqlStatement sqlStatement,
+            List<QueryParameter> parameters,
+            StatementType statementType,
+            List<MetaEntity> fetchJoinMetaEntities,
+            List<RelationshipMetaAttribute> fetchJoinMetaAttributes,
+            Object[] parameterValues) {
+        this(sqlStatement, parameters, statementType, fetchJoinMetaEntities, fetchJoinMetaAttributes, parameterValues,
+                sqlStatement instanceof SqlSelect ? QuerySpaces.of((SqlSelect) sqlStatement) : null);
+    }
+
+    private StatementParameters(
+            SqlStatement sqlStatement,
+            List<QueryParameter> parameters,
+            StatementType statementType,
+            List<MetaEntity> fetchJoinMetaEntities,
+            List<RelationshipMetaAttribute> fetchJoinMetaAttributes,
+            Object[] parameterValues,
+            Set<String> querySpaces) {
         this.sqlStatement = sqlStatement;
-        this.parameters = parameters;
+        this.parameters = parameters == null ? null : Collections.unmodifiableList(parameters);
         this.statementType = statementType;
-        this.fetchJoinMetaEntities = fetchJoinMetaEntities;
-        this.fetchJoinMetaAttributes = fetchJoinMetaAttributes;
+        this.fetchJoinMetaEntities = fetchJoinMetaEntities == null ? null
+                : Collections.unmodifiableList(fetchJoinMetaEntities);
+        this.fetchJoinMetaAttributes = fetchJoinMetaAttributes == null ? null
+                : Collections.unmodifiableList(fetchJoinMetaAttributes);
+        this.parameterValues = parameterValues;
+        this.querySpaces = querySpaces;
+    }
+
+    /**
+     * Returns a statement sharing this plan with the given parameter values.
+     *
+     * @param parameterValues values of the query parameters, by index
+     * @return the bound statement
+     */
+    public StatementParameters bind(Object[] parameterValues) {
+        return new StatementParameters(sqlStatement, parameters, statementType, fetchJoinMetaEntities,
+                fetchJoinMetaAttributes, parameterValues, querySpaces);
     }
 
     public SqlStatement getSqlStatement() {
@@ -69,4 +113,18 @@ public class StatementParameters {
     public List<RelationshipMetaAttribute> getFetchJoinMetaAttributes() {
         return fetchJoinMetaAttributes;
     }
+
+    /**
+     * @return the values bound to the query parameters, null if the parameters carry their own values
+     */
+    public Object[] getParameterValues() {
+        return parameterValues;
+    }
+
+    /**
+     * @return the tables read by the statement, null if they are unknown
+     */
+    public Set<String> getQuerySpaces() {
+        return querySpaces;
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.AttributeNode;
+import javax.persistence.Subgraph;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.PluralAttribute;
+
+/**
+ * Attribute nodes and subgraphs shared by the entity graph and its subgraphs. The attribute names are checked
+ * against the fields of the graph class.
+ */
+public abstract class AbstractGraph<T> {
+
+    private final Class<T> classType;
+    private final List<AttributeNode<?>> attributeNodes = new ArrayList<>();
+
+    protected AbstractGraph(Class<T> classType) {
+        this.classType = classType;
+    }
+
+    public Class<T> getClassType() {
+        return classType;
+    }
+
+    public List<AttributeNode<?>> getAttributeNodes() {
+        return Collections.unmodifiableList(attributeNodes);
+    }
+
+    public void addAttributeNodes(String... attributeNames) {
+        for (String attributeName : attributeNames) {
+            attributeNode(attributeName);
+        }
+    }
+
+    public void addAttributeNodes(Attribute<T, ?>... attributes) {
+        for (Attribute<T, ?> attribute : attributes) {
+            attributeNode(attribute.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <X> Subgraph<X> addSubgraph(Attribute<T, X> attribute) {
+        Class<?> type = attribute instanceof PluralAttribute
+                ? ((PluralAttribute<?, ?, ?>) attribute).getElementType().getJavaType() : attribute.getJavaType();
+        return (Subgraph<X>) subgraph(attribute.getName(), type);
+    }
+
+    public <X> Subgraph<? extends X> addSubgraph(Attribute<T, X> attribute, Class<? extends X> type) {
+        return subgraph(attribute.getName(), type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <X> Subgraph<X> addSubgraph(String attributeName) {
+        return (Subgraph<X>) subgraph(attributeName, attributeType(attributeName));
+    }
+
+    public <X> Subgraph<X> addSubgraph(String attributeName, Class<X> type) {
+        return subgraph(attributeName, type);
+    }
+
+    /**
+     * Map key subgraphs are not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public <X> Subgraph<X> addKeySubgraph(Attribute<T, X> attribute) {
+        throw new UnsupportedOperationException("Key subgraphs are not supported");
+    }
+
+    /**
+     * Map key subgraphs are not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public <X> Subgraph<? extends X> addKeySubgraph(Attribute<T, X> attribute, Class<? extends X> type) {
+        throw new UnsupportedOperationException("Key subgraphs are not supported");
+    }
+
+    /**
+     * Map key subgraphs are not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public <X> Subgraph<X> addKeySubgraph(String attributeName) {
+        throw new UnsupportedOperationException("Key subgraphs are not supported");
+    }
+
+    /**
+     * Map key subgraphs are not supported.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public <X> Subgraph<X> addKeySubgraph(String attributeName, Class<X> type) {
+        throw new UnsupportedOperationException("Key subgraphs are not supported");
+    }
+
+    private <X> MiniSubgraph<X> subgraph(String attributeName, Class<X> type) {
+        return attributeNode(attributeName).addSubgraph(type);
+    }
+
+    private MiniAttributeNode<?> attributeNode(String attributeName) {
+        attributeType(attributeName);
+        for (AttributeNode<?> attributeNode : attributeNodes) {
+            if (attributeNode.getAttributeName().equals(attributeName))
+                return (MiniAttributeNode<?>) attributeNode;
+        }
+
+        MiniAttributeNode<?> attributeNode = new MiniAttributeNode<>(attributeName);
+        attributeNodes.add(attributeNode);
+        return attributeNode;
+    }
+
+    /**
+     * Returns the type of the attribute, the element type for collections.
+     */
+    protected Class<?> attributeType(String attributeName) {
+        for (Class<?> c = classType; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getName().equals(attributeName))
+                    return elementType(field);
+            }
+        }
+
+        throw new IllegalArgumentException(
+                "Attribute '" + attributeName + "' not found in '" + classType.getName() + "'");
+    }
+
+    private static Class<?> elementType(Field field) {
+        if (!Collection.class.isAssignableFrom(field.getType()) && !Map.class.isAssignableFrom(field.getType()))
+            return field.getType();
+
+        Type genericType = field.getGenericType();
+        if (genericType instanceof ParameterizedType) {
+            Type[] types = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (types[types.length - 1] instanceof Class)
+                return (Class<?>) types[types.length - 1];
+        }
+
+        return Object.class;
+    }
+
+    protected void copyAttributeNodes(AbstractGraph<?> graph) {
+        for (AttributeNode<?> attributeNode : attributeNodes) {
+            graph.attributeNodes.add(((MiniAttributeNode<?>) attributeNode).copy());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.graph;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.AttributeNode;
+import javax.persistence.Subgraph;
+
+public class MiniAttributeNode<T> implements AttributeNode<T> {
+
+    private final String attributeName;
+    private final Map<Class, Subgraph> subgraphs = new LinkedHashMap<>();
+
+    public MiniAttributeNode(String attributeName) {
+        this.attributeName = attributeName;
+    }
+
+    @Override
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    @Override
+    public Map<Class, Subgraph> getSubgraphs() {
+        return Collections.unmodifiableMap(subgraphs);
+    }
+
+    @Override
+    public Map<Class, Subgraph> getKeySubgraphs() {
+        return Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    <X> MiniSubgraph<X> addSubgraph(Class<X> type) {
+        return (MiniSubgraph<X>) subgraphs.computeIfAbsent(type, k -> new MiniSubgraph<>(type));
+    }
+
+    MiniAttributeNode<T> copy() {
+        MiniAttributeNode<T> attributeNode = new MiniAttributeNode<>(attributeName);
+        subgraphs.forEach((k, v) -> attributeNode.subgraphs.put(k, ((MiniSubgraph<?>) v).copy()));
+        return attributeNode;
+    }
+}
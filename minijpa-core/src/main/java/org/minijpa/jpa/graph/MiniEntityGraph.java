@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.graph;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
+import javax.persistence.NamedSubgraph;
+import javax.persistence.Subgraph;
+
+/**
+ * Entity graph passed to find and queries with the 'javax.persistence.fetchgraph' or
+ * 'javax.persistence.loadgraph' hint. Key subgraphs are not supported, the addKeySubgraph methods throw
+ * {@link UnsupportedOperationException}.
+ */
+public class MiniEntityGraph<T> extends AbstractGraph<T> implements EntityGraph<T> {
+
+    private final String name;
+    private final List<MiniSubgraph<?>> subclassSubgraphs = new ArrayList<>();
+
+    public MiniEntityGraph(String name, Class<T> rootType) {
+        super(rootType);
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <S> Subgraph<? extends S> addSubclassSubgraph(Class<? extends S> type) {
+        if (!getClassType().isAssignableFrom(type))
+            throw new IllegalArgumentException(
+                    "Class '" + type.getName() + "' is not a subclass of '" + getClassType().getName() + "'");
+
+        MiniSubgraph<? extends S> subgraph = new MiniSubgraph<>(type);
+        subclassSubgraphs.add(subgraph);
+        return subgraph;
+    }
+
+    public List<MiniSubgraph<?>> getSubclassSubgraphs() {
+        return Collections.unmodifiableList(subclassSubgraphs);
+    }
+
+    public MiniEntityGraph<T> copy(String name) {
+        MiniEntityGraph<T> entityGraph = new MiniEntityGraph<>(name, getClassType());
+        copyAttributeNodes(entityGraph);
+        subclassSubgraphs.forEach(s -> entityGraph.subclassSubgraphs.add(s.copy()));
+        return entityGraph;
+    }
+
+    /**
+     * Builds the graphs declared by the {@link NamedEntityGraph} annotations of the entity class.
+     *
+     * @param entityClass the entity class
+     * @param entityName  the entity name, the default graph name
+     * @return the named entity graphs
+     */
+    public static List<MiniEntityGraph<?>> of(Class<?> entityClass, String entityName) {
+        List<NamedEntityGraph> annotations = new ArrayList<>();
+        NamedEntityGraphs namedEntityGraphs = entityClass.getAnnotation(NamedEntityGraphs.class);
+        if (namedEntityGraphs != null)
+            annotations.addAll(Arrays.asList(namedEntityGraphs.value()));
+
+        NamedEntityGraph namedEntityGraph = entityClass.getAnnotation(NamedEntityGraph.class);
+        if (namedEntityGraph != null)
+            annotations.add(namedEntityGraph);
+
+        List<MiniEntityGraph<?>> graphs = new ArrayList<>();
+        for (NamedEntityGraph annotation : annotations) {
+            MiniEntityGraph<?> graph = new MiniEntityGraph<>(
+                    annotation.name().isEmpty() ? entityName : annotation.name(), entityClass);
+            if (annotation.includeAllAttributes())
+                addAllAttributeNodes(graph, entityClass);
+
+            addNamedAttributeNodes(graph, annotation.attributeNodes(), annotation.subgraphs(), new HashSet<>());
+            for (NamedSubgraph namedSubgraph : annotation.subclassSubgraphs()) {
+                addNamedAttributeNodes((AbstractGraph<?>) graph.addSubclassSubgraph(namedSubgraph.type()),
+                        namedSubgraph.attributeNodes(), annotation.subgraphs(), new HashSet<>());
+            }
+
+            graphs.add(graph);
+        }
+
+        return graphs;
+    }
+
+    private static void addAllAttributeNodes(AbstractGraph<?> graph, Class<?> entityClass) {
+        for (Class<?> c = entityClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()))
+                    graph.addAttributeNodes(field.getName());
+            }
+        }
+    }
+
+    /**
+     * Adds the attribute nodes and their named subgraphs. A subgraph already on the path is not expanded again,
+     * so recursive subgraphs end.
+     */
+    private static void addNamedAttributeNodes(
+            AbstractGraph<?> graph,
+            NamedAttributeNode[] attributeNodes,
+            NamedSubgraph[] subgraphs,
+            Set<String> path) {
+        for (NamedAttributeNode attributeNode : attributeNodes) {
+            graph.addAttributeNodes(attributeNode.value());
+            if (attributeNode.subgraph().isEmpty() || path.contains(attributeNode.subgraph()))
+                continue;
+
+            for (NamedSubgraph subgraph : subgraphs) {
+                if (!subgraph.name().equals(attributeNode.subgraph()))
+                    continue;
+
+                Class<?> type = subgraph.type() == void.class ? graph.attributeType(attributeNode.value())
+                        : subgraph.type();
+                path.add(subgraph.name());
+                addNamedAttributeNodes((AbstractGraph<?>) graph.addSubgraph(attributeNode.value(), type),
+                        subgraph.attributeNodes(), subgraphs, path);
+                path.remove(subgraph.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jpa.graph;
+
+import javax.persistence.Subgraph;
+
+/**
+ * Subgraph of an entity graph attribute or of an entity subclass. Key subgraphs are not supported, the
+ * addKeySubgraph methods throw {@link UnsupportedOperationException}.
+ */
+public class MiniSubgraph<T> extends AbstractGraph<T> implements Subgraph<T> {
+
+    public MiniSubgraph(Class<T> classType) {
+        super(classType);
+    }
+
+    MiniSubgraph<T> copy() {
+        MiniSubgraph<T> subgraph = new MiniSubgraph<>(getClassType());
+        copyAttributeNodes(subgraph);
+        return subgraph;
+    }
+}
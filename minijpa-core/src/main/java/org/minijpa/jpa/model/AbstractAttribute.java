@@ -13,6 +13,8 @@
  */
 package org.minijpa.jpa.model;
 
+import org.minijpa.jdbc.ParameterBinder;
+import org.minijpa.jdbc.ParameterBinders;
 import org.minijpa.jdbc.QueryParameter;
 
 /**
@@ -33,6 +35,8 @@ public abstract class AbstractAttribute {
     protected Integer sqlType;
     // this type matches the database data type
     protected Class<?> databaseType;
+    // resolved from the database type
+    private ParameterBinder parameterBinder;
 
     public String getColumnName() {
         return columnName;
@@ -54,6 +58,13 @@ public abstract class AbstractAttribute {
         return databaseType;
     }
 
+    public ParameterBinder getParameterBinder() {
+        if (parameterBinder == null)
+            parameterBinder = ParameterBinders.forType(databaseType);
+
+        return parameterBinder;
+    }
+
     public abstract QueryParameter queryParameter(Object value);
 
     @Override
@@ -78,7 +78,7 @@ public abstract class AbstractMetaAttribute extends AbstractAttribute implements
 
     @Override
     public QueryParameter queryParameter(Object value) {
-        return new QueryParameter(columnName, value, sqlType, getObjectConverter());
+        return new QueryParameter(columnName, value, sqlType, getObjectConverter(), getParameterBinder());
     }
 
     @Override
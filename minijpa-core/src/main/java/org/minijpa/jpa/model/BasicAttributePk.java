@@ -13,10 +13,9 @@
  */
 package org.minijpa.jpa.model;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jdbc.QueryParameter;
-import org.minijpa.jpa.db.AttributeFetchParameter;
 import org.minijpa.jpa.db.PkGeneration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,14 +85,14 @@ public class BasicAttributePk implements Pk {
     }
 
     @Override
-    public Object buildValue(ModelValueArray<FetchParameter> modelValueArray) throws Exception {
-        int index = indexOfAttribute(modelValueArray, getAttribute());
+    public Object buildValue(FetchRow fetchRow) throws Exception {
+        int index = fetchRow.indexOf(getAttribute());
         if (index == -1) {
             throw new IllegalArgumentException(
                     "Column '" + getAttribute().getColumnName() + "' not found");
         }
 
-        return modelValueArray.getValue(index);
+        return fetchRow.getValue(index);
     }
 
     @Override
@@ -108,16 +107,4 @@ public class BasicAttributePk implements Pk {
         return list;
     }
 
-    private int indexOfAttribute(
-            ModelValueArray<FetchParameter> modelValueArray,
-            AbstractMetaAttribute attribute) {
-        for (int i = 0; i < modelValueArray.size(); ++i) {
-            if (((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute() == attribute) {
-                return i;
-            }
-        }
-
-        return -1;
-    }
-
 }
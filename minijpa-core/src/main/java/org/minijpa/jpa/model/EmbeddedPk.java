@@ -13,11 +13,10 @@
  */
 package org.minijpa.jpa.model;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jdbc.QueryParameter;
 import org.minijpa.jpa.MetaEntityHelper;
-import org.minijpa.jpa.db.AttributeFetchParameter;
 import org.minijpa.jpa.db.PkGeneration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,23 +85,23 @@ public class EmbeddedPk implements Pk {
     }
 
     @Override
-    public Object buildValue(ModelValueArray<FetchParameter> modelValueArray) throws Exception {
+    public Object buildValue(FetchRow fetchRow) throws Exception {
         Object pkObject = getType().getConstructor().newInstance();
-        buildPK(modelValueArray, getAttributes(), pkObject);
+        buildPK(fetchRow, getAttributes(), pkObject);
         return pkObject;
     }
 
     private void buildPK(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             List<MetaAttribute> attributes,
             Object pkObject) throws Exception {
         for (AbstractMetaAttribute a : attributes) {
-            int index = indexOfAttribute(modelValueArray, a);
+            int index = fetchRow.indexOf(a);
             if (index == -1) {
                 throw new IllegalArgumentException("Column '" + a.getColumnName() + "' is missing");
             }
 
-            a.getWriteMethod().invoke(pkObject, modelValueArray.getValue(index));
+            a.getWriteMethod().invoke(pkObject, fetchRow.getValue(index));
         }
     }
 
@@ -121,16 +120,4 @@ public class EmbeddedPk implements Pk {
         return new ArrayList<>(MetaEntityHelper.convertAVToQP(modelValueArray));
     }
 
-    private int indexOfAttribute(
-            ModelValueArray<FetchParameter> modelValueArray,
-            AbstractMetaAttribute attribute) {
-        for (int i = 0; i < modelValueArray.size(); ++i) {
-            if (((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute() == attribute) {
-                return i;
-            }
-        }
-
-        return -1;
-    }
-
 }
@@ -13,11 +13,10 @@
  */
 package org.minijpa.jpa.model;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jdbc.QueryParameter;
 import org.minijpa.jpa.MetaEntityHelper;
-import org.minijpa.jpa.db.AttributeFetchParameter;
 import org.minijpa.jpa.db.PkGeneration;
 import org.minijpa.metadata.BeanUtil;
 import org.minijpa.metadata.enhancer.EnhAttribute;
@@ -155,34 +154,33 @@ public class IdClassPkImpl implements IdClassPk {
 
 
     @Override
-    public Object buildValue(ModelValueArray<FetchParameter> modelValueArray) throws Exception {
+    public Object buildValue(FetchRow fetchRow) throws Exception {
         Object pkObject = getType().getConstructor().newInstance();
-        buildPk(modelValueArray, pkObject);
+        buildPk(fetchRow, pkObject);
         return pkObject;
     }
 
 
     private void buildPk(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             Object pkObject) throws Exception {
-        modelValueArray.getValues().forEach(v -> log.debug("Id Class Pk -> Build Pk -> Value = {}", v));
-        modelValueArray.getModels().forEach(f -> log.debug("Id Class Pk -> Build Pk -> Model = {}", f));
+        log.debug("Id Class Pk -> Build Pk -> Row = {}", fetchRow);
         log.debug("Id Class Pk -> Build Pk -> Relationship Attribute = {}", relationshipMetaAttribute);
         if (relationshipMetaAttribute != null) {
             Pk foreignPk = relationshipMetaAttribute.getRelationship().getAttributeType().getId();
             log.debug("Id Class Pk -> Build Pk -> Foreign Key = {}", foreignPk);
             if (foreignPk.isComposite()) {
-                Object foreignKeyValue = foreignPk.buildValue(modelValueArray);
+                Object foreignKeyValue = foreignPk.buildValue(fetchRow);
                 log.debug("Id Class Pk -> Build Pk -> Composite Foreign Key Value = {}", foreignKeyValue);
                 Method method = pkObject.getClass().getMethod(relationshipMetaAttribute.getWriteMethod().getName(), foreignKeyValue.getClass());
                 method.invoke(pkObject, foreignKeyValue);
             } else {
                 AbstractMetaAttribute key = foreignPk.getAttribute();
-                int index = indexOfAttribute(modelValueArray, key);
+                int index = fetchRow.indexOf(key);
                 if (index != -1) {
                     Class<?> type = relationshipMetaAttribute.getRelationship().getAttributeType().getId().getAttribute().getType();
                     Method method = pkObject.getClass().getMethod(relationshipMetaAttribute.getWriteMethod().getName(), type);
-                    Object value = modelValueArray.getValue(index);
+                    Object value = fetchRow.getValue(index);
                     log.debug("Id Class Pk -> Build Pk -> Basic Foreign Key Value = {}", value);
                     method.invoke(pkObject, value);
                 }
@@ -191,12 +189,12 @@ public class IdClassPkImpl implements IdClassPk {
 
         log.debug("Id Class Pk -> Build Pk -> Pk Object = {}", pkObject);
         for (AbstractMetaAttribute a : attributes) {
-            int index = indexOfAttribute(modelValueArray, a);
+            int index = indexOfAttribute(fetchRow, a);
             if (index == -1) {
                 throw new IllegalArgumentException("Column '" + a.getColumnName() + "' is missing");
             }
 
-            Object value = modelValueArray.getValue(index);
+            Object value = fetchRow.getValue(index);
             log.debug("Id Class Pk -> Build Pk -> Attribute Value = {}", value);
             if (a instanceof MetaAttribute) {
                 Method method = pkObject.getClass().getMethod(a.getWriteMethod().getName(), a.getReadMethod().getReturnType());
@@ -228,20 +226,14 @@ public class IdClassPkImpl implements IdClassPk {
 
 
     private int indexOfAttribute(
-            ModelValueArray<FetchParameter> modelValueArray,
+            FetchRow fetchRow,
             AbstractMetaAttribute attribute) {
-        for (int i = 0; i < modelValueArray.size(); ++i) {
-            if (attribute instanceof MetaAttribute) {
-                if (((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute() == attribute) {
-                    return i;
-                }
-            } else if (attribute instanceof RelationshipMetaAttribute) {
-                RelationshipMetaAttribute relationshipMetaAttribute = (RelationshipMetaAttribute) attribute;
-                AbstractMetaAttribute abstractMetaAttribute = relationshipMetaAttribute.getRelationship().getAttributeType().getId().getAttribute();
-                if (((AttributeFetchParameter) modelValueArray.getModel(i)).getAttribute() == abstractMetaAttribute) {
-                    return i;
-                }
-            }
+        if (attribute instanceof MetaAttribute)
+            return fetchRow.indexOf(attribute);
+
+        if (attribute instanceof RelationshipMetaAttribute) {
+            RelationshipMetaAttribute relationshipMetaAttribute = (RelationshipMetaAttribute) attribute;
+            return fetchRow.indexOf(relationshipMetaAttribute.getRelationship().getAttributeType().getId().getAttribute());
         }
 
         return -1;
@@ -15,6 +15,7 @@ package org.minijpa.jpa.model;
 
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jpa.MetaEntityHelper;
+import org.minijpa.jpa.db.EntityStatementCache;
 import org.minijpa.jpa.model.relationship.Cascade;
 import org.minijpa.jpa.model.relationship.JoinColumnAttribute;
 import org.minijpa.jpa.model.relationship.JoinColumnMapping;
@@ -54,12 +55,20 @@ public class MetaEntity {
     private MetaEntity mappedSuperclassEntity;
     private VersionMetaAttribute versionMetaAttribute;
     private Method modificationAttributeReadMethod;
+    // attributes and embeddables indexed by their position in the modification bitmask
+    private AbstractMetaAttribute[] modificationAttributes = new AbstractMetaAttribute[0];
+    private MetaEntity[] modificationEmbeddables = new MetaEntity[0];
+    private Map<String, Integer> modificationOrdinals = Map.of();
     private Method lazyLoadedAttributeReadMethod;
     private Method lockTypeAttributeReadMethod = null;
     private Method lockTypeAttributeWriteMethod = null;
     private Method entityStatusAttributeReadMethod = null;
     private Method entityStatusAttributeWriteMethod = null;
+    private Method persistenceContextAttributeReadMethod = null;
+    private Method persistenceContextAttributeWriteMethod = null;
     private Method joinColumnPostponedUpdateAttributeReadMethod = null;
+    // rendered CRUD statements, shared by all the entity managers
+    private final EntityStatementCache statementCache = new EntityStatementCache();
 
     private MetaEntity() {
     }
@@ -80,6 +89,10 @@ public class MetaEntity {
         return id;
     }
 
+    public EntityStatementCache getStatementCache() {
+        return statementCache;
+    }
+
     public boolean isEmbeddedId() {
         return embeddedId;
     }
@@ -152,6 +165,14 @@ public class MetaEntity {
         return entityStatusAttributeWriteMethod;
     }
 
+    public Method getPersistenceContextAttributeReadMethod() {
+        return persistenceContextAttributeReadMethod;
+    }
+
+    public Method getPersistenceContextAttributeWriteMethod() {
+        return persistenceContextAttributeWriteMethod;
+    }
+
     public AbstractMetaAttribute getAttribute(String name) {
         for (AbstractMetaAttribute attribute : attributes) {
             if (attribute.getName().equals(name))
@@ -360,8 +381,8 @@ public class MetaEntity {
     public void clearModificationAttributes(Object parent)
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
         Method m = getModificationAttributeReadMethod();
-        List list = (List) m.invoke(parent);
-        list.clear();
+        long[] modifications = (long[]) m.invoke(parent);
+        Arrays.fill(modifications, 0L);
     }
 
 
@@ -369,9 +390,13 @@ public class MetaEntity {
             Object parent,
             String attributeName)
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        Integer ordinal = modificationOrdinals.get(attributeName);
+        if (ordinal == null)
+            return;
+
         Method m = getModificationAttributeReadMethod();
-        List list = (List) m.invoke(parent);
-        list.remove(attributeName);
+        long[] modifications = (long[]) m.invoke(parent);
+        modifications[ordinal >>> 6] &= ~(1L << ordinal);
     }
 
 
@@ -410,6 +435,9 @@ public class MetaEntity {
             Object entityInstance,
             boolean loaded)
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        if (!a.isLazy())
+            return;
+
         Method m = getLazyLoadedAttributeReadMethod();
         List list = (List) m.invoke(entityInstance);
         if (loaded) {
@@ -490,30 +518,30 @@ public class MetaEntity {
             throws IllegalAccessException, InvocationTargetException {
         ModelValueArray<AbstractMetaAttribute> modelValueArray = new ModelValueArray<>();
         Method m = getModificationAttributeReadMethod();
-        List list = (List) m.invoke(entityInstance);
-        log.debug("Entity Modifications -> Count {}", list.size());
-        if (list.isEmpty())
-            return modelValueArray;
-
-        for (Object p : list) {
-            String v = (String) p;
-            log.debug("Entity Modifications -> Attribute Name = '{}'", v);
-            AbstractMetaAttribute attribute = getAttribute(v);
-            log.debug("Entity Modifications -> Attribute = {}", attribute);
-            if (attribute == null) {
-                Optional<MetaEntity> embeddable = getEmbeddable(v);
-                if (embeddable.isPresent()) {
-                    Object embeddedInstance = embeddable.get().getValue(entityInstance);
-                    ModelValueArray<AbstractMetaAttribute> mva = embeddable.get().getModifications(
-                            embeddedInstance);
+        long[] modifications = (long[]) m.invoke(entityInstance);
+        for (int i = 0; i < modifications.length; ++i) {
+            long word = modifications[i];
+            while (word != 0) {
+                int ordinal = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (ordinal >= modificationAttributes.length)
+                    continue;
+
+                AbstractMetaAttribute attribute = modificationAttributes[ordinal];
+                log.debug("Entity Modifications -> Attribute = {}", attribute);
+                if (attribute != null) {
+                    Object value = attribute.getReadMethod().invoke(entityInstance);
+                    modelValueArray.add(attribute, value);
+                } else if (modificationEmbeddables[ordinal] != null) {
+                    MetaEntity embeddable = modificationEmbeddables[ordinal];
+                    Object embeddedInstance = embeddable.getValue(entityInstance);
+                    ModelValueArray<AbstractMetaAttribute> mva = embeddable.getModifications(embeddedInstance);
                     modelValueArray.add(mva);
                 }
-            } else {
-                Object value = attribute.getReadMethod().invoke(entityInstance);
-                modelValueArray.add(attribute, value);
             }
         }
 
+        log.debug("Entity Modifications -> Count {}", modelValueArray.size());
         return modelValueArray;
     }
 
@@ -576,11 +604,14 @@ public class MetaEntity {
         private MetaEntity mappedSuperclassEntity;
         private VersionMetaAttribute versionMetaAttribute;
         private Method modificationAttributeReadMethod;
+        private List<String> modificationAttributeNames;
         private Method lazyLoadedAttributeReadMethod;
         private Method lockTypeAttributeReadMethod;
         private Method lockTypeAttributeWriteMethod;
         private Method entityStatusAttributeReadMethod;
         private Method entityStatusAttributeWriteMethod;
+        private Method persistenceContextAttributeReadMethod;
+        private Method persistenceContextAttributeWriteMethod;
         private Method joinColumnPostponedUpdateAttributeReadMethod;
 
         public Builder withEntityClass(Class<?> entityClass) {
@@ -658,6 +689,11 @@ public class MetaEntity {
             return this;
         }
 
+        public Builder withModificationAttributeNames(List<String> modificationAttributeNames) {
+            this.modificationAttributeNames = modificationAttributeNames;
+            return this;
+        }
+
         public Builder withLazyLoadedAttributeReadMethod(
                 Method lazyLoadedAttributeReadMethod) {
             this.lazyLoadedAttributeReadMethod = lazyLoadedAttributeReadMethod;
@@ -692,6 +728,18 @@ public class MetaEntity {
             return this;
         }
 
+        public Builder withPersistenceContextAttributeReadMethod(
+                Method persistenceContextAttributeReadMethod) {
+            this.persistenceContextAttributeReadMethod = persistenceContextAttributeReadMethod;
+            return this;
+        }
+
+        public Builder withPersistenceContextAttributeWriteMethod(
+                Method persistenceContextAttributeWriteMethod) {
+            this.persistenceContextAttributeWriteMethod = persistenceContextAttributeWriteMethod;
+            return this;
+        }
+
         public MetaEntity build() {
             MetaEntity metaEntity = new MetaEntity();
             metaEntity.entityClass = entityClass;
@@ -715,7 +763,30 @@ public class MetaEntity {
             metaEntity.lockTypeAttributeWriteMethod = lockTypeAttributeWriteMethod;
             metaEntity.entityStatusAttributeReadMethod = entityStatusAttributeReadMethod;
             metaEntity.entityStatusAttributeWriteMethod = entityStatusAttributeWriteMethod;
+            metaEntity.persistenceContextAttributeReadMethod = persistenceContextAttributeReadMethod;
+            metaEntity.persistenceContextAttributeWriteMethod = persistenceContextAttributeWriteMethod;
+            if (modificationAttributeNames != null)
+                buildModificationOrdinals(metaEntity);
+
             return metaEntity;
         }
+
+        private void buildModificationOrdinals(MetaEntity metaEntity) {
+            int size = modificationAttributeNames.size();
+            metaEntity.modificationAttributes = new AbstractMetaAttribute[size];
+            metaEntity.modificationEmbeddables = new MetaEntity[size];
+            Map<String, Integer> ordinals = new HashMap<>();
+            for (int i = 0; i < size; ++i) {
+                String attributeName = modificationAttributeNames.get(i);
+                ordinals.putIfAbsent(attributeName, i);
+                if (attributes != null)
+                    metaEntity.modificationAttributes[i] = metaEntity.getAttribute(attributeName);
+
+                if (metaEntity.modificationAttributes[i] == null && embeddables != null)
+                    metaEntity.modificationEmbeddables[i] = metaEntity.getEmbeddable(attributeName).orElse(null);
+            }
+
+            metaEntity.modificationOrdinals = ordinals;
+        }
     }
 }
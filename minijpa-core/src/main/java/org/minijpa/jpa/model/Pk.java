@@ -16,7 +16,7 @@ package org.minijpa.jpa.model;
 import java.lang.reflect.Method;
 import java.util.List;
 
-import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.FetchRow;
 import org.minijpa.jdbc.ModelValueArray;
 import org.minijpa.jdbc.QueryParameter;
 import org.minijpa.jpa.db.PkGeneration;
@@ -44,7 +44,7 @@ public interface Pk {
 
     String getName();
 
-    Object buildValue(ModelValueArray<FetchParameter> modelValueArray) throws Exception;
+    Object buildValue(FetchRow fetchRow) throws Exception;
 
     List<QueryParameter> queryParameters(Object value) throws Exception;
 
@@ -35,7 +35,8 @@ public class JoinColumnAttribute extends AbstractAttribute {
     public QueryParameter queryParameter(Object value) {
         MetaAttribute attribute = getForeignKeyAttribute();
         return new QueryParameter(getColumnName(),
-                value, attribute.getSqlType(), attribute.getObjectConverter());
+                value, attribute.getSqlType(), attribute.getObjectConverter(),
+                attribute.getParameterBinder());
     }
 
     public static class Builder {
@@ -14,6 +14,7 @@
 package org.minijpa.metadata;
 
 import org.minijpa.jpa.MetaEntityHelper;
+import org.minijpa.jpa.db.EntityContainer;
 import org.minijpa.jpa.db.EntityHandler;
 import org.minijpa.jpa.db.EntityStatus;
 import org.minijpa.jpa.model.AbstractMetaAttribute;
@@ -44,8 +45,7 @@ public final class EntityDelegate implements EntityListener {
             return value;
         }
 
-        MetaEntity entity = persistenceUnitContextManager.getEntity(
-                entityInstance.getClass().getName());
+        MetaEntity entity = persistenceUnitContextManager.getEntity(entityInstance.getClass());
         if (entity == null) {
             return value;
         }
@@ -76,6 +76,23 @@ public final class EntityDelegate implements EntityListener {
         return value;
     }
 
+    @Override
+    public void modified(Object entityInstance) {
+        MetaEntity entity = persistenceUnitContextManager.getEntity(entityInstance.getClass());
+        // embeddables are tracked by the owning entity
+        if (entity == null || entity.getPersistenceContextAttributeReadMethod() == null)
+            return;
+
+        try {
+            EntityContainer entityContainer = MetaEntityHelper.getPersistenceContext(entity, entityInstance);
+            if (entityContainer != null)
+                entityContainer.markDirty(entityInstance);
+        } catch (Exception e) {
+            LOG.error(e.getMessage());
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
     private class PersistenceUnitContextManager {
 
         private final List<PersistenceUnitContext> entityContexts = new ArrayList<>();
@@ -95,6 +112,17 @@ public final class EntityDelegate implements EntityListener {
             return null;
         }
 
+        public MetaEntity getEntity(Class<?> entityClass) {
+            for (PersistenceUnitContext entityContext : entityContexts) {
+                MetaEntity entity = entityContext.getEntity(entityClass);
+                if (entity != null) {
+                    return entity;
+                }
+            }
+
+            return null;
+        }
+
         public Optional<PersistenceUnitContext> getEntityContext(String persistenceUnitName) {
             return entityContexts.stream()
                     .filter(e -> e.getPersistenceUnitName().equals(persistenceUnitName))
@@ -16,4 +16,11 @@ package org.minijpa.metadata;
 public interface EntityListener {
 
     Object get(Object value, String attributeName, Object entityInstance);
+
+    /**
+     * Called by the entity setters the first time an attribute is modified after the last flush.
+     *
+     * @param entityInstance the modified instance
+     */
+    void modified(Object entityInstance);
 }
@@ -220,6 +220,11 @@ public class JpaParser {
         Method entityStatusAttributeWriteMethod = c.getMethod(
                 enhEntity.getEntityStatusAttributeSetMethod(),
                 EntityStatus.class);
+        Method persistenceContextAttributeReadMethod = c.getMethod(
+                enhEntity.getPersistenceContextAttributeGetMethod());
+        Method persistenceContextAttributeWriteMethod = c.getMethod(
+                enhEntity.getPersistenceContextAttributeSetMethod(),
+                EntityContainer.class);
 
         List<MetaEntity> embeddablesNoId = embeddables.stream().filter(me -> !me.isEmbeddedId()).
                 collect(Collectors.toList());
@@ -252,6 +257,7 @@ public class JpaParser {
                 .withMappedSuperclassEntity(mappedSuperclassEntity)
                 .withVersionMetaAttribute(entityAttributes.versionMetaAttribute)
                 .withModificationAttributeReadMethod(modificationAttributeReadMethod)
+                .withModificationAttributeNames(enhEntity.getModificationAttributeNames())
                 .withLazyLoadedAttributeReadMethod(lazyLoadedAttributeReadMethod)
                 .withJoinColumnPostponedUpdateAttributeReadMethod(
                         joinColumnPostponedUpdateAttributeReadMethod)
@@ -259,6 +265,8 @@ public class JpaParser {
                 .withLockTypeAttributeWriteMethod(lockTypeAttributeWriteMethod)
                 .withEntityStatusAttributeReadMethod(entityStatusAttributeReadMethod)
                 .withEntityStatusAttributeWriteMethod(entityStatusAttributeWriteMethod)
+                .withPersistenceContextAttributeReadMethod(persistenceContextAttributeReadMethod)
+                .withPersistenceContextAttributeWriteMethod(persistenceContextAttributeWriteMethod)
                 .build();
     }
 
@@ -355,6 +363,7 @@ public class JpaParser {
                 .withEmbeddables(embeddables)
                 .withReadMethod(readMethod).withWriteMethod(writeMethod).withPath(path)
                 .withModificationAttributeReadMethod(modificationAttributeReadMethod)
+                .withModificationAttributeNames(enhEntity.getModificationAttributeNames())
                 .withLazyLoadedAttributeReadMethod(lazyLoadedAttributeReadMethod)
                 .withJoinColumnPostponedUpdateAttributeReadMethod(
                         joinColumnPostponedUpdateAttributeReadMethod)
@@ -423,6 +432,7 @@ public class JpaParser {
                 .withRelationshipAttributes(entityAttributes.relationshipMetaAttributes)
                 .withEmbeddables(embeddablesNoId)
                 .withModificationAttributeReadMethod(modificationAttributeReadMethod)
+                .withModificationAttributeNames(enhEntity.getModificationAttributeNames())
                 .withLazyLoadedAttributeReadMethod(lazyLoadedAttributeReadMethod)
                 .withJoinColumnPostponedUpdateAttributeReadMethod(
                         joinColumnPostponedUpdateAttributeReadMethod)
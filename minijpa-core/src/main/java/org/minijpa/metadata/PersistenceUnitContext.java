@@ -29,6 +29,12 @@ public class PersistenceUnitContext {
     private Map<String, MiniNamedQueryMapping> namedQueries;
     private Map<String, MiniNamedNativeQueryMapping> namedNativeQueries;
     private AliasGenerator aliasGenerator;
+    private final ClassValue<MetaEntity> entityByClass = new ClassValue<>() {
+        @Override
+        protected MetaEntity computeValue(Class<?> type) {
+            return entities.get(type.getName());
+        }
+    };
 
     public PersistenceUnitContext(
             String persistenceUnitName,
@@ -48,6 +54,16 @@ public class PersistenceUnitContext {
         return entities.get(entityClassName);
     }
 
+    /**
+     * Returns the meta entity of the class. The lookup is resolved once per class.
+     *
+     * @param entityClass entity class
+     * @return the meta entity or null if the class is not an entity
+     */
+    public MetaEntity getEntity(Class<?> entityClass) {
+        return entityByClass.get(entityClass);
+    }
+
     public String getPersistenceUnitName() {
         return persistenceUnitName;
     }
@@ -30,6 +30,8 @@ public class EnhEntity {
     private String lockTypeAttributeSetMethod;
     private String entityStatusAttributeGetMethod;
     private String entityStatusAttributeSetMethod;
+    private String persistenceContextAttributeGetMethod;
+    private String persistenceContextAttributeSetMethod;
     private IdClassPropertyData idClassPropertyData;
 
     public String getClassName() {
@@ -113,6 +115,22 @@ public class EnhEntity {
         this.entityStatusAttributeSetMethod = entityStatusAttributeSetMethod;
     }
 
+    public String getPersistenceContextAttributeGetMethod() {
+        return persistenceContextAttributeGetMethod;
+    }
+
+    public void setPersistenceContextAttributeGetMethod(String persistenceContextAttributeGetMethod) {
+        this.persistenceContextAttributeGetMethod = persistenceContextAttributeGetMethod;
+    }
+
+    public String getPersistenceContextAttributeSetMethod() {
+        return persistenceContextAttributeSetMethod;
+    }
+
+    public void setPersistenceContextAttributeSetMethod(String persistenceContextAttributeSetMethod) {
+        this.persistenceContextAttributeSetMethod = persistenceContextAttributeSetMethod;
+    }
+
     public IdClassPropertyData getIdClassPropertyData() {
         return idClassPropertyData;
     }
@@ -132,6 +150,21 @@ public class EnhEntity {
         }
     }
 
+    /**
+     * Returns the attribute names ordered by their position in the modification bitmask. The class attributes come
+     * first, followed by the mapped superclass ones.
+     *
+     * @return the attribute names
+     */
+    public List<String> getModificationAttributeNames() {
+        List<String> names = new ArrayList<>();
+        enhAttributes.forEach(a -> names.add(a.getName()));
+        if (mappedSuperclass != null)
+            names.addAll(mappedSuperclass.getModificationAttributeNames());
+
+        return names;
+    }
+
     public Optional<EnhAttribute> getAttribute(String name) {
         return enhAttributes.stream().filter(a -> a.getName().equals(name)).findFirst();
     }
@@ -53,6 +53,7 @@ public class ClassInspector {
     private final String lazyLoadedAttributePrefix = "lla";
     private final String lockTypeAttributePrefix = "lta";
     private final String entityStatusAttributePrefix = "sts";
+    private final String persistenceContextAttributePrefix = "pca";
     private final String joinColumnPostponedUpdateAttributePrefix = "jcpu";
 
     public ManagedData inspect(String className) throws Exception {
@@ -116,6 +117,13 @@ public class ClassInspector {
             throw new Exception("Internal error. Next available attribute '" + entityStatusAttributePrefix + "' not found");
 
         removeAttributeFromProperties(entityStatusAttribute.get(), properties);
+        // persistence context attribute
+        Optional<String> persistenceContextAttribute = findAvailableAttribute(persistenceContextAttributePrefix,
+                properties, ct);
+        if (persistenceContextAttribute.isEmpty())
+            throw new Exception("Internal error. Next available attribute '" + persistenceContextAttributePrefix + "' not found");
+
+        removeAttributeFromProperties(persistenceContextAttribute.get(), properties);
 
         // lazy loaded attribute tracker
         Optional<String> lazyLoadedAttribute = createLazyLoadedAttribute(properties, ct);
@@ -140,6 +148,7 @@ public class ClassInspector {
         managedData.setModificationAttribute(modificationAttribute.get());
         managedData.setLockTypeAttribute(lockTypeAttribute.get());
         managedData.setEntityStatusAttribute(entityStatusAttribute.get());
+        managedData.setPersistenceContextAttribute(persistenceContextAttribute.get());
         lazyLoadedAttribute.ifPresent(managedData::setLazyLoadedAttribute);
         joinColumnPostponedUpdateAttribute.ifPresent(managedData::setJoinColumnPostponedUpdateAttribute);
 
@@ -112,8 +112,8 @@ public class EntityEnhancer {
         log.trace("Enhancing {}", ct.getName());
         addEntityDelegateField(ct);
         // modification field
-        addModificationField(ct, managedData.getModificationAttribute());
-        CtMethod ctMethod = createGetMethod(ct, managedData.getModificationAttribute(), "java.util.List");
+        addModificationField(ct, managedData.getModificationAttribute(), managedData.countAttributeOrdinals());
+        CtMethod ctMethod = createGetMethod(ct, managedData.getModificationAttribute(), "long[]");
         enhEntity.setModificationAttributeGetMethod(ctMethod.getName());
         // lazy loaded attribute tracking
         if (managedData.getLazyLoadedAttribute() != null) {
@@ -150,6 +150,18 @@ public class EntityEnhancer {
                     "org.minijpa.jpa.db.EntityStatus");
             enhEntity.setEntityStatusAttributeSetMethod(ctMethod.getName());
         }
+        // persistence context field
+        if (managedData.getPersistenceContextAttribute() != null) {
+            addPersistenceContextField(ct, managedData.getPersistenceContextAttribute());
+            // get method
+            ctMethod = createGetMethod(ct, managedData.getPersistenceContextAttribute(),
+                    "org.minijpa.jpa.db.EntityContainer");
+            enhEntity.setPersistenceContextAttributeGetMethod(ctMethod.getName());
+            // set method
+            ctMethod = createSetMethod(ct, managedData.getPersistenceContextAttribute(),
+                    "org.minijpa.jpa.db.EntityContainer");
+            enhEntity.setPersistenceContextAttributeSetMethod(ctMethod.getName());
+        }
 
         // creates the join column support fields
         List<AttributeData> attributeDataList = managedData.getAttributeDataList();
@@ -192,14 +204,16 @@ public class EntityEnhancer {
         List<EnhAttribute> enhAttributes = new ArrayList<>();
         List<AttributeData> dataAttributes = managedData.getAttributeDataList();
         log.trace("Enhancing Attributes {}", dataAttributes.size());
-        for (AttributeData attributeData : dataAttributes) {
+        for (int ordinal = 0; ordinal < dataAttributes.size(); ++ordinal) {
+            AttributeData attributeData = dataAttributes.get(ordinal);
             Property property = attributeData.getProperty();
             log.trace("Enhancing attribute property -> Relationship Properties {}", property.getRelationshipProperties());
             log.trace("Enhancing attribute property -> Get Property Method {}", property.getGetPropertyMethod());
             boolean enhanceAttribute = toEnhance(attributeData);
             log.trace("Enhancing attribute '{}' {}", property.getCtField().getName(), enhanceAttribute);
             if (property.getSetPropertyMethod().add && !enhancedDataEntities.contains(managedData)) {
-                CtMethod ctMethod = createSetMethod(ct, property.getCtField(), enhanceAttribute, managedData);
+                CtMethod ctMethod = createSetMethod(ct, property.getCtField(), enhanceAttribute, ordinal,
+                        managedData);
                 property.getSetPropertyMethod().enhance = false;
                 property.getSetPropertyMethod().method = ctMethod;
             }
@@ -210,7 +224,7 @@ public class EntityEnhancer {
                         modifyGetMethod(property.getGetPropertyMethod().method, property.getCtField());
 
                 if (property.getSetPropertyMethod().enhance)
-                    modifySetMethod(property.getSetPropertyMethod().method, property.getCtField(), managedData);
+                    modifySetMethod(property.getSetPropertyMethod().method, ordinal, managedData);
             }
 
             EnhEntity embeddedEnhEntity = null;
@@ -366,17 +380,16 @@ public class EntityEnhancer {
                 if (optional.isEmpty())
                     throw new Exception("Field '" + bmtFieldInfo.name + "' not found");
 
+                int ordinal = managedData.findAttributeOrdinal(bmtFieldInfo.name);
                 if (bmtFieldInfo.implementation != null)
                     // an implementation class. It can be a collection. NEW_EXPR_OP
                     if (CollectionUtils.isCollectionName(bmtFieldInfo.implementation))
                         modifyConstructorWithCollectionCheck(bmtMethodInfo.getCtConstructor(),
-                                optional.get().getProperty().getCtField(), managedData);
+                                optional.get().getProperty().getCtField(), ordinal, managedData);
                     else
-                        modifyConstructorWithSimpleField(bmtMethodInfo.getCtConstructor(),
-                                optional.get().getProperty().getCtField(), managedData);
+                        modifyConstructorWithSimpleField(bmtMethodInfo.getCtConstructor(), ordinal, managedData);
                 else
-                    modifyConstructorWithSimpleField(bmtMethodInfo.getCtConstructor(),
-                            optional.get().getProperty().getCtField(), managedData);
+                    modifyConstructorWithSimpleField(bmtMethodInfo.getCtConstructor(), ordinal, managedData);
             }
         }
     }
@@ -392,12 +405,21 @@ public class EntityEnhancer {
         ct.addField(f);
     }
 
-    private void addModificationField(CtClass ct, String modificationFieldName) throws Exception {
+    /**
+     * Adds the modification bitmask. Each attribute has a bit, the position is the attribute ordinal returned by
+     * {@link ManagedData#findAttributeOrdinal(String)}.
+     *
+     * @param ct                    class
+     * @param modificationFieldName field name
+     * @param ordinals              number of attribute ordinals
+     * @throws Exception error during field building
+     */
+    private void addModificationField(CtClass ct, String modificationFieldName, int ordinals) throws Exception {
         if (!canModify(ct))
             return;
 
-        CtField f = CtField.make("private java.util.List " + modificationFieldName + " = new java.util.ArrayList();",
-                ct);
+        int words = Math.max(1, (ordinals + 63) >>> 6);
+        CtField f = CtField.make("private long[] " + modificationFieldName + " = new long[" + words + "];", ct);
         ct.addField(f);
         log.trace("Enhancing Class -> Created '{}' Field", ct.getName());
     }
@@ -431,6 +453,16 @@ public class EntityEnhancer {
         log.trace("Enhancing Class -> Created '{}' Field {}", ct.getName(), f);
     }
 
+    private void addPersistenceContextField(CtClass ct, String fieldName) throws Exception {
+        if (!canModify(ct))
+            return;
+
+        String f = "private org.minijpa.jpa.db.EntityContainer " + fieldName + " = null;";
+        CtField ctField = CtField.make(f, ct);
+        ct.addField(ctField);
+        log.trace("Enhancing Class -> Created '{}' Field {}", ct.getName(), f);
+    }
+
     private void addJoinColumnField(CtClass ct, String fieldName) throws Exception {
         if (!canModify(ct))
             return;
@@ -456,18 +488,41 @@ public class EntityEnhancer {
         ctMethod.insertBefore(mc);
     }
 
-    private void modifySetMethod(CtMethod ctMethod, CtField ctField, ManagedData managedData) throws Exception {
+    private String buildModificationStatement(int ordinal, ManagedData managedData) {
         StringBuilder sb = new StringBuilder();
-        sb.append("if(!");
         sb.append(managedData.getModificationAttribute());
-        sb.append(".contains(\"");
-        sb.append(ctField.getName());
-        sb.append("\")) ");
+        sb.append("[");
+        sb.append(ordinal >>> 6);
+        sb.append("] |= (1L << ");
+        sb.append(ordinal & 63);
+        sb.append(");");
+        return sb.toString();
+    }
+
+    /**
+     * Builds the statement executed by setters. The entity delegate is notified only when the attribute bit is
+     * set for the first time, so the entity is added to the persistence context dirty set once.
+     *
+     * @param ordinal     attribute ordinal
+     * @param managedData managed data
+     * @return the statement
+     */
+    private String buildSetModificationStatement(int ordinal, ManagedData managedData) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("if((");
         sb.append(managedData.getModificationAttribute());
-        sb.append(".add(\"");
-        sb.append(ctField.getName());
-        sb.append("\");");
-        String mc = sb.toString();
+        sb.append("[");
+        sb.append(ordinal >>> 6);
+        sb.append("] & (1L << ");
+        sb.append(ordinal & 63);
+        sb.append(")) == 0L) {");
+        sb.append(buildModificationStatement(ordinal, managedData));
+        sb.append(" entityDelegate.modified(this); }");
+        return sb.toString();
+    }
+
+    private void modifySetMethod(CtMethod ctMethod, int ordinal, ManagedData managedData) throws Exception {
+        String mc = buildSetModificationStatement(ordinal, managedData);
         log.trace("Enhancing Class -> Modifying Set Method '{}'", mc);
         ctMethod.insertBefore(mc);
     }
@@ -475,19 +530,19 @@ public class EntityEnhancer {
     private void modifyConstructorWithCollectionCheck(
             CtConstructor ctConstructor,
             CtField ctField,
+            int ordinal,
             ManagedData managedData) throws Exception {
-        String mc = "if(!" + ctField.getName() + ".isEmpty()) " + managedData.getModificationAttribute() + ".add(\""
-                + ctField.getName() + "\");";
+        String mc = "if(!" + ctField.getName() + ".isEmpty()) " + buildModificationStatement(ordinal, managedData);
         log.trace("Enhancing Class -> Modifying constructor '{}'", mc);
         ctConstructor.insertAfter(mc);
     }
 
     private void modifyConstructorWithSimpleField(
             CtConstructor ctConstructor,
-            CtField ctField,
+            int ordinal,
             ManagedData managedData)
             throws Exception {
-        String mc = managedData.getModificationAttribute() + ".add(\"" + ctField.getName() + "\");";
+        String mc = buildModificationStatement(ordinal, managedData);
         log.trace("Enhancing Class -> Modifying constructor '{}'", mc);
         ctConstructor.insertAfter(mc);
     }
@@ -510,6 +565,7 @@ public class EntityEnhancer {
             CtField ctField,
             boolean delegate,
             int counter,
+            int ordinal,
             ManagedData managedData)
             throws Exception {
         StringBuilder sb = new StringBuilder();
@@ -520,17 +576,8 @@ public class EntityEnhancer {
         sb.append(" ");
         sb.append(ctField.getName());
         sb.append(") {");
-        if (delegate) {
-            sb.append("if(!");
-            sb.append(managedData.getModificationAttribute());
-            sb.append(".contains(\"");
-            sb.append(ctField.getName());
-            sb.append("\")) ");
-            sb.append(managedData.getModificationAttribute());
-            sb.append(".add(\"");
-            sb.append(ctField.getName());
-            sb.append("\");");
-        }
+        if (delegate)
+            sb.append(buildSetModificationStatement(ordinal, managedData));
 
         sb.append(" this.");
         sb.append(ctField.getName());
@@ -575,6 +622,7 @@ public class EntityEnhancer {
      * @param ctClass  class
      * @param ctField  field
      * @param delegate delegate
+     * @param ordinal  attribute ordinal in the modification bitmask
      * @return created method
      * @throws Exception error during method building
      */
@@ -582,6 +630,7 @@ public class EntityEnhancer {
             CtClass ctClass,
             CtField ctField,
             boolean delegate,
+            int ordinal,
             ManagedData managedData)
             throws Exception {
         int counter = 0;
@@ -599,7 +648,7 @@ public class EntityEnhancer {
         if (!canModify(ctClass))
             return ctMethod;
 
-        String setMethodString = createSetMethodString(ctField, delegate, counter, managedData);
+        String setMethodString = createSetMethodString(ctField, delegate, counter, ordinal, managedData);
         ctMethod = CtNewMethod.make(setMethodString, ctClass);
         ctClass.addMethod(ctMethod);
         log.trace("Enhancing Class -> Created new method '{}'", setMethodString);
@@ -38,6 +38,8 @@ public class ManagedData {
     // superclass or embedded
     private String lockTypeAttribute;
     private String entityStatusAttribute;
+    // the persistence context managing the entity instance, created only in entity classes
+    private String persistenceContextAttribute;
     // in case of IdClass
     private ManagedData primaryKeyClass;
 
@@ -126,6 +128,14 @@ public class ManagedData {
         this.entityStatusAttribute = entityStatusAttribute;
     }
 
+    public String getPersistenceContextAttribute() {
+        return persistenceContextAttribute;
+    }
+
+    public void setPersistenceContextAttribute(String persistenceContextAttribute) {
+        this.persistenceContextAttribute = persistenceContextAttribute;
+    }
+
     public ManagedData getPrimaryKeyClass() {
         return primaryKeyClass;
     }
@@ -150,6 +160,41 @@ public class ManagedData {
     }
 
 
+    /**
+     * Returns the position of the attribute in the modification bitmask. The class attributes come first, followed
+     * by the mapped superclass ones.
+     *
+     * @param name attribute name
+     * @return the attribute position or -1 if not found
+     */
+    public int findAttributeOrdinal(String name) {
+        for (int i = 0; i < attributeDatas.size(); ++i) {
+            if (attributeDatas.get(i).getProperty().getCtField().getName().equals(name))
+                return i;
+        }
+
+        if (mappedSuperclass != null) {
+            int ordinal = mappedSuperclass.findAttributeOrdinal(name);
+            if (ordinal != -1)
+                return attributeDatas.size() + ordinal;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of positions in the modification bitmask.
+     *
+     * @return the number of positions in the modification bitmask
+     */
+    public int countAttributeOrdinals() {
+        if (mappedSuperclass != null)
+            return attributeDatas.size() + mappedSuperclass.countAttributeOrdinals();
+
+        return attributeDatas.size();
+    }
+
+
     @Override
     public String toString() {
         return "ManagedData{" +
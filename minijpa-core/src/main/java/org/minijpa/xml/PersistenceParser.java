@@ -21,6 +21,7 @@ import java.util.Map;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
+import javax.persistence.SharedCacheMode;
 import javax.persistence.spi.PersistenceUnitInfo;
 import javax.sql.DataSource;
 
@@ -46,6 +47,8 @@ public class PersistenceParser extends DefaultHandler {
 	private String jtaDataSource;
 	private boolean startNonJtaDataSource;
 	private String nonJtaDataSource;
+	private boolean startSharedCacheMode;
+	private String sharedCacheMode;
 
 	@Override
 	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
@@ -68,6 +71,9 @@ public class PersistenceParser extends DefaultHandler {
 
 		if (qName.equals("non-jta-data-source"))
 			startNonJtaDataSource = true;
+
+		if (qName.equals("shared-cache-mode"))
+			startSharedCacheMode = true;
 	}
 
 	@Override
@@ -89,7 +95,10 @@ public class PersistenceParser extends DefaultHandler {
 
 					persistenceUnitMetaData = new MiniPersistenceUnitInfo.Builder().withName(persistentUnitName)
 							.withManagedClassNames(Collections.unmodifiableList(new ArrayList<>(managedClassNames)))
-							.withJtaDataSource(jtaDs).withNonJtaDataSource(nonJtaDs).build();
+							.withJtaDataSource(jtaDs).withNonJtaDataSource(nonJtaDs)
+							.withSharedCacheMode(sharedCacheMode == null ? null
+									: SharedCacheMode.valueOf(sharedCacheMode.trim()))
+							.build();
 				}
 
 				for (Map.Entry<String, String> entry : properties.entrySet()) {
@@ -102,6 +111,7 @@ public class PersistenceParser extends DefaultHandler {
 			properties = new HashMap<>();
 			persistentUnitName = null;
 			persistenceUnitMetaData = null;
+			sharedCacheMode = null;
 			managedClassNames.clear();
 		}
 
@@ -117,6 +127,9 @@ public class PersistenceParser extends DefaultHandler {
 
 		if (qName.equals("non-jta-data-source"))
 			startNonJtaDataSource = false;
+
+		if (qName.equals("shared-cache-mode"))
+			startSharedCacheMode = false;
 	}
 
 	@Override
@@ -129,6 +142,9 @@ public class PersistenceParser extends DefaultHandler {
 
 		if (startNonJtaDataSource)
 			nonJtaDataSource = new String(ch, start, length);
+
+		if (startSharedCacheMode)
+			sharedCacheMode = new String(ch, start, length);
 	}
 
 	private void readPropertyAttrs(Attributes attributes, Map<String, String> props) {
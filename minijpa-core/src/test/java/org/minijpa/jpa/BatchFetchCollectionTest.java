@@ -0,0 +1,93 @@
+package org.minijpa.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Discount;
+import org.minijpa.jpa.model.Invoice;
+import org.minijpa.jpa.model.InvoiceLine;
+
+public class BatchFetchCollectionTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("batch_fetch_collections",
+                PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void batchFetch() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            for (int i = 0; i < 3; ++i) {
+                Invoice invoice = new Invoice();
+                invoice.setNumber("Invoice " + i);
+                List<Discount> discounts = new ArrayList<>();
+                for (int j = 0; j <= i; ++j) {
+                    Discount discount = new Discount();
+                    discount.setName("Discount " + i + j);
+                    em.persist(discount);
+                    discounts.add(discount);
+                }
+
+                invoice.setDiscounts(discounts);
+                em.persist(invoice);
+                for (int j = 0; j <= i; ++j) {
+                    InvoiceLine line = new InvoiceLine();
+                    line.setDescription("Line " + i + j);
+                    line.setInvoice(invoice);
+                    em.persist(line);
+                }
+            }
+
+            tx.commit();
+            em.clear();
+
+            tx.begin();
+            List<Invoice> invoices = em.createQuery("select i from Invoice i order by i.id", Invoice.class)
+                    .getResultList();
+            Assertions.assertEquals(3, invoices.size());
+            Assertions.assertEquals(1, invoices.get(0).getLines().size());
+            Assertions.assertEquals(1, invoices.get(0).getDiscounts().size());
+            // the collections of the other invoices are already loaded
+            em.createNativeQuery("update InvoiceLine set description = 'Unknown'").executeUpdate();
+            em.createNativeQuery("update Discount set name = 'Unknown'").executeUpdate();
+            for (int i = 0; i < 3; ++i) {
+                Invoice invoice = invoices.get(i);
+                Assertions.assertEquals(i + 1, invoice.getLines().size());
+                for (InvoiceLine line : invoice.getLines()) {
+                    Assertions.assertTrue(line.getDescription().startsWith("Line " + i));
+                    Assertions.assertSame(invoice, line.getInvoice());
+                }
+
+                Assertions.assertEquals(i + 1, invoice.getDiscounts().size());
+                for (Discount discount : invoice.getDiscounts()) {
+                    Assertions.assertTrue(discount.getName().startsWith("Discount " + i));
+                }
+            }
+
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+}
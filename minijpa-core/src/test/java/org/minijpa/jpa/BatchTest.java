@@ -0,0 +1,326 @@
+package org.minijpa.jpa;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jdbc.DbTypeMapper;
+import org.minijpa.jdbc.JdbcBatch;
+import org.minijpa.jdbc.JdbcRunner;
+import org.minijpa.jdbc.QueryParameter;
+import org.minijpa.jdbc.UpdateCountCheck;
+import org.minijpa.jpa.db.DbConfiguration;
+import org.minijpa.jpa.db.DbConfigurationList;
+import org.minijpa.jpa.db.DbJdbc;
+import org.minijpa.jpa.db.SqlStatementFactory;
+import org.minijpa.jpa.model.Citizen;
+import org.minijpa.sql.model.SqlStatementGenerator;
+
+/**
+ * @author adamato
+ */
+public class BatchTest {
+
+    private static EntityManagerFactory emf;
+    private static String testDb;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        Map<String, String> properties = new HashMap<>(PersistenceUnitProperties.getProperties());
+        properties.put(PersistenceProperties.JDBC_BATCH_SIZE, "3");
+        emf = Persistence.createEntityManagerFactory("citizens", properties);
+        testDb = System.getProperty("minijpa.test");
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void insertUpdateDelete() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = new ArrayList<>();
+        for (int i = 0; i < 7; ++i) {
+            Citizen citizen = new Citizen();
+            citizen.setName("Name " + i);
+            citizen.setLastName("Last Name " + i);
+            em.persist(citizen);
+            citizens.add(citizen);
+        }
+
+        tx.commit();
+
+        tx.begin();
+        for (Citizen citizen : citizens) {
+            Assertions.assertNotNull(citizen.getVersion());
+            citizen.setLastName("Smith");
+        }
+
+        tx.commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        for (Citizen citizen : citizens) {
+            Citizen c = em.find(Citizen.class, citizen.getId());
+            Assertions.assertEquals("Smith", c.getLastName());
+            Assertions.assertEquals(citizen.getVersion(), c.getVersion());
+            em.remove(c);
+        }
+
+        tx.commit();
+
+        for (Citizen citizen : citizens) {
+            Assertions.assertNull(em.find(Citizen.class, citizen.getId()));
+        }
+
+        em.close();
+    }
+
+    @Test
+    public void optimisticLock() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Citizen citizen1 = new Citizen();
+        citizen1.setName("Anthony");
+        em.persist(citizen1);
+        Citizen citizen2 = new Citizen();
+        citizen2.setName("Oliver");
+        em.persist(citizen2);
+        tx.commit();
+        em.close();
+
+        EntityManager em1 = emf.createEntityManager();
+        EntityTransaction tx1 = em1.getTransaction();
+        tx1.begin();
+        Citizen c1 = em1.find(Citizen.class, citizen1.getId());
+        Citizen c2 = em1.find(Citizen.class, citizen2.getId());
+        Long version = c2.getVersion();
+
+        EntityManager em2 = emf.createEntityManager();
+        EntityTransaction tx2 = em2.getTransaction();
+        tx2.begin();
+        em2.find(Citizen.class, citizen2.getId()).setLastName("Quinn");
+        tx2.commit();
+        em2.close();
+
+        // both updates are in the same batch, the second one fails
+        c1.setLastName("Hopkins");
+        c2.setLastName("Stone");
+        if (testDb != null && testDb.equals("mariadb")) {
+            Assertions.assertThrows(PersistenceException.class, em1::flush);
+        } else {
+            Assertions.assertThrows(OptimisticLockException.class, em1::flush);
+            Assertions.assertEquals(version, c2.getVersion());
+        }
+
+        tx1.rollback();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        Citizen c = em.find(Citizen.class, citizen2.getId());
+        Assertions.assertEquals("Quinn", c.getLastName());
+        em.remove(c);
+        em.remove(em.find(Citizen.class, citizen1.getId()));
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void versionRestoredOnFailure() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Citizen citizen1 = new Citizen();
+        citizen1.setName("Anthony");
+        em.persist(citizen1);
+        Citizen citizen2 = new Citizen();
+        citizen2.setName("Oliver");
+        em.persist(citizen2);
+        tx.commit();
+
+        tx.begin();
+        Long version1 = citizen1.getVersion();
+        Long version2 = citizen2.getVersion();
+        // the batch fails, the last name is too long
+        citizen1.setLastName("Hopkins");
+        citizen2.setLastName("S".repeat(300));
+        Assertions.assertThrows(PersistenceException.class, em::flush);
+        Assertions.assertEquals(version1, citizen1.getVersion());
+        Assertions.assertEquals(version2, citizen2.getVersion());
+        tx.rollback();
+        em.close();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        em.remove(em.find(Citizen.class, citizen1.getId()));
+        em.remove(em.find(Citizen.class, citizen2.getId()));
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void optimisticLockUpdateCountNotReported() throws Exception {
+        DbConfiguration dbConfiguration = DbConfigurationList.getInstance().getDbConfiguration("citizens");
+        NoInfoJdbcRunner jdbcRunner = new NoInfoJdbcRunner();
+        DbConfigurationList.getInstance().setDbConfiguration("citizens", new DbConfiguration() {
+            @Override
+            public DbJdbc getDbJdbc() {
+                return dbConfiguration.getDbJdbc();
+            }
+
+            @Override
+            public DbTypeMapper getDbTypeMapper() {
+                return dbConfiguration.getDbTypeMapper();
+            }
+
+            @Override
+            public SqlStatementGenerator getSqlStatementGenerator() {
+                return dbConfiguration.getSqlStatementGenerator();
+            }
+
+            @Override
+            public JdbcRunner getJdbcRunner() {
+                return jdbcRunner;
+            }
+
+            @Override
+            public SqlStatementFactory getSqlStatementFactory() {
+                return dbConfiguration.getSqlStatementFactory();
+            }
+        });
+        try {
+            // the batched inserts report the update counts, the versioned updates are batched
+            EntityManager em = emf.createEntityManager();
+            EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            Citizen citizen1 = new Citizen();
+            citizen1.setName("Anthony");
+            em.persist(citizen1);
+            Citizen citizen2 = new Citizen();
+            citizen2.setName("Oliver");
+            em.persist(citizen2);
+            tx.commit();
+            em.close();
+            Assertions.assertTrue(jdbcRunner.isBatchUpdateCountReported());
+
+            EntityManager em1 = emf.createEntityManager();
+            EntityTransaction tx1 = em1.getTransaction();
+            tx1.begin();
+            Citizen c1 = em1.find(Citizen.class, citizen1.getId());
+            Citizen c2 = em1.find(Citizen.class, citizen2.getId());
+            Long version = c2.getVersion();
+
+            EntityManager em2 = emf.createEntityManager();
+            EntityTransaction tx2 = em2.getTransaction();
+            tx2.begin();
+            em2.find(Citizen.class, citizen2.getId()).setLastName("Quinn");
+            tx2.commit();
+            em2.close();
+
+            // the driver stops reporting the update counts, the stale update is not assumed to be successful
+            jdbcRunner.noInfo = true;
+            c1.setLastName("Hopkins");
+            c2.setLastName("Stone");
+            Assertions.assertThrows(OptimisticLockException.class, em1::flush);
+            Assertions.assertEquals(version, c2.getVersion());
+            tx1.rollback();
+            em1.close();
+            Assertions.assertFalse(jdbcRunner.isBatchUpdateCountReported());
+
+            // the versioned updates are no longer batched, the stale update fails on its update count
+            em1 = emf.createEntityManager();
+            tx1 = em1.getTransaction();
+            tx1.begin();
+            c2 = em1.find(Citizen.class, citizen2.getId());
+            em2 = emf.createEntityManager();
+            tx2 = em2.getTransaction();
+            tx2.begin();
+            em2.find(Citizen.class, citizen2.getId()).setLastName("Reed");
+            tx2.commit();
+            em2.close();
+            c2.setLastName("Stone");
+            Assertions.assertThrows(OptimisticLockException.class, em1::flush);
+            tx1.rollback();
+            em1.close();
+
+            em = emf.createEntityManager();
+            tx = em.getTransaction();
+            tx.begin();
+            Citizen c = em.find(Citizen.class, citizen2.getId());
+            Assertions.assertEquals("Reed", c.getLastName());
+            em.remove(c);
+            em.remove(em.find(Citizen.class, citizen1.getId()));
+            tx.commit();
+            em.close();
+        } finally {
+            DbConfigurationList.getInstance().setDbConfiguration("citizens", dbConfiguration);
+        }
+    }
+
+    /**
+     * Executes the batches, the update counts are replaced with <code>Statement.SUCCESS_NO_INFO</code> if
+     * 'noInfo' is set.
+     */
+    private static class NoInfoJdbcRunner extends JdbcRunner {
+
+        private volatile boolean noInfo;
+
+        @Override
+        public void addBatch(
+                Connection connection,
+                JdbcBatch jdbcBatch,
+                String sql,
+                List<QueryParameter> parameters,
+                UpdateCountCheck updateCountCheck) throws Exception {
+            Connection noInfoConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        if (!method.getName().equals("prepareStatement"))
+                            return result;
+
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class}, (p, m, a) -> {
+                                    Object r = invoke(m, result, a);
+                                    if (noInfo && m.getName().equals("executeBatch")) {
+                                        int[] updateCounts = (int[]) r;
+                                        Arrays.fill(updateCounts, Statement.SUCCESS_NO_INFO);
+                                    }
+
+                                    return r;
+                                });
+                    });
+            super.addBatch(noInfoConnection, jdbcBatch, sql, parameters, updateCountCheck);
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.db.EntityStatementCache;
 import org.minijpa.jpa.model.Citizen;
 
 public class CitizenOnlyTest {
@@ -64,6 +65,78 @@ public class CitizenOnlyTest {
 		em.close();
 	}
 
+	@Test
+	public void statementCache() throws Exception {
+		final EntityManager em = emf.createEntityManager();
+		EntityStatementCache statementCache = ((MiniEntityManager) em).getPersistenceUnitContext()
+				.getEntity(Citizen.class.getName()).getStatementCache();
+		persistUpdateRemove(em, "Marc", "Smith");
+		int size = statementCache.size();
+		Assertions.assertTrue(size > 0);
+
+		persistUpdateRemove(em, "Anthony", "Jones");
+		Assertions.assertEquals(size, statementCache.size());
+		em.close();
+	}
+
+	@Test
+	public void dirtyEntities() throws Exception {
+		final EntityManager em = emf.createEntityManager();
+		MiniPersistenceContext persistenceContext = ((MiniEntityManager) em).getPersistenceContext();
+		final EntityTransaction tx = em.getTransaction();
+		tx.begin();
+		Citizen citizen1 = new Citizen();
+		citizen1.setName("Marc");
+		em.persist(citizen1);
+		Citizen citizen2 = new Citizen();
+		citizen2.setName("Anthony");
+		em.persist(citizen2);
+		Assertions.assertEquals(List.of(citizen1, citizen2), persistenceContext.getDirtyEntities());
+		tx.commit();
+		Assertions.assertTrue(persistenceContext.getDirtyEntities().isEmpty());
+
+		em.detach(citizen1);
+		em.detach(citizen2);
+		tx.begin();
+		Citizen c1 = em.find(Citizen.class, citizen1.getId());
+		Citizen c2 = em.find(Citizen.class, citizen2.getId());
+		Assertions.assertTrue(persistenceContext.getDirtyEntities().isEmpty());
+		c2.setLastName("Jones");
+		c2.setName("Tony");
+		Assertions.assertEquals(List.of(c2), persistenceContext.getDirtyEntities());
+		tx.commit();
+		Assertions.assertTrue(persistenceContext.getDirtyEntities().isEmpty());
+
+		em.detach(c2);
+		tx.begin();
+		c2 = em.find(Citizen.class, citizen2.getId());
+		Assertions.assertEquals("Tony", c2.getName());
+		Assertions.assertEquals("Jones", c2.getLastName());
+		em.remove(em.find(Citizen.class, citizen1.getId()));
+		em.remove(c2);
+		tx.commit();
+		em.close();
+	}
+
+	private void persistUpdateRemove(EntityManager em, String name, String lastName) {
+		final EntityTransaction tx = em.getTransaction();
+		tx.begin();
+		Citizen citizen = new Citizen();
+		citizen.setName(name);
+		em.persist(citizen);
+		tx.commit();
+
+		em.detach(citizen);
+		tx.begin();
+		Citizen c = em.find(Citizen.class, citizen.getId());
+		c.setLastName(lastName);
+		tx.commit();
+
+		tx.begin();
+		em.remove(c);
+		tx.commit();
+	}
+
 	@Test
 	public void metamodel() {
 		final EntityManager em = emf.createEntityManager();
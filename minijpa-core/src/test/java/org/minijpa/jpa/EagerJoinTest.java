@@ -0,0 +1,184 @@
+package org.minijpa.jpa;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.db.EntityStatementCache;
+import org.minijpa.jpa.db.LockType;
+import org.minijpa.jpa.model.Courier;
+import org.minijpa.jpa.model.Depot;
+import org.minijpa.jpa.model.MetaEntity;
+import org.minijpa.jpa.model.Parcel;
+import org.minijpa.metadata.EntityDelegate;
+
+public class EagerJoinTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("eager_join", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void findById() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            Depot origin = new Depot();
+            origin.setCity("Leeds");
+            em.persist(origin);
+            Depot depot = new Depot();
+            depot.setCity("York");
+            em.persist(depot);
+            Courier courier = new Courier();
+            courier.setName("Express");
+            courier.setDepot(depot);
+            em.persist(courier);
+            Parcel parcel = new Parcel();
+            parcel.setCode("P1");
+            parcel.setCourier(courier);
+            parcel.setOrigin(origin);
+            em.persist(parcel);
+            Parcel parcel2 = new Parcel();
+            parcel2.setCode("P2");
+            parcel2.setOrigin(origin);
+            em.persist(parcel2);
+            tx.commit();
+            em.clear();
+
+            tx.begin();
+            Parcel p = em.find(Parcel.class, parcel.getId());
+            Assertions.assertEquals("P1", p.getCode());
+            Assertions.assertEquals("Leeds", p.getOrigin().getCity());
+            Assertions.assertEquals("Express", p.getCourier().getName());
+            Assertions.assertEquals("York", p.getCourier().getDepot().getCity());
+            Assertions.assertTrue(em.contains(p.getCourier().getDepot()));
+
+            Parcel p2 = em.find(Parcel.class, parcel2.getId());
+            Assertions.assertNull(p2.getCourier());
+            Assertions.assertSame(p.getOrigin(), p2.getOrigin());
+
+            // the depot table is joined twice, for the origin and for the courier depot
+            Map<String, MetaEntity> entities = EntityDelegate.getInstance().getEntityContext("eager_join").get()
+                    .getEntities();
+            EntityStatementCache.SelectStatement selectStatement = entities.get(Parcel.class.getName())
+                    .getStatementCache().getSelectById(LockType.NONE, () -> {
+                        throw new IllegalStateException("Select by id not cached");
+                    });
+            Assertions.assertEquals(3, selectStatement.getSql().split("(?i)left outer join").length - 1);
+
+            em.remove(p);
+            em.remove(p2);
+            em.remove(p.getCourier());
+            em.remove(p.getOrigin());
+            em.remove(p.getCourier().getDepot());
+            tx.commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void listQuery() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            for (int i = 0; i < 4; ++i) {
+                Depot origin = new Depot();
+                origin.setCity("Origin " + i);
+                em.persist(origin);
+                Depot depot = new Depot();
+                depot.setCity("Depot " + i);
+                em.persist(depot);
+                Courier courier = new Courier();
+                courier.setName("Courier " + i);
+                courier.setDepot(depot);
+                em.persist(courier);
+                Parcel parcel = new Parcel();
+                parcel.setCode("L" + i);
+                parcel.setCourier(courier);
+                parcel.setOrigin(origin);
+                em.persist(parcel);
+            }
+
+            tx.commit();
+            em.clear();
+
+            tx.begin();
+            List<Parcel> parcels = em.createQuery("select p from Parcel p order by p.code", Parcel.class)
+                    .getResultList();
+            Assertions.assertEquals(4, parcels.size());
+            for (int i = 0; i < 4; ++i) {
+                Parcel parcel = parcels.get(i);
+                Assertions.assertEquals("Origin " + i, parcel.getOrigin().getCity());
+                Assertions.assertEquals("Courier " + i, parcel.getCourier().getName());
+                Assertions.assertEquals("Depot " + i, parcel.getCourier().getDepot().getCity());
+            }
+
+            // the couriers and the depots are read with a query for each entity, not with a query for each row
+            Map<String, MetaEntity> entities = EntityDelegate.getInstance().getEntityContext("eager_join").get()
+                    .getEntities();
+            for (Class<?> c : List.of(Courier.class, Depot.class)) {
+                entities.get(c.getName()).getStatementCache().getSelectByIds(4, () -> {
+                    throw new IllegalStateException("Select by ids not cached");
+                });
+            }
+
+            for (Parcel parcel : parcels) {
+                em.remove(parcel);
+                em.remove(parcel.getCourier());
+                em.remove(parcel.getOrigin());
+                em.remove(parcel.getCourier().getDepot());
+            }
+
+            tx.commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void selectByForeignKey() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            Depot depot = new Depot();
+            depot.setCity("Bath");
+            em.persist(depot);
+            Courier courier = new Courier();
+            courier.setName("Standard");
+            courier.setDepot(depot);
+            em.persist(courier);
+            tx.commit();
+            em.clear();
+
+            tx.begin();
+            Courier c = em.createQuery("select c from Courier c where c.name = 'Standard'", Courier.class)
+                    .getSingleResult();
+            Assertions.assertEquals("Bath", c.getDepot().getCity());
+            em.remove(c);
+            em.remove(c.getDepot());
+            tx.commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.minijpa.jpa;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Footballer;
+import org.minijpa.jpa.model.Sponsor;
+import org.minijpa.jpa.model.Stadium;
+import org.minijpa.jpa.model.Team;
+
+public class EntityGraphTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("entity_graph", PersistenceUnitProperties.getProperties());
+        final EntityManager em = emf.createEntityManager();
+        final EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 0; i < 3; ++i) {
+            Stadium stadium = new Stadium();
+            stadium.setName("Stadium " + i);
+            em.persist(stadium);
+            Team team = new Team();
+            team.setName("Team " + i);
+            team.setStadium(stadium);
+            em.persist(team);
+            for (int j = 0; j <= i; ++j) {
+                Sponsor sponsor = new Sponsor();
+                sponsor.setName("Sponsor " + i + j);
+                em.persist(sponsor);
+                Footballer player = new Footballer();
+                player.setName("Footballer " + i + j);
+                player.setTeam(team);
+                player.setSponsor(sponsor);
+                em.persist(player);
+            }
+        }
+
+        tx.commit();
+        em.close();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void namedGraph() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            EntityGraph<?> entityGraph = em.getEntityGraph("Team.players");
+            Assertions.assertEquals(1, em.getEntityGraphs(Team.class).size());
+            List<Team> teams = em.createQuery("select t from Team t order by t.name", Team.class)
+                    .setHint(QueryHints.FETCH_GRAPH, entityGraph).getResultList();
+            // the graph is already loaded
+            em.createNativeQuery("update Stadium set name = 'Unknown'").executeUpdate();
+            em.createNativeQuery("update Footballer set name = 'Unknown'").executeUpdate();
+            em.createNativeQuery("update Sponsor set name = 'Unknown'").executeUpdate();
+            Assertions.assertEquals(3, teams.size());
+            for (int i = 0; i < 3; ++i) {
+                Team team = teams.get(i);
+                Assertions.assertEquals("Stadium " + i, team.getStadium().getName());
+                Assertions.assertEquals(i + 1, team.getPlayers().size());
+                for (Footballer player : team.getPlayers()) {
+                    Assertions.assertTrue(player.getName().startsWith("Footballer " + i));
+                    Assertions.assertEquals("Sponsor" + player.getName().substring(10),
+                            player.getSponsor().getName());
+                }
+            }
+
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void streamGraph() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            EntityGraph<?> entityGraph = em.getEntityGraph("Team.players");
+            List<Team> teams;
+            try (Stream<Team> stream = em.createQuery("select t from Team t order by t.name", Team.class)
+                    .setHint(QueryHints.FETCH_GRAPH, entityGraph).getResultStream()) {
+                teams = stream.collect(Collectors.toList());
+            }
+
+            // the graph is loaded for each streamed team
+            em.createNativeQuery("update Stadium set name = 'Unknown'").executeUpdate();
+            em.createNativeQuery("update Footballer set name = 'Unknown'").executeUpdate();
+            Assertions.assertEquals(3, teams.size());
+            for (int i = 0; i < 3; ++i) {
+                Team team = teams.get(i);
+                Assertions.assertEquals("Stadium " + i, team.getStadium().getName());
+                Assertions.assertEquals(i + 1, team.getPlayers().size());
+                for (Footballer player : team.getPlayers()) {
+                    Assertions.assertTrue(player.getName().startsWith("Footballer " + i));
+                }
+            }
+
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void dynamicGraph() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            Long id = (Long) em.createQuery("select t.id from Team t where t.name = 'Team 1'").getSingleResult();
+            EntityGraph<Team> entityGraph = em.createEntityGraph(Team.class);
+            entityGraph.addAttributeNodes("stadium");
+            Team team = em.find(Team.class, id, Map.of(QueryHints.LOAD_GRAPH, entityGraph));
+            em.createNativeQuery("update Stadium set name = 'Unknown'").executeUpdate();
+            em.createNativeQuery("update Footballer set name = 'Unknown'").executeUpdate();
+            Assertions.assertEquals("Stadium 1", team.getStadium().getName());
+            // the players are not in the graph
+            Assertions.assertEquals(2, team.getPlayers().size());
+            for (Footballer player : team.getPlayers()) {
+                Assertions.assertEquals("Unknown", player.getName());
+            }
+
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void graphApi() {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            Assertions.assertNull(em.createEntityGraph("Team.unknown"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> em.getEntityGraph("Team.unknown"));
+            EntityGraph<Team> entityGraph = em.createEntityGraph(Team.class);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> entityGraph.addAttributeNodes("coach"));
+            Assertions.assertEquals(Footballer.class, entityGraph.addSubgraph("players").getClassType());
+            emf.addNamedEntityGraph("Team.all", entityGraph);
+            EntityGraph<?> namedGraph = em.createEntityGraph("Team.all");
+            Assertions.assertEquals("Team.all", namedGraph.getName());
+            Assertions.assertEquals("players", namedGraph.getAttributeNodes().get(0).getAttributeName());
+        } finally {
+            em.close();
+        }
+    }
+}
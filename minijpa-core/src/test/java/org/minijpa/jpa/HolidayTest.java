@@ -1,7 +1,11 @@
 package org.minijpa.jpa;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -333,6 +337,58 @@ public class HolidayTest {
     }
 
 
+    @Test
+    public void concurrentNamedQuery() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        Holiday h1 = holiday1();
+        Holiday h2 = holiday2();
+
+        em.persist(h1);
+        em.persist(h2);
+        tx.commit();
+
+        // the named query plan is shared, each execution binds its own values
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            final int month = t % 2 == 0 ? 1 : 3;
+            futures.add(executorService.submit(() -> {
+                EntityManager entityManager = emf.createEntityManager();
+                try {
+                    for (int i = 0; i < 20; ++i) {
+                        TypedQuery<Holiday> query = entityManager.createNamedQuery("checkInPeriod", Holiday.class);
+                        query.setParameter("dateStart", LocalDate.of(2020, month, 1));
+                        query.setParameter("dateEnd", LocalDate.of(2020, month, 28));
+                        List<Holiday> holidays = query.getResultList();
+                        if (holidays.size() != 1 || holidays.get(0).getCheckIn().getMonthValue() != month)
+                            return false;
+                    }
+
+                    return true;
+                } finally {
+                    entityManager.close();
+                }
+            }));
+        }
+
+        for (Future<Boolean> future : futures) {
+            Assertions.assertTrue(future.get());
+        }
+
+        executorService.shutdown();
+
+        tx.begin();
+        em.remove(h1);
+        em.remove(h2);
+        tx.commit();
+
+        em.close();
+    }
+
+
     @Test
     public void betweenDatesNamedNativeQuery() {
         final EntityManager em = emf.createEntityManager();
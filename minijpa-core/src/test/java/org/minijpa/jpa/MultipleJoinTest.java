@@ -9,10 +9,12 @@ import org.slf4j.LoggerFactory;
 
 import javax.persistence.*;
 import javax.persistence.criteria.*;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class MultipleJoinTest {
     private final Logger log = LoggerFactory.getLogger(MultipleJoinTest.class);
@@ -159,6 +161,231 @@ public class MultipleJoinTest {
         em.close();
     }
 
+    @Test
+    public void threeFetchJoinsSplitQuery() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        Artist artist = buildArtist();
+        persistConcerts(em, artist);
+        persistArtist(em, artist);
+        tx.commit();
+
+        tx.begin();
+        em.detach(artist);
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Artist> criteriaQuery = cb.createQuery(Artist.class);
+        Root<Artist> root = criteriaQuery.from(Artist.class);
+        root.fetch("movies");
+        root.fetch("songs");
+        root.fetch("concerts");
+        criteriaQuery.where(cb.equal(root.get("name"), "Elvis Presley"));
+        criteriaQuery.distinct(true);
+        TypedQuery<Artist> q = em.createQuery(criteriaQuery);
+        q.setHint(QueryHints.SPLIT_MULTIPLE_JOINS, true);
+        List<Artist> artists = q.getResultList();
+        assertEquals(1, artists.size());
+        assertEquals(3, artists.get(0).getMovies().size());
+        assertEquals(3, artists.get(0).getSongs().size());
+        assertEquals(2, artists.get(0).getConcerts().size());
+
+        removeArtist(em, artists.get(0));
+        removeConcerts(em, artists.get(0));
+        tx.commit();
+
+        em.close();
+    }
+
+    @Test
+    public void jpqlThreeFetchJoinsSplitQuery() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        Artist artist = buildArtist();
+        persistConcerts(em, artist);
+        persistArtist(em, artist);
+        tx.commit();
+
+        tx.begin();
+        em.detach(artist);
+        Query q = em.createQuery("select distinct a from Artist a inner join fetch a.movies m inner join fetch a.songs s inner join fetch a.concerts c where a.name = :name");
+        q.setParameter("name", "Elvis Presley");
+        q.setHint(QueryHints.SPLIT_MULTIPLE_JOINS, true);
+        List<Artist> artists = q.getResultList();
+        assertEquals(1, artists.size());
+        assertEquals(3, artists.get(0).getMovies().size());
+        assertEquals(3, artists.get(0).getSongs().size());
+        assertEquals(2, artists.get(0).getConcerts().size());
+
+        removeArtist(em, artists.get(0));
+        removeConcerts(em, artists.get(0));
+        tx.commit();
+
+        em.close();
+    }
+
+    @Test
+    public void sharedManyToManyElement() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        Movie shared = new Movie();
+        shared.setName("Shared Movie");
+        Movie other = new Movie();
+        other.setName("Other Movie");
+        Artist first = new Artist();
+        first.setName("Shared First");
+        first.setMovies(List.of(shared, other));
+        Artist second = new Artist();
+        second.setName("Shared Second");
+        second.setMovies(List.of(shared));
+        em.persist(shared);
+        em.persist(other);
+        em.persist(first);
+        em.persist(second);
+        tx.commit();
+
+        tx.begin();
+        em.clear();
+        List<Artist> artists = em.createQuery(
+                        "select distinct a from Artist a inner join fetch a.movies m where a.name like :name",
+                        Artist.class)
+                .setParameter("name", "Shared%")
+                .getResultList();
+        assertEquals(2, artists.size());
+        Artist firstArtist = artists.stream().filter(a -> a.getName().equals("Shared First")).findFirst().get();
+        Artist secondArtist = artists.stream().filter(a -> a.getName().equals("Shared Second")).findFirst().get();
+        assertEquals(2, firstArtist.getMovies().size());
+        assertEquals(1, secondArtist.getMovies().size());
+        Movie sharedMovie = secondArtist.getMovies().get(0);
+        assertEquals("Shared Movie", sharedMovie.getName());
+        assertTrue(firstArtist.getMovies().contains(sharedMovie));
+
+        em.remove(firstArtist);
+        em.remove(secondArtist);
+        firstArtist.getMovies().forEach(em::remove);
+        tx.commit();
+
+        em.close();
+    }
+
+    @Test
+    public void outerFetchJoinWithoutElement() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        Band band = new Band();
+        band.setName("Full Band");
+        band.setAlbums(new ArrayList<>());
+        for (int i = 0; i < 2; ++i) {
+            AlbumId albumId = new AlbumId();
+            albumId.setCatalogNumber(100 + i);
+            albumId.setReleaseYear(1970 + i);
+            Album album = new Album();
+            album.setId(albumId);
+            album.setLabel("Label " + i);
+            em.persist(album);
+            band.getAlbums().add(album);
+        }
+
+        em.persist(band);
+        Band emptyBand = new Band();
+        emptyBand.setName("Empty Band");
+        em.persist(emptyBand);
+        tx.commit();
+
+        tx.begin();
+        em.clear();
+        // the albums have a composite id, the empty band row has null id columns
+        List<Band> bands = em.createQuery("select distinct b from Band b left join fetch b.albums a", Band.class)
+                .getResultList();
+        assertEquals(2, bands.size());
+        Band full = bands.stream().filter(b -> b.getName().equals("Full Band")).findFirst().get();
+        Band empty = bands.stream().filter(b -> b.getName().equals("Empty Band")).findFirst().get();
+        assertEquals(2, full.getAlbums().size());
+        assertTrue(empty.getAlbums().isEmpty());
+
+        em.remove(full);
+        em.remove(empty);
+        full.getAlbums().forEach(em::remove);
+        tx.commit();
+
+        em.close();
+    }
+
+    @Test
+    public void distinctFetchJoinManyRows() throws Exception {
+        final EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+
+        for (int i = 0; i < 3; ++i) {
+            List<Song> songs = new ArrayList<>();
+            for (int j = 0; j < 50; ++j) {
+                Song song = new Song();
+                song.setName("Song " + i + "-" + j);
+                em.persist(song);
+                songs.add(song);
+            }
+
+            Artist artist = new Artist();
+            artist.setName("Prolific " + i);
+            artist.setSongs(songs);
+            em.persist(artist);
+        }
+
+        tx.commit();
+
+        tx.begin();
+        em.clear();
+        List<Artist> artists = em.createQuery(
+                        "select distinct a from Artist a inner join fetch a.songs s where a.name like :name",
+                        Artist.class)
+                .setParameter("name", "Prolific%")
+                .getResultList();
+        assertEquals(3, artists.size());
+        for (Artist artist : artists) {
+            assertEquals(50, artist.getSongs().size());
+            String prefix = "Song " + artist.getName().substring(9) + "-";
+            assertTrue(artist.getSongs().stream().allMatch(song -> song.getName().startsWith(prefix)));
+        }
+
+        // without distinct each row returns its root
+        List<Artist> rows = em.createQuery(
+                        "select a from Artist a inner join fetch a.songs s where a.name like :name", Artist.class)
+                .setParameter("name", "Prolific%")
+                .getResultList();
+        assertEquals(150, rows.size());
+        assertEquals(3, rows.stream().distinct().count());
+
+        for (Artist artist : artists) {
+            em.remove(artist);
+            artist.getSongs().forEach(em::remove);
+        }
+
+        tx.commit();
+
+        em.close();
+    }
+
+    private void persistConcerts(EntityManager em, Artist artist) {
+        artist.setConcerts(new ArrayList<>());
+        for (String city : List.of("Memphis", "Las Vegas")) {
+            Concert concert = new Concert();
+            concert.setCity(city);
+            em.persist(concert);
+            artist.getConcerts().add(concert);
+        }
+    }
+
+    private void removeConcerts(EntityManager em, Artist artist) {
+        artist.getConcerts().forEach(em::remove);
+    }
+
     private Artist buildArtist() {
         Song song1 = new Song();
         song1.setName("That's All Right");
@@ -0,0 +1,105 @@
+package org.minijpa.jpa;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Library;
+import org.minijpa.jpa.model.Shelf;
+import org.minijpa.jpa.model.Volume;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Libraries, shelves and volumes are eager join table collections, loading a library runs a query while the
+ * result set of the outer one is still being read.
+ */
+public class NestedLoadTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("nested_loads", PersistenceUnitProperties.getProperties());
+        final EntityManager em = emf.createEntityManager();
+        final EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 0; i < 3; ++i) {
+            List<Shelf> shelves = new ArrayList<>();
+            for (int j = 0; j < 2; ++j) {
+                List<Volume> volumes = new ArrayList<>();
+                for (int k = 0; k < 3; ++k) {
+                    Volume volume = new Volume();
+                    volume.setTitle("Volume " + i + j + k);
+                    em.persist(volume);
+                    volumes.add(volume);
+                }
+
+                Shelf shelf = new Shelf();
+                shelf.setName("Shelf " + i + j);
+                shelf.setVolumes(volumes);
+                em.persist(shelf);
+                shelves.add(shelf);
+            }
+
+            Library library = new Library();
+            library.setName("Library " + i);
+            library.setShelves(shelves);
+            em.persist(library);
+        }
+
+        tx.commit();
+        em.close();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void nestedEagerCollections() {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            List<Library> libraries = em.createQuery("select l from Library l order by l.name", Library.class)
+                    .getResultList();
+            checkLibraries(libraries);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void fetchJoinWithNestedLoads() {
+        final EntityManager em = emf.createEntityManager();
+        try {
+            List<Library> libraries = em.createQuery(
+                            "select distinct l from Library l join fetch l.shelves s order by l.name", Library.class)
+                    .getResultList();
+            checkLibraries(libraries);
+        } finally {
+            em.close();
+        }
+    }
+
+    private void checkLibraries(List<Library> libraries) {
+        Assertions.assertEquals(3, libraries.size());
+        for (int i = 0; i < 3; ++i) {
+            Library library = libraries.get(i);
+            Assertions.assertEquals("Library " + i, library.getName());
+            Assertions.assertEquals(2, library.getShelves().size());
+            for (Shelf shelf : library.getShelves()) {
+                Assertions.assertTrue(shelf.getName().startsWith("Shelf " + i));
+                Assertions.assertEquals(3, shelf.getVolumes().size());
+                for (Volume volume : shelf.getVolumes()) {
+                    Assertions.assertTrue(volume.getTitle().startsWith("Volume " + shelf.getName().substring(6)));
+                }
+            }
+        }
+    }
+}
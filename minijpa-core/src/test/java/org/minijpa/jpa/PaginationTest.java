@@ -0,0 +1,238 @@
+package org.minijpa.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.*;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Citizen;
+import org.minijpa.jpa.model.Item;
+import org.minijpa.jpa.model.Store;
+
+/**
+ * @author adamato
+ */
+public class PaginationTest {
+
+    private static EntityManagerFactory emf;
+    private static EntityManagerFactory storeEmf;
+    private static String testDb;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("citizens", PersistenceUnitProperties.getProperties());
+        storeEmf = Persistence.createEntityManagerFactory("onetomany_uni", PersistenceUnitProperties.getProperties());
+        testDb = System.getProperty("minijpa.test");
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+        storeEmf.close();
+    }
+
+    private List<String> names(List<Citizen> citizens) {
+        return citizens.stream().map(Citizen::getName).collect(Collectors.toList());
+    }
+
+    @Test
+    public void jpqlPage() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = new ArrayList<>();
+        for (int i = 0; i < 7; ++i) {
+            Citizen citizen = new Citizen();
+            citizen.setName("Name " + i);
+            citizen.setLastName("Page");
+            em.persist(citizen);
+            citizens.add(citizen);
+        }
+
+        tx.commit();
+
+        tx.begin();
+        TypedQuery<Citizen> query = em.createQuery(
+                "select c from Citizen c where c.lastName = 'Page' order by c.name", Citizen.class);
+        Assertions.assertEquals(0, query.getFirstResult());
+        Assertions.assertEquals(Integer.MAX_VALUE, query.getMaxResults());
+        query.setFirstResult(2).setMaxResults(3);
+        Assertions.assertEquals(List.of("Name 2", "Name 3", "Name 4"), names(query.getResultList()));
+        Assertions.assertEquals(List.of("Name 2", "Name 3", "Name 4"),
+                names(query.getResultStream().collect(Collectors.toList())));
+
+        query.setFirstResult(5).setMaxResults(Integer.MAX_VALUE);
+        Assertions.assertEquals(List.of("Name 5", "Name 6"), names(query.getResultList()));
+
+        query.setFirstResult(0).setMaxResults(0);
+        Assertions.assertTrue(query.getResultList().isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> query.setMaxResults(-1));
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Citizen> cq = cb.createQuery(Citizen.class);
+        Root<Citizen> root = cq.from(Citizen.class);
+        cq.select(root).where(cb.equal(root.get("lastName"), "Page")).orderBy(cb.desc(root.get("name")));
+        List<Citizen> list = em.createQuery(cq).setFirstResult(1).setMaxResults(2).getResultList();
+        Assertions.assertEquals(List.of("Name 5", "Name 4"), names(list));
+
+        Query nativeQuery = em.createNativeQuery(
+                "select first_name from citizen where last_name = 'Page' order by first_name");
+        nativeQuery.setFirstResult(6).setMaxResults(5);
+        Assertions.assertEquals(List.of("Name 6"), nativeQuery.getResultList());
+
+        citizens.forEach(em::remove);
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void fetchJoinPage() {
+        EntityManager em = storeEmf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            List<Item> items = new ArrayList<>();
+            for (int k = 0; k < 3; ++k) {
+                Item item = new Item();
+                item.setName("Item " + i + k);
+                item.setModel("Paged");
+                em.persist(item);
+                items.add(item);
+            }
+
+            Store store = new Store();
+            store.setName("Paged Store " + i);
+            store.setItems(items);
+            em.persist(store);
+            stores.add(store);
+        }
+
+        tx.commit();
+        stores.forEach(em::detach);
+
+        tx.begin();
+        TypedQuery<Store> query = em.createQuery(
+                "select distinct s from Store s join fetch s.items i where s.name like :name order by s.name",
+                Store.class);
+        query.setParameter("name", "Paged Store%");
+        query.setFirstResult(1).setMaxResults(2);
+        List<Store> page = query.getResultList();
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("Paged Store 1", page.get(0).getName());
+        Assertions.assertEquals("Paged Store 2", page.get(1).getName());
+        // the collections are complete
+        page.forEach(s -> Assertions.assertEquals(3, s.getItems().size()));
+
+        query.setFirstResult(4);
+        Assertions.assertTrue(query.getResultList().isEmpty());
+
+        // a root is on more rows of the id query if it is ordered by a joined column
+        query = em.createQuery(
+                "select distinct s from Store s join fetch s.items i where s.name like :name order by i.name desc",
+                Store.class);
+        query.setParameter("name", "Paged Store%");
+        query.setFirstResult(1).setMaxResults(2);
+        page = query.getResultList();
+        Assertions.assertEquals(2, page.size());
+        Assertions.assertEquals("Paged Store 2", page.get(0).getName());
+        Assertions.assertEquals("Paged Store 1", page.get(1).getName());
+        page.forEach(s -> Assertions.assertEquals(3, s.getItems().size()));
+
+        // the lock is acquired by the fetch join query, the id query doesn't lock
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Store> cq = cb.createQuery(Store.class);
+        Root<Store> root = cq.from(Store.class);
+        root.fetch("items");
+        cq.select(root).where(cb.like(root.get("name"), "Paged Store%")).orderBy(cb.asc(root.get("name")));
+        query = em.createQuery(cq);
+        query.setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        query.setFirstResult(3).setMaxResults(2);
+        page = query.getResultList();
+        // a row for each item
+        Assertions.assertEquals(3, page.size());
+        page.forEach(s -> Assertions.assertEquals("Paged Store 3", s.getName()));
+        if (testDb == null || testDb.equals("h2")) {
+            // the roots of the page are locked, the other ones are not
+            EntityManager em2 = storeEmf.createEntityManager();
+            EntityTransaction tx2 = em2.getTransaction();
+            tx2.begin();
+            em2.createNativeQuery("SET LOCK_TIMEOUT 100").executeUpdate();
+            Assertions.assertEquals(1, em2.createNativeQuery("update store set name = name where id = "
+                    + stores.get(0).getId()).executeUpdate());
+            Assertions.assertThrows(PersistenceException.class, () -> em2.createNativeQuery(
+                    "update store set name = name where id = " + stores.get(3).getId()).executeUpdate());
+            tx2.rollback();
+            em2.close();
+        }
+
+        tx.commit();
+
+        tx.begin();
+        for (Store store : stores) {
+            Store s = em.find(Store.class, store.getId());
+            List<Item> items = new ArrayList<>(s.getItems());
+            em.remove(s);
+            items.forEach(em::remove);
+        }
+
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void fetchJoinLargePage() {
+        EntityManager em = storeEmf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        // more root ids than an in list can hold
+        List<Store> stores = new ArrayList<>();
+        for (int i = 0; i < 1002; ++i) {
+            Item item = new Item();
+            item.setName("Item " + i);
+            item.setModel("Large Page");
+            em.persist(item);
+            Store store = new Store();
+            store.setName(String.format("Large Store %04d", i));
+            store.setItems(List.of(item));
+            em.persist(store);
+            stores.add(store);
+        }
+
+        tx.commit();
+        em.clear();
+
+        tx.begin();
+        TypedQuery<Store> query = em.createQuery(
+                "select distinct s from Store s join fetch s.items i where s.name like :name order by s.name",
+                Store.class);
+        query.setParameter("name", "Large Store%");
+        query.setFirstResult(1).setMaxResults(1001);
+        List<Store> page = query.getResultList();
+        Assertions.assertEquals(1001, page.size());
+        Assertions.assertEquals("Large Store 0001", page.get(0).getName());
+        Assertions.assertEquals("Large Store 1001", page.get(1000).getName());
+        page.forEach(s -> Assertions.assertEquals(1, s.getItems().size()));
+        tx.commit();
+        em.clear();
+
+        tx.begin();
+        for (Store store : stores) {
+            Store s = em.find(Store.class, store.getId());
+            List<Item> items = new ArrayList<>(s.getItems());
+            em.remove(s);
+            items.forEach(em::remove);
+        }
+
+        tx.commit();
+        em.close();
+    }
+}
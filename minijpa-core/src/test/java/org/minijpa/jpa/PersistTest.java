@@ -8,6 +8,8 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.Attribute.PersistentAttributeType;
 import javax.persistence.metamodel.Bindable.BindableType;
@@ -113,6 +115,45 @@ public class PersistTest {
 		em.close();
 	}
 
+	@Test
+	public void autoFlushQuerySpaces() throws Exception {
+		final EntityManager em = emf.createEntityManager();
+		MiniPersistenceContext persistenceContext = ((MiniEntityManager) em).getPersistenceContext();
+		final EntityTransaction tx = em.getTransaction();
+		tx.begin();
+
+		Citizen citizen = new Citizen();
+		citizen.setName("Marc");
+		em.persist(citizen);
+
+		// the Address table is not written by the pending insert
+		List<?> addresses = em.createQuery("select a from Address a").getResultList();
+		Assertions.assertTrue(addresses.isEmpty());
+		Assertions.assertEquals(List.of(citizen), persistenceContext.getDirtyEntities());
+
+		CriteriaBuilder cb = em.getCriteriaBuilder();
+		CriteriaQuery<Address> cq = cb.createQuery(Address.class);
+		cq.select(cq.from(Address.class));
+		Assertions.assertTrue(em.createQuery(cq).getResultList().isEmpty());
+		Assertions.assertEquals(List.of(citizen), persistenceContext.getDirtyEntities());
+
+		// the subquery reads the Citizen table
+		addresses = em.createQuery(
+				"select a from Address a where a.name in (select c.name from Citizen c)").getResultList();
+		Assertions.assertTrue(addresses.isEmpty());
+		Assertions.assertTrue(persistenceContext.getDirtyEntities().isEmpty());
+
+		citizen.setLastName("Jones");
+		Assertions.assertEquals(List.of(citizen), persistenceContext.getDirtyEntities());
+		List<?> citizens = em.createQuery("select c from Citizen c where c.lastName = 'Jones'").getResultList();
+		Assertions.assertEquals(1, citizens.size());
+		Assertions.assertTrue(persistenceContext.getDirtyEntities().isEmpty());
+
+		em.remove(citizen);
+		tx.commit();
+		em.close();
+	}
+
 	@Test
 	public void metamodel() {
 		final EntityManager em = emf.createEntityManager();
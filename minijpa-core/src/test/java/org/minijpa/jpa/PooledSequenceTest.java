@@ -0,0 +1,82 @@
+package org.minijpa.jpa;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Ticket;
+
+/**
+ * @author adamato
+ */
+public class PooledSequenceTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("pooled_sequence", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void pooledIds() throws Exception {
+        List<Ticket> tickets = new ArrayList<>();
+        EntityManager em1 = emf.createEntityManager();
+        EntityManager em2 = emf.createEntityManager();
+        EntityTransaction tx1 = em1.getTransaction();
+        EntityTransaction tx2 = em2.getTransaction();
+        tx1.begin();
+        tx2.begin();
+        for (int i = 0; i < 25; ++i) {
+            Ticket ticket = new Ticket();
+            ticket.setCode("T" + i);
+            // the entity managers of the same factory share the id blocks
+            if (i % 2 == 0)
+                em1.persist(ticket);
+            else
+                em2.persist(ticket);
+
+            tickets.add(ticket);
+        }
+
+        tx1.commit();
+        tx2.commit();
+        em1.close();
+        em2.close();
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < tickets.size(); ++i) {
+            Assertions.assertTrue(ids.add(tickets.get(i).getId()));
+            if (i > 0 && i % 10 != 0)
+                Assertions.assertEquals(tickets.get(i - 1).getId() + 1, tickets.get(i).getId());
+        }
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (Ticket ticket : tickets) {
+            Ticket t = em.find(Ticket.class, ticket.getId());
+            Assertions.assertEquals(ticket.getCode(), t.getCode());
+            em.remove(t);
+        }
+
+        tx.commit();
+        em.close();
+    }
+
+}
@@ -0,0 +1,155 @@
+package org.minijpa.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.*;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.model.Citizen;
+
+/**
+ * @author adamato
+ */
+public class ResultStreamTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("citizens", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    private List<Citizen> persistCitizens(EntityManager em, String lastName) {
+        List<Citizen> citizens = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            Citizen citizen = new Citizen();
+            citizen.setName("Name " + i);
+            citizen.setLastName(lastName);
+            em.persist(citizen);
+            citizens.add(citizen);
+        }
+
+        return citizens;
+    }
+
+    private void removeCitizens(EntityManager em, List<Citizen> citizens) {
+        for (Citizen citizen : citizens) {
+            em.remove(em.find(Citizen.class, citizen.getId()));
+        }
+    }
+
+    @Test
+    public void jpqlStream() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = persistCitizens(em, "Stream");
+
+        TypedQuery<Citizen> query = em.createQuery(
+                "select c from Citizen c where c.lastName = 'Stream' order by c.name", Citizen.class);
+        query.setHint(QueryHints.FETCH_SIZE, 2);
+        try (Stream<Citizen> stream = query.getResultStream()) {
+            List<String> names = stream.map(Citizen::getName).collect(Collectors.toList());
+            Assertions.assertEquals(List.of("Name 0", "Name 1", "Name 2", "Name 3", "Name 4"), names);
+        }
+
+        Query countQuery = em.createQuery("select count(c) from Citizen c where c.lastName = 'Stream'");
+        try (Stream<?> stream = countQuery.getResultStream()) {
+            Assertions.assertEquals(5L, ((Number) stream.findFirst().get()).longValue());
+        }
+
+        // the stream is closed before all the rows are read
+        try (Stream<Citizen> stream = query.getResultStream()) {
+            Assertions.assertEquals(2, stream.limit(2).count());
+        }
+
+        removeCitizens(em, citizens);
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void detachStream() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = persistCitizens(em, "Detach");
+        tx.commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        TypedQuery<Citizen> query = em.createQuery(
+                "select c from Citizen c where c.lastName = 'Detach'", Citizen.class);
+        query.setHint(QueryHints.STREAM_DETACH, true);
+        EntityManager entityManager = em;
+        try (Stream<Citizen> stream = query.getResultStream()) {
+            List<Citizen> list = stream.collect(Collectors.toList());
+            Assertions.assertEquals(5, list.size());
+            list.forEach(c -> Assertions.assertFalse(entityManager.contains(c)));
+        }
+
+        removeCitizens(em, citizens);
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void criteriaStream() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = persistCitizens(em, "Criteria");
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Citizen> cq = cb.createQuery(Citizen.class);
+        Root<Citizen> root = cq.from(Citizen.class);
+        cq.select(root).where(cb.equal(root.get("lastName"), "Criteria"));
+        try (Stream<Citizen> stream = em.createQuery(cq).getResultStream()) {
+            Assertions.assertEquals(5, stream.filter(em::contains).count());
+        }
+
+        removeCitizens(em, citizens);
+        tx.commit();
+        em.close();
+    }
+
+    @Test
+    public void nativeStream() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = persistCitizens(em, "Native");
+
+        Query query = em.createNativeQuery(
+                "select id, first_name, last_name, version from citizen where last_name = :lastName", Citizen.class);
+        query.setParameter("lastName", "Native");
+        try (Stream<?> stream = query.getResultStream()) {
+            Assertions.assertEquals(5, stream.filter(c -> c instanceof Citizen).count());
+        }
+
+        query = em.createNativeQuery("select first_name from citizen where last_name = 'Native'");
+        try (Stream<?> stream = query.getResultStream()) {
+            Assertions.assertEquals(5, stream.filter(n -> ((String) n).startsWith("Name")).count());
+        }
+
+        removeCitizens(em, citizens);
+        tx.commit();
+        em.close();
+    }
+}
@@ -0,0 +1,234 @@
+package org.minijpa.jpa;
+
+import java.util.List;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.db.QueryResultCache;
+import org.minijpa.jpa.db.SecondLevelCache;
+import org.minijpa.jpa.model.Article;
+import org.minijpa.jpa.model.ProductType;
+
+public class SecondLevelCacheTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("second_level_cache", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void findById() throws Exception {
+        Cache cache = emf.getCache();
+        SecondLevelCache secondLevelCache = cache.unwrap(SecondLevelCache.class);
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        ProductType productType = new ProductType();
+        productType.setName("Book");
+        em.persist(productType);
+        Article article = new Article();
+        article.setName("Dune");
+        article.setProductType(productType);
+        em.persist(article);
+        tx.commit();
+        em.close();
+        Assertions.assertFalse(cache.contains(ProductType.class, productType.getId()));
+
+        em = emf.createEntityManager();
+        ProductType pt = em.find(ProductType.class, productType.getId());
+        Assertions.assertEquals("Book", pt.getName());
+        Assertions.assertTrue(cache.contains(ProductType.class, productType.getId()));
+        Article a = em.find(Article.class, article.getId());
+        Assertions.assertFalse(cache.contains(Article.class, article.getId()));
+        Assertions.assertSame(pt, a.getProductType());
+        em.close();
+
+        // the product type is read from the cache
+        long hitCount = secondLevelCache.getHitCount();
+        em = emf.createEntityManager();
+        a = em.find(Article.class, article.getId());
+        Assertions.assertEquals("Book", a.getProductType().getName());
+        Assertions.assertNotSame(pt, a.getProductType());
+        Assertions.assertEquals(hitCount + 1, secondLevelCache.getHitCount());
+        em.close();
+
+        // updates invalidate the cached entity
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        pt = em.find(ProductType.class, productType.getId());
+        pt.setName("E-Book");
+        tx.commit();
+        Assertions.assertFalse(cache.contains(ProductType.class, productType.getId()));
+        em.close();
+
+        em = emf.createEntityManager();
+        pt = em.find(ProductType.class, productType.getId());
+        Assertions.assertEquals("E-Book", pt.getName());
+        Assertions.assertTrue(cache.contains(ProductType.class, productType.getId()));
+        cache.evict(ProductType.class, productType.getId());
+        Assertions.assertFalse(cache.contains(ProductType.class, productType.getId()));
+        em.close();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        em.remove(em.find(Article.class, article.getId()));
+        em.remove(em.find(ProductType.class, productType.getId()));
+        tx.commit();
+        Assertions.assertFalse(cache.contains(ProductType.class, productType.getId()));
+        em.close();
+
+        em = emf.createEntityManager();
+        Assertions.assertNull(em.find(ProductType.class, productType.getId()));
+        em.close();
+        cache.evictAll();
+        Assertions.assertEquals(0, secondLevelCache.size(ProductType.class));
+    }
+
+    @Test
+    public void queryResults() throws Exception {
+        QueryResultCache queryResultCache = ((MiniEntityManagerFactory) emf).getQueryResultCache();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        ProductType productType = new ProductType();
+        productType.setName("Music");
+        em.persist(productType);
+        Article article = new Article();
+        article.setName("Abbey Road");
+        article.setProductType(productType);
+        em.persist(article);
+        tx.commit();
+        em.close();
+
+        String jpql = "select a from Article a where a.name = :name";
+        String countJpql = "select count(a) from Article a";
+        long hitCount = queryResultCache.getHitCount();
+        em = emf.createEntityManager();
+        List<?> articles = em.createQuery(jpql).setParameter("name", "Abbey Road")
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
+        Assertions.assertEquals(1, articles.size());
+        Assertions.assertEquals(1L, em.createQuery(countJpql).setHint(QueryHints.CACHEABLE, true).getSingleResult());
+        em.close();
+
+        // the entity result is a primary key list, the instances belong to the new persistence context
+        em = emf.createEntityManager();
+        List<?> cached = em.createQuery(jpql).setParameter("name", "Abbey Road")
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
+        Assertions.assertEquals(1, cached.size());
+        Assertions.assertNotSame(articles.get(0), cached.get(0));
+        Assertions.assertEquals(article.getId(), ((Article) cached.get(0)).getId());
+        Assertions.assertEquals(1L, em.createQuery(countJpql).setHint(QueryHints.CACHEABLE, true).getSingleResult());
+        Assertions.assertEquals(hitCount + 2, queryResultCache.getHitCount());
+        Assertions.assertTrue(em.createQuery(jpql).setParameter("name", "Revolver")
+                .setHint(QueryHints.CACHEABLE, true).getResultList().isEmpty());
+        em.close();
+
+        // a write to the Article table invalidates the results
+        long invalidationCount = queryResultCache.getInvalidationCount();
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        Article article2 = new Article();
+        article2.setName("Revolver");
+        article2.setProductType(em.find(ProductType.class, productType.getId()));
+        em.persist(article2);
+        tx.commit();
+        em.close();
+
+        em = emf.createEntityManager();
+        Assertions.assertEquals(2L, em.createQuery(countJpql).setHint(QueryHints.CACHEABLE, true).getSingleResult());
+        Assertions.assertEquals(1, em.createQuery(jpql).setParameter("name", "Revolver")
+                .setHint(QueryHints.CACHEABLE, true).getResultList().size());
+        Assertions.assertEquals(invalidationCount + 2, queryResultCache.getInvalidationCount());
+        em.close();
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        em.remove(em.find(Article.class, article.getId()));
+        em.remove(em.find(Article.class, article2.getId()));
+        em.remove(em.find(ProductType.class, productType.getId()));
+        tx.commit();
+        Assertions.assertEquals(0L, em.createQuery(countJpql).setHint(QueryHints.CACHEABLE, true).getSingleResult());
+        em.close();
+    }
+
+    @Test
+    public void multiSelectResults() throws Exception {
+        QueryResultCache queryResultCache = ((MiniEntityManagerFactory) emf).getQueryResultCache();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        ProductType productType = new ProductType();
+        productType.setName("Books");
+        em.persist(productType);
+        Article article = new Article();
+        article.setName("Dubliners");
+        article.setProductType(productType);
+        em.persist(article);
+        tx.commit();
+        em.close();
+
+        // the product type is read as columns, the rows hold scalars only
+        String jpql = "select p, a.name from Article a join a.productType p where a.name = :name";
+        em = emf.createEntityManager();
+        List<?> rows = em.createQuery(jpql).setParameter("name", "Dubliners")
+                .setHint(QueryHints.CACHEABLE, true).getResultList();
+        Assertions.assertEquals(1, rows.size());
+        em.close();
+
+        // the cached rows are copies, a change made by the caller isn't seen by the other entity managers
+        long hitCount = queryResultCache.getHitCount();
+        em = emf.createEntityManager();
+        Object[] cachedRow = (Object[]) em.createQuery(jpql).setParameter("name", "Dubliners")
+                .setHint(QueryHints.CACHEABLE, true).getResultList().get(0);
+        Assertions.assertEquals(hitCount + 1, queryResultCache.getHitCount());
+        Assertions.assertEquals("Dubliners", cachedRow[cachedRow.length - 1]);
+        cachedRow[cachedRow.length - 1] = "Ulysses";
+        em.close();
+
+        em = emf.createEntityManager();
+        cachedRow = (Object[]) em.createQuery(jpql).setParameter("name", "Dubliners")
+                .setHint(QueryHints.CACHEABLE, true).getResultList().get(0);
+        Assertions.assertEquals(hitCount + 2, queryResultCache.getHitCount());
+        Assertions.assertEquals("Dubliners", cachedRow[cachedRow.length - 1]);
+
+        // a date is mutable, the result is not cached
+        long putCount = queryResultCache.getPutCount();
+        Assertions.assertEquals(1, em.createQuery("select a.name, CURRENT_DATE from Article a where a.name = :name")
+                .setParameter("name", "Dubliners").setHint(QueryHints.CACHEABLE, true).getResultList().size());
+        Assertions.assertEquals(putCount, queryResultCache.getPutCount());
+        em.close();
+
+        Assertions.assertTrue(QueryResultCache.isImmutable(1L));
+        Assertions.assertFalse(QueryResultCache.isImmutable(new java.util.Date()));
+        Assertions.assertFalse(QueryResultCache.isImmutable(new byte[0]));
+
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        em.remove(em.find(Article.class, article.getId()));
+        em.remove(em.find(ProductType.class, productType.getId()));
+        tx.commit();
+        em.close();
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.minijpa.jpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jdbc.ConnectionHolder;
+import org.minijpa.jdbc.DbTypeMapper;
+import org.minijpa.jdbc.JdbcBatch;
+import org.minijpa.jdbc.JdbcRunner;
+import org.minijpa.jdbc.QueryParameter;
+import org.minijpa.jdbc.UpdateCountCheck;
+import org.minijpa.jpa.db.DbConfiguration;
+import org.minijpa.jpa.db.DbConfigurationList;
+import org.minijpa.jpa.db.DbJdbc;
+import org.minijpa.jpa.db.SqlStatementFactory;
+import org.minijpa.jpa.model.WideRecord;
+import org.minijpa.sql.model.SqlStatementGenerator;
+
+/**
+ * Modifications of an entity with more than 64 attributes, the modification bitmask needs more than one word.
+ */
+public class WideRecordTest {
+
+    private static final Pattern SET_COLUMN = Pattern.compile("(\\w+) = \\?");
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("wide_record", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void modifications() throws Exception {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        WideRecord wideRecord = new WideRecord();
+        wideRecord.setValue00(0);
+        wideRecord.setValue69(69);
+        em.persist(wideRecord);
+        tx.commit();
+        em.close();
+
+        DbConfiguration dbConfiguration = DbConfigurationList.getInstance().getDbConfiguration("wide_record");
+        UpdateJdbcRunner jdbcRunner = new UpdateJdbcRunner();
+        DbConfigurationList.getInstance().setDbConfiguration("wide_record", new DbConfiguration() {
+            @Override
+            public DbJdbc getDbJdbc() {
+                return dbConfiguration.getDbJdbc();
+            }
+
+            @Override
+            public DbTypeMapper getDbTypeMapper() {
+                return dbConfiguration.getDbTypeMapper();
+            }
+
+            @Override
+            public SqlStatementGenerator getSqlStatementGenerator() {
+                return dbConfiguration.getSqlStatementGenerator();
+            }
+
+            @Override
+            public JdbcRunner getJdbcRunner() {
+                return jdbcRunner;
+            }
+
+            @Override
+            public SqlStatementFactory getSqlStatementFactory() {
+                return dbConfiguration.getSqlStatementFactory();
+            }
+        });
+        try {
+            em = emf.createEntityManager();
+            tx = em.getTransaction();
+            tx.begin();
+            WideRecord w = em.find(WideRecord.class, wideRecord.getId());
+            // attributes in both words of the bitmask
+            w.setValue01(1);
+            w.setValue62(62);
+            w.setValue65(65);
+            w.setValue69(-69);
+            em.flush();
+            Assertions.assertEquals(1, jdbcRunner.updates.size());
+            Assertions.assertEquals(Set.of("value01", "value62", "value65", "value69"),
+                    setColumns(jdbcRunner.updates.get(0)));
+
+            // the modifications have been cleared
+            jdbcRunner.updates.clear();
+            em.flush();
+            Assertions.assertTrue(jdbcRunner.updates.isEmpty());
+
+            w.setValue64(64);
+            em.flush();
+            Assertions.assertEquals(1, jdbcRunner.updates.size());
+            Assertions.assertEquals(Set.of("value64"), setColumns(jdbcRunner.updates.get(0)));
+            tx.commit();
+            em.close();
+
+            em = emf.createEntityManager();
+            tx = em.getTransaction();
+            tx.begin();
+            w = em.find(WideRecord.class, wideRecord.getId());
+            Assertions.assertEquals(0, w.getValue00());
+            Assertions.assertEquals(1, w.getValue01());
+            Assertions.assertEquals(62, w.getValue62());
+            Assertions.assertNull(w.getValue63());
+            Assertions.assertEquals(64, w.getValue64());
+            Assertions.assertEquals(65, w.getValue65());
+            Assertions.assertEquals(-69, w.getValue69());
+            em.remove(w);
+            tx.commit();
+            em.close();
+        } finally {
+            DbConfigurationList.getInstance().setDbConfiguration("wide_record", dbConfiguration);
+        }
+    }
+
+    private static Set<String> setColumns(String sql) {
+        String lowerCaseSql = sql.toLowerCase();
+        Assertions.assertTrue(lowerCaseSql.startsWith("update "));
+        int end = lowerCaseSql.indexOf(" where ");
+        Matcher matcher = SET_COLUMN.matcher(lowerCaseSql.substring(lowerCaseSql.indexOf(" set "), end));
+        List<String> columns = new ArrayList<>();
+        while (matcher.find())
+            columns.add(matcher.group(1));
+
+        Set<String> columnSet = Set.copyOf(columns);
+        Assertions.assertEquals(columns.size(), columnSet.size());
+        return columnSet;
+    }
+
+    /**
+     * Records the update statements.
+     */
+    private static class UpdateJdbcRunner extends JdbcRunner {
+
+        private final List<String> updates = new ArrayList<>();
+
+        @Override
+        public int update(ConnectionHolder connectionHolder, String sql, List<QueryParameter> parameters)
+                throws SQLException {
+            if (sql.toLowerCase().startsWith("update "))
+                updates.add(sql);
+
+            return super.update(connectionHolder, sql, parameters);
+        }
+
+        @Override
+        public void addBatch(
+                Connection connection,
+                JdbcBatch jdbcBatch,
+                String sql,
+                List<QueryParameter> parameters,
+                UpdateCountCheck updateCountCheck) throws Exception {
+            if (sql.toLowerCase().startsWith("update "))
+                updates.add(sql);
+
+            super.addBatch(connection, jdbcBatch, sql, parameters, updateCountCheck);
+        }
+    }
+
+}
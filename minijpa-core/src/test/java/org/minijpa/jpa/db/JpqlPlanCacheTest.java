@@ -0,0 +1,89 @@
+package org.minijpa.jpa.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.MiniEntityManagerFactory;
+import org.minijpa.jpa.PersistenceProperties;
+import org.minijpa.jpa.PersistenceUnitProperties;
+import org.minijpa.jpa.model.Citizen;
+
+public class JpqlPlanCacheTest {
+
+    @Test
+    public void eviction() {
+        JpqlPlanCache jpqlPlanCache = new JpqlPlanCache(2);
+        StatementParameters statementParameters = new StatementParameters(null, List.of());
+        jpqlPlanCache.put("a", statementParameters);
+        jpqlPlanCache.put("b", statementParameters);
+        Assertions.assertNotNull(jpqlPlanCache.get("a"));
+        // 'b' is the least recently used
+        jpqlPlanCache.put("c", statementParameters);
+        Assertions.assertEquals(2, jpqlPlanCache.size());
+        Assertions.assertNull(jpqlPlanCache.get("b"));
+        Assertions.assertNotNull(jpqlPlanCache.get("a"));
+        Assertions.assertNotNull(jpqlPlanCache.get("c"));
+
+        Assertions.assertEquals(1, jpqlPlanCache.getEvictionCount());
+        Assertions.assertEquals(3, jpqlPlanCache.getHitCount());
+        Assertions.assertEquals(1, jpqlPlanCache.getMissCount());
+        Assertions.assertEquals(0.75, jpqlPlanCache.getHitRatio());
+    }
+
+    @Test
+    public void disabled() {
+        JpqlPlanCache jpqlPlanCache = new JpqlPlanCache(0);
+        jpqlPlanCache.put("a", new StatementParameters(null, List.of()));
+        Assertions.assertNull(jpqlPlanCache.get("a"));
+        Assertions.assertEquals(0, jpqlPlanCache.size());
+    }
+
+    @Test
+    public void sharedPlan() throws Exception {
+        Map<String, String> properties = PersistenceUnitProperties.getProperties();
+        properties.put(PersistenceProperties.JPQL_PLAN_CACHE_SIZE, "10");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("citizens", properties);
+        JpqlPlanCache jpqlPlanCache = ((MiniEntityManagerFactory) emf).getJpqlPlanCache();
+        Assertions.assertEquals(10, jpqlPlanCache.getMaxSize());
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        List<Citizen> citizens = new ArrayList<>();
+        for (String lastName : List.of("Plan A", "Plan B", "Plan B")) {
+            Citizen citizen = new Citizen();
+            citizen.setName("Name");
+            citizen.setLastName(lastName);
+            em.persist(citizen);
+            citizens.add(citizen);
+        }
+
+        tx.commit();
+
+        String jpql = "select c from Citizen c where c.lastName = :lastName";
+        long hitCount = jpqlPlanCache.getHitCount();
+        EntityManager em2 = emf.createEntityManager();
+        List<?> result = em.createQuery(jpql).setParameter("lastName", "Plan A").getResultList();
+        Assertions.assertEquals(1, result.size());
+        result = em2.createQuery(jpql).setParameter("lastName", "Plan B").getResultList();
+        Assertions.assertEquals(2, result.size());
+        result = em.createQuery(jpql).setParameter("lastName", "Plan A").getResultList();
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(hitCount + 2, jpqlPlanCache.getHitCount());
+        em2.close();
+
+        tx.begin();
+        citizens.forEach(em::remove);
+        tx.commit();
+        em.close();
+        emf.close();
+    }
+}
@@ -0,0 +1,51 @@
+package org.minijpa.jpa.db;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void putGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Assertions.assertNull(map.put(1L, "a"));
+        Assertions.assertNull(map.put(-1L, "b"));
+        Assertions.assertEquals("a", map.put(1L, "c"));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals("c", map.get(1L));
+        Assertions.assertEquals("b", map.get(-1L));
+        Assertions.assertNull(map.get(2L));
+
+        Assertions.assertEquals("c", map.remove(1L));
+        Assertions.assertNull(map.remove(1L));
+        Assertions.assertEquals(1, map.size());
+        map.clear();
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertNull(map.get(-1L));
+    }
+
+    @Test
+    public void randomOperations() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; ++i) {
+            // a small key range forces collisions and removals inside probe sequences
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; ++key) {
+            Assertions.assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.minijpa.jpa.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ManagedEntityListTest {
+
+    private List<Object> toList(ManagedEntityList managedEntityList) {
+        List<Object> list = new ArrayList<>();
+        managedEntityList.forEach(list::add);
+        return list;
+    }
+
+    @Test
+    public void insertionOrder() {
+        ManagedEntityList managedEntityList = new ManagedEntityList();
+        String a = "a";
+        String b = "b";
+        String c = "c";
+        managedEntityList.add(a);
+        managedEntityList.add(b);
+        managedEntityList.add(c);
+        Assertions.assertEquals(List.of(a, b, c), toList(managedEntityList));
+
+        // moves to the end
+        managedEntityList.add(a);
+        Assertions.assertEquals(List.of(b, c, a), toList(managedEntityList));
+
+        managedEntityList.remove(c);
+        Assertions.assertEquals(List.of(b, a), toList(managedEntityList));
+        Assertions.assertEquals(2, managedEntityList.size());
+        Assertions.assertFalse(managedEntityList.contains(c));
+
+        managedEntityList.remove(a);
+        managedEntityList.remove(b);
+        Assertions.assertTrue(managedEntityList.isEmpty());
+        Assertions.assertEquals(List.of(), toList(managedEntityList));
+
+        managedEntityList.add(c);
+        Assertions.assertEquals(List.of(c), toList(managedEntityList));
+    }
+
+    @Test
+    public void identity() {
+        ManagedEntityList managedEntityList = new ManagedEntityList();
+        String a = new String("a");
+        String a2 = new String("a");
+        managedEntityList.add(a);
+        managedEntityList.add(a2);
+        Assertions.assertEquals(2, managedEntityList.size());
+        Assertions.assertTrue(managedEntityList.contains(a2));
+        managedEntityList.remove(a);
+        Assertions.assertSame(a2, toList(managedEntityList).get(0));
+    }
+
+    @Test
+    public void modifyWhileIterating() {
+        ManagedEntityList managedEntityList = new ManagedEntityList();
+        Object a = new Object();
+        Object b = new Object();
+        Object c = new Object();
+        Object d = new Object();
+        managedEntityList.add(a);
+        managedEntityList.add(b);
+        managedEntityList.add(c);
+
+        // removed entities are visited, added and moved ones are not visited again
+        List<Object> visited = new ArrayList<>();
+        for (Object entity : managedEntityList) {
+            visited.add(entity);
+            if (entity == a) {
+                managedEntityList.remove(a);
+                managedEntityList.remove(c);
+                managedEntityList.add(b);
+                managedEntityList.add(d);
+            }
+        }
+
+        Assertions.assertEquals(List.of(a, b, c), visited);
+        Assertions.assertEquals(List.of(b, d), toList(managedEntityList));
+    }
+
+    @Test
+    public void linearScaling() {
+        ManagedEntityList managedEntityList = new ManagedEntityList();
+        List<Object> entities = new ArrayList<>();
+        for (int i = 0; i < 200_000; ++i) {
+            Object entity = new Object();
+            entities.add(entity);
+            managedEntityList.add(entity);
+            managedEntityList.add(entity);
+        }
+
+        for (Object entity : entities) {
+            managedEntityList.add(entity);
+        }
+
+        int count = 0;
+        for (Object entity : managedEntityList) {
+            Assertions.assertSame(entities.get(count), entity);
+            ++count;
+        }
+
+        Assertions.assertEquals(entities.size(), count);
+        entities.forEach(managedEntityList::remove);
+        Assertions.assertTrue(managedEntityList.isEmpty());
+    }
+}
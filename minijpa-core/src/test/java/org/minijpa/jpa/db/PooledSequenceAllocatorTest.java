@@ -0,0 +1,79 @@
+package org.minijpa.jpa.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PooledSequenceAllocatorTest {
+
+    @Test
+    public void pooledLo() throws Exception {
+        // database sequence: start with 1 increment by 5
+        AtomicLong sequence = new AtomicLong(-4);
+        AtomicInteger calls = new AtomicInteger();
+        PooledSequenceAllocator allocator = new PooledSequenceAllocator(SequenceOptimizer.POOLED_LO, 5, 1);
+        for (long i = 1; i <= 12; ++i) {
+            Assertions.assertEquals(i, allocator.next(() -> {
+                calls.incrementAndGet();
+                return sequence.addAndGet(5);
+            }));
+        }
+
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void pooled() throws Exception {
+        AtomicLong sequence = new AtomicLong(-4);
+        AtomicInteger calls = new AtomicInteger();
+        PooledSequenceAllocator allocator = new PooledSequenceAllocator(SequenceOptimizer.POOLED, 5, 1);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 12; ++i) {
+            ids.add(allocator.next(() -> {
+                calls.incrementAndGet();
+                return sequence.addAndGet(5);
+            }));
+        }
+
+        // the first sequence value is the only id of the first block
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L), ids);
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void concurrentAllocation() throws Exception {
+        AtomicLong sequence = new AtomicLong(-9);
+        PooledSequenceAllocator allocator = new PooledSequenceAllocator(SequenceOptimizer.POOLED_LO, 10, 1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; ++t) {
+            futures.add(executorService.submit(() -> {
+                for (int i = 0; i < 1000; ++i) {
+                    Assertions.assertTrue(ids.add(allocator.next(() -> sequence.addAndGet(10))));
+                }
+
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        executorService.shutdown();
+        Assertions.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(8000, ids.size());
+        Assertions.assertEquals(8000, sequence.get() + 9);
+    }
+}
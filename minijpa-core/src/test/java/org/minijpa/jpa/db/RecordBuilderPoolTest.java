@@ -0,0 +1,38 @@
+package org.minijpa.jpa.db;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RecordBuilderPoolTest {
+
+    @Test
+    public void nestedExecutions() {
+        RecordBuilderPool<JdbcFetchParameterRecordBuilder> pool = new RecordBuilderPool<>(
+                JdbcFetchParameterRecordBuilder::new, JdbcFetchParameterRecordBuilder::clear);
+        JdbcFetchParameterRecordBuilder outer = pool.acquire();
+        JdbcFetchParameterRecordBuilder nested = pool.acquire();
+        Assertions.assertNotSame(outer, nested);
+
+        pool.release(nested);
+        Assertions.assertSame(nested, pool.acquire());
+        pool.release(nested);
+        pool.release(outer);
+        Assertions.assertSame(outer, pool.acquire());
+        Assertions.assertSame(nested, pool.acquire());
+    }
+
+    @Test
+    public void releaseClears() {
+        List<Object> cleared = new ArrayList<>();
+        RecordBuilderPool<Object> pool = new RecordBuilderPool<>(Object::new, cleared::add);
+        Object builder = pool.acquire();
+        Assertions.assertTrue(cleared.isEmpty());
+
+        pool.release(builder);
+        Assertions.assertEquals(List.of(builder), cleared);
+        Assertions.assertSame(builder, pool.acquire());
+    }
+}
@@ -0,0 +1,27 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+
+@Entity
+public class Album {
+    @EmbeddedId
+    private AlbumId id;
+
+    private String label;
+
+    public AlbumId getId() {
+        return id;
+    }
+
+    public void setId(AlbumId id) {
+        this.id = id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+}
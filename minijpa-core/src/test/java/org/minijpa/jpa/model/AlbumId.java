@@ -0,0 +1,44 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class AlbumId implements Serializable {
+    private Integer catalogNumber;
+    private Integer releaseYear;
+
+    public Integer getCatalogNumber() {
+        return catalogNumber;
+    }
+
+    public void setCatalogNumber(Integer catalogNumber) {
+        this.catalogNumber = catalogNumber;
+    }
+
+    public Integer getReleaseYear() {
+        return releaseYear;
+    }
+
+    public void setReleaseYear(Integer releaseYear) {
+        this.releaseYear = releaseYear;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (!(o instanceof AlbumId))
+            return false;
+
+        AlbumId albumId = (AlbumId) o;
+        return Objects.equals(catalogNumber, albumId.catalogNumber) && Objects.equals(releaseYear, albumId.releaseYear);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(catalogNumber, releaseYear);
+    }
+}
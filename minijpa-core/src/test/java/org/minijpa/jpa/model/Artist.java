@@ -17,6 +17,8 @@ public class Artist {
     @ManyToMany
     private List<Movie> movies;
 
+    @OneToMany
+    private List<Concert> concerts;
 
     public Long getId() {
         return id;
@@ -45,4 +47,12 @@ public class Artist {
     public List<Movie> getMovies() {
         return movies;
     }
+
+    public List<Concert> getConcerts() {
+        return concerts;
+    }
+
+    public void setConcerts(List<Concert> concerts) {
+        this.concerts = concerts;
+    }
 }
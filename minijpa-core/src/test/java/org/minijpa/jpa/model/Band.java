@@ -0,0 +1,36 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+import java.util.List;
+
+@Entity
+public class Band {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String name;
+
+    @OneToMany
+    private List<Album> albums;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Album> getAlbums() {
+        return albums;
+    }
+
+    public void setAlbums(List<Album> albums) {
+        this.albums = albums;
+    }
+}
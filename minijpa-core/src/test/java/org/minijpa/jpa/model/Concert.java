@@ -0,0 +1,24 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+
+@Entity
+public class Concert {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String city;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+}
@@ -0,0 +1,27 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+@Entity
+public class Depot {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String city;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+}
@@ -0,0 +1,55 @@
+package org.minijpa.jpa.model;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+
+@Entity
+public class Invoice {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String number;
+
+    @OneToMany(mappedBy = "invoice")
+    private Collection<InvoiceLine> lines = new HashSet<>();
+
+    @ManyToMany
+    private List<Discount> discounts;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNumber() {
+        return number;
+    }
+
+    public void setNumber(String number) {
+        this.number = number;
+    }
+
+    public Collection<InvoiceLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(Collection<InvoiceLine> lines) {
+        this.lines = lines;
+    }
+
+    public List<Discount> getDiscounts() {
+        return discounts;
+    }
+
+    public void setDiscounts(List<Discount> discounts) {
+        this.discounts = discounts;
+    }
+}
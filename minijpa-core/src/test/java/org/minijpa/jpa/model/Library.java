@@ -0,0 +1,36 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+import java.util.List;
+
+@Entity
+public class Library {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String name;
+
+    @OneToMany(fetch = FetchType.EAGER)
+    private List<Shelf> shelves;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Shelf> getShelves() {
+        return shelves;
+    }
+
+    public void setShelves(List<Shelf> shelves) {
+        this.shelves = shelves;
+    }
+}
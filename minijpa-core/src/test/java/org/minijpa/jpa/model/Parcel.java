@@ -0,0 +1,50 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+
+@Entity
+public class Parcel {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String code;
+
+    @ManyToOne
+    private Courier courier;
+
+    @ManyToOne
+    private Depot origin;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public Courier getCourier() {
+        return courier;
+    }
+
+    public void setCourier(Courier courier) {
+        this.courier = courier;
+    }
+
+    public Depot getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(Depot origin) {
+        this.origin = origin;
+    }
+}
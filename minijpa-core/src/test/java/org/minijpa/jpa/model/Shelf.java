@@ -0,0 +1,36 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+import java.util.List;
+
+@Entity
+public class Shelf {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String name;
+
+    @OneToMany(fetch = FetchType.EAGER)
+    private List<Volume> volumes;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<Volume> getVolumes() {
+        return volumes;
+    }
+
+    public void setVolumes(List<Volume> volumes) {
+        this.volumes = volumes;
+    }
+}
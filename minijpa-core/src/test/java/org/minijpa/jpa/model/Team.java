@@ -0,0 +1,61 @@
+package org.minijpa.jpa.model;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
+import javax.persistence.OneToMany;
+
+@Entity
+@NamedEntityGraph(name = "Team.players",
+        attributeNodes = {@NamedAttributeNode("stadium"), @NamedAttributeNode(value = "players", subgraph = "players")},
+        subgraphs = @NamedSubgraph(name = "players", attributeNodes = @NamedAttributeNode("sponsor")))
+public class Team {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Stadium stadium;
+
+    @OneToMany(mappedBy = "team")
+    private Collection<Footballer> players = new HashSet<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Stadium getStadium() {
+        return stadium;
+    }
+
+    public void setStadium(Stadium stadium) {
+        this.stadium = stadium;
+    }
+
+    public Collection<Footballer> getPlayers() {
+        return players;
+    }
+
+    public void setPlayers(Collection<Footballer> players) {
+        this.players = players;
+    }
+}
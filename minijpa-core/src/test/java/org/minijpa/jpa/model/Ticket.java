@@ -0,0 +1,31 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+@Entity
+public class Ticket {
+
+    @SequenceGenerator(name = "TICKET_SEQ", sequenceName = "TICKET_SEQUENCE", allocationSize = 10)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "TICKET_SEQ")
+    @Id
+    private Long id;
+
+    private String code;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+}
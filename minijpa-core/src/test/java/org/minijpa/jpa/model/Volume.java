@@ -0,0 +1,24 @@
+package org.minijpa.jpa.model;
+
+import javax.persistence.*;
+
+@Entity
+public class Volume {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private String title;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
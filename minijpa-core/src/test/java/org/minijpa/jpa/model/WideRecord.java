@@ -0,0 +1,91 @@
+package org.minijpa.jpa.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+
+/**
+ * An entity with more attributes than a single modification bitmask word can hold.
+ */
+@Getter
+@Setter
+@Entity
+public class WideRecord {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    private Integer value00;
+    private Integer value01;
+    private Integer value02;
+    private Integer value03;
+    private Integer value04;
+    private Integer value05;
+    private Integer value06;
+    private Integer value07;
+    private Integer value08;
+    private Integer value09;
+    private Integer value10;
+    private Integer value11;
+    private Integer value12;
+    private Integer value13;
+    private Integer value14;
+    private Integer value15;
+    private Integer value16;
+    private Integer value17;
+    private Integer value18;
+    private Integer value19;
+    private Integer value20;
+    private Integer value21;
+    private Integer value22;
+    private Integer value23;
+    private Integer value24;
+    private Integer value25;
+    private Integer value26;
+    private Integer value27;
+    private Integer value28;
+    private Integer value29;
+    private Integer value30;
+    private Integer value31;
+    private Integer value32;
+    private Integer value33;
+    private Integer value34;
+    private Integer value35;
+    private Integer value36;
+    private Integer value37;
+    private Integer value38;
+    private Integer value39;
+    private Integer value40;
+    private Integer value41;
+    private Integer value42;
+    private Integer value43;
+    private Integer value44;
+    private Integer value45;
+    private Integer value46;
+    private Integer value47;
+    private Integer value48;
+    private Integer value49;
+    private Integer value50;
+    private Integer value51;
+    private Integer value52;
+    private Integer value53;
+    private Integer value54;
+    private Integer value55;
+    private Integer value56;
+    private Integer value57;
+    private Integer value58;
+    private Integer value59;
+    private Integer value60;
+    private Integer value61;
+    private Integer value62;
+    private Integer value63;
+    private Integer value64;
+    private Integer value65;
+    private Integer value66;
+    private Integer value67;
+    private Integer value68;
+    private Integer value69;
+}
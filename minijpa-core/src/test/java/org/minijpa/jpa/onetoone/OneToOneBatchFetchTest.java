@@ -0,0 +1,76 @@
+package org.minijpa.jpa.onetoone;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.minijpa.jpa.PersistenceUnitProperties;
+import org.minijpa.jpa.model.Capital;
+import org.minijpa.jpa.model.State;
+
+public class OneToOneBatchFetchTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        emf = Persistence.createEntityManagerFactory("onetoone_batch_fetch", PersistenceUnitProperties.getProperties());
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        emf.close();
+    }
+
+    @Test
+    public void batchFetch() throws Exception {
+        String[][] names = {{"England", "London"}, {"France", "Paris"}, {"Italy", "Rome"}, {"Spain", "Madrid"},
+                {"Portugal", "Lisbon"}};
+        final EntityManager em = emf.createEntityManager();
+        try {
+            final EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            for (String[] n : names) {
+                Capital capital = new Capital();
+                capital.setName(n[1]);
+                State state = new State();
+                state.setName(n[0]);
+                state.setCapital(capital);
+                em.persist(capital);
+                em.persist(state);
+            }
+
+            tx.commit();
+            em.clear();
+
+            tx.begin();
+            List<State> states = em.createQuery("select s from State s order by s.id", State.class).getResultList();
+            Assertions.assertEquals(5, states.size());
+            Assertions.assertEquals("London", states.get(0).getCapital().getName());
+            // the first access loads four capitals, the last one is read after the update
+            em.createNativeQuery("update Capital set name = 'Unknown'").executeUpdate();
+            int loaded = 0;
+            for (int i = 0; i < names.length; ++i) {
+                Capital capital = states.get(i).getCapital();
+                Assertions.assertSame(states.get(i), capital.getState());
+                if (capital.getName().equals(names[i][1]))
+                    ++loaded;
+                else
+                    Assertions.assertEquals("Unknown", capital.getName());
+            }
+
+            Assertions.assertEquals(4, loaded);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+}
@@ -30,6 +30,7 @@ public class JpaParserTest {
         Assertions.assertEquals(Citizen.class, entity.getEntityClass());
         Assertions.assertEquals("citizen", entity.getTableName());
         Assertions.assertNotNull(entity.getModificationAttributeReadMethod());
+        Assertions.assertEquals(long[].class, entity.getModificationAttributeReadMethod().getReturnType());
         Assertions.assertEquals(3, entity.getAttributes().size());
         AbstractMetaAttribute attribute = entity.getAttribute("name");
         Assertions.assertEquals("first_name", attribute.getColumnName());
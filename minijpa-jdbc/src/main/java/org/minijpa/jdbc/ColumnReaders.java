@@ -0,0 +1,187 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.minijpa.jdbc.mapper.ObjectConverter;
+
+/**
+ * Column readers for the sql types. Date and time values are read using a calendar confined to the current
+ * thread, created with the default time zone. Types without a specific reader are read with
+ * <code>getObject</code>.
+ */
+public final class ColumnReaders {
+
+    private static final ThreadLocal<Calendar> CALENDAR = ThreadLocal
+            .withInitial(() -> Calendar.getInstance(TimeZone.getDefault()));
+
+    public static final ColumnReader OBJECT = ResultSet::getObject;
+
+    public static final ColumnReader STRING = ResultSet::getString;
+
+    public static final ColumnReader INTEGER = (rs, index) -> {
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    };
+
+    public static final ColumnReader LONG = (rs, index) -> {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : value;
+    };
+
+    public static final ColumnReader FLOAT = (rs, index) -> {
+        float value = rs.getFloat(index);
+        return rs.wasNull() ? null : value;
+    };
+
+    public static final ColumnReader DOUBLE = (rs, index) -> {
+        double value = rs.getDouble(index);
+        return rs.wasNull() ? null : value;
+    };
+
+    public static final ColumnReader BIG_DECIMAL = ResultSet::getBigDecimal;
+
+    public static final ColumnReader BOOLEAN = ResultSet::getBoolean;
+
+    public static final ColumnReader BYTES = ResultSet::getBytes;
+
+    /**
+     * Reads a <code>java.lang.Character</code> attribute. One character strings are returned as
+     * characters.
+     */
+    public static final ColumnReader CHARACTER = (rs, index) -> {
+        String value = rs.getString(index);
+        if (value != null && value.length() == 1)
+            return value.charAt(0);
+
+        return value;
+    };
+
+    public static final ColumnReader DATE = (rs, index) -> rs.getDate(index, CALENDAR.get());
+
+    public static final ColumnReader TIME = (rs, index) -> rs.getTime(index, CALENDAR.get());
+
+    public static final ColumnReader TIMESTAMP = (rs, index) -> rs.getTimestamp(index, CALENDAR.get());
+
+    private ColumnReaders() {
+    }
+
+    /**
+     * Returns the reader for the sql type.
+     *
+     * @param sqlType the sql type, see {@link java.sql.Types}
+     * @return the column reader
+     */
+    public static ColumnReader forSqlType(int sqlType) {
+        switch (sqlType) {
+            case Types.VARCHAR:
+            case Types.CHAR:
+            case Types.LONGVARCHAR:
+            case Types.NVARCHAR:
+            case Types.NCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return STRING;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INTEGER;
+            case Types.BIGINT:
+                return LONG;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return BIG_DECIMAL;
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.FLOAT:
+            case Types.REAL:
+                return FLOAT;
+            case Types.DATE:
+                return DATE;
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return TIME;
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return TIMESTAMP;
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return BOOLEAN;
+            case Types.BLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return BYTES;
+            default:
+                return OBJECT;
+        }
+    }
+
+    /**
+     * Returns the reader for a fetch parameter. The sql type of a fetch parameter is derived from the
+     * attribute class, so <code>CHAR</code> is read as a character. If the fetch parameter has no sql type
+     * the column type is read from the result set metadata.
+     *
+     * @param fetchParameter the fetch parameter
+     * @param metaData       the result set metadata
+     * @param index          the column index
+     * @return the column reader, applying the object converter of the fetch parameter if any
+     * @throws SQLException if the column type cannot be read
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static ColumnReader forFetchParameter(
+            FetchParameter fetchParameter,
+            ResultSetMetaData metaData,
+            int index) throws SQLException {
+        Integer sqlType = fetchParameter.getSqlType();
+        ColumnReader columnReader;
+        if (sqlType == null)
+            columnReader = forSqlType(metaData.getColumnType(index));
+        else if (sqlType == Types.CHAR)
+            columnReader = CHARACTER;
+        else
+            columnReader = forSqlType(sqlType);
+
+        ObjectConverter objectConverter = fetchParameter.getObjectConverter();
+        if (objectConverter == null)
+            return columnReader;
+
+        ColumnReader reader = columnReader;
+        return (rs, i) -> objectConverter.convertFrom(reader.read(rs, i));
+    }
+
+    /**
+     * Returns the readers for the result set columns using the metadata types.
+     *
+     * @param metaData the result set metadata
+     * @return the column readers
+     * @throws SQLException if the metadata cannot be read
+     */
+    public static ColumnReader[] forColumns(ResultSetMetaData metaData) throws SQLException {
+        int nc = metaData.getColumnCount();
+        ColumnReader[] columnReaders = new ColumnReader[nc];
+        for (int i = 0; i < nc; ++i) {
+            columnReaders[i] = forSqlType(metaData.getColumnType(i + 1));
+        }
+
+        return columnReaders;
+    }
+}
@@ -25,4 +25,11 @@ public interface ConnectionHolder {
     void commit() throws SQLException;
 
     void rollback() throws SQLException;
+
+    /**
+     * Returns the prepared statement cache of the current connection.
+     *
+     * @return the prepared statement cache or null if statements are not cached
+     */
+    PreparedStatementCache getPreparedStatementCache();
 }
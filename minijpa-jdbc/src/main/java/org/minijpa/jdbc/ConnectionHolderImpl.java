@@ -19,16 +19,28 @@ import java.sql.SQLException;
 public class ConnectionHolderImpl implements ConnectionHolder {
 
 	private final ConnectionProvider connectionProvider;
+	private final PreparedStatementCache preparedStatementCache;
 	private Connection connection;
 
 	public ConnectionHolderImpl(ConnectionProvider connectionProvider) {
+		this(connectionProvider, PreparedStatementCache.DEFAULT_SIZE);
+	}
+
+	/**
+	 * @param connectionProvider connection provider
+	 * @param statementCacheSize max number of cached prepared statements, 0 disables the cache
+	 */
+	public ConnectionHolderImpl(ConnectionProvider connectionProvider, int statementCacheSize) {
 		super();
 		this.connectionProvider = connectionProvider;
+		this.preparedStatementCache = new PreparedStatementCache(statementCacheSize);
 	}
 
 	@Override
 	public Connection getConnection() throws SQLException {
 		if (connection == null || connection.isClosed()) {
+			// statements prepared on a previous connection can't be reused
+			preparedStatementCache.clear();
 			connection = connectionProvider.getConnection();
 			return connection;
 		}
@@ -38,6 +50,7 @@ public class ConnectionHolderImpl implements ConnectionHolder {
 
 	@Override
 	public void closeConnection() throws SQLException {
+		preparedStatementCache.clear();
 		if (connection != null && !connection.isClosed())
 			connection.close();
 	}
@@ -52,4 +65,9 @@ public class ConnectionHolderImpl implements ConnectionHolder {
 		connection.rollback();
 	}
 
+	@Override
+	public PreparedStatementCache getPreparedStatementCache() {
+		return preparedStatementCache;
+	}
+
 }
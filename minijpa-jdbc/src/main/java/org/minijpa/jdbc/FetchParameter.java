@@ -10,4 +10,14 @@ public interface FetchParameter {
     @SuppressWarnings("rawtypes")
     ObjectConverter getObjectConverter();
 
+    /**
+     * Returns the model whose value is read by this parameter. Row values are looked up by model, see
+     * {@link RowLayout}.
+     *
+     * @return the model
+     */
+    default Object getModel() {
+        return this;
+    }
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.util.Arrays;
+
+/**
+ * The values of a fetched row, stored by slot. See {@link RowLayout}.
+ */
+public class FetchRow {
+
+    private final RowLayout rowLayout;
+    private final Object[] values;
+
+    public FetchRow(RowLayout rowLayout, Object[] values) {
+        this.rowLayout = rowLayout;
+        this.values = values;
+    }
+
+    public RowLayout getRowLayout() {
+        return rowLayout;
+    }
+
+    public int indexOf(Object model) {
+        return rowLayout.indexOf(model);
+    }
+
+    public FetchParameter getFetchParameter(int index) {
+        return rowLayout.getFetchParameters().get(index);
+    }
+
+    public Object getValue(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the values of a range of slots as a row of the given layout.
+     *
+     * @param rowLayout the layout of the range
+     * @param offset    the first slot
+     * @return the row
+     */
+    public FetchRow slice(RowLayout rowLayout, int offset) {
+        return new FetchRow(rowLayout, Arrays.copyOfRange(values, offset, offset + rowLayout.size()));
+    }
+
+    @Override
+    public String toString() {
+        return "FetchRow{" +
+                "fetchParameters=" + rowLayout.getFetchParameters() +
+                ", values=" + Arrays.toString(values) +
+                '}';
+    }
+}
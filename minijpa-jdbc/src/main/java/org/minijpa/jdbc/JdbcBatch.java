@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pending JDBC batch. Consecutive statements with the same sql are added to the same prepared
+ * statement, a different sql executes the pending rows first.
+ */
+public class JdbcBatch {
+
+    private final int batchSize;
+    private String sql;
+    private PreparedStatement preparedStatement;
+    private final List<UpdateCountCheck> updateCountChecks = new ArrayList<>();
+
+    public JdbcBatch(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public PreparedStatement getPreparedStatement() {
+        return preparedStatement;
+    }
+
+    void start(String sql, PreparedStatement preparedStatement) {
+        this.sql = sql;
+        this.preparedStatement = preparedStatement;
+    }
+
+    void add(UpdateCountCheck updateCountCheck) {
+        updateCountChecks.add(updateCountCheck);
+    }
+
+    List<UpdateCountCheck> getUpdateCountChecks() {
+        return updateCountChecks;
+    }
+
+    public int size() {
+        return updateCountChecks.size();
+    }
+
+    public boolean isEmpty() {
+        return updateCountChecks.isEmpty();
+    }
+
+    /**
+     * Discards the pending rows and closes the prepared statement.
+     */
+    public void close() throws SQLException {
+        updateCountChecks.clear();
+        sql = null;
+        PreparedStatement ps = preparedStatement;
+        preparedStatement = null;
+        if (ps != null) {
+            ps.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * An open query result. The prepared statement and the result set stay open until the cursor is
+ * closed, so the rows can be read lazily.
+ */
+public class JdbcCursor implements AutoCloseable {
+
+    private final PreparedStatement preparedStatement;
+    private final ResultSet resultSet;
+    private boolean closed = false;
+
+    public JdbcCursor(PreparedStatement preparedStatement, ResultSet resultSet) {
+        this.preparedStatement = preparedStatement;
+        this.resultSet = resultSet;
+    }
+
+    public ResultSet getResultSet() {
+        return resultSet;
+    }
+
+    public boolean next() throws SQLException {
+        if (closed) {
+            return false;
+        }
+
+        return resultSet.next();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            resultSet.close();
+        } finally {
+            preparedStatement.close();
+        }
+    }
+}
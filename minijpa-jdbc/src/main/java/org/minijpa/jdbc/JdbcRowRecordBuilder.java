@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.ResultSet;
+
+/**
+ * A record builder that can build a single record from the current row of a result set. Used to read
+ * rows one at a time from a {@link JdbcCursor} instead of collecting the whole result.
+ */
+public interface JdbcRowRecordBuilder {
+
+    /**
+     * Called once before the first row is read.
+     *
+     * @param rs the result set
+     * @throws Exception
+     */
+    void init(ResultSet rs) throws Exception;
+
+    /**
+     * Builds the record from the current row.
+     *
+     * @param rs the result set positioned on a row
+     * @return the record, <code>null</code> if the row does not produce any record
+     * @throws Exception
+     */
+    Object buildRecord(ResultSet rs) throws Exception;
+}
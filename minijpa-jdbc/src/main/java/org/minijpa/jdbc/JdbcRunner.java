@@ -13,22 +13,15 @@
  */
 package org.minijpa.jdbc;
 
-import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.sql.Types;
-import java.time.LocalDate;
-import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
 
 import org.minijpa.jdbc.mapper.ObjectConverter;
 import org.slf4j.Logger;
@@ -37,6 +30,8 @@ import org.slf4j.LoggerFactory;
 public class JdbcRunner {
 
     private static final Logger log = LoggerFactory.getLogger(JdbcRunner.class);
+    // null until a batch execution shows whether the driver reports the update counts
+    private volatile Boolean batchUpdateCountReported;
 
     public JdbcRunner() {
     }
@@ -47,117 +42,173 @@ public class JdbcRunner {
             int index,
             Object value,
             Integer sqlType,
-            ObjectConverter objectConverter)
+            ObjectConverter objectConverter,
+            ParameterBinder parameterBinder)
             throws SQLException {
-        log.debug("Setting Value in PreparedStatement: value={}; index={}; sqlType={}", value,
-                index,
-                sqlType);
         if (objectConverter != null) {
             value = objectConverter.convertTo(value);
         }
 
+        if (log.isDebugEnabled()) {
+            log.debug("Query Parameter -> Setting '{}' at index {}; sqlType={}", value, index, sqlType);
+        }
+
         if (value == null) {
             preparedStatement.setNull(index, sqlType);
-            log.debug("Query Parameter -> Setting null at index {}", index);
             return;
         }
 
-        Class<?> type = value.getClass();
-        log.debug("Query Parameter Type '{}'", type);
-        if (type == String.class) {
-            preparedStatement.setString(index, (String) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Integer.class) {
-            preparedStatement.setInt(index, (Integer) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Long.class) {
-            preparedStatement.setLong(index, (Long) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Float.class) {
-            preparedStatement.setFloat(index, (Float) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Double.class) {
-            preparedStatement.setDouble(index, (Double) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == BigDecimal.class) {
-            preparedStatement.setBigDecimal(index, (BigDecimal) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == java.sql.Date.class) {
-            preparedStatement.setDate(index,
-                    (java.sql.Date) value,
-                    Calendar.getInstance(TimeZone.getDefault()));
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == LocalDate.class) {
-            preparedStatement.setDate(
-                    index,
-                    java.sql.Date.valueOf((LocalDate) value),
-                    Calendar.getInstance(TimeZone.getDefault()));
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Timestamp.class) {
-            Timestamp timestamp = (Timestamp) value;
-            preparedStatement.setTimestamp(index, timestamp, Calendar.getInstance(TimeZone.getDefault()));
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Time.class) {
-            Time time = (Time) value;
-            Calendar calendar = Calendar.getInstance();
-            calendar.setTimeZone(TimeZone.getDefault());
-            preparedStatement.setTime(index, time, calendar);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Boolean.class) {
-            preparedStatement.setBoolean(index, (Boolean) value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else if (type == Character.class) {
-            Character c = (Character) value;
-            preparedStatement.setString(index, String.valueOf(c));
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        } else {
-            preparedStatement.setObject(index, value);
-            log.debug("Query Parameter -> Setting '{}' at index {}", value, index);
-        }
+        parameterBinder.bind(preparedStatement, index, value);
     }
 
 
     protected void setPreparedStatementParameters(
             PreparedStatement preparedStatement,
             List<QueryParameter> queryParameters) throws SQLException {
+        setPreparedStatementParameters(preparedStatement, queryParameters, null);
+    }
+
+    /**
+     * Sets the statement parameters. A not null element of the binding array replaces the value of the
+     * query parameter at the same index, so the query parameters can be shared by concurrent executions. The
+     * parameters beyond the array length keep their own values.
+     *
+     * @param preparedStatement the prepared statement
+     * @param queryParameters   the query parameters
+     * @param parameterValues   the binding array, can be null
+     * @throws SQLException sql exception
+     */
+    protected void setPreparedStatementParameters(
+            PreparedStatement preparedStatement,
+            List<QueryParameter> queryParameters,
+            Object[] parameterValues) throws SQLException {
         if (queryParameters.isEmpty()) {
             return;
         }
 
         int index = 1;
         for (QueryParameter queryParameter : queryParameters) {
-            setPreparedStatementQM(
-                    preparedStatement,
-                    index,
-                    queryParameter.getValue(),
-                    queryParameter.getSqlType(),
-                    queryParameter.getAttributeMapper());
+            Object value = parameterValues == null || index > parameterValues.length ? null
+                    : parameterValues[index - 1];
+            if (value == null) {
+                setPreparedStatementQM(
+                        preparedStatement,
+                        index,
+                        queryParameter.getValue(),
+                        queryParameter.getSqlType(),
+                        queryParameter.getAttributeMapper(),
+                        queryParameter.getParameterBinder());
+            } else {
+                setPreparedStatementQM(
+                        preparedStatement,
+                        index,
+                        value,
+                        JdbcTypes.sqlTypeFromClass(value.getClass()),
+                        queryParameter.getAttributeMapper(),
+                        queryParameter.getParameterBinder());
+            }
+
             ++index;
         }
     }
 
-    public int update(Connection connection, String sql, List<QueryParameter> parameters)
+    /**
+     * Returns a prepared statement for the sql. The connection holder statement cache is used, if any.
+     *
+     * @param connectionHolder the connection holder
+     * @param sql              the sql statement
+     * @return a prepared statement, it must be given back with {@link #releaseStatement(ConnectionHolder,
+     * String, PreparedStatement)}
+     * @throws SQLException sql exception
+     */
+    protected PreparedStatement prepareStatement(ConnectionHolder connectionHolder, String sql)
             throws SQLException {
-        log.info("Running `{}`", sql);
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        PreparedStatementCache preparedStatementCache = connectionHolder.getPreparedStatementCache();
+        if (preparedStatementCache == null) {
+            return connectionHolder.getConnection().prepareStatement(sql);
+        }
+
+        return preparedStatementCache.acquire(connectionHolder.getConnection(), sql);
+    }
+
+    /**
+     * Gives back a statement returned by {@link #prepareStatement(ConnectionHolder, String)} after a successful
+     * execution. A statement whose execution failed must be closed with
+     * {@link #closeStatement(PreparedStatement, Exception)} instead.
+     *
+     * @param connectionHolder  the connection holder
+     * @param sql               the sql statement
+     * @param preparedStatement the statement, <code>null</code> if it was not prepared
+     * @throws SQLException sql exception
+     */
+    protected void releaseStatement(
+            ConnectionHolder connectionHolder,
+            String sql,
+            PreparedStatement preparedStatement) throws SQLException {
+        if (preparedStatement == null) {
+            return;
+        }
+
+        PreparedStatementCache preparedStatementCache = connectionHolder.getPreparedStatementCache();
+        if (preparedStatementCache == null) {
+            preparedStatement.close();
+            return;
+        }
+
+        preparedStatementCache.release(sql, preparedStatement);
+    }
+
+    /**
+     * Closes a statement whose execution failed, it is not given back to the statement cache. A failure
+     * closing the statement is added to the execution exception.
+     *
+     * @param preparedStatement the statement, <code>null</code> if it was not prepared
+     * @param e                 the execution exception
+     */
+    protected void closeStatement(PreparedStatement preparedStatement, Exception e) {
+        if (preparedStatement == null) {
+            return;
+        }
+
+        try {
+            preparedStatement.close();
+        } catch (SQLException closeException) {
+            e.addSuppressed(closeException);
+        }
+    }
+
+    public int update(ConnectionHolder connectionHolder, String sql, List<QueryParameter> parameters)
+            throws SQLException {
+        PreparedStatement preparedStatement = null;
+        try {
+            log.info("Running `{}`", sql);
+            preparedStatement = prepareStatement(connectionHolder, sql);
             setPreparedStatementParameters(preparedStatement, parameters);
             preparedStatement.execute();
             return preparedStatement.getUpdateCount();
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
+        } finally {
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
     }
 
-    public void insert(Connection connection, String sql, List<QueryParameter> parameters)
+    public void insert(ConnectionHolder connectionHolder, String sql, List<QueryParameter> parameters)
             throws SQLException {
         PreparedStatement preparedStatement = null;
         try {
             log.info("Running `{}`", sql);
-            preparedStatement = connection.prepareStatement(sql);
+            preparedStatement = prepareStatement(connectionHolder, sql);
             setPreparedStatementParameters(preparedStatement, parameters);
             preparedStatement.execute();
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
         } finally {
-            if (preparedStatement != null) {
-                preparedStatement.close();
-            }
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
     }
 
@@ -189,30 +240,148 @@ public class JdbcRunner {
         }
     }
 
-    public int delete(String sql, Connection connection, List<QueryParameter> parameters)
+    public int delete(String sql, ConnectionHolder connectionHolder, List<QueryParameter> parameters)
             throws SQLException {
-        log.info("Running `{}`", sql);
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+        PreparedStatement preparedStatement = null;
+        try {
+            log.info("Running `{}`", sql);
+            preparedStatement = prepareStatement(connectionHolder, sql);
             if (!parameters.isEmpty()) {
                 setPreparedStatementParameters(preparedStatement, parameters);
             }
 
             preparedStatement.execute();
             return preparedStatement.getUpdateCount();
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
+        } finally {
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
     }
 
-    public Optional<ModelValueArray<FetchParameter>> findById(
-            String sql,
+    /**
+     * Adds a statement to the batch. The pending rows are executed first if the sql is different from the
+     * batch one or when the batch size is reached.
+     *
+     * @param connection       the connection
+     * @param jdbcBatch        the batch
+     * @param sql              insert, update or delete statement
+     * @param parameters       statement parameters
+     * @param updateCountCheck update count check, invoked when the batch is executed
+     */
+    public void addBatch(
             Connection connection,
+            JdbcBatch jdbcBatch,
+            String sql,
+            List<QueryParameter> parameters,
+            UpdateCountCheck updateCountCheck) throws Exception {
+        if (!jdbcBatch.isEmpty() && !jdbcBatch.getSql().equals(sql)) {
+            executeBatch(jdbcBatch);
+        }
+
+        if (jdbcBatch.getPreparedStatement() == null) {
+            log.info("Batching `{}`", sql);
+            jdbcBatch.start(sql, connection.prepareStatement(sql));
+        }
+
+        PreparedStatement preparedStatement = jdbcBatch.getPreparedStatement();
+        setPreparedStatementParameters(preparedStatement, parameters);
+        preparedStatement.addBatch();
+        jdbcBatch.add(updateCountCheck);
+        if (jdbcBatch.size() >= jdbcBatch.getBatchSize()) {
+            executeBatch(jdbcBatch);
+        }
+    }
+
+    /**
+     * Returns true once a batch execution has shown that the driver reports the update counts. It is false
+     * before the first batch and if the driver returns <code>Statement.SUCCESS_NO_INFO</code>. Statements that
+     * need the update count must not be batched until it is true.
+     *
+     * @return true if the driver is known to report the batch update counts
+     */
+    public boolean isBatchUpdateCountReported() {
+        return Boolean.TRUE.equals(batchUpdateCountReported);
+    }
+
+    /**
+     * Executes the pending rows and checks the update count of each one. The prepared statement is
+     * closed. If the execution or a check fails the checks of the rows not verified are notified.
+     *
+     * @param jdbcBatch the batch
+     */
+    public void executeBatch(JdbcBatch jdbcBatch) throws Exception {
+        if (jdbcBatch.isEmpty()) {
+            jdbcBatch.close();
+            return;
+        }
+
+        try {
+            log.debug("Executing Batch -> Size {}", jdbcBatch.size());
+            List<UpdateCountCheck> updateCountChecks = jdbcBatch.getUpdateCountChecks();
+            int[] updateCounts;
+            try {
+                updateCounts = jdbcBatch.getPreparedStatement().executeBatch();
+            } catch (Exception e) {
+                for (UpdateCountCheck updateCountCheck : updateCountChecks) {
+                    if (updateCountCheck != null)
+                        updateCountCheck.failed();
+                }
+
+                throw e;
+            }
+
+            boolean reported = true;
+            for (int updateCount : updateCounts) {
+                if (updateCount == Statement.SUCCESS_NO_INFO)
+                    reported = false;
+            }
+
+            if (!reported && !Boolean.FALSE.equals(batchUpdateCountReported)) {
+                log.warn("The driver doesn't report the batch update counts, the statements checking them are not batched");
+                batchUpdateCountReported = false;
+            } else if (reported && batchUpdateCountReported == null) {
+                batchUpdateCountReported = true;
+            }
+
+            for (int i = 0; i < updateCounts.length && i < updateCountChecks.size(); ++i) {
+                UpdateCountCheck updateCountCheck = updateCountChecks.get(i);
+                if (updateCountCheck == null)
+                    continue;
+
+                try {
+                    if (updateCounts[i] == Statement.SUCCESS_NO_INFO)
+                        updateCountCheck.notReported();
+                    else
+                        updateCountCheck.check(updateCounts[i]);
+                } catch (Exception e) {
+                    // the following rows are not checked
+                    for (int j = i + 1; j < updateCountChecks.size(); ++j) {
+                        if (updateCountChecks.get(j) != null)
+                            updateCountChecks.get(j).failed();
+                    }
+
+                    throw e;
+                }
+            }
+        } finally {
+            jdbcBatch.close();
+        }
+    }
+
+    public <T> Optional<T> findById(
+            String sql,
+            ConnectionHolder connectionHolder,
             List<QueryParameter> parameters,
-            JdbcValueBuilder<ModelValueArray<FetchParameter>> jdbcValueBuilder)
+            JdbcValueBuilder<T> jdbcValueBuilder)
             throws Exception {
         PreparedStatement preparedStatement = null;
         ResultSet rs = null;
         try {
             log.info("Running `{}`", sql);
-            preparedStatement = connection.prepareStatement(sql);
+            preparedStatement = prepareStatement(connectionHolder, sql);
             setPreparedStatementParameters(preparedStatement, parameters);
 
             rs = preparedStatement.executeQuery();
@@ -223,14 +392,16 @@ public class JdbcRunner {
 
             ResultSetMetaData metaData = rs.getMetaData();
             return jdbcValueBuilder.build(rs, metaData);
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
         } finally {
             if (rs != null) {
                 rs.close();
             }
 
-            if (preparedStatement != null) {
-                preparedStatement.close();
-            }
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
     }
 
@@ -238,165 +409,47 @@ public class JdbcRunner {
             ResultSet rs,
             int index,
             int columnType) throws SQLException {
-        log.debug("Reading from ResultSet using Sql Type {}", columnType);
-        switch (columnType) {
-            case Types.VARCHAR:
-                return rs.getString(index);
-            case Types.INTEGER:
-                return rs.getObject(index, Integer.class);
-            case Types.BIGINT:
-                return rs.getObject(index, Long.class);
-            case Types.DECIMAL:
-                return rs.getBigDecimal(index);
-            case Types.NUMERIC:
-                return rs.getBigDecimal(index);
-            case Types.DOUBLE:
-                return rs.getObject(index, Double.class);
-            case Types.FLOAT:
-            case Types.REAL:
-                return rs.getObject(index, Float.class);
-            case Types.DATE:
-                return rs.getDate(index, Calendar.getInstance());
-            case Types.TIME:
-                Calendar calendar = Calendar.getInstance(TimeZone.getDefault());
-                return rs.getTime(index, calendar);
-            case Types.TIMESTAMP:
-                return rs.getTimestamp(index, Calendar.getInstance());
-            case Types.TIMESTAMP_WITH_TIMEZONE:
-                return rs.getTimestamp(index, Calendar.getInstance());
-            case Types.TIME_WITH_TIMEZONE:
-                return rs.getTime(index, Calendar.getInstance());
-            case Types.BOOLEAN:
-                return rs.getBoolean(index);
-            case Types.TINYINT:
-                break;
-            case Types.ARRAY:
-                break;
-            case Types.BINARY:
-                break;
-            case Types.BIT:
-                break;
-            case Types.BLOB:
-                break;
-            case Types.CHAR:
-                break;
-            case Types.CLOB:
-                break;
-            case Types.DATALINK:
-                break;
-            case Types.DISTINCT:
-                break;
-            case Types.JAVA_OBJECT:
-                break;
-            case Types.LONGNVARCHAR:
-                break;
-            case Types.LONGVARBINARY:
-                break;
-            case Types.LONGVARCHAR:
-                break;
-            case Types.NCHAR:
-                break;
-            case Types.NCLOB:
-                break;
-            case Types.NULL:
-                break;
-            case Types.NVARCHAR:
-                break;
-            case Types.OTHER:
-                return rs.getObject(index);
-            case Types.REF:
-                break;
-            case Types.REF_CURSOR:
-                break;
-            case Types.ROWID:
-                break;
-            case Types.SMALLINT:
-                break;
-            case Types.SQLXML:
-                break;
-            case Types.STRUCT:
-                break;
-            case Types.VARBINARY:
-                break;
-        }
-
-        return null;
+        return ColumnReaders.forSqlType(columnType).read(rs, index);
     }
 
-    public static Object getValueFromResultSet(
-            ResultSet rs,
-            int index,
-            int sqlType,
-            ObjectConverter objectConverter) throws SQLException {
-        Object value = getValueFromResultSet(rs, index, sqlType);
-        log.debug("ResultSet Raw Value: {}", value);
-        if (objectConverter != null)
-            return objectConverter.convertFrom(value);
-
-        return value;
-    }
-
-    protected static Object getValueFromFetchParameter(
-            ResultSet rs,
-            ResultSetMetaData metaData,
-            int index,
-            FetchParameter fetchParameter) throws SQLException {
-        Integer sqlType = fetchParameter.getSqlType();
-        if (sqlType == null) {
-            sqlType = metaData.getColumnType(index);
-        }
-
-        return getValueFromResultSet(rs, index, sqlType, fetchParameter.getObjectConverter());
-    }
-
-    public static Optional<ModelValueArray<FetchParameter>> createModelValueArrayFromResultSetAM(
-            List<FetchParameter> fetchParameters,
-            ResultSet rs,
-            ResultSetMetaData metaData)
-            throws Exception {
-        if (fetchParameters.isEmpty()) {
-            return Optional.empty();
-        }
-
-        ModelValueArray<FetchParameter> modelValueArray = new ModelValueArray<>();
-        int i = 1;
-        for (FetchParameter fetchParameter : fetchParameters) {
-            Object v = getValueFromFetchParameter(rs, metaData, i, fetchParameter);
-            log.debug("ResultSet Value: {}", v);
-            modelValueArray.add(fetchParameter, v);
-            ++i;
-        }
-
-        return Optional.of(modelValueArray);
+    public void runQuery(
+            ConnectionHolder connectionHolder,
+            String sql,
+            List<QueryParameter> parameters,
+            JdbcRecordBuilder jdbcRecordBuilder) throws Exception {
+        runQuery(connectionHolder, sql, parameters, null, jdbcRecordBuilder);
     }
 
     public void runQuery(
-            Connection connection,
+            ConnectionHolder connectionHolder,
             String sql,
             List<QueryParameter> parameters,
+            Object[] parameterValues,
             JdbcRecordBuilder jdbcRecordBuilder) throws Exception {
         PreparedStatement preparedStatement = null;
         ResultSet rs = null;
         try {
             log.info("Running `{}`", sql);
-            preparedStatement = connection.prepareStatement(sql);
-            setPreparedStatementParameters(preparedStatement, parameters);
+            preparedStatement = prepareStatement(connectionHolder, sql);
+            setPreparedStatementParameters(preparedStatement, parameters, parameterValues);
             rs = preparedStatement.executeQuery();
             jdbcRecordBuilder.collectRecords(rs);
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
         } finally {
             if (rs != null) {
                 rs.close();
             }
 
-            if (preparedStatement != null) {
-                preparedStatement.close();
-            }
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
     }
 
 
     public void runNativeQuery(
-            Connection connection,
+            ConnectionHolder connectionHolder,
             String sql,
             List<Object> parameterValues,
             JdbcRecordBuilder recordBuilder) throws Exception {
@@ -404,143 +457,246 @@ public class JdbcRunner {
         ResultSet rs = null;
         log.info("Running `{}`", sql);
         try {
-            preparedStatement = connection.prepareStatement(sql);
-            if (parameterValues != null) {
-                for (int i = 0; i < parameterValues.size(); ++i) {
-                    Object value = parameterValues.get(i);
-                    if (value == null) {
-                        preparedStatement.setObject(i + 1, parameterValues.get(i));
-                    } else {
-                        setPreparedStatementQM(
-                                preparedStatement,
-                                i + 1,
-                                value,
-                                null,
-                                null);
-                    }
-                }
-            }
-
+            preparedStatement = prepareStatement(connectionHolder, sql);
+            setNativeParameterValues(preparedStatement, parameterValues);
             rs = preparedStatement.executeQuery();
             recordBuilder.collectRecords(rs);
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
         } finally {
             if (rs != null) {
                 rs.close();
             }
 
-            if (preparedStatement != null) {
-                preparedStatement.close();
+            releaseStatement(connectionHolder, sql, preparedStatement);
+        }
+    }
+
+    private void setNativeParameterValues(
+            PreparedStatement preparedStatement,
+            List<Object> parameterValues) throws SQLException {
+        if (parameterValues == null) {
+            return;
+        }
+
+        for (int i = 0; i < parameterValues.size(); ++i) {
+            Object value = parameterValues.get(i);
+            if (value == null) {
+                preparedStatement.setObject(i + 1, null);
+            } else {
+                setPreparedStatementQM(
+                        preparedStatement,
+                        i + 1,
+                        value,
+                        null,
+                        null,
+                        ParameterBinders.GENERIC);
             }
         }
     }
 
+    /**
+     * Executes the query and leaves the statement and the result set open. The statement is not taken
+     * from the statement cache, it belongs to the returned cursor and is closed with it.
+     *
+     * @param connectionHolder the connection holder
+     * @param sql              the query
+     * @param parameters       the query parameters
+     * @param fetchSize        the JDBC fetch size, ignored if not positive
+     * @return the open cursor
+     * @throws Exception
+     */
+    public JdbcCursor openCursor(
+            ConnectionHolder connectionHolder,
+            String sql,
+            List<QueryParameter> parameters,
+            int fetchSize) throws Exception {
+        return openCursor(connectionHolder, sql, parameters, null, fetchSize);
+    }
+
+    public JdbcCursor openCursor(
+            ConnectionHolder connectionHolder,
+            String sql,
+            List<QueryParameter> parameters,
+            Object[] parameterValues,
+            int fetchSize) throws Exception {
+        log.info("Running `{}`", sql);
+        PreparedStatement preparedStatement = connectionHolder.getConnection().prepareStatement(sql);
+        try {
+            setPreparedStatementParameters(preparedStatement, parameters, parameterValues);
+            return executeCursor(preparedStatement, fetchSize);
+        } catch (Exception e) {
+            preparedStatement.close();
+            throw e;
+        }
+    }
+
+    public JdbcCursor openNativeCursor(
+            ConnectionHolder connectionHolder,
+            String sql,
+            List<Object> parameterValues,
+            int fetchSize) throws Exception {
+        log.info("Running `{}`", sql);
+        PreparedStatement preparedStatement = connectionHolder.getConnection().prepareStatement(sql);
+        try {
+            setNativeParameterValues(preparedStatement, parameterValues);
+            return executeCursor(preparedStatement, fetchSize);
+        } catch (Exception e) {
+            preparedStatement.close();
+            throw e;
+        }
+    }
+
+    private JdbcCursor executeCursor(
+            PreparedStatement preparedStatement,
+            int fetchSize) throws SQLException {
+        if (fetchSize > 0) {
+            preparedStatement.setFetchSize(fetchSize);
+        }
+
+        return new JdbcCursor(preparedStatement, preparedStatement.executeQuery());
+    }
+
 
-    public Long generateNextSequenceValue(Connection connection, String sql) throws SQLException {
+    public Long generateNextSequenceValue(ConnectionHolder connectionHolder, String sql)
+            throws SQLException {
         log.info("Running `{}`", sql);
         ResultSet rs = null;
         PreparedStatement preparedStatement = null;
         try {
-            preparedStatement = connection.prepareStatement(sql);
+            preparedStatement = prepareStatement(connectionHolder, sql);
             preparedStatement.execute();
             rs = preparedStatement.getResultSet();
             if (rs.next()) {
                 return rs.getLong(1);
             }
+        } catch (Exception e) {
+            closeStatement(preparedStatement, e);
+            preparedStatement = null;
+            throw e;
         } finally {
             if (rs != null) {
                 rs.close();
             }
 
-            if (preparedStatement != null) {
-                preparedStatement.close();
-            }
+            releaseStatement(connectionHolder, sql, preparedStatement);
         }
 
         return null;
     }
 
-    public static class JdbcRecordBuilderValue implements JdbcRecordBuilder {
+    public static class JdbcRecordBuilderValue implements JdbcRecordBuilder, JdbcRowRecordBuilder {
 
-        private List<FetchParameter> fetchParameters;
+        private RowReader rowReader;
         private Collection<Object> collectionResult;
+        private ResultSetMetaData metaData;
+        private ColumnReader[] columnReaders;
 
         public void setFetchParameters(List<FetchParameter> fetchParameters) {
-            this.fetchParameters = fetchParameters;
+            this.rowReader = new RowReader(fetchParameters);
+        }
+
+        public void setRowReader(RowReader rowReader) {
+            this.rowReader = rowReader;
         }
 
         public void setCollectionResult(Collection<Object> collectionResult) {
             this.collectionResult = collectionResult;
         }
 
+        /**
+         * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+         */
+        public void clear() {
+            rowReader = null;
+            collectionResult = null;
+            metaData = null;
+            columnReaders = null;
+        }
+
         @Override
         public void collectRecords(ResultSet rs) throws Exception {
-            int nc = fetchParameters.size();
-            ResultSetMetaData metaData = rs.getMetaData();
-            if (nc == 1) {
-                while (rs.next()) {
-                    FetchParameter fetchParameter = fetchParameters.get(0);
-                    Object v = getValueFromFetchParameter(rs, metaData, 1, fetchParameter);
-                    collectionResult.add(v);
-                }
-            } else {
-                while (rs.next()) {
-                    Object[] values = new Object[nc];
-                    for (int i = 0; i < nc; ++i) {
-                        FetchParameter fetchParameter = fetchParameters.get(i);
-                        Object v = getValueFromFetchParameter(rs, metaData, i + 1, fetchParameter);
-                        values[i] = v;
-                    }
+            init(rs);
+            while (rs.next()) {
+                collectionResult.add(buildRecord(rs));
+            }
+        }
 
-                    collectionResult.add(values);
-                }
+        @Override
+        public void init(ResultSet rs) throws Exception {
+            metaData = rs.getMetaData();
+            columnReaders = rowReader.getColumnReaders(metaData);
+        }
+
+        @Override
+        public Object buildRecord(ResultSet rs) throws Exception {
+            if (columnReaders.length == 1) {
+                return columnReaders[0].read(rs, 1);
             }
+
+            return rowReader.readValues(rs, metaData);
         }
     }
 
-    public static class JdbcValueBuilderById implements
-            JdbcValueBuilder<ModelValueArray<FetchParameter>> {
+    public static class JdbcValueBuilderById implements JdbcValueBuilder<FetchRow> {
 
-        private List<FetchParameter> fetchParameters;
+        private RowReader rowReader;
 
         public void setFetchParameters(List<FetchParameter> fetchParameters) {
-            this.fetchParameters = fetchParameters;
+            this.rowReader = new RowReader(fetchParameters);
+        }
+
+        public void setRowReader(RowReader rowReader) {
+            this.rowReader = rowReader;
         }
 
         @Override
-        public Optional<ModelValueArray<FetchParameter>> build(ResultSet rs, ResultSetMetaData metaData)
-                throws Exception {
-            return createModelValueArrayFromResultSetAM(fetchParameters, rs, metaData);
+        public Optional<FetchRow> build(ResultSet rs, ResultSetMetaData metaData) throws Exception {
+            return rowReader.readRow(rs, metaData);
         }
     }
 
-    public static class JdbcNativeRecordBuilder implements JdbcRecordBuilder {
+    public static class JdbcNativeRecordBuilder implements JdbcRecordBuilder, JdbcRowRecordBuilder {
 
         private List<Object> objects;
+        private ColumnReader[] columnReaders;
 
         public void setCollection(List<Object> objects) {
             this.objects = objects;
         }
 
+        /**
+         * Removes the references to the last query execution, so a pooled builder doesn't keep them reachable.
+         */
+        public void clear() {
+            objects = null;
+            columnReaders = null;
+        }
+
         @Override
         public void collectRecords(ResultSet rs) throws Exception {
-            ResultSetMetaData metaData = rs.getMetaData();
+            init(rs);
             while (rs.next()) {
-                Object value = buildNativeRecord(metaData, rs);
-                objects.add(value);
+                objects.add(buildRecord(rs));
             }
         }
 
-        private Object buildNativeRecord(ResultSetMetaData metaData, ResultSet rs) throws SQLException {
-            int nc = metaData.getColumnCount();
-            if (nc == 1) {
-                int columnType = metaData.getColumnType(1);
-                return getValueFromResultSet(rs, 1, columnType);
+        @Override
+        public void init(ResultSet rs) throws Exception {
+            columnReaders = ColumnReaders.forColumns(rs.getMetaData());
+        }
+
+        @Override
+        public Object buildRecord(ResultSet rs) throws Exception {
+            if (columnReaders.length == 1) {
+                return columnReaders[0].read(rs, 1);
             }
 
-            Object[] values = new Object[nc];
-            for (int i = 0; i < nc; ++i) {
-                int columnType = metaData.getColumnType(i + 1);
-                values[i] = getValueFromResultSet(rs, i + 1, columnType);
+            Object[] values = new Object[columnReaders.length];
+            for (int i = 0; i < columnReaders.length; ++i) {
+                values[i] = columnReaders[i].read(rs, i + 1);
             }
 
             return values;
@@ -17,16 +17,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 /**
  * @param <T>
  * @author adamato
  */
 public class ModelValueArray<T> {
 
-    private Logger LOG = LoggerFactory.getLogger(ModelValueArray.class);
     private final List<T> models = new ArrayList<>();
     private final List<Object> values = new ArrayList<>();
 
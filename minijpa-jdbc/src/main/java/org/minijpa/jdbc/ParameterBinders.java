@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Parameter binders for the supported database types. A typed binder falls back to the runtime class of the
+ * value if it doesn't match the expected type. Date and time values are bound using a calendar confined to
+ * the current thread, created with the default time zone.
+ */
+public final class ParameterBinders {
+
+    private static final ThreadLocal<Calendar> CALENDAR = ThreadLocal
+            .withInitial(() -> Calendar.getInstance(TimeZone.getDefault()));
+
+    public static final ParameterBinder OBJECT = PreparedStatement::setObject;
+
+    /**
+     * Resolves the binder from the runtime class of the value.
+     */
+    public static final ParameterBinder GENERIC = new ParameterBinder() {
+        @Override
+        public void bind(PreparedStatement preparedStatement, int index, Object value) throws SQLException {
+            BINDERS_BY_CLASS.get(value.getClass()).bind(preparedStatement, index, value);
+        }
+    };
+
+    public static final ParameterBinder STRING = (ps, index, value) -> {
+        if (value instanceof String)
+            ps.setString(index, (String) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder INTEGER = (ps, index, value) -> {
+        if (value instanceof Integer)
+            ps.setInt(index, (Integer) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder LONG = (ps, index, value) -> {
+        if (value instanceof Long)
+            ps.setLong(index, (Long) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder FLOAT = (ps, index, value) -> {
+        if (value instanceof Float)
+            ps.setFloat(index, (Float) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder DOUBLE = (ps, index, value) -> {
+        if (value instanceof Double)
+            ps.setDouble(index, (Double) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder BIG_DECIMAL = (ps, index, value) -> {
+        if (value instanceof BigDecimal)
+            ps.setBigDecimal(index, (BigDecimal) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder BOOLEAN = (ps, index, value) -> {
+        if (value instanceof Boolean)
+            ps.setBoolean(index, (Boolean) value);
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder CHARACTER = (ps, index, value) -> {
+        if (value instanceof Character)
+            ps.setString(index, String.valueOf((char) (Character) value));
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder SQL_DATE = (ps, index, value) -> {
+        if (value instanceof java.sql.Date)
+            ps.setDate(index, (java.sql.Date) value, CALENDAR.get());
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder LOCAL_DATE = (ps, index, value) -> {
+        if (value instanceof LocalDate)
+            ps.setDate(index, java.sql.Date.valueOf((LocalDate) value), CALENDAR.get());
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder TIMESTAMP = (ps, index, value) -> {
+        if (value instanceof Timestamp)
+            ps.setTimestamp(index, (Timestamp) value, CALENDAR.get());
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    public static final ParameterBinder TIME = (ps, index, value) -> {
+        if (value instanceof Time)
+            ps.setTime(index, (Time) value, CALENDAR.get());
+        else
+            GENERIC.bind(ps, index, value);
+    };
+
+    private static final Map<Class<?>, ParameterBinder> BINDERS = Map.ofEntries(
+            Map.entry(String.class, STRING),
+            Map.entry(Integer.class, INTEGER),
+            Map.entry(Integer.TYPE, INTEGER),
+            Map.entry(Long.class, LONG),
+            Map.entry(Long.TYPE, LONG),
+            Map.entry(Float.class, FLOAT),
+            Map.entry(Float.TYPE, FLOAT),
+            Map.entry(Double.class, DOUBLE),
+            Map.entry(Double.TYPE, DOUBLE),
+            Map.entry(BigDecimal.class, BIG_DECIMAL),
+            Map.entry(Boolean.class, BOOLEAN),
+            Map.entry(Boolean.TYPE, BOOLEAN),
+            Map.entry(Character.class, CHARACTER),
+            Map.entry(Character.TYPE, CHARACTER),
+            Map.entry(java.sql.Date.class, SQL_DATE),
+            Map.entry(LocalDate.class, LOCAL_DATE),
+            Map.entry(Timestamp.class, TIMESTAMP),
+            Map.entry(Time.class, TIME));
+
+    // runtime classes are exact, subclasses are bound with setObject
+    private static final ClassValue<ParameterBinder> BINDERS_BY_CLASS = new ClassValue<>() {
+        @Override
+        protected ParameterBinder computeValue(Class<?> type) {
+            return BINDERS.getOrDefault(type, OBJECT);
+        }
+    };
+
+    private ParameterBinders() {
+    }
+
+    /**
+     * Returns the binder for the database type.
+     *
+     * @param databaseType the database type, can be null
+     * @return the typed binder or the generic one if the type is unknown
+     */
+    public static ParameterBinder forType(Class<?> databaseType) {
+        if (databaseType == null)
+            return GENERIC;
+
+        return BINDERS.getOrDefault(databaseType, GENERIC);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LRU cache of prepared statements keyed by sql. A statement is removed from the cache while it is in use,
+ * so nested executions of the same sql get a new statement. The cache is bound to a single connection and
+ * must be cleared when the connection is closed.
+ */
+public class PreparedStatementCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PreparedStatementCache.class);
+    public static final int DEFAULT_SIZE = 64;
+    private final int maxSize;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+
+    public PreparedStatementCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the cached statement for the sql or prepares a new one.
+     *
+     * @param connection the connection
+     * @param sql        the sql statement
+     * @return a prepared statement, it must be given back with {@link #release(String, PreparedStatement)}
+     * @throws SQLException sql exception
+     */
+    public PreparedStatement acquire(Connection connection, String sql) throws SQLException {
+        PreparedStatement preparedStatement = statements.remove(sql);
+        if (preparedStatement != null && !preparedStatement.isClosed()) {
+            ++hits;
+            return preparedStatement;
+        }
+
+        ++misses;
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Clears the statement parameters and puts the statement back in the cache. The least recently used
+     * statement is closed if the cache is full.
+     *
+     * @param sql               the sql statement
+     * @param preparedStatement the statement returned by {@link #acquire(Connection, String)}
+     * @throws SQLException sql exception
+     */
+    public void release(String sql, PreparedStatement preparedStatement) throws SQLException {
+        if (maxSize <= 0 || preparedStatement.isClosed()) {
+            preparedStatement.close();
+            return;
+        }
+
+        try {
+            preparedStatement.clearParameters();
+        } catch (SQLException e) {
+            preparedStatement.close();
+            throw e;
+        }
+
+        PreparedStatement previous = statements.put(sql, preparedStatement);
+        if (previous != null && previous != preparedStatement) {
+            previous.close();
+        }
+
+        if (statements.size() > maxSize) {
+            Iterator<Map.Entry<String, PreparedStatement>> iterator = statements.entrySet().iterator();
+            PreparedStatement eldest = iterator.next().getValue();
+            iterator.remove();
+            eldest.close();
+        }
+    }
+
+    /**
+     * Closes all the cached statements.
+     */
+    public void clear() {
+        for (PreparedStatement preparedStatement : statements.values()) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                log.warn("Prepared Statement Cache -> Closing statement failed: {}", e.getMessage());
+            }
+        }
+
+        statements.clear();
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -18,9 +18,10 @@ import org.minijpa.jdbc.mapper.ObjectConverter;
 public class QueryParameter {
 
     private final Object column;
-    private Object value;
-    private Integer sqlType;
+    private final Object value;
+    private final Integer sqlType;
     protected ObjectConverter objectConverter;
+    private ParameterBinder parameterBinder = ParameterBinders.GENERIC;
     private String inputParameter;
 
     public QueryParameter(
@@ -35,6 +36,16 @@ public class QueryParameter {
         this.objectConverter = objectConverter;
     }
 
+    public QueryParameter(
+            Object column,
+            Object value,
+            Integer sqlType,
+            ObjectConverter objectConverter,
+            ParameterBinder parameterBinder) {
+        this(column, value, sqlType, objectConverter);
+        this.parameterBinder = parameterBinder;
+    }
+
     public QueryParameter(
             Object column,
             Object value,
@@ -53,22 +64,18 @@ public class QueryParameter {
         return value;
     }
 
-    public void setValue(Object value) {
-        this.value = value;
-    }
-
     public Integer getSqlType() {
         return sqlType;
     }
 
-    public void setSqlType(Integer sqlType) {
-        this.sqlType = sqlType;
-    }
-
     public ObjectConverter getAttributeMapper() {
         return objectConverter;
     }
 
+    public ParameterBinder getParameterBinder() {
+        return parameterBinder;
+    }
+
     public String getInputParameter() {
         return inputParameter;
     }
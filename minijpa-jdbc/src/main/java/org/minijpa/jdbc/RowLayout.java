@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The slots of the fetch parameters in a row. The slot of each model is computed once, the rows built with
+ * the same layout are read by index.
+ */
+public class RowLayout {
+
+    private final List<FetchParameter> fetchParameters;
+    private final Map<Object, Integer> slots;
+
+    public RowLayout(List<FetchParameter> fetchParameters) {
+        this.fetchParameters = fetchParameters;
+        this.slots = new IdentityHashMap<>(fetchParameters.size() * 2);
+        for (int i = 0; i < fetchParameters.size(); ++i) {
+            slots.putIfAbsent(fetchParameters.get(i).getModel(), i);
+        }
+    }
+
+    public List<FetchParameter> getFetchParameters() {
+        return fetchParameters;
+    }
+
+    public int size() {
+        return fetchParameters.size();
+    }
+
+    /**
+     * Returns the slot of the first fetch parameter reading the model.
+     *
+     * @param model the model
+     * @return the slot or -1 if the model is not read
+     */
+    public int indexOf(Object model) {
+        Integer index = slots.get(model);
+        return index == null ? -1 : index;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the fetch parameters from a result set row. The column readers are resolved on the first row and
+ * reused for the following rows and executions, the rows share the same layout.
+ */
+public class RowReader {
+
+    private final List<FetchParameter> fetchParameters;
+    private final RowLayout rowLayout;
+    private volatile ColumnReader[] columnReaders;
+
+    public RowReader(List<FetchParameter> fetchParameters) {
+        this.fetchParameters = fetchParameters;
+        this.rowLayout = new RowLayout(fetchParameters);
+    }
+
+    public List<FetchParameter> getFetchParameters() {
+        return fetchParameters;
+    }
+
+    public RowLayout getRowLayout() {
+        return rowLayout;
+    }
+
+    public ColumnReader[] getColumnReaders(ResultSetMetaData metaData) throws SQLException {
+        ColumnReader[] readers = columnReaders;
+        if (readers == null) {
+            readers = new ColumnReader[fetchParameters.size()];
+            for (int i = 0; i < readers.length; ++i) {
+                readers[i] = ColumnReaders.forFetchParameter(fetchParameters.get(i), metaData, i + 1);
+            }
+
+            columnReaders = readers;
+        }
+
+        return readers;
+    }
+
+    public Object[] readValues(ResultSet rs, ResultSetMetaData metaData) throws SQLException {
+        ColumnReader[] readers = getColumnReaders(metaData);
+        Object[] values = new Object[readers.length];
+        for (int i = 0; i < readers.length; ++i) {
+            values[i] = readers[i].read(rs, i + 1);
+        }
+
+        return values;
+    }
+
+    public Optional<FetchRow> readRow(ResultSet rs, ResultSetMetaData metaData) throws SQLException {
+        if (fetchParameters.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new FetchRow(rowLayout, readValues(rs, metaData)));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.minijpa.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Verifies the update count of a single statement execution. Batched statements are checked when the
+ * batch is executed.
+ */
+@FunctionalInterface
+public interface UpdateCountCheck {
+    void check(int updateCount) throws Exception;
+
+    /**
+     * Invoked when the statement execution fails, the update count is not available.
+     */
+    default void failed() throws Exception {
+    }
+
+    /**
+     * Invoked when the batched statement is executed but the driver doesn't report its update count
+     * (<code>Statement.SUCCESS_NO_INFO</code>). The count can't be verified, an exception is thrown by default.
+     */
+    default void notReported() throws Exception {
+        throw new SQLException("The update count of the batched statement is not reported by the driver");
+    }
+
+}
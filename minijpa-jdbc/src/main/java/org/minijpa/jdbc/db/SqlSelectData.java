@@ -3,10 +3,12 @@ package org.minijpa.jdbc.db;
 import java.util.List;
 
 import org.minijpa.jdbc.FetchParameter;
+import org.minijpa.jdbc.RowReader;
 import org.minijpa.sql.model.SqlSelect;
 
 public class SqlSelectData extends SqlSelect {
     private List<FetchParameter> fetchParameters;
+    private RowReader rowReader;
 
     public SqlSelectData() {
         super();
@@ -18,6 +20,19 @@ public class SqlSelectData extends SqlSelect {
 
     public void setFetchParameters(List<FetchParameter> fetchParameters) {
         this.fetchParameters = fetchParameters;
+        this.rowReader = null;
+    }
+
+    /**
+     * Returns the reader of the fetch parameters. Column readers are resolved once for this select.
+     *
+     * @return the row reader
+     */
+    public RowReader getRowReader() {
+        if (rowReader == null)
+            rowReader = new RowReader(fetchParameters);
+
+        return rowReader;
     }
 
 }
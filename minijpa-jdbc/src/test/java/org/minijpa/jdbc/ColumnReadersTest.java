@@ -0,0 +1,56 @@
+package org.minijpa.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.minijpa.jdbc.mapper.ToLongObjectConverter;
+
+public class ColumnReadersTest {
+    @Test
+    public void forSqlType() {
+        assertSame(ColumnReaders.STRING, ColumnReaders.forSqlType(Types.VARCHAR));
+        assertSame(ColumnReaders.STRING, ColumnReaders.forSqlType(Types.CHAR));
+        assertSame(ColumnReaders.STRING, ColumnReaders.forSqlType(Types.CLOB));
+        assertSame(ColumnReaders.INTEGER, ColumnReaders.forSqlType(Types.INTEGER));
+        assertSame(ColumnReaders.INTEGER, ColumnReaders.forSqlType(Types.SMALLINT));
+        assertSame(ColumnReaders.LONG, ColumnReaders.forSqlType(Types.BIGINT));
+        assertSame(ColumnReaders.BIG_DECIMAL, ColumnReaders.forSqlType(Types.NUMERIC));
+        assertSame(ColumnReaders.FLOAT, ColumnReaders.forSqlType(Types.REAL));
+        assertSame(ColumnReaders.DOUBLE, ColumnReaders.forSqlType(Types.DOUBLE));
+        assertSame(ColumnReaders.DATE, ColumnReaders.forSqlType(Types.DATE));
+        assertSame(ColumnReaders.TIME, ColumnReaders.forSqlType(Types.TIME));
+        assertSame(ColumnReaders.TIMESTAMP, ColumnReaders.forSqlType(Types.TIMESTAMP));
+        assertSame(ColumnReaders.BOOLEAN, ColumnReaders.forSqlType(Types.BIT));
+        assertSame(ColumnReaders.BYTES, ColumnReaders.forSqlType(Types.BLOB));
+        assertSame(ColumnReaders.BYTES, ColumnReaders.forSqlType(Types.VARBINARY));
+        assertSame(ColumnReaders.OBJECT, ColumnReaders.forSqlType(Types.OTHER));
+    }
+
+    @Test
+    public void forFetchParameter() throws Exception {
+        assertSame(ColumnReaders.CHARACTER,
+                ColumnReaders.forFetchParameter(new BasicFetchParameter("c", Types.CHAR), null, 1));
+        assertSame(ColumnReaders.LONG,
+                ColumnReaders.forFetchParameter(new BasicFetchParameter("id", Types.BIGINT), null, 1));
+        ColumnReader columnReader = ColumnReaders.forFetchParameter(
+                new BasicFetchParameter("id", Types.BIGINT, new ToLongObjectConverter()), null, 1);
+        assertNotSame(ColumnReaders.LONG, columnReader);
+    }
+
+    @Test
+    public void rowReader() throws Exception {
+        List<FetchParameter> fetchParameters = List.of(new BasicFetchParameter("id", Types.BIGINT),
+                new BasicFetchParameter("name", Types.VARCHAR));
+        RowReader rowReader = new RowReader(fetchParameters);
+        ColumnReader[] columnReaders = rowReader.getColumnReaders(null);
+        assertEquals(2, columnReaders.length);
+        assertSame(ColumnReaders.LONG, columnReaders[0]);
+        assertSame(ColumnReaders.STRING, columnReaders[1]);
+        assertSame(columnReaders, rowReader.getColumnReaders(null));
+    }
+}
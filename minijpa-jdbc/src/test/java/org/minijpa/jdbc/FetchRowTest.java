@@ -0,0 +1,37 @@
+package org.minijpa.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class FetchRowTest {
+    @Test
+    public void indexOf() {
+        FetchParameter fp1 = new BasicFetchParameter("id", Types.BIGINT);
+        FetchParameter fp2 = new BasicFetchParameter("name", Types.VARCHAR);
+        FetchParameter fp3 = new BasicFetchParameter("id", Types.BIGINT);
+        RowLayout rowLayout = new RowLayout(List.of(fp1, fp2));
+        assertEquals(2, rowLayout.size());
+        assertEquals(0, rowLayout.indexOf(fp1));
+        assertEquals(1, rowLayout.indexOf(fp2));
+        // models are compared by identity
+        assertEquals(-1, rowLayout.indexOf(fp3));
+
+        FetchRow fetchRow = new FetchRow(rowLayout, new Object[]{1L, "William"});
+        assertEquals(2, fetchRow.size());
+        assertEquals("William", fetchRow.getValue(fetchRow.indexOf(fp2)));
+        assertSame(fp1, fetchRow.getFetchParameter(0));
+    }
+
+    @Test
+    public void firstSlot() {
+        FetchParameter fp1 = new BasicFetchParameter("id", Types.BIGINT);
+        FetchRow fetchRow = new FetchRow(new RowLayout(List.of(fp1, fp1)), new Object[]{1L, 2L});
+        assertEquals(0, fetchRow.indexOf(fp1));
+        assertEquals(1L, fetchRow.getValue(fetchRow.indexOf(fp1)));
+    }
+}
@@ -68,7 +68,7 @@ public class JdbcRunnerTest {
         QueryParameter qp1 = new QueryParameter("id", 1L, Types.BIGINT);
         QueryParameter qp2 = new QueryParameter("first_name", "William", Types.VARCHAR);
         QueryParameter qp3 = new QueryParameter("last_name", "Shakespeare", Types.VARCHAR);
-        jdbcRunner.insert(connection, "insert into citizen (id,first_name,last_name) values (?,?,?)",
+        jdbcRunner.insert(connectionHolder, "insert into citizen (id,first_name,last_name) values (?,?,?)",
                 Arrays.asList(qp1, qp2, qp3));
 
         FetchParameter fp1 = new BasicFetchParameter("id", Types.BIGINT,
@@ -79,27 +79,256 @@ public class JdbcRunnerTest {
 
         jdbcValueBuilderById.setFetchParameters(fetchParameters);
         Optional<?> optional = jdbcRunner.findById(
-                "select id,first_name,last_name from citizen where id=?", connection,
+                "select id,first_name,last_name from citizen where id=?", connectionHolder,
                 List.of(qp1), jdbcValueBuilderById);
-        ModelValueArray<FetchParameter> modelValueArray = (ModelValueArray<FetchParameter>) optional.get();
+        FetchRow fetchRow = (FetchRow) optional.get();
 
-        Assertions.assertEquals(3, modelValueArray.size());
-        Assertions.assertEquals(1L, modelValueArray.getValue(0));
-        Assertions.assertEquals("William", modelValueArray.getValue(1));
-        Assertions.assertEquals("Shakespeare", modelValueArray.getValue(2));
+        Assertions.assertEquals(3, fetchRow.size());
+        Assertions.assertEquals(1L, fetchRow.getValue(0));
+        Assertions.assertEquals("William", fetchRow.getValue(1));
+        Assertions.assertEquals("Shakespeare", fetchRow.getValue(2));
 
-        jdbcRunner.delete("delete from citizen where id=?", connection, List.of(qp1));
+        jdbcRunner.delete("delete from citizen where id=?", connectionHolder, List.of(qp1));
         connectionHolder.commit();
 
         jdbcValueBuilderById.setFetchParameters(fetchParameters);
         optional = jdbcRunner.findById("select id,first_name,last_name from citizen where id=?",
-                connection,
+                connectionHolder,
                 List.of(qp1), jdbcValueBuilderById);
         Assertions.assertTrue(optional.isEmpty());
         scriptRunner.runDDLStatements(List.of("drop table citizen"), connection);
         connectionHolder.closeConnection();
     }
 
+    @Test
+    public void batch() throws Exception {
+        ConnectionProvider connectionProvider = new LocalConnectionProvider(properties.get("url"),
+                properties.get("driver"), properties.get("user"), properties.get("password"));
+        connectionProvider.init();
+        ConnectionHolder connectionHolder = new ConnectionHolderImpl(connectionProvider);
+        Connection connection = connectionHolder.getConnection();
+
+        JdbcDDLData jdbcDDLData = new JdbcDDLData(null, 255, null,
+                null, null, null);
+        SqlCreateTable sqlCreateTable = new SqlCreateTable("citizen",
+                new SimpleSqlPk(new ColumnDeclaration("id", Long.class)),
+                Arrays.asList(new ColumnDeclaration("first_name", String.class, jdbcDDLData),
+                        new ColumnDeclaration("last_name", String.class, jdbcDDLData)));
+        String createTableStmt = sqlStatementGenerator.export(sqlCreateTable);
+        scriptRunner.runDDLStatements(List.of(createTableStmt), connection);
+
+        String insertSql = "insert into citizen (id,first_name,last_name) values (?,?,?)";
+        JdbcBatch jdbcBatch = new JdbcBatch(2);
+        for (long i = 1; i <= 3; ++i) {
+            jdbcRunner.addBatch(connection, jdbcBatch, insertSql,
+                    Arrays.asList(new QueryParameter("id", i, Types.BIGINT),
+                            new QueryParameter("first_name", "William", Types.VARCHAR),
+                            new QueryParameter("last_name", "Shakespeare", Types.VARCHAR)), null);
+        }
+
+        // the batch size has been reached once
+        assertEquals(1, jdbcBatch.size());
+
+        // a different statement executes the pending row first
+        List<Integer> updateCounts = new ArrayList<>();
+        String updateSql = "update citizen set last_name=? where id=?";
+        jdbcRunner.addBatch(connection, jdbcBatch, updateSql,
+                Arrays.asList(new QueryParameter("last_name", "Poe", Types.VARCHAR),
+                        new QueryParameter("id", 3L, Types.BIGINT)), updateCounts::add);
+        jdbcRunner.addBatch(connection, jdbcBatch, updateSql,
+                Arrays.asList(new QueryParameter("last_name", "Poe", Types.VARCHAR),
+                        new QueryParameter("id", 4L, Types.BIGINT)), updateCounts::add);
+        assertEquals(0, jdbcBatch.size());
+        assertTrue(jdbcRunner.isBatchUpdateCountReported());
+        assertEquals(2, updateCounts.size());
+        assertEquals(1, updateCounts.get(0));
+        assertEquals(0, updateCounts.get(1));
+
+        jdbcRunner.addBatch(connection, jdbcBatch, "delete from citizen where id=?",
+                List.of(new QueryParameter("id", 1L, Types.BIGINT)), null);
+        jdbcRunner.executeBatch(jdbcBatch);
+        assertTrue(jdbcBatch.isEmpty());
+
+        FetchParameter fp = new BasicFetchParameter("last_name", Types.VARCHAR);
+        jdbcRecordBuilderValue.setFetchParameters(List.of(fp));
+        List<Object> collectionResult = new ArrayList<>();
+        jdbcRecordBuilderValue.setCollectionResult(collectionResult);
+        jdbcRunner.runQuery(connectionHolder, "select last_name from citizen order by id", List.of(),
+                jdbcRecordBuilderValue);
+        assertEquals(List.of("Shakespeare", "Poe"), collectionResult);
+
+        connectionHolder.commit();
+        scriptRunner.runDDLStatements(List.of("drop table citizen"), connection);
+        connectionHolder.closeConnection();
+    }
+
+    @Test
+    public void batchUpdateCountNotReported() throws Exception {
+        // a driver reporting SUCCESS_NO_INFO for the batched statements
+        PreparedStatement preparedStatement = (PreparedStatement) java.lang.reflect.Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> method.getName().equals("executeBatch")
+                        ? new int[]{Statement.SUCCESS_NO_INFO} : null);
+        Connection connection = (Connection) java.lang.reflect.Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> method.getName().equals("prepareStatement") ? preparedStatement : null);
+
+        // unknown before the first batch
+        JdbcRunner runner = new JdbcRunner();
+        Assertions.assertFalse(runner.isBatchUpdateCountReported());
+        JdbcBatch jdbcBatch = new JdbcBatch(2);
+        runner.addBatch(connection, jdbcBatch, "insert into citizen (id,last_name) values (?,?)",
+                Arrays.asList(new QueryParameter("id", 3L, Types.BIGINT),
+                        new QueryParameter("last_name", "Poe", Types.VARCHAR)), null);
+        runner.executeBatch(jdbcBatch);
+        Assertions.assertFalse(runner.isBatchUpdateCountReported());
+
+        // a checked statement without update count is not assumed to be successful
+        List<Integer> updateCounts = new ArrayList<>();
+        runner.addBatch(connection, jdbcBatch, "update citizen set last_name=? where id=?",
+                Arrays.asList(new QueryParameter("last_name", "Poe", Types.VARCHAR),
+                        new QueryParameter("id", 3L, Types.BIGINT)), updateCounts::add);
+        Assertions.assertThrows(SQLException.class, () -> runner.executeBatch(jdbcBatch));
+        assertTrue(updateCounts.isEmpty());
+        assertTrue(jdbcBatch.isEmpty());
+    }
+
+    @Test
+    public void batchFailure() throws Exception {
+        ConnectionProvider connectionProvider = new LocalConnectionProvider(properties.get("url"),
+                properties.get("driver"), properties.get("user"), properties.get("password"));
+        connectionProvider.init();
+        ConnectionHolder connectionHolder = new ConnectionHolderImpl(connectionProvider);
+        Connection connection = connectionHolder.getConnection();
+
+        JdbcDDLData jdbcDDLData = new JdbcDDLData(null, 255, null,
+                null, null, null);
+        SqlCreateTable sqlCreateTable = new SqlCreateTable("citizen",
+                new SimpleSqlPk(new ColumnDeclaration("id", Long.class)),
+                Arrays.asList(new ColumnDeclaration("first_name", String.class, jdbcDDLData),
+                        new ColumnDeclaration("last_name", String.class, jdbcDDLData)));
+        String createTableStmt = sqlStatementGenerator.export(sqlCreateTable);
+        scriptRunner.runDDLStatements(List.of(createTableStmt), connection);
+
+        // the same primary key twice
+        List<Integer> failures = new ArrayList<>();
+        UpdateCountCheck updateCountCheck = new UpdateCountCheck() {
+            @Override
+            public void check(int updateCount) {
+            }
+
+            @Override
+            public void failed() {
+                failures.add(1);
+            }
+        };
+        String insertSql = "insert into citizen (id,first_name,last_name) values (?,?,?)";
+        JdbcBatch jdbcBatch = new JdbcBatch(10);
+        for (int i = 0; i < 2; ++i) {
+            jdbcRunner.addBatch(connection, jdbcBatch, insertSql,
+                    Arrays.asList(new QueryParameter("id", 1L, Types.BIGINT),
+                            new QueryParameter("first_name", "William", Types.VARCHAR),
+                            new QueryParameter("last_name", "Shakespeare", Types.VARCHAR)), updateCountCheck);
+        }
+
+        Assertions.assertThrows(SQLException.class, () -> jdbcRunner.executeBatch(jdbcBatch));
+        assertEquals(2, failures.size());
+        assertTrue(jdbcBatch.isEmpty());
+
+        connectionHolder.rollback();
+        scriptRunner.runDDLStatements(List.of("drop table citizen"), connection);
+        connectionHolder.closeConnection();
+    }
+
+    @Test
+    public void preparedStatementCache() throws Exception {
+        ConnectionProvider connectionProvider = new LocalConnectionProvider(properties.get("url"),
+                properties.get("driver"), properties.get("user"), properties.get("password"));
+        connectionProvider.init();
+        ConnectionHolder connectionHolder = new ConnectionHolderImpl(connectionProvider, 2);
+        Connection connection = connectionHolder.getConnection();
+        PreparedStatementCache preparedStatementCache = connectionHolder.getPreparedStatementCache();
+
+        JdbcDDLData jdbcDDLData = new JdbcDDLData(null, 255, null,
+                null, null, null);
+        SqlCreateTable sqlCreateTable = new SqlCreateTable("citizen",
+                new SimpleSqlPk(new ColumnDeclaration("id", Long.class)),
+                Arrays.asList(new ColumnDeclaration("first_name", String.class, jdbcDDLData),
+                        new ColumnDeclaration("last_name", String.class, jdbcDDLData)));
+        String createTableStmt = sqlStatementGenerator.export(sqlCreateTable);
+        scriptRunner.runDDLStatements(List.of(createTableStmt), connection);
+
+        String insertSql = "insert into citizen (id,first_name,last_name) values (?,?,?)";
+        for (long i = 1; i <= 3; ++i) {
+            jdbcRunner.insert(connectionHolder, insertSql,
+                    Arrays.asList(new QueryParameter("id", i, Types.BIGINT),
+                            new QueryParameter("first_name", "William", Types.VARCHAR),
+                            new QueryParameter("last_name", "Shakespeare", Types.VARCHAR)));
+        }
+
+        assertEquals(1, preparedStatementCache.getMisses());
+        assertEquals(2, preparedStatementCache.getHits());
+        assertEquals(1, preparedStatementCache.size());
+
+        FetchParameter fp = new BasicFetchParameter("first_name", Types.VARCHAR);
+        String selectSql = "select first_name from citizen where id=?";
+        for (long i = 1; i <= 3; ++i) {
+            jdbcValueBuilderById.setFetchParameters(List.of(fp));
+            Optional<FetchRow> optional = jdbcRunner.findById(selectSql,
+                    connectionHolder, List.of(new QueryParameter("id", i, Types.BIGINT)),
+                    jdbcValueBuilderById);
+            assertEquals("William", optional.get().getValue(0));
+        }
+
+        assertEquals(2, preparedStatementCache.getMisses());
+        assertEquals(4, preparedStatementCache.getHits());
+        assertEquals(2, preparedStatementCache.size());
+
+        // a statement in use is not shared
+        PreparedStatement ps1 = preparedStatementCache.acquire(connection, selectSql);
+        PreparedStatement ps2 = preparedStatementCache.acquire(connection, selectSql);
+        Assertions.assertNotSame(ps1, ps2);
+        preparedStatementCache.release(selectSql, ps2);
+        preparedStatementCache.release(selectSql, ps1);
+        assertTrue(ps2.isClosed());
+        Assertions.assertFalse(ps1.isClosed());
+
+        // the least recently used statement is evicted
+        jdbcRunner.delete("delete from citizen", connectionHolder, Collections.emptyList());
+        assertEquals(2, preparedStatementCache.size());
+        PreparedStatement insertPs = preparedStatementCache.acquire(connection, insertSql);
+        assertEquals(5, preparedStatementCache.getMisses());
+        insertPs.close();
+
+        // a failed statement is closed, it is not cached
+        long misses = preparedStatementCache.getMisses();
+        jdbcRunner.insert(connectionHolder, insertSql,
+                Arrays.asList(new QueryParameter("id", 1L, Types.BIGINT),
+                        new QueryParameter("first_name", "William", Types.VARCHAR),
+                        new QueryParameter("last_name", "Shakespeare", Types.VARCHAR)));
+        Assertions.assertThrows(SQLException.class, () -> jdbcRunner.insert(connectionHolder, insertSql,
+                Arrays.asList(new QueryParameter("id", 1L, Types.BIGINT),
+                        new QueryParameter("first_name", "William", Types.VARCHAR),
+                        new QueryParameter("last_name", "Shakespeare", Types.VARCHAR))));
+        jdbcRunner.insert(connectionHolder, insertSql,
+                Arrays.asList(new QueryParameter("id", 2L, Types.BIGINT),
+                        new QueryParameter("first_name", "William", Types.VARCHAR),
+                        new QueryParameter("last_name", "Shakespeare", Types.VARCHAR)));
+        assertEquals(misses + 2, preparedStatementCache.getMisses());
+
+        // the parameters of a cached statement are cleared
+        insertPs = preparedStatementCache.acquire(connection, insertSql);
+        assertEquals(misses + 2, preparedStatementCache.getMisses());
+        Assertions.assertThrows(SQLException.class, insertPs::execute);
+        insertPs.close();
+
+        connectionHolder.commit();
+        scriptRunner.runDDLStatements(List.of("drop table citizen"), connection);
+        connectionHolder.closeConnection();
+        assertEquals(0, preparedStatementCache.size());
+        assertTrue(ps1.isClosed());
+    }
+
     @Test
     public void insertReturnGeneratedKeys() throws Exception {
         ConnectionProvider connectionProvider = new LocalConnectionProvider(properties.get("url"),
@@ -145,11 +374,11 @@ public class JdbcRunnerTest {
         FetchParameter edFp = new BasicFetchParameter("expiry_date", Types.DATE);
 
         jdbcValueBuilderById.setFetchParameters(List.of(edFp));
-        Optional<?> optional = jdbcRunner.findById(sqlStatementGenerator.export(sqlSelect), connection,
+        Optional<?> optional = jdbcRunner.findById(sqlStatementGenerator.export(sqlSelect), connectionHolder,
                 List.of(qp1), jdbcValueBuilderById);
-        ModelValueArray<FetchParameter> modelValueArray = (ModelValueArray<FetchParameter>) optional.get();
+        FetchRow fetchRow = (FetchRow) optional.get();
 
-        java.sql.Date d = (java.sql.Date) modelValueArray.getValue(0);
+        java.sql.Date d = (java.sql.Date) fetchRow.getValue(0);
         Assertions.assertEquals(d, date);
         connectionHolder.commit();
         scriptRunner.runDDLStatements(List.of("drop table account"), connection);
@@ -185,7 +414,7 @@ public class JdbcRunnerTest {
                 Arrays.asList(idColumn, nameColumn, lastNameColumn), false,
                 false, null);
 
-        jdbcRunner.insert(connection, sqlStatementGenerator.export(sqlInsert),
+        jdbcRunner.insert(connectionHolder, sqlStatementGenerator.export(sqlInsert),
                 Arrays.asList(qp1, qp2, qp3));
 
         List<Value> values = List.of(
@@ -201,27 +430,27 @@ public class JdbcRunnerTest {
         List<Object> collectionResult = new ArrayList<>();
         jdbcRecordBuilderValue.setFetchParameters(fetchParameters);
         jdbcRecordBuilderValue.setCollectionResult(collectionResult);
-        jdbcRunner.runQuery(connection, sql, new ArrayList<>(), jdbcRecordBuilderValue);
+        jdbcRunner.runQuery(connectionHolder, sql, new ArrayList<>(), jdbcRecordBuilderValue);
         Assertions.assertEquals(1, collectionResult.size());
         Assertions.assertEquals("William Shakespeare", collectionResult.get(0));
 
         qp1 = new QueryParameter("id", 2L, Types.BIGINT);
         qp2 = new QueryParameter("first_name", "Robert Louis", Types.VARCHAR);
         qp3 = new QueryParameter("last_name", "Stevenson", Types.VARCHAR);
-        jdbcRunner.insert(connection, sqlStatementGenerator.export(sqlInsert),
+        jdbcRunner.insert(connectionHolder, sqlStatementGenerator.export(sqlInsert),
                 Arrays.asList(qp1, qp2, qp3));
         collectionResult.clear();
-        jdbcRunner.runQuery(connection, sql, new ArrayList<>(), jdbcRecordBuilderValue);
+        jdbcRunner.runQuery(connectionHolder, sql, new ArrayList<>(), jdbcRecordBuilderValue);
         Assertions.assertEquals(2, collectionResult.size());
         Assertions.assertEquals("Robert Louis Stevenson", collectionResult.get(0));
         Assertions.assertEquals("William Shakespeare", collectionResult.get(1));
 
-        jdbcRunner.delete("delete from citizen", connection, Collections.emptyList());
+        jdbcRunner.delete("delete from citizen", connectionHolder, Collections.emptyList());
         connectionHolder.commit();
 
         jdbcValueBuilderById.setFetchParameters(fetchParameters);
         Optional<?> optional = jdbcRunner.findById(
-                "select id,first_name,last_name from citizen where id=?", connection,
+                "select id,first_name,last_name from citizen where id=?", connectionHolder,
                 List.of(qp1), jdbcValueBuilderById);
         Assertions.assertTrue(optional.isEmpty());
         scriptRunner.runDDLStatements(List.of("drop table citizen"), connection);
@@ -260,7 +489,7 @@ public class JdbcRunnerTest {
         QueryParameter qp1 = new QueryParameter("id", 1L, Types.BIGINT);
         QueryParameter qp2 = new QueryParameter("user_account", "user1", Types.VARCHAR);
         QueryParameter qp3 = new QueryParameter("expiry_date", date, Types.DATE);
-        jdbcRunner.insert(connection, sqlStatementGenerator.export(sqlInsert),
+        jdbcRunner.insert(connectionHolder, sqlStatementGenerator.export(sqlInsert),
                 Arrays.asList(qp1, qp2, qp3));
 
         BinaryCondition binaryCondition = new BinaryCondition.Builder(ConditionType.EQUAL)
@@ -270,7 +499,7 @@ public class JdbcRunnerTest {
                 binaryCondition);
         java.sql.Date date2 = java.sql.Date.valueOf(LocalDate.of(2022, 3, 5));
         QueryParameter edQp = new QueryParameter("expiry_date", date2, Types.DATE);
-        jdbcRunner.update(connection, sqlStatementGenerator.export(sqlUpdate), List.of(edQp));
+        jdbcRunner.update(connectionHolder, sqlStatementGenerator.export(sqlUpdate), List.of(edQp));
 
         List<Value> values = List.of(new TableColumn(fromTable, expiryDateColumn));
         binaryCondition = new BinaryCondition.Builder(ConditionType.EQUAL)
@@ -280,10 +509,10 @@ public class JdbcRunnerTest {
                 .withConditions(conditions).build();
         FetchParameter edFp = new BasicFetchParameter("expiry_date", Types.DATE);
         jdbcValueBuilderById.setFetchParameters(List.of(edFp));
-        Optional<?> optional = jdbcRunner.findById(sqlStatementGenerator.export(sqlSelect), connection,
+        Optional<?> optional = jdbcRunner.findById(sqlStatementGenerator.export(sqlSelect), connectionHolder,
                 List.of(qp1), jdbcValueBuilderById);
-        ModelValueArray<FetchParameter> modelValueArray = (ModelValueArray<FetchParameter>) optional.get();
-        java.sql.Date d = (java.sql.Date) modelValueArray.getValue(0);
+        FetchRow fetchRow = (FetchRow) optional.get();
+        java.sql.Date d = (java.sql.Date) fetchRow.getValue(0);
         Assertions.assertEquals(d, date2);
         connectionHolder.commit();
         scriptRunner.runDDLStatements(List.of("drop table account"), connection);
@@ -314,7 +543,7 @@ public class JdbcRunnerTest {
         String seqStm = sqlStatementGenerator.sequenceNextValueStatement(null,
                 "citizen_seq");
 
-        Long nextValue = jdbcRunner.generateNextSequenceValue(connection, seqStm);
+        Long nextValue = jdbcRunner.generateNextSequenceValue(connectionHolder, seqStm);
         assertEquals(1, nextValue);
 
         SqlDropSequence sqlDropSequence = new SqlDropSequence();
@@ -353,7 +582,7 @@ public class JdbcRunnerTest {
         QueryParameter qp1 = new QueryParameter("id", 1L, Types.BIGINT);
         QueryParameter qp2 = new QueryParameter("first_name", "William", Types.VARCHAR);
         QueryParameter qp3 = new QueryParameter("last_name", "Shakespeare", Types.VARCHAR);
-        jdbcRunner.insert(connection, sqlStatementGenerator.export(sqlInsert),
+        jdbcRunner.insert(connectionHolder, sqlStatementGenerator.export(sqlInsert),
                 Arrays.asList(qp1, qp2, qp3));
 
         List<Value> values = Arrays.asList(new TableColumn(fromTable, idColumn),
@@ -367,7 +596,7 @@ public class JdbcRunnerTest {
 
         List<Object> collection = new ArrayList<>();
         nativeRecordBuilder.setCollection(collection);
-        jdbcRunner.runNativeQuery(connection, sqlStatementGenerator.export(sqlSelect),
+        jdbcRunner.runNativeQuery(connectionHolder, sqlStatementGenerator.export(sqlSelect),
                 List.of(1L),
                 nativeRecordBuilder);
 
@@ -447,7 +676,7 @@ public class JdbcRunnerTest {
         QueryParameter qp5 = new QueryParameter("double_value", doubleValue, Types.DOUBLE);
         QueryParameter qp6 = new QueryParameter("time_value", time, Types.TIME);
         QueryParameter qp7 = new QueryParameter("timestamp_value", timestamp, Types.TIMESTAMP);
-        jdbcRunner.insert(connection, sqlStatementGenerator.export(sqlInsert),
+        jdbcRunner.insert(connectionHolder, sqlStatementGenerator.export(sqlInsert),
                 Arrays.asList(qp1, qp2, qp3, qp4, qp5, qp6, qp7));
 
         List<Value> values = Arrays.asList(new TableColumn(fromTable, idColumn),
@@ -464,7 +693,7 @@ public class JdbcRunnerTest {
 
         List<Object> collection = new ArrayList<>();
         nativeRecordBuilder.setCollection(collection);
-        jdbcRunner.runNativeQuery(connection, sqlStatementGenerator.export(sqlSelect),
+        jdbcRunner.runNativeQuery(connectionHolder, sqlStatementGenerator.export(sqlSelect),
                 List.of(1L),
                 nativeRecordBuilder);
 
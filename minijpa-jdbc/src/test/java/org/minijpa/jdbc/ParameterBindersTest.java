@@ -0,0 +1,42 @@
+package org.minijpa.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+public class ParameterBindersTest {
+    @Test
+    public void forType() {
+        assertSame(ParameterBinders.STRING, ParameterBinders.forType(String.class));
+        assertSame(ParameterBinders.INTEGER, ParameterBinders.forType(Integer.class));
+        assertSame(ParameterBinders.INTEGER, ParameterBinders.forType(int.class));
+        assertSame(ParameterBinders.LONG, ParameterBinders.forType(Long.class));
+        assertSame(ParameterBinders.LONG, ParameterBinders.forType(long.class));
+        assertSame(ParameterBinders.FLOAT, ParameterBinders.forType(Float.class));
+        assertSame(ParameterBinders.DOUBLE, ParameterBinders.forType(Double.class));
+        assertSame(ParameterBinders.BIG_DECIMAL, ParameterBinders.forType(BigDecimal.class));
+        assertSame(ParameterBinders.BOOLEAN, ParameterBinders.forType(Boolean.class));
+        assertSame(ParameterBinders.CHARACTER, ParameterBinders.forType(Character.class));
+        assertSame(ParameterBinders.SQL_DATE, ParameterBinders.forType(Date.class));
+        assertSame(ParameterBinders.LOCAL_DATE, ParameterBinders.forType(LocalDate.class));
+        assertSame(ParameterBinders.TIMESTAMP, ParameterBinders.forType(Timestamp.class));
+        assertSame(ParameterBinders.TIME, ParameterBinders.forType(Time.class));
+        assertSame(ParameterBinders.GENERIC, ParameterBinders.forType(Object.class));
+        assertSame(ParameterBinders.GENERIC, ParameterBinders.forType(null));
+    }
+
+    @Test
+    public void queryParameter() {
+        assertSame(ParameterBinders.GENERIC, new QueryParameter("id", 1L, null).getParameterBinder());
+        QueryParameter queryParameter = new QueryParameter("id", 1L, null, null, ParameterBinders.LONG);
+        assertSame(ParameterBinders.LONG, queryParameter.getParameterBinder());
+        assertEquals(1L, queryParameter.getValue());
+    }
+}
@@ -13,6 +13,7 @@
  */
 package org.minijpa.sql.model;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -38,6 +39,16 @@ public class ApacheDerbySqlStatementGenerator extends DefaultSqlStatementGenerat
         return "for update with rs";
     }
 
+    @Override
+    protected String limitOffsetClause(String limit, String offset) {
+        return offsetFetchClause(limit, offset);
+    }
+
+    @Override
+    public List<Integer> limitOffsetParameterValues(Integer limit, Integer offset) {
+        return offsetFetchParameterValues(limit, offset);
+    }
+
     @Override
     public String buildColumnDefinition(Class<?> type, JdbcDDLData ddlData) {
         if (type == Double.class || (type.isPrimitive() && type.getName().equals("double")))
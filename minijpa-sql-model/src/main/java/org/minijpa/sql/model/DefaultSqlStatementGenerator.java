@@ -799,6 +799,17 @@ public abstract class DefaultSqlStatementGenerator implements SqlStatementGenera
             sb.append(s);
         }
 
+        if (sqlSelect.getLimit() != null || sqlSelect.getOffset() != null) {
+            String limitOffset = sqlSelect.isLimitOffsetParameters()
+                    ? limitOffsetClause(sqlSelect.getLimit() != null ? "?" : null,
+                    sqlSelect.getOffset() != null && sqlSelect.getOffset() > 0 ? "?" : null)
+                    : limitOffsetClause(sqlSelect.getLimit(), sqlSelect.getOffset());
+            if (!limitOffset.isEmpty()) {
+                sb.append(" ");
+                sb.append(limitOffset);
+            }
+        }
+
         if (sqlSelect.getForUpdate() != null) {
             String forUpdate = forUpdateClause(sqlSelect.getForUpdate());
             if (forUpdate != null && !forUpdate.isEmpty()) {
@@ -810,6 +821,97 @@ public abstract class DefaultSqlStatementGenerator implements SqlStatementGenera
         return sb.toString();
     }
 
+    @Override
+    public String limitOffsetClause(Integer limit, Integer offset) {
+        return limitOffsetClause(limit != null ? limit.toString() : null,
+                offset != null && offset > 0 ? offset.toString() : null);
+    }
+
+    @Override
+    public List<Integer> limitOffsetParameterValues(Integer limit, Integer offset) {
+        List<Integer> values = new ArrayList<>();
+        if (limit != null)
+            values.add(limit);
+
+        if (offset != null && offset > 0)
+            values.add(offset);
+
+        return values;
+    }
+
+    /**
+     * Builds the pagination clause.
+     *
+     * @param limit  the limit literal or placeholder, <code>null</code> if not limited
+     * @param offset the offset literal or placeholder, <code>null</code> if no rows are skipped
+     * @return the pagination clause
+     */
+    protected String limitOffsetClause(String limit, String offset) {
+        StringBuilder sb = new StringBuilder();
+        if (limit != null) {
+            sb.append("limit ");
+            sb.append(limit);
+        }
+
+        if (offset != null) {
+            if (sb.length() > 0)
+                sb.append(" ");
+
+            sb.append("offset ");
+            sb.append(offset);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Builds the ANSI pagination clause, <code>offset ... rows fetch first|next ... rows only</code>, for the
+     * dialects that don't support <code>limit</code>.
+     *
+     * @param limit  the limit literal or placeholder, <code>null</code> if not limited
+     * @param offset the offset literal or placeholder, <code>null</code> if no rows are skipped
+     * @return the pagination clause
+     */
+    protected String offsetFetchClause(String limit, String offset) {
+        StringBuilder sb = new StringBuilder();
+        if (offset != null) {
+            sb.append("offset ");
+            sb.append(offset);
+            sb.append(" rows");
+        }
+
+        if (limit != null) {
+            if (sb.length() > 0)
+                sb.append(" fetch next ");
+            else
+                sb.append("fetch first ");
+
+            sb.append(limit);
+            sb.append(" rows only");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns the values to bind to the placeholders of {@link #offsetFetchClause(String, String)}, the offset
+     * comes first.
+     *
+     * @param limit  the maximum number of rows, <code>null</code> if not limited
+     * @param offset the number of rows to skip, <code>null</code> if no rows are skipped
+     * @return the values to bind
+     */
+    protected List<Integer> offsetFetchParameterValues(Integer limit, Integer offset) {
+        List<Integer> values = new ArrayList<>();
+        if (offset != null && offset > 0)
+            values.add(offset);
+
+        if (limit != null)
+            values.add(limit);
+
+        return values;
+    }
+
     protected String getOperator(ConditionType conditionType) {
         switch (conditionType) {
             case EQUAL:
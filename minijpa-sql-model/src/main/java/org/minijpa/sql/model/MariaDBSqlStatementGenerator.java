@@ -52,6 +52,15 @@ public class MariaDBSqlStatementGenerator extends DefaultSqlStatementGenerator {
         return "for update";
     }
 
+    @Override
+    protected String limitOffsetClause(String limit, String offset) {
+        // an offset requires a limit
+        if (limit == null && offset != null)
+            return "limit 18446744073709551615 offset " + offset;
+
+        return super.limitOffsetClause(limit, offset);
+    }
+
     private String buildPkDeclaration(SqlPk pk) {
         if (pk.isIdentityColumn()) {
             return buildAttributeDeclaration(pk.getColumn()) + " AUTO_INCREMENT";
@@ -46,6 +46,15 @@ public class MySQLSqlStatementGenerator extends DefaultSqlStatementGenerator {
         return "for update";
     }
 
+    @Override
+    protected String limitOffsetClause(String limit, String offset) {
+        // an offset requires a limit
+        if (limit == null && offset != null)
+            return "limit 18446744073709551615 offset " + offset;
+
+        return super.limitOffsetClause(limit, offset);
+    }
+
     @Override
     public String buildColumnDefinition(Class<?> type, JdbcDDLData ddlData) {
         if (type == Timestamp.class || type == Calendar.class || type == LocalDateTime.class || type == Instant.class
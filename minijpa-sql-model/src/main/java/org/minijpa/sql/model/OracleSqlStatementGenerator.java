@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.Time;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -46,11 +47,30 @@ public class OracleSqlStatementGenerator extends DefaultSqlStatementGenerator {
         return "select " + optionalSchema + "." + sequenceName + ".nextval from dual";
     }
 
+    @Override
+    public String export(SqlSelect sqlSelect) {
+        if (sqlSelect.getForUpdate() != null && (sqlSelect.getLimit() != null
+                || (sqlSelect.getOffset() != null && sqlSelect.getOffset() > 0)))
+            throw new IllegalArgumentException("Oracle doesn't support 'for update' with the offset and fetch clauses");
+
+        return super.export(sqlSelect);
+    }
+
     @Override
     public String forUpdateClause(ForUpdate forUpdate) {
         return "for update";
     }
 
+    @Override
+    protected String limitOffsetClause(String limit, String offset) {
+        return offsetFetchClause(limit, offset);
+    }
+
+    @Override
+    public List<Integer> limitOffsetParameterValues(Integer limit, Integer offset) {
+        return offsetFetchParameterValues(limit, offset);
+    }
+
     @Override
     public String buildColumnDefinition(Class<?> type, JdbcDDLData ddlData) {
         if (type == Long.class || (type.isPrimitive() && type.getName().equals("long")))
@@ -28,6 +28,9 @@ public class SqlSelect implements SqlStatement {
     private List<OrderBy> orderByList;
     private boolean distinct = false;
     private ForUpdate forUpdate;
+    private Integer limit;
+    private Integer offset;
+    private boolean limitOffsetParameters = false;
 
     public SqlSelect() {
     }
@@ -64,6 +67,23 @@ public class SqlSelect implements SqlStatement {
         return forUpdate;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public Integer getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns true if the limit and the offset are bound as parameters instead of being rendered as literals.
+     *
+     * @return true if the limit and the offset are parameters
+     */
+    public boolean isLimitOffsetParameters() {
+        return limitOffsetParameters;
+    }
+
     @Override
     public StatementType getType() {
         return StatementType.SELECT;
@@ -101,5 +121,17 @@ public class SqlSelect implements SqlStatement {
         this.forUpdate = optionalForUpdate;
     }
 
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    public void setLimitOffsetParameters(boolean limitOffsetParameters) {
+        this.limitOffsetParameters = limitOffsetParameters;
+    }
+
 
 }
@@ -17,6 +17,9 @@ public class SqlSelectBuilder {
     private List<OrderBy> orderByList;
     private boolean distinct = false;
     private ForUpdate optionalForUpdate;
+    private Integer limit;
+    private Integer offset;
+    private boolean limitOffsetParameters = false;
 
     public SqlSelectBuilder() {
         super();
@@ -63,6 +66,21 @@ public class SqlSelectBuilder {
         return this;
     }
 
+    public SqlSelectBuilder withLimit(Integer limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    public SqlSelectBuilder withOffset(Integer offset) {
+        this.offset = offset;
+        return this;
+    }
+
+    public SqlSelectBuilder withLimitOffsetParameters(boolean limitOffsetParameters) {
+        this.limitOffsetParameters = limitOffsetParameters;
+        return this;
+    }
+
     protected void build(SqlSelect sqlSelect) {
         sqlSelect.setFrom(fromTables);
 
@@ -79,6 +97,9 @@ public class SqlSelectBuilder {
         sqlSelect.setResult(result);
         sqlSelect.setDistinct(distinct);
         sqlSelect.setForUpdate(optionalForUpdate);
+        sqlSelect.setLimit(limit);
+        sqlSelect.setOffset(offset);
+        sqlSelect.setLimitOffsetParameters(limitOffsetParameters);
     }
 
     public SqlSelect build() {
@@ -75,6 +75,25 @@ public interface SqlStatementGenerator {
 
     String forUpdateClause(ForUpdate forUpdate);
 
+    /**
+     * Returns the clause that restricts the rows returned by a select statement.
+     *
+     * @param limit  the maximum number of rows, <code>null</code> if not limited
+     * @param offset the number of rows to skip, <code>null</code> if no rows are skipped
+     * @return the pagination clause, an empty string if there is nothing to restrict
+     */
+    String limitOffsetClause(Integer limit, Integer offset);
+
+    /**
+     * Returns the limit and offset values to bind, in the order of their placeholders, when a select binds them
+     * as parameters.
+     *
+     * @param limit  the maximum number of rows, <code>null</code> if not limited
+     * @param offset the number of rows to skip, <code>null</code> if no rows are skipped
+     * @return the values to bind
+     */
+    List<Integer> limitOffsetParameterValues(Integer limit, Integer offset);
+
     default int getDefaultPrecision() {
         return 19;
     }
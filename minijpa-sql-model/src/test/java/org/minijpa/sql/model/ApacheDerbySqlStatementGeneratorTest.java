@@ -713,4 +713,24 @@ public class ApacheDerbySqlStatementGeneratorTest {
                 sqlStatementGenerator.export(sqlSelect));
     }
 
+    @Test
+    public void limitOffset() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        OrderBy orderBy = new OrderBy(new TableColumn(fromTable, new Column("id")), OrderByType.ASC);
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC offset 10 rows fetch next 5 rows only",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC fetch first 5 rows only",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC offset 10 rows",
+                sqlStatementGenerator.export(sqlSelect));
+    }
 }
@@ -89,4 +89,46 @@ public class OracleSqlStatementGeneratorTest {
                 sqlStatementGenerator.export(sqlSelect));
     }
 
+    @Test
+    public void limitOffset() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        OrderBy orderBy = new OrderBy(new TableColumn(fromTable, new Column("id")), OrderByType.ASC);
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen c order by c.id ASC offset 10 rows fetch next 5 rows only",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).build();
+        Assertions.assertEquals("select c.id from citizen c order by c.id ASC fetch first 5 rows only",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen c order by c.id ASC offset 10 rows",
+                sqlStatementGenerator.export(sqlSelect));
+    }
+
+    @Test
+    public void limitOffsetParameters() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        OrderBy orderBy = new OrderBy(new TableColumn(fromTable, new Column("id")), OrderByType.ASC);
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).withOffset(10).withLimitOffsetParameters(true).build();
+        Assertions.assertEquals(
+                "select c.id from citizen c order by c.id ASC offset ? rows fetch next ? rows only",
+                sqlStatementGenerator.export(sqlSelect));
+        Assertions.assertEquals(List.of(10, 5), sqlStatementGenerator.limitOffsetParameterValues(5, 10));
+    }
+
+    @Test
+    public void forUpdateLimit() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withForUpdate(new ForUpdate()).withLimit(5).build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> sqlStatementGenerator.export(sqlSelect));
+    }
 }
@@ -117,4 +117,37 @@ public class PostgresSqlStatementGeneratorTest {
                 sqlStatementGenerator.export(sqlSelect));
     }
 
+    @Test
+    public void limitOffset() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        OrderBy orderBy = new OrderBy(new TableColumn(fromTable, new Column("id")), OrderByType.ASC);
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC limit 5 offset 10",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC limit 5",
+                sqlStatementGenerator.export(sqlSelect));
+
+        sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withOffset(10).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC offset 10",
+                sqlStatementGenerator.export(sqlSelect));
+    }
+
+    @Test
+    public void limitOffsetParameters() {
+        FromTable fromTable = new FromTableImpl("citizen", "c");
+        List<Value> values = List.of(new TableColumn(fromTable, new Column("id")));
+        OrderBy orderBy = new OrderBy(new TableColumn(fromTable, new Column("id")), OrderByType.ASC);
+        SqlSelect sqlSelect = new SqlSelectBuilder().withFromTable(fromTable).withValues(values)
+                .withOrderBy(List.of(orderBy)).withLimit(5).withOffset(10).withLimitOffsetParameters(true).build();
+        Assertions.assertEquals("select c.id from citizen AS c order by c.id ASC limit ? offset ?",
+                sqlStatementGenerator.export(sqlSelect));
+        Assertions.assertEquals(List.of(5, 10), sqlStatementGenerator.limitOffsetParameterValues(5, 10));
+        Assertions.assertEquals(List.of(5), sqlStatementGenerator.limitOffsetParameterValues(5, 0));
+    }
 }